@@ -0,0 +1,94 @@
+/*
+ * Copyright 2026 Red Hat, Inc. and/or its affiliates
+ * and other contributors as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.passport.benchmark;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.passport.Config;
+
+/**
+ * Configuration of the embedded benchmark server. Defaults are given in code and can be overridden with
+ * system properties of the form {@code passport.<spi>.<provider>.<property>}, e.g. to run against another database.
+ */
+public class BenchmarkConfig implements Config.ConfigProvider {
+
+    private final Map<String, String> properties = new HashMap<>();
+
+    public BenchmarkConfig set(String key, String value) {
+        properties.put(key, value);
+        return this;
+    }
+
+    @Override
+    public String getProvider(String spi) {
+        return get(spi + ".provider");
+    }
+
+    @Override
+    public String getDefaultProvider(String spi) {
+        return get(spi + ".provider.default");
+    }
+
+    @Override
+    public Config.Scope scope(String... scope) {
+        return new MapScope(String.join(".", scope) + ".");
+    }
+
+    private String get(String key) {
+        String value = System.getProperty("passport." + key);
+        if (value == null || value.isEmpty()) {
+            value = properties.get(key);
+        }
+        return value != null && !value.isEmpty() ? value : null;
+    }
+
+    private class MapScope extends Config.AbstractScope {
+
+        private final String prefix;
+
+        private MapScope(String prefix) {
+            this.prefix = prefix;
+        }
+
+        @Override
+        public String get(String key) {
+            return BenchmarkConfig.this.get(prefix + key);
+        }
+
+        @Override
+        public Config.Scope scope(String... scope) {
+            return new MapScope(prefix + String.join(".", scope) + ".");
+        }
+
+        @Override
+        public Set<String> getPropertyNames() {
+            return properties.keySet().stream()
+                    .filter(key -> key.startsWith(prefix))
+                    .map(key -> key.substring(prefix.length()))
+                    .collect(Collectors.toSet());
+        }
+
+        @Override
+        public Config.Scope root() {
+            return new MapScope("");
+        }
+    }
+}
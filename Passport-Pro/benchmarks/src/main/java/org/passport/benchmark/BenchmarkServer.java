@@ -0,0 +1,88 @@
+/*
+ * Copyright 2026 Red Hat, Inc. and/or its affiliates
+ * and other contributors as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.passport.benchmark;
+
+import java.util.UUID;
+
+import org.passport.common.Profile;
+import org.passport.common.crypto.CryptoIntegration;
+import org.passport.common.profile.PropertiesProfileConfigResolver;
+import org.passport.models.PassportSessionFactory;
+import org.passport.models.utils.PassportModelUtils;
+import org.passport.models.utils.PostMigrationEvent;
+import org.passport.services.managers.ApplianceBootstrap;
+
+/**
+ * Embedded server for the benchmarks: JPA on an in-memory H2 database and local Infinispan caches,
+ * without an HTTP layer. Everything else is the regular provider set found on the classpath.
+ */
+public class BenchmarkServer implements AutoCloseable {
+
+    private final BenchmarkSessionFactory factory;
+
+    private BenchmarkServer(BenchmarkSessionFactory factory) {
+        this.factory = factory;
+    }
+
+    public static BenchmarkServer start() {
+        org.passport.Config.init(defaultConfig());
+        Profile.configure(new PropertiesProfileConfigResolver(System.getProperties()));
+        CryptoIntegration.init(BenchmarkServer.class.getClassLoader());
+
+        BenchmarkSessionFactory factory = new BenchmarkSessionFactory();
+        try {
+            factory.init();
+            factory.publish(new PostMigrationEvent(factory));
+            PassportModelUtils.runJobInTransaction(factory, session -> new ApplianceBootstrap(session).createMasterRealm());
+        } catch (RuntimeException e) {
+            factory.close();
+            throw e;
+        }
+        return new BenchmarkServer(factory);
+    }
+
+    private static BenchmarkConfig defaultConfig() {
+        return new BenchmarkConfig()
+                // A database per server, so trials running in the same JVM start from an empty database
+                .set("connectionsJpa.default.url", "jdbc:h2:mem:passport-benchmark-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1")
+                .set("connectionsJpa.default.driver", "org.h2.Driver")
+                .set("connectionsJpa.default.user", "sa")
+                .set("connectionsJpa.default.password", "")
+                .set("connectionsJpa.default.migrationStrategy", "update")
+                .set("connectionsInfinispan.default.usePassportTimeService", "true")
+                .set("cacheEmbedded.default.configFile", "benchmark-ispn.xml")
+                .set("client.provider", "jpa")
+                .set("clientScope.provider", "jpa")
+                .set("group.provider", "jpa")
+                .set("idp.provider", "jpa")
+                .set("role.provider", "jpa")
+                .set("user.provider", "jpa")
+                .set("realm.provider", "jpa")
+                .set("deploymentState.provider", "jpa")
+                .set("dblock.provider", "jpa");
+    }
+
+    public PassportSessionFactory getSessionFactory() {
+        return factory;
+    }
+
+    @Override
+    public void close() {
+        factory.close();
+    }
+}
@@ -0,0 +1,176 @@
+/*
+ * Copyright 2026 Red Hat, Inc. and/or its affiliates
+ * and other contributors as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.passport.benchmark;
+
+import java.net.URI;
+import java.security.cert.X509Certificate;
+
+import jakarta.ws.rs.core.HttpHeaders;
+import jakarta.ws.rs.core.MultivaluedHashMap;
+import jakarta.ws.rs.core.MultivaluedMap;
+import jakarta.ws.rs.core.NewCookie;
+import jakarta.ws.rs.core.UriInfo;
+
+import org.passport.common.ClientConnection;
+import org.passport.http.FormPartValue;
+import org.passport.http.HttpRequest;
+import org.passport.http.HttpResponse;
+import org.passport.models.PassportSession;
+import org.passport.services.DefaultPassportContext;
+import org.passport.services.DefaultPassportSession;
+import org.passport.services.DefaultPassportSessionFactory;
+
+import org.jboss.resteasy.specimpl.ResteasyHttpHeaders;
+import org.jboss.resteasy.specimpl.ResteasyUriInfo;
+
+/**
+ * Session factory of the embedded benchmark server. Sessions are not bound to an HTTP request, they see a
+ * fixed request to {@link #BASE_URI} so that issuer and audience URLs resolve as they would in the server.
+ */
+public class BenchmarkSessionFactory extends DefaultPassportSessionFactory {
+
+    public static final URI BASE_URI = URI.create("http://localhost:8080/");
+
+    @Override
+    public PassportSession create() {
+        return new DefaultPassportSession(this) {
+            @Override
+            protected DefaultPassportContext createPassportContext(PassportSession session) {
+                return new BenchmarkContext(session);
+            }
+        };
+    }
+
+    private static class BenchmarkContext extends DefaultPassportContext {
+
+        BenchmarkContext(PassportSession session) {
+            super(session);
+        }
+
+        @Override
+        protected HttpRequest createHttpRequest() {
+            return new BenchmarkHttpRequest();
+        }
+
+        @Override
+        protected ClientConnection createClientConnection() {
+            return new BenchmarkClientConnection();
+        }
+
+        @Override
+        protected HttpResponse createHttpResponse() {
+            return new BenchmarkHttpResponse();
+        }
+    }
+
+    private static class BenchmarkHttpRequest implements HttpRequest {
+
+        private final UriInfo uriInfo = new ResteasyUriInfo(BASE_URI.toString(), "");
+        private final HttpHeaders headers = new ResteasyHttpHeaders(new MultivaluedHashMap<>());
+
+        @Override
+        public String getHttpMethod() {
+            return "POST";
+        }
+
+        @Override
+        public MultivaluedMap<String, String> getDecodedFormParameters() {
+            return new MultivaluedHashMap<>();
+        }
+
+        @Override
+        public MultivaluedMap<String, FormPartValue> getMultiPartFormParameters() {
+            return new MultivaluedHashMap<>();
+        }
+
+        @Override
+        public HttpHeaders getHttpHeaders() {
+            return headers;
+        }
+
+        @Override
+        public X509Certificate[] getClientCertificateChain() {
+            return null;
+        }
+
+        @Override
+        public UriInfo getUri() {
+            return uriInfo;
+        }
+
+        @Override
+        public boolean isProxyTrusted() {
+            return true;
+        }
+    }
+
+    private static class BenchmarkClientConnection implements ClientConnection {
+
+        @Override
+        public String getRemoteAddr() {
+            return "127.0.0.1";
+        }
+
+        @Override
+        public String getRemoteHost() {
+            return "localhost";
+        }
+
+        @Override
+        public int getRemotePort() {
+            return 0;
+        }
+
+        @Override
+        public String getLocalAddr() {
+            return "127.0.0.1";
+        }
+
+        @Override
+        public int getLocalPort() {
+            return BASE_URI.getPort();
+        }
+    }
+
+    private static class BenchmarkHttpResponse implements HttpResponse {
+
+        private int status = 200;
+
+        @Override
+        public int getStatus() {
+            return status;
+        }
+
+        @Override
+        public void setStatus(int statusCode) {
+            this.status = statusCode;
+        }
+
+        @Override
+        public void addHeader(String name, String value) {
+        }
+
+        @Override
+        public void setHeader(String name, String value) {
+        }
+
+        @Override
+        public void setCookieIfAbsent(NewCookie cookie) {
+        }
+    }
+}
@@ -0,0 +1,199 @@
+/*
+ * Copyright 2026 Red Hat, Inc. and/or its affiliates
+ * and other contributors as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.passport.benchmark;
+
+import org.passport.OAuth2Constants;
+import org.passport.events.EventBuilder;
+import org.passport.models.AuthenticatedClientSessionModel;
+import org.passport.models.ClientModel;
+import org.passport.models.ClientScopeModel;
+import org.passport.models.PassportSession;
+import org.passport.models.RealmModel;
+import org.passport.models.RoleModel;
+import org.passport.models.UserModel;
+import org.passport.models.UserSessionModel;
+import org.passport.models.utils.PassportModelUtils;
+import org.passport.protocol.oidc.OIDCLoginProtocol;
+import org.passport.protocol.oidc.TokenManager;
+import org.passport.protocol.oidc.mappers.HardcodedClaim;
+import org.passport.representations.AccessTokenResponse;
+import org.passport.representations.idm.ClientRepresentation;
+import org.passport.services.managers.ClientManager;
+import org.passport.services.Urls;
+import org.passport.services.managers.RealmManager;
+import org.passport.services.util.DefaultClientSessionContext;
+
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * A realm with a confidential client and a user with an active user session, shaped by the benchmark parameters.
+ *
+ * <ul>
+ *     <li>{@code protocolMappers}: hardcoded claim mappers on the client, each adds a claim to all tokens</li>
+ *     <li>{@code roles}: realm roles granted to the user, all in the client's scope</li>
+ *     <li>{@code clientScopes}: default client scopes of the client, each with a hardcoded claim mapper</li>
+ * </ul>
+ *
+ * The realm also has the default client scopes and mappers of a new realm.
+ */
+@State(Scope.Benchmark)
+public class RealmFixture {
+
+    public static final String REALM_NAME = "benchmark";
+    public static final String CLIENT_ID = "benchmark-client";
+    public static final String USERNAME = "benchmark-user";
+
+    @Param({"0", "10", "50"})
+    public int protocolMappers;
+
+    @Param({"5", "100"})
+    public int roles;
+
+    @Param({"0", "10"})
+    public int clientScopes;
+
+    BenchmarkServer server;
+    String realmId;
+    String clientUuid;
+    String userSessionId;
+
+    // Tokens issued at setup, input of the refresh and introspection benchmarks
+    String refreshToken;
+    String accessToken;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        server = BenchmarkServer.start();
+        PassportModelUtils.runJobInTransaction(server.getSessionFactory(), this::createRealm);
+        PassportModelUtils.runJobInTransaction(server.getSessionFactory(), this::createUserSession);
+        AccessTokenResponse response = PassportModelUtils.runJobInTransactionWithResult(server.getSessionFactory(),
+                session -> issueTokens(session));
+        refreshToken = response.getRefreshToken();
+        accessToken = response.getToken();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        if (server != null) {
+            server.close();
+        }
+    }
+
+    private void createRealm(PassportSession session) {
+        RealmModel realm = new RealmManager(session).createRealm(REALM_NAME);
+        session.getContext().setRealm(realm);
+        realmId = realm.getId();
+
+        ClientRepresentation rep = new ClientRepresentation();
+        rep.setClientId(CLIENT_ID);
+        rep.setProtocol(OIDCLoginProtocol.LOGIN_PROTOCOL);
+        rep.setPublicClient(false);
+        rep.setSecret("secret");
+        rep.setStandardFlowEnabled(true);
+        rep.setFullScopeAllowed(true);
+        ClientModel client = ClientManager.createClient(session, realm, rep);
+        clientUuid = client.getId();
+
+        for (int i = 0; i < protocolMappers; i++) {
+            client.addProtocolMapper(HardcodedClaim.create("client-claim-" + i, "client_claim_" + i, "value-" + i,
+                    "String", true, true, true));
+        }
+
+        for (int i = 0; i < clientScopes; i++) {
+            ClientScopeModel clientScope = realm.addClientScope("benchmark-scope-" + i);
+            clientScope.setProtocol(OIDCLoginProtocol.LOGIN_PROTOCOL);
+            clientScope.setIncludeInTokenScope(true);
+            clientScope.addProtocolMapper(HardcodedClaim.create("scope-claim-" + i, "scope_claim_" + i, "value-" + i,
+                    "String", true, true, true));
+            client.addClientScope(clientScope, true);
+        }
+
+        UserModel user = session.users().addUser(realm, USERNAME);
+        user.setEnabled(true);
+        user.setEmail(USERNAME + "@localhost");
+        user.setFirstName("Benchmark");
+        user.setLastName("User");
+        for (int i = 0; i < roles; i++) {
+            RoleModel role = realm.addRole("benchmark-role-" + i);
+            user.grantRole(role);
+        }
+    }
+
+    private void createUserSession(PassportSession session) {
+        RealmModel realm = session.realms().getRealm(realmId);
+        session.getContext().setRealm(realm);
+        ClientModel client = realm.getClientById(clientUuid);
+        UserModel user = session.users().getUserByUsername(realm, USERNAME);
+
+        UserSessionModel userSession = session.sessions().createUserSession(null, realm, user, USERNAME, "127.0.0.1",
+                "form", false, null, null, UserSessionModel.SessionPersistenceState.PERSISTENT);
+        AuthenticatedClientSessionModel clientSession = session.sessions().createClientSession(realm, client, userSession);
+        clientSession.setProtocol(OIDCLoginProtocol.LOGIN_PROTOCOL);
+        clientSession.setNote(OAuth2Constants.SCOPE, OAuth2Constants.SCOPE_OPENID);
+        clientSession.setNote(OIDCLoginProtocol.ISSUER, Urls.realmIssuer(BenchmarkSessionFactory.BASE_URI, realm.getName()));
+        clientSession.setRedirectUri(BenchmarkSessionFactory.BASE_URI.toString());
+        userSessionId = userSession.getId();
+    }
+
+    /**
+     * Issues access, refresh and ID token for the fixture's user session, as the token endpoint does for a code exchange.
+     */
+    AccessTokenResponse issueTokens(PassportSession session) {
+        BoundSession bound = bind(session);
+        EventBuilder event = new EventBuilder(bound.realm, session, session.getContext().getConnection());
+        return new TokenManager().responseBuilder(bound.realm, bound.client, event, session, bound.userSession, bound.clientSessionCtx)
+                .generateAccessToken()
+                .generateRefreshToken()
+                .generateIDToken()
+                .build();
+    }
+
+    /**
+     * Loads the fixture's realm, client and user session into the given session, as a request to the realm would.
+     */
+    BoundSession bind(PassportSession session) {
+        RealmModel realm = session.realms().getRealm(realmId);
+        session.getContext().setRealm(realm);
+        ClientModel client = realm.getClientById(clientUuid);
+        session.getContext().setClient(client);
+        UserSessionModel userSession = session.sessions().getUserSession(realm, userSessionId);
+        session.getContext().setUserSession(userSession);
+        AuthenticatedClientSessionModel clientSession = userSession.getAuthenticatedClientSessionByClient(clientUuid);
+        return new BoundSession(realm, client, userSession, DefaultClientSessionContext.fromClientSessionScopeParameter(clientSession, session));
+    }
+
+    static class BoundSession {
+
+        final RealmModel realm;
+        final ClientModel client;
+        final UserSessionModel userSession;
+        final DefaultClientSessionContext clientSessionCtx;
+
+        BoundSession(RealmModel realm, ClientModel client, UserSessionModel userSession, DefaultClientSessionContext clientSessionCtx) {
+            this.realm = realm;
+            this.client = client;
+            this.userSession = userSession;
+            this.clientSessionCtx = clientSessionCtx;
+        }
+    }
+}
@@ -0,0 +1,117 @@
+/*
+ * Copyright 2026 Red Hat, Inc. and/or its affiliates
+ * and other contributors as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.passport.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.passport.OAuthErrorException;
+import org.passport.events.EventBuilder;
+import org.passport.models.PassportContext;
+import org.passport.models.PassportSessionFactory;
+import org.passport.models.PassportSessionTaskWithResult;
+import org.passport.models.utils.PassportModelUtils;
+import org.passport.protocol.oidc.TokenManager;
+import org.passport.representations.AccessToken;
+import org.passport.representations.AccessTokenResponse;
+import org.passport.representations.RefreshToken;
+import org.passport.services.Urls;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Hot paths of the token endpoint and token introspection, each invocation runs in its own session and
+ * transaction as a request would.
+ *
+ * Run with {@code java -jar benchmarks/target/benchmarks.jar TokenBenchmark -prof gc} to get the allocation rate.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+@Warmup(iterations = 3, time = 10)
+@Measurement(iterations = 5, time = 10)
+public class TokenBenchmark {
+
+    private static final TokenManager TOKEN_MANAGER = new TokenManager();
+
+    /**
+     * Access, refresh and ID token for an existing user session, as for an authorization code exchange.
+     */
+    @Benchmark
+    public AccessTokenResponse issueTokens(RealmFixture fixture) {
+        return inTransaction(fixture, fixture::issueTokens);
+    }
+
+    /**
+     * Refresh token grant, including the validation of the refresh token and its user session.
+     */
+    @Benchmark
+    public AccessTokenResponse refreshAccessToken(RealmFixture fixture) {
+        return inTransaction(fixture, session -> {
+            RealmFixture.BoundSession bound = fixture.bind(session);
+            PassportContext context = session.getContext();
+            EventBuilder event = new EventBuilder(bound.realm, session, context.getConnection());
+            try {
+                return TOKEN_MANAGER.refreshAccessToken(session, context.getUri(), context.getConnection(), bound.realm,
+                        bound.client, fixture.refreshToken, event, context.getRequestHeaders(), context.getHttpRequest(), null)
+                        .build();
+            } catch (OAuthErrorException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+    }
+
+    @Benchmark
+    public RefreshToken verifyRefreshToken(RealmFixture fixture) {
+        return inTransaction(fixture, session -> {
+            RealmFixture.BoundSession bound = fixture.bind(session);
+            try {
+                return TOKEN_MANAGER.verifyRefreshToken(session, bound.realm, bound.client,
+                        session.getContext().getHttpRequest(), fixture.refreshToken, true);
+            } catch (OAuthErrorException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+    }
+
+    /**
+     * Applies the protocol mappers of the client and its client scopes to a new access token.
+     */
+    @Benchmark
+    public AccessToken transformAccessToken(RealmFixture fixture) {
+        return inTransaction(fixture, session -> {
+            RealmFixture.BoundSession bound = fixture.bind(session);
+            AccessToken token = new AccessToken();
+            token.id(PassportModelUtils.generateId());
+            token.subject(bound.userSession.getUser().getId());
+            token.issuedFor(RealmFixture.CLIENT_ID);
+            token.issuer(Urls.realmIssuer(session.getContext().getUri().getBaseUri(), bound.realm.getName()));
+            return TOKEN_MANAGER.transformAccessToken(session, token, bound.userSession, bound.clientSessionCtx);
+        });
+    }
+
+    private static <V> V inTransaction(RealmFixture fixture, PassportSessionTaskWithResult<V> task) {
+        PassportSessionFactory factory = fixture.server.getSessionFactory();
+        return PassportModelUtils.runJobInTransactionWithResult(factory, task);
+    }
+}
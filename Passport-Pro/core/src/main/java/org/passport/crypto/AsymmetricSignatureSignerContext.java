@@ -48,10 +48,17 @@ public class AsymmetricSignatureSignerContext implements SignatureSignerContext
     @Override
     public byte[] sign(byte[] data) throws SignatureException {
         try {
-            Signature signature = Signature.getInstance(JavaAlgorithm.getJavaAlgorithm(key.getAlgorithmOrDefault(), key.getCurve()));
-            signature.initSign((PrivateKey) key.getPrivateKey());
+            String algorithm = JavaAlgorithm.getJavaAlgorithm(key.getAlgorithmOrDefault(), key.getCurve());
+            PrivateKey privateKey = (PrivateKey) key.getPrivateKey();
+            Signature signature = SignatureInstancePool.borrow(privateKey, algorithm, () -> {
+                Signature s = Signature.getInstance(algorithm);
+                s.initSign(privateKey);
+                return s;
+            });
             signature.update(data);
-            return signature.sign();
+            byte[] signed = signature.sign();
+            SignatureInstancePool.release(privateKey, algorithm, signature);
+            return signed;
         } catch (Exception e) {
             throw new SignatureException("Signing failed", e);
         }
@@ -45,19 +45,26 @@ public class AsymmetricSignatureVerifierContext implements SignatureVerifierCont
     @Override
     public boolean verify(byte[] data, byte[] signature) throws VerificationException {
         try {
-            Signature verifier = getSignature();
-            verifier.initVerify((PublicKey) key.getPublicKey());
+            String algorithm = JavaAlgorithm.getJavaAlgorithm(key.getAlgorithmOrDefault(), key.getCurve());
+            PublicKey publicKey = (PublicKey) key.getPublicKey();
+            Signature verifier = SignatureInstancePool.borrow(publicKey, algorithm, () -> {
+                Signature s = getSignature(algorithm);
+                s.initVerify(publicKey);
+                return s;
+            });
             verifier.update(data);
-            return verifier.verify(signature);
+            boolean verified = verifier.verify(signature);
+            SignatureInstancePool.release(publicKey, algorithm, verifier);
+            return verified;
         } catch (Exception e) {
             throw new VerificationException("Signing failed", e);
         }
     }
 
-    private Signature getSignature()
+    private Signature getSignature(String algorithm)
             throws NoSuchAlgorithmException, NoSuchProviderException {
         try {
-            return Signature.getInstance(JavaAlgorithm.getJavaAlgorithm(key.getAlgorithmOrDefault(), key.getCurve()));
+            return Signature.getInstance(algorithm);
         } catch (NoSuchAlgorithmException e) {
             // Retry using the current crypto provider's override implementation
             return CryptoIntegration.getProvider().getSignature(key.getAlgorithmOrDefault());
@@ -17,6 +17,7 @@
 package org.passport.crypto;
 
 import javax.crypto.Mac;
+import javax.crypto.SecretKey;
 
 public class MacSignatureSignerContext implements SignatureSignerContext {
 
@@ -44,10 +45,17 @@ public class MacSignatureSignerContext implements SignatureSignerContext {
     @Override
     public byte[] sign(byte[] data) throws SignatureException {
         try {
-            Mac mac = Mac.getInstance(JavaAlgorithm.getJavaAlgorithm(key.getAlgorithmOrDefault()));
-            mac.init(key.getSecretKey());
+            String algorithm = JavaAlgorithm.getJavaAlgorithm(key.getAlgorithmOrDefault());
+            SecretKey secretKey = key.getSecretKey();
+            Mac mac = SignatureInstancePool.borrow(secretKey, algorithm, () -> {
+                Mac m = Mac.getInstance(algorithm);
+                m.init(secretKey);
+                return m;
+            });
             mac.update(data);
-            return mac.doFinal();
+            byte[] signed = mac.doFinal();
+            SignatureInstancePool.release(secretKey, algorithm, mac);
+            return signed;
         } catch (Exception e) {
             throw new SignatureException("Signing failed", e);
         }
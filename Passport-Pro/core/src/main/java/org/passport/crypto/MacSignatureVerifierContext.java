@@ -18,6 +18,7 @@ package org.passport.crypto;
 
 import java.security.MessageDigest;
 import javax.crypto.Mac;
+import javax.crypto.SecretKey;
 
 import org.passport.common.VerificationException;
 
@@ -42,10 +43,16 @@ public class MacSignatureVerifierContext implements SignatureVerifierContext {
     @Override
     public boolean verify(byte[] data, byte[] signature) throws VerificationException {
         try {
-            Mac mac = Mac.getInstance(JavaAlgorithm.getJavaAlgorithm(key.getAlgorithmOrDefault()));
-            mac.init(key.getSecretKey());
+            String algorithm = JavaAlgorithm.getJavaAlgorithm(key.getAlgorithmOrDefault());
+            SecretKey secretKey = key.getSecretKey();
+            Mac mac = SignatureInstancePool.borrow(secretKey, algorithm, () -> {
+                Mac m = Mac.getInstance(algorithm);
+                m.init(secretKey);
+                return m;
+            });
             mac.update(data);
             byte[] verificationSignature = mac.doFinal();
+            SignatureInstancePool.release(secretKey, algorithm, mac);
             return MessageDigest.isEqual(verificationSignature, signature);
         } catch (Exception e) {
             throw new VerificationException("Signing failed", e);
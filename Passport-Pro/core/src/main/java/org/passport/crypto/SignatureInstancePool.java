@@ -0,0 +1,184 @@
+/*
+ * Copyright 2026 Red Hat, Inc. and/or its affiliates
+ * and other contributors as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.passport.crypto;
+
+import java.security.GeneralSecurityException;
+import java.security.Key;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Pool of {@link java.security.Signature} and {@link javax.crypto.Mac} instances that are already initialized with a
+ * key, so that signing or verifying a token does not look up the JCA provider and initialize the key every time.
+ * <p>
+ * Only keys registered with {@link #manage(Key)} are pooled, which the key manager does for the keys of the realms.
+ * Other keys, like a key created from a client secret or from a certificate for a single verification, are never
+ * kept by the pool, so {@link #borrow} creates a new instance for them and {@link #release} discards it.
+ * <p>
+ * Instances are pooled per key instance and algorithm. A caller borrows an instance, uses it for exactly one
+ * operation, and releases it only if the operation completed, as {@code sign()}, {@code verify()} and
+ * {@code doFinal()} reset the instance to the state right after its initialization. Each pool keeps at most
+ * {@link #MAX_IDLE_PER_KEY} idle instances. At most {@link #MAX_KEYS} keys are managed, beyond that the key that
+ * was used least recently is evicted.
+ * <p>
+ * Keys are compared by identity. The key manager shares key instances between sessions until the keys of a realm
+ * change, and then evicts the pools of the keys that were removed with {@link #evict(Key)}.
+ * <p>
+ * This class is thread safe.
+ */
+public final class SignatureInstancePool {
+
+    /**
+     * Creates and initializes a new instance when there is no idle one in the pool.
+     */
+    @FunctionalInterface
+    public interface InstanceFactory<T> {
+        T create() throws GeneralSecurityException;
+    }
+
+    static final int MAX_KEYS = 1000;
+    static final int MAX_IDLE_PER_KEY = Math.max(2, Runtime.getRuntime().availableProcessors() * 2);
+
+    private static final ConcurrentMap<KeyIdentity, KeyPools> POOLS = new ConcurrentHashMap<>();
+
+    private SignatureInstancePool() {
+    }
+
+    /**
+     * Pools the instances initialized with the key from now on, until the key is evicted.
+     */
+    public static void manage(Key key) {
+        if (key == null || POOLS.putIfAbsent(new KeyIdentity(key), new KeyPools()) != null) {
+            return;
+        }
+        while (POOLS.size() > MAX_KEYS) {
+            evictLeastRecentlyUsed();
+        }
+    }
+
+    /**
+     * Returns an idle instance initialized with the key for the algorithm, or a new one created by the factory.
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> T borrow(Key key, String algorithm, InstanceFactory<T> factory) throws GeneralSecurityException {
+        KeyPools pools = POOLS.get(new KeyIdentity(key));
+        if (pools != null) {
+            pools.lastUsed = System.nanoTime();
+            Pool pool = pools.byAlgorithm.get(algorithm);
+            Object instance = pool == null ? null : pool.poll();
+            if (instance != null) {
+                return (T) instance;
+            }
+        }
+        return factory.create();
+    }
+
+    /**
+     * Returns an instance to the pool after it completed an operation. The instance is discarded if the key is not
+     * managed or the pool is full.
+     */
+    public static void release(Key key, String algorithm, Object instance) {
+        KeyPools pools = POOLS.get(new KeyIdentity(key));
+        if (pools != null) {
+            pools.byAlgorithm.computeIfAbsent(algorithm, a -> new Pool()).offer(instance);
+        }
+    }
+
+    /**
+     * Stops pooling the instances initialized with the key, and discards them for all algorithms.
+     */
+    public static void evict(Key key) {
+        if (key != null) {
+            POOLS.remove(new KeyIdentity(key));
+        }
+    }
+
+    /**
+     * Discards all pooled instances and managed keys.
+     */
+    public static void clear() {
+        POOLS.clear();
+    }
+
+    static int size() {
+        return POOLS.size();
+    }
+
+    private static void evictLeastRecentlyUsed() {
+        Map.Entry<KeyIdentity, KeyPools> eldest = null;
+        for (Map.Entry<KeyIdentity, KeyPools> entry : POOLS.entrySet()) {
+            if (eldest == null || entry.getValue().lastUsed - eldest.getValue().lastUsed < 0) {
+                eldest = entry;
+            }
+        }
+        if (eldest != null) {
+            POOLS.remove(eldest.getKey(), eldest.getValue());
+        }
+    }
+
+    private static final class KeyIdentity {
+
+        private final Key key;
+
+        KeyIdentity(Key key) {
+            this.key = key;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof KeyIdentity && key == ((KeyIdentity) o).key;
+        }
+
+        @Override
+        public int hashCode() {
+            return System.identityHashCode(key);
+        }
+    }
+
+    private static final class KeyPools {
+
+        private final ConcurrentMap<String, Pool> byAlgorithm = new ConcurrentHashMap<>(2);
+        private volatile long lastUsed = System.nanoTime();
+    }
+
+    private static final class Pool {
+
+        private final Queue<Object> idle = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger size = new AtomicInteger();
+
+        Object poll() {
+            Object instance = idle.poll();
+            if (instance != null) {
+                size.decrementAndGet();
+            }
+            return instance;
+        }
+
+        void offer(Object instance) {
+            if (size.incrementAndGet() > MAX_IDLE_PER_KEY) {
+                size.decrementAndGet();
+                return;
+            }
+            idle.offer(instance);
+        }
+    }
+}
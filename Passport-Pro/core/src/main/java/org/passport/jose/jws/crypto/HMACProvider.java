@@ -26,6 +26,7 @@ import javax.crypto.SecretKey;
 import javax.crypto.spec.SecretKeySpec;
 
 import org.passport.common.util.Base64Url;
+import org.passport.crypto.SignatureInstancePool;
 import org.passport.jose.jws.Algorithm;
 import org.passport.jose.jws.JWSInput;
 
@@ -71,10 +72,16 @@ public class HMACProvider implements SignatureProvider {
 
     public static byte[] sign(byte[] data, Algorithm algorithm, SecretKey key) {
         try {
-            Mac mac = getMAC(algorithm);
-            mac.init(key);
+            String javaAlgorithm = getJavaAlgorithm(algorithm);
+            Mac mac = SignatureInstancePool.borrow(key, javaAlgorithm, () -> {
+                Mac m = getMAC(algorithm);
+                m.init(key);
+                return m;
+            });
             mac.update(data);
-            return mac.doFinal();
+            byte[] signed = mac.doFinal();
+            SignatureInstancePool.release(key, javaAlgorithm, mac);
+            return signed;
         } catch (Exception e) {
             throw new RuntimeException(e);
         }
@@ -25,6 +25,7 @@ import java.security.Signature;
 import java.security.cert.X509Certificate;
 
 import org.passport.common.util.PemUtils;
+import org.passport.crypto.SignatureInstancePool;
 import org.passport.jose.jws.Algorithm;
 import org.passport.jose.jws.JWSInput;
 
@@ -56,10 +57,16 @@ public class RSAProvider implements SignatureProvider {
 
     public static byte[] sign(byte[] data, Algorithm algorithm, PrivateKey privateKey) {
         try {
-            Signature signature = getSignature(algorithm);
-            signature.initSign(privateKey);
+            String javaAlgorithm = getJavaAlgorithm(algorithm);
+            Signature signature = SignatureInstancePool.borrow(privateKey, javaAlgorithm, () -> {
+                Signature s = Signature.getInstance(javaAlgorithm);
+                s.initSign(privateKey);
+                return s;
+            });
             signature.update(data);
-            return signature.sign();
+            byte[] signed = signature.sign();
+            SignatureInstancePool.release(privateKey, javaAlgorithm, signature);
+            return signed;
         } catch (Exception e) {
             throw new RuntimeException(e);
         }
@@ -77,10 +84,16 @@ public class RSAProvider implements SignatureProvider {
 
     public static boolean verify(JWSInput input, PublicKey publicKey) {
         try {
-            Signature verifier = getSignature(input.getHeader().getAlgorithm());
-            verifier.initVerify(publicKey);
+            String javaAlgorithm = getJavaAlgorithm(input.getHeader().getAlgorithm());
+            Signature verifier = SignatureInstancePool.borrow(publicKey, javaAlgorithm, () -> {
+                Signature s = Signature.getInstance(javaAlgorithm);
+                s.initVerify(publicKey);
+                return s;
+            });
             verifier.update(input.getEncodedSignatureInput().getBytes(StandardCharsets.UTF_8));
-            return verifier.verify(input.getSignature());
+            boolean verified = verifier.verify(input.getSignature());
+            SignatureInstancePool.release(publicKey, javaAlgorithm, verifier);
+            return verified;
         } catch (Exception e) {
             return false;
         }
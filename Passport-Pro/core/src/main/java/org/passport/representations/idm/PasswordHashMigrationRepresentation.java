@@ -0,0 +1,242 @@
+/*
+ * Copyright 2026 Red Hat, Inc. and/or its affiliates
+ * and other contributors as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.passport.representations.idm;
+
+import java.util.List;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * The progress of migrating the password hashes of a realm to its password policy. Hashes are upgraded when users log
+ * in, as far as the rehash budget of the server allows.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class PasswordHashMigrationRepresentation {
+
+    public enum Status {
+        RUNNING,
+        COMPLETED,
+        FAILED
+    }
+
+    private Status status;
+    private Long startedAt;
+    private Long finishedAt;
+    private String error;
+    private String algorithm;
+    private String hashingStrength;
+    private Long scanned;
+    private Long upgradeRequired;
+    private List<HashGroup> hashes;
+    private Double hashCostMillis;
+    private Long projectedCpuMillis;
+    private Long upgraded;
+    private Long deferred;
+    private Long rehashCpuBudgetMillis;
+
+    /**
+     * A group of password hashes with the same algorithm and hashing strength.
+     */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public static class HashGroup {
+
+        private String algorithm;
+        private String hashingStrength;
+        private Long count;
+        private Boolean upgradeRequired;
+
+        public String getAlgorithm() {
+            return algorithm;
+        }
+
+        public void setAlgorithm(String algorithm) {
+            this.algorithm = algorithm;
+        }
+
+        public String getHashingStrength() {
+            return hashingStrength;
+        }
+
+        public void setHashingStrength(String hashingStrength) {
+            this.hashingStrength = hashingStrength;
+        }
+
+        public Long getCount() {
+            return count;
+        }
+
+        public void setCount(Long count) {
+            this.count = count;
+        }
+
+        public Boolean getUpgradeRequired() {
+            return upgradeRequired;
+        }
+
+        public void setUpgradeRequired(Boolean upgradeRequired) {
+            this.upgradeRequired = upgradeRequired;
+        }
+    }
+
+    /**
+     * The status of the last scan started on the server, or {@code null} if there was none.
+     */
+    public Status getStatus() {
+        return status;
+    }
+
+    public void setStatus(Status status) {
+        this.status = status;
+    }
+
+    public Long getStartedAt() {
+        return startedAt;
+    }
+
+    public void setStartedAt(Long startedAt) {
+        this.startedAt = startedAt;
+    }
+
+    public Long getFinishedAt() {
+        return finishedAt;
+    }
+
+    public void setFinishedAt(Long finishedAt) {
+        this.finishedAt = finishedAt;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    public void setError(String error) {
+        this.error = error;
+    }
+
+    /**
+     * The hash algorithm of the password policy of the realm.
+     */
+    public String getAlgorithm() {
+        return algorithm;
+    }
+
+    public void setAlgorithm(String algorithm) {
+        this.algorithm = algorithm;
+    }
+
+    /**
+     * The hashing strength of the password policy of the realm, as reported by its password hash provider.
+     */
+    public String getHashingStrength() {
+        return hashingStrength;
+    }
+
+    public void setHashingStrength(String hashingStrength) {
+        this.hashingStrength = hashingStrength;
+    }
+
+    /**
+     * The number of password hashes scanned so far.
+     */
+    public Long getScanned() {
+        return scanned;
+    }
+
+    public void setScanned(Long scanned) {
+        this.scanned = scanned;
+    }
+
+    /**
+     * The number of scanned password hashes that don't match the password policy and are upgraded on the next login.
+     */
+    public Long getUpgradeRequired() {
+        return upgradeRequired;
+    }
+
+    public void setUpgradeRequired(Long upgradeRequired) {
+        this.upgradeRequired = upgradeRequired;
+    }
+
+    /**
+     * The scanned password hashes, grouped by algorithm and hashing strength.
+     */
+    public List<HashGroup> getHashes() {
+        return hashes;
+    }
+
+    public void setHashes(List<HashGroup> hashes) {
+        this.hashes = hashes;
+    }
+
+    /**
+     * The CPU time in milliseconds to hash a password with the password policy of the realm, measured on this server.
+     */
+    public Double getHashCostMillis() {
+        return hashCostMillis;
+    }
+
+    public void setHashCostMillis(Double hashCostMillis) {
+        this.hashCostMillis = hashCostMillis;
+    }
+
+    /**
+     * The CPU time in milliseconds projected to upgrade all the password hashes that require it.
+     */
+    public Long getProjectedCpuMillis() {
+        return projectedCpuMillis;
+    }
+
+    public void setProjectedCpuMillis(Long projectedCpuMillis) {
+        this.projectedCpuMillis = projectedCpuMillis;
+    }
+
+    /**
+     * The number of password hashes of the realm upgraded at login on this server since the scan started.
+     */
+    public Long getUpgraded() {
+        return upgraded;
+    }
+
+    public void setUpgraded(Long upgraded) {
+        this.upgraded = upgraded;
+    }
+
+    /**
+     * The number of upgrades of password hashes of the realm that this server deferred to a later login since the
+     * scan started, as the rehash budget was used up.
+     */
+    public Long getDeferred() {
+        return deferred;
+    }
+
+    public void setDeferred(Long deferred) {
+        this.deferred = deferred;
+    }
+
+    /**
+     * The milliseconds of hashing per second this server spends on upgrading password hashes at login, or
+     * {@code null} if it is not limited.
+     */
+    public Long getRehashCpuBudgetMillis() {
+        return rehashCpuBudgetMillis;
+    }
+
+    public void setRehashCpuBudgetMillis(Long rehashCpuBudgetMillis) {
+        this.rehashCpuBudgetMillis = rehashCpuBudgetMillis;
+    }
+}
@@ -0,0 +1,148 @@
+/*
+ * Copyright 2026 Red Hat, Inc. and/or its affiliates
+ * and other contributors as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.passport.representations.idm;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * The progress of the last synchronization of users from a user storage provider that was started on the server.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class SynchronizationProgressRepresentation {
+
+    public enum Status {
+        RUNNING,
+        COMPLETED,
+        FAILED
+    }
+
+    private Status status;
+    private String mode;
+    private Long startedAt;
+    private Long finishedAt;
+    private Long processed;
+    private Long added;
+    private Long updated;
+    private Long failed;
+    private Long estimatedTotal;
+    private Long estimatedRemainingSeconds;
+    private String error;
+
+    /**
+     * The status of the last synchronization started on the server, or {@code null} if there was none.
+     */
+    public Status getStatus() {
+        return status;
+    }
+
+    public void setStatus(Status status) {
+        this.status = status;
+    }
+
+    /**
+     * The mode of the synchronization, {@code FULL} or {@code CHANGED}.
+     */
+    public String getMode() {
+        return mode;
+    }
+
+    public void setMode(String mode) {
+        this.mode = mode;
+    }
+
+    public Long getStartedAt() {
+        return startedAt;
+    }
+
+    public void setStartedAt(Long startedAt) {
+        this.startedAt = startedAt;
+    }
+
+    public Long getFinishedAt() {
+        return finishedAt;
+    }
+
+    public void setFinishedAt(Long finishedAt) {
+        this.finishedAt = finishedAt;
+    }
+
+    /**
+     * The number of users read from the storage provider and imported so far.
+     */
+    public Long getProcessed() {
+        return processed;
+    }
+
+    public void setProcessed(Long processed) {
+        this.processed = processed;
+    }
+
+    public Long getAdded() {
+        return added;
+    }
+
+    public void setAdded(Long added) {
+        this.added = added;
+    }
+
+    public Long getUpdated() {
+        return updated;
+    }
+
+    public void setUpdated(Long updated) {
+        this.updated = updated;
+    }
+
+    public Long getFailed() {
+        return failed;
+    }
+
+    public void setFailed(Long failed) {
+        this.failed = failed;
+    }
+
+    /**
+     * The estimated number of users the synchronization processes, or {@code null} if it is not known.
+     */
+    public Long getEstimatedTotal() {
+        return estimatedTotal;
+    }
+
+    public void setEstimatedTotal(Long estimatedTotal) {
+        this.estimatedTotal = estimatedTotal;
+    }
+
+    /**
+     * The estimated time in seconds until a running synchronization finishes, or {@code null} if it is not known.
+     */
+    public Long getEstimatedRemainingSeconds() {
+        return estimatedRemainingSeconds;
+    }
+
+    public void setEstimatedRemainingSeconds(Long estimatedRemainingSeconds) {
+        this.estimatedRemainingSeconds = estimatedRemainingSeconds;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    public void setError(String error) {
+        this.error = error;
+    }
+}
@@ -0,0 +1,80 @@
+package org.passport.representations.workflows;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * The progress of activating a workflow for all the resources that are eligible for it.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class WorkflowActivationRepresentation {
+
+    public enum Status {
+        RUNNING,
+        COMPLETED,
+        FAILED
+    }
+
+    private Status status;
+    private Long activated;
+    private Long remaining;
+    private Long startedAt;
+    private Long finishedAt;
+    private String error;
+
+    /**
+     * The status of the last activation started on the server, or {@code null} if there was none.
+     */
+    public Status getStatus() {
+        return status;
+    }
+
+    public void setStatus(Status status) {
+        this.status = status;
+    }
+
+    /**
+     * The number of resources activated by the last activation started on the server.
+     */
+    public Long getActivated() {
+        return activated;
+    }
+
+    public void setActivated(Long activated) {
+        this.activated = activated;
+    }
+
+    /**
+     * The number of resources that are eligible for the workflow and for which the workflow is not active.
+     */
+    public Long getRemaining() {
+        return remaining;
+    }
+
+    public void setRemaining(Long remaining) {
+        this.remaining = remaining;
+    }
+
+    public Long getStartedAt() {
+        return startedAt;
+    }
+
+    public void setStartedAt(Long startedAt) {
+        this.startedAt = startedAt;
+    }
+
+    public Long getFinishedAt() {
+        return finishedAt;
+    }
+
+    public void setFinishedAt(Long finishedAt) {
+        this.finishedAt = finishedAt;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    public void setError(String error) {
+        this.error = error;
+    }
+}
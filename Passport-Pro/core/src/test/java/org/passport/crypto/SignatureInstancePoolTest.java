@@ -0,0 +1,153 @@
+/*
+ * Copyright 2026 Red Hat, Inc. and/or its affiliates
+ * and other contributors as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.passport.crypto;
+
+import java.nio.charset.StandardCharsets;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.Signature;
+import javax.crypto.spec.SecretKeySpec;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class SignatureInstancePoolTest {
+
+    private static final byte[] DATA = "header.payload".getBytes(StandardCharsets.UTF_8);
+
+    @After
+    public void after() {
+        SignatureInstancePool.clear();
+    }
+
+    @Test
+    public void testAsymmetricInstancesReused() throws Exception {
+        KeyPairGenerator generator = KeyPairGenerator.getInstance("RSA");
+        generator.initialize(2048);
+        KeyPair keyPair = generator.generateKeyPair();
+        KeyWrapper key = new KeyWrapper();
+        key.setAlgorithm(Algorithm.RS256);
+        key.setType(KeyType.RSA);
+        key.setPrivateKey(keyPair.getPrivate());
+        key.setPublicKey(keyPair.getPublic());
+        SignatureInstancePool.manage(keyPair.getPrivate());
+        SignatureInstancePool.manage(keyPair.getPublic());
+
+        byte[] first = new AsymmetricSignatureSignerContext(key).sign(DATA);
+        byte[] second = new AsymmetricSignatureSignerContext(key).sign(DATA);
+        Assert.assertArrayEquals(first, second);
+
+        AsymmetricSignatureVerifierContext verifier = new AsymmetricSignatureVerifierContext(key);
+        Assert.assertTrue(verifier.verify(DATA, first));
+        Assert.assertFalse(verifier.verify("other".getBytes(StandardCharsets.UTF_8), first));
+        Assert.assertTrue(verifier.verify(DATA, second));
+        Assert.assertEquals(2, SignatureInstancePool.size());
+        Assert.assertNotNull(SignatureInstancePool.borrow(keyPair.getPrivate(), "SHA256withRSA", () -> null));
+
+        SignatureInstancePool.evict(keyPair.getPrivate());
+        Assert.assertEquals(1, SignatureInstancePool.size());
+        SignatureInstancePool.evict(keyPair.getPublic());
+        Assert.assertEquals(0, SignatureInstancePool.size());
+    }
+
+    @Test
+    public void testMacInstancesReused() throws Exception {
+        KeyWrapper key = new KeyWrapper();
+        key.setAlgorithm(Algorithm.HS256);
+        key.setType(KeyType.OCT);
+        key.setSecretKey(new SecretKeySpec(new byte[32], "HmacSHA256"));
+        SignatureInstancePool.manage(key.getSecretKey());
+
+        byte[] signature = new MacSignatureSignerContext(key).sign(DATA);
+        Assert.assertArrayEquals(signature, new MacSignatureSignerContext(key).sign(DATA));
+        Assert.assertTrue(new MacSignatureVerifierContext(key).verify(DATA, signature));
+        Assert.assertEquals(1, SignatureInstancePool.size());
+        Assert.assertNotNull(SignatureInstancePool.borrow(key.getSecretKey(), "HMACSHA256", () -> null));
+    }
+
+    @Test
+    public void testUnmanagedKeysNotPooled() throws Exception {
+        SecretKeySpec key = new SecretKeySpec(new byte[32], "HmacSHA256");
+
+        byte[] signature = new MacSignatureSignerContext(wrap(key)).sign(DATA);
+        Assert.assertTrue(new MacSignatureVerifierContext(wrap(key)).verify(DATA, signature));
+
+        Assert.assertEquals(0, SignatureInstancePool.size());
+        Assert.assertNull(SignatureInstancePool.borrow(key, "HMACSHA256", () -> null));
+    }
+
+    @Test
+    public void testLeastRecentlyUsedKeyEvicted() throws Exception {
+        SecretKeySpec used = new SecretKeySpec(new byte[32], "HmacSHA256");
+        SignatureInstancePool.manage(used);
+        SignatureInstancePool.release(used, "HMACSHA256", new Object());
+        SecretKeySpec unused = new SecretKeySpec(new byte[32], "HmacSHA256");
+        SignatureInstancePool.manage(unused);
+        SignatureInstancePool.release(unused, "HMACSHA256", new Object());
+        for (int i = 2; i < SignatureInstancePool.MAX_KEYS; i++) {
+            SignatureInstancePool.manage(new SecretKeySpec(new byte[32], "HmacSHA256"));
+        }
+        Assert.assertNotNull(SignatureInstancePool.borrow(used, "HMACSHA256", () -> null));
+        SignatureInstancePool.release(used, "HMACSHA256", new Object());
+
+        SignatureInstancePool.manage(new SecretKeySpec(new byte[32], "HmacSHA256"));
+
+        Assert.assertEquals(SignatureInstancePool.MAX_KEYS, SignatureInstancePool.size());
+        Assert.assertNotNull(SignatureInstancePool.borrow(used, "HMACSHA256", () -> null));
+        Assert.assertNull(SignatureInstancePool.borrow(unused, "HMACSHA256", () -> null));
+    }
+
+    @Test
+    public void testKeysComparedByIdentity() throws Exception {
+        SecretKeySpec key = new SecretKeySpec(new byte[32], "HmacSHA256");
+        SignatureInstancePool.manage(key);
+        Signature instance = Signature.getInstance("SHA256withRSA");
+        SignatureInstancePool.release(key, "HMACSHA256", instance);
+
+        Assert.assertSame(instance, SignatureInstancePool.borrow(key, "HMACSHA256", () -> null));
+        Assert.assertNull(SignatureInstancePool.borrow(key, "HMACSHA256", () -> null));
+
+        SignatureInstancePool.release(key, "HMACSHA256", instance);
+        Assert.assertNull(SignatureInstancePool.borrow(new SecretKeySpec(new byte[32], "HmacSHA256"), "HMACSHA256", () -> null));
+        Assert.assertNull(SignatureInstancePool.borrow(key, "HMACSHA384", () -> null));
+    }
+
+    @Test
+    public void testIdleInstancesBounded() throws Exception {
+        SecretKeySpec key = new SecretKeySpec(new byte[32], "HmacSHA256");
+        SignatureInstancePool.manage(key);
+        for (int i = 0; i < SignatureInstancePool.MAX_IDLE_PER_KEY + 5; i++) {
+            SignatureInstancePool.release(key, "HMACSHA256", new Object());
+        }
+
+        int idle = 0;
+        while (SignatureInstancePool.borrow(key, "HMACSHA256", () -> null) != null) {
+            idle++;
+        }
+        Assert.assertEquals(SignatureInstancePool.MAX_IDLE_PER_KEY, idle);
+    }
+
+    private static KeyWrapper wrap(SecretKeySpec secretKey) {
+        KeyWrapper key = new KeyWrapper();
+        key.setAlgorithm(Algorithm.HS256);
+        key.setType(KeyType.OCT);
+        key.setSecretKey(secretKey);
+        return key;
+    }
+}
@@ -144,6 +144,14 @@ public class LDAPConfig {
         }
     }
 
+    /**
+     * Whether the LDAP storage provider pools its connections itself. Unlike {@link #getConnectionPooling()}, which
+     * configures the connection pooling of JNDI, it applies to connections secured with StartTLS too.
+     */
+    public boolean isProviderConnectionPooling() {
+        return Boolean.parseBoolean(config.getFirst(LDAPConstants.PROVIDER_CONNECTION_POOLING));
+    }
+
     public String getConnectionTimeout() {
         return config.getFirstOrDefault(LDAPConstants.CONNECTION_TIMEOUT,
                 System.getProperty("com.sun.jndi.ldap.connect.timeout", DEFAULT_CONNECTION_TIMEOUT));
@@ -24,6 +24,8 @@ import org.passport.common.util.MultivaluedHashMap;
 import org.passport.component.ComponentModel;
 import org.passport.models.PassportSession;
 import org.passport.models.RealmModel;
+import org.passport.storage.ldap.idm.store.ldap.LDAPConnectionPool;
+import org.passport.storage.ldap.idm.store.ldap.LDAPContextManager;
 import org.passport.storage.ldap.idm.store.ldap.LDAPIdentityStore;
 import org.passport.storage.ldap.mappers.LDAPConfigDecorator;
 
@@ -37,6 +39,22 @@ public class LDAPIdentityStoreRegistry {
     private static final Logger logger = Logger.getLogger(LDAPIdentityStoreRegistry.class);
 
     private final Map<String, LDAPConfig> ldapStores = new ConcurrentHashMap<>();
+    private final Map<String, ConnectionPools> connectionPools = new ConcurrentHashMap<>();
+    private final LDAPConnectionPool.Settings poolSettings;
+    private final LDAPConnectionPool.Settings authPoolSettings;
+
+    public LDAPIdentityStoreRegistry() {
+        this(null, null);
+    }
+
+    /**
+     * @param poolSettings the settings of the pools of connections bound with the credentials of a configuration, or {@code null} to disable pooling
+     * @param authPoolSettings the settings of the pools of connections used to authenticate users, or {@code null} to disable pooling
+     */
+    public LDAPIdentityStoreRegistry(LDAPConnectionPool.Settings poolSettings, LDAPConnectionPool.Settings authPoolSettings) {
+        this.poolSettings = poolSettings;
+        this.authPoolSettings = authPoolSettings;
+    }
 
     public LDAPIdentityStore getLdapStore(PassportSession session, ComponentModel ldapModel, Map<ComponentModel, LDAPConfigDecorator> configDecorators) {
         // Ldap config might have changed for the realm. In this case, we must re-initialize
@@ -51,11 +69,59 @@ public class LDAPIdentityStoreRegistry {
 
         LDAPConfig cachedConfig = ldapStores.get(ldapModel.getId());
         if (cachedConfig == null || !ldapConfig.equals(cachedConfig)) {
-            logLDAPConfig(session, ldapModel, ldapConfig);
-            ldapStores.put(ldapModel.getId(), ldapConfig);
+            updateLdapConfig(session, ldapModel, ldapConfig);
         }
 
-        return new LDAPIdentityStore(session, ldapConfig);
+        ConnectionPools pools = connectionPools.get(ldapModel.getId());
+        if (pools == null) {
+            return new LDAPIdentityStore(session, ldapConfig);
+        }
+        return new LDAPIdentityStore(session, ldapConfig, pools.connectionPool(), pools.authConnectionPool());
+    }
+
+    /**
+     * Closes the connection pools of the given LDAP storage provider.
+     */
+    public synchronized void remove(String ldapModelId) {
+        ldapStores.remove(ldapModelId);
+        ConnectionPools pools = connectionPools.remove(ldapModelId);
+        if (pools != null) {
+            pools.close();
+        }
+    }
+
+    public synchronized void close() {
+        ldapStores.keySet().forEach(this::remove);
+    }
+
+    private synchronized void updateLdapConfig(PassportSession session, ComponentModel ldapModel, LDAPConfig ldapConfig) {
+        if (ldapConfig.equals(ldapStores.get(ldapModel.getId()))) {
+            // updated meanwhile by another session
+            return;
+        }
+        logLDAPConfig(session, ldapModel, ldapConfig);
+        ldapStores.put(ldapModel.getId(), ldapConfig);
+
+        // The pools of the previous configuration are closed, connections in use are closed when they are given back
+        ConnectionPools pools = null;
+        if (poolSettings != null && authPoolSettings != null && ldapConfig.isProviderConnectionPooling()) {
+            pools = new ConnectionPools(
+                    new LDAPConnectionPool(ldapModel.getId(), "admin", poolSettings, s -> LDAPContextManager.openConnection(s, ldapConfig)),
+                    new LDAPConnectionPool(ldapModel.getId(), "authentication", authPoolSettings, s -> LDAPContextManager.openAnonymousConnection(s, ldapConfig)));
+        }
+
+        ConnectionPools previous = pools == null ? connectionPools.remove(ldapModel.getId()) : connectionPools.put(ldapModel.getId(), pools);
+        if (previous != null) {
+            previous.close();
+        }
+    }
+
+    private record ConnectionPools(LDAPConnectionPool connectionPool, LDAPConnectionPool authConnectionPool) {
+
+        void close() {
+            connectionPool.close();
+            authConnectionPool.close();
+        }
     }
 
     // Don't log LDAP password
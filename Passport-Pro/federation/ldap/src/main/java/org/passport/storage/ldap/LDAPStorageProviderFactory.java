@@ -17,11 +17,20 @@
 
 package org.passport.storage.ldap;
 
+import java.util.ArrayList;
 import java.util.Date;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.function.Function;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 import javax.naming.NamingException;
 import javax.naming.spi.NamingManager;
@@ -30,6 +39,7 @@ import org.passport.Config;
 import org.passport.common.constants.KerberosConstants;
 import org.passport.component.ComponentModel;
 import org.passport.component.ComponentValidationException;
+import org.passport.executors.ExecutorsProvider;
 import org.passport.federation.kerberos.CommonKerberosConfig;
 import org.passport.federation.kerberos.impl.KerberosServerSubjectAuthenticator;
 import org.passport.federation.kerberos.impl.KerberosUsernamePasswordAuthenticator;
@@ -47,15 +57,18 @@ import org.passport.models.utils.PassportModelUtils;
 import org.passport.provider.ProviderConfigProperty;
 import org.passport.provider.ProviderConfigurationBuilder;
 import org.passport.representations.idm.CredentialRepresentation;
+import org.passport.representations.idm.SynchronizationProgressRepresentation;
 import org.passport.storage.UserStoragePrivateUtil;
 import org.passport.storage.UserStorageProvider;
 import org.passport.storage.UserStorageProviderFactory;
 import org.passport.storage.UserStorageProviderModel;
+import org.passport.storage.UserStorageProviderModel.SyncMode;
 import org.passport.storage.UserStorageUtil;
 import org.passport.storage.ldap.idm.model.LDAPObject;
 import org.passport.storage.ldap.idm.query.Condition;
 import org.passport.storage.ldap.idm.query.internal.LDAPQuery;
 import org.passport.storage.ldap.idm.query.internal.LDAPQueryConditionsBuilder;
+import org.passport.storage.ldap.idm.store.ldap.LDAPConnectionPool;
 import org.passport.storage.ldap.idm.store.ldap.LDAPIdentityStore;
 import org.passport.storage.ldap.kerberos.LDAPProviderKerberosConfig;
 import org.passport.storage.ldap.mappers.FullNameLDAPStorageMapper;
@@ -89,8 +102,24 @@ public class LDAPStorageProviderFactory implements UserStorageProviderFactory<LD
     private static final String LDAP_CONNECTION_POOL_PROTOCOL = "com.sun.jndi.ldap.connect.pool.protocol";
     private static final String SECURE_REFERRAL = "secureReferral";
     private static final boolean SECURE_REFERRAL_DEFAULT = true;
+    private static final String CONNECTION_POOL_MAX_SIZE = "connectionPoolMaxSize";
+    private static final int CONNECTION_POOL_MAX_SIZE_DEFAULT = 20;
+    private static final String CONNECTION_POOL_AUTH_MAX_SIZE = "connectionPoolAuthMaxSize";
+    private static final int CONNECTION_POOL_AUTH_MAX_SIZE_DEFAULT = 20;
+    private static final String CONNECTION_POOL_MAX_WAIT = "connectionPoolMaxWait";
+    private static final long CONNECTION_POOL_MAX_WAIT_DEFAULT = 10000;
+    private static final String CONNECTION_POOL_IDLE_TIMEOUT = "connectionPoolIdleTimeout";
+    private static final long CONNECTION_POOL_IDLE_TIMEOUT_DEFAULT = 300000;
+    private static final String CONNECTION_POOL_VALIDATION_INTERVAL = "connectionPoolValidationInterval";
+    private static final long CONNECTION_POOL_VALIDATION_INTERVAL_DEFAULT = 30000;
+    private static final String SYNC_CONCURRENCY = "syncConcurrency";
+    private static final int SYNC_CONCURRENCY_DEFAULT = 4;
+    private static final String SYNC_EXECUTOR = "ldap-sync";
 
     private LDAPIdentityStoreRegistry ldapStoreRegistry;
+    private int syncConcurrency = SYNC_CONCURRENCY_DEFAULT;
+    private final Map<String, LDAPSyncProgress> syncProgress = new ConcurrentHashMap<>();
+    private final Map<String, Long> lastFullSyncTotals = new ConcurrentHashMap<>();
 
     protected static final List<ProviderConfigProperty> configProperties;
 
@@ -182,6 +211,10 @@ public class LDAPStorageProviderFactory implements UserStorageProviderFactory<LD
                 .type(ProviderConfigProperty.BOOLEAN_TYPE)
                 .defaultValue("true")
                 .add()
+                .property().name(LDAPConstants.PROVIDER_CONNECTION_POOLING)
+                .type(ProviderConfigProperty.BOOLEAN_TYPE)
+                .defaultValue("false")
+                .add()
                 .property().name(LDAPConstants.CONNECTION_TIMEOUT)
                 .type(ProviderConfigProperty.STRING_TYPE)
                 .add()
@@ -317,7 +350,14 @@ public class LDAPStorageProviderFactory implements UserStorageProviderFactory<LD
             System.setProperty(LDAP_CONNECTION_POOL_PROTOCOL, "plain ssl");
         }
 
-        this.ldapStoreRegistry = new LDAPIdentityStoreRegistry();
+        this.syncConcurrency = Math.max(1, config.getInt(SYNC_CONCURRENCY, SYNC_CONCURRENCY_DEFAULT));
+
+        long maxWait = config.getLong(CONNECTION_POOL_MAX_WAIT, CONNECTION_POOL_MAX_WAIT_DEFAULT);
+        long idleTimeout = config.getLong(CONNECTION_POOL_IDLE_TIMEOUT, CONNECTION_POOL_IDLE_TIMEOUT_DEFAULT);
+        long validationInterval = config.getLong(CONNECTION_POOL_VALIDATION_INTERVAL, CONNECTION_POOL_VALIDATION_INTERVAL_DEFAULT);
+        this.ldapStoreRegistry = new LDAPIdentityStoreRegistry(
+                new LDAPConnectionPool.Settings(config.getInt(CONNECTION_POOL_MAX_SIZE, CONNECTION_POOL_MAX_SIZE_DEFAULT), maxWait, idleTimeout, validationInterval),
+                new LDAPConnectionPool.Settings(config.getInt(CONNECTION_POOL_AUTH_MAX_SIZE, CONNECTION_POOL_AUTH_MAX_SIZE_DEFAULT), maxWait, idleTimeout, validationInterval));
     }
 
     @Override
@@ -332,12 +372,57 @@ public class LDAPStorageProviderFactory implements UserStorageProviderFactory<LD
                 .defaultValue(SECURE_REFERRAL_DEFAULT)
                 .add();
 
+        builder.property()
+                .name(SYNC_CONCURRENCY)
+                .type("int")
+                .helpText("Maximum number of pages of LDAP users imported in parallel during a sync, while the next pages are read from LDAP")
+                .defaultValue(SYNC_CONCURRENCY_DEFAULT)
+                .add();
+
+        builder.property()
+                .name(CONNECTION_POOL_MAX_SIZE)
+                .type("int")
+                .helpText("Maximum number of pooled connections bound with the credentials of an LDAP provider, when provider connection pooling is enabled for the provider")
+                .defaultValue(CONNECTION_POOL_MAX_SIZE_DEFAULT)
+                .add();
+
+        builder.property()
+                .name(CONNECTION_POOL_AUTH_MAX_SIZE)
+                .type("int")
+                .helpText("Maximum number of pooled connections used to authenticate the users of an LDAP provider, when provider connection pooling is enabled for the provider")
+                .defaultValue(CONNECTION_POOL_AUTH_MAX_SIZE_DEFAULT)
+                .add();
+
+        builder.property()
+                .name(CONNECTION_POOL_MAX_WAIT)
+                .type("long")
+                .helpText("Time in milliseconds to wait for a pooled connection when all connections are in use")
+                .defaultValue(CONNECTION_POOL_MAX_WAIT_DEFAULT)
+                .add();
+
+        builder.property()
+                .name(CONNECTION_POOL_IDLE_TIMEOUT)
+                .type("long")
+                .helpText("Time in milliseconds after which an idle pooled connection is closed")
+                .defaultValue(CONNECTION_POOL_IDLE_TIMEOUT_DEFAULT)
+                .add();
+
+        builder.property()
+                .name(CONNECTION_POOL_VALIDATION_INTERVAL)
+                .type("long")
+                .helpText("Time in milliseconds after which an idle pooled connection is checked before it is used")
+                .defaultValue(CONNECTION_POOL_VALIDATION_INTERVAL_DEFAULT)
+                .add();
+
         return builder.build();
 
     }
 
     @Override
     public void close() {
+        if (this.ldapStoreRegistry != null) {
+            this.ldapStoreRegistry.close();
+        }
         this.ldapStoreRegistry = null;
     }
 
@@ -520,6 +605,12 @@ public class LDAPStorageProviderFactory implements UserStorageProviderFactory<LD
 
     @Override
     public void preRemove(PassportSession session, RealmModel realm, ComponentModel model) {
+        if (ldapStoreRegistry != null) {
+            ldapStoreRegistry.remove(model.getId());
+        }
+        syncProgress.remove(model.getId());
+        lastFullSyncTotals.remove(model.getId());
+
         String allowKerberosCfg = model.getConfig().getFirst(KerberosConstants.ALLOW_KERBEROS_AUTHENTICATION);
         if (Boolean.valueOf(allowKerberosCfg)) {
             CredentialHelper.setOrReplaceAuthenticationRequirement(session, realm, CredentialRepresentation.KERBEROS,
@@ -534,7 +625,7 @@ public class LDAPStorageProviderFactory implements UserStorageProviderFactory<LD
         logger.infof("Sync all users from LDAP to local store: realm: %s, federation provider: %s", realmId, model.getName());
 
         try (LDAPQuery userQuery = createQuery(sessionFactory, realmId, model)) {
-            SynchronizationResult syncResult = syncImpl(sessionFactory, userQuery, realmId, model);
+            SynchronizationResult syncResult = syncImpl(sessionFactory, userQuery, realmId, model, SyncMode.FULL);
 
             // TODO: Remove all existing passport users, which have federation links, but are not in LDAP. Perhaps don't check users, which were just added or updated during this sync?
 
@@ -557,7 +648,7 @@ public class LDAPStorageProviderFactory implements UserStorageProviderFactory<LD
 
         try (LDAPQuery userQuery = createQuery(sessionFactory, realmId, model)) {
             userQuery.addWhereCondition(orCondition);
-            SynchronizationResult result = syncImpl(sessionFactory, userQuery, realmId, model);
+            SynchronizationResult result = syncImpl(sessionFactory, userQuery, realmId, model, SyncMode.CHANGED);
 
             logger.infof("Sync changed users finished: %s", result.getStatus());
             return result;
@@ -586,31 +677,108 @@ public class LDAPStorageProviderFactory implements UserStorageProviderFactory<LD
         });
     }
 
-    protected SynchronizationResult syncImpl(PassportSessionFactory sessionFactory, LDAPQuery userQuery, final String realmId, final ComponentModel fedModel) {
+    @Override
+    public SynchronizationProgressRepresentation getSyncProgress(UserStorageProviderModel model) {
+        LDAPSyncProgress progress = syncProgress.get(model.getId());
+        return progress == null ? null : progress.toRepresentation();
+    }
 
-        final SynchronizationResult syncResult = new SynchronizationResult();
+    /**
+     * Reads the users page by page and imports each page in its own transaction on the executor, while the next pages
+     * are read. At most {@code syncConcurrency} pages are imported in parallel; reading waits when all of them are busy.
+     */
+    protected SynchronizationResult syncImpl(PassportSessionFactory sessionFactory, LDAPQuery userQuery, final String realmId, final ComponentModel fedModel, SyncMode mode) {
+        LDAPSyncProgress progress = new LDAPSyncProgress(mode, mode == SyncMode.FULL ? lastFullSyncTotals.get(fedModel.getId()) : null);
+        syncProgress.put(fedModel.getId(), progress);
 
-        LDAPConfig ldapConfig = new LDAPConfig(fedModel.getConfig());
-        boolean pagination = ldapConfig.isPagination();
-        if (pagination) {
-            int pageSize = ldapConfig.getBatchSizeForSync();
+        ExecutorService executor = PassportModelUtils.runJobInTransactionWithResult(sessionFactory,
+                session -> session.getProvider(ExecutorsProvider.class).getExecutor(SYNC_EXECUTOR));
+        Semaphore importSlots = new Semaphore(syncConcurrency);
+        AtomicBoolean importFailed = new AtomicBoolean();
+        List<CompletableFuture<SynchronizationResult>> imports = new ArrayList<>();
 
-            boolean nextPage = true;
-            while (nextPage) {
-                userQuery.setLimit(pageSize);
+        try {
+            LDAPConfig ldapConfig = new LDAPConfig(fedModel.getConfig());
+            int pageSize = ldapConfig.getBatchSizeForSync();
+            if (ldapConfig.isPagination()) {
+                boolean nextPage = true;
+                while (nextPage && !importFailed.get()) {
+                    userQuery.setLimit(pageSize);
+                    final List<LDAPObject> users = userQuery.getResultList();
+                    nextPage = userQuery.getPaginationContext().hasNextPage();
+                    imports.add(submitImport(executor, importSlots, importFailed, progress,
+                            () -> importLdapUsersInBatch(sessionFactory, realmId, fedModel, users)));
+                }
+            } else {
+                // LDAP pagination not available. Read everything at once and import it in chunks of the page size
                 final List<LDAPObject> users = userQuery.getResultList();
-                nextPage = userQuery.getPaginationContext().hasNextPage();
-                SynchronizationResult currentPageSync = importLdapUsers(sessionFactory, realmId, fedModel, users);
-                syncResult.add(currentPageSync);
+                for (int i = 0; i < users.size() && !importFailed.get(); i += pageSize) {
+                    final List<LDAPObject> chunk = users.subList(i, Math.min(i + pageSize, users.size()));
+                    imports.add(submitImport(executor, importSlots, importFailed, progress,
+                            () -> importLdapUsersInBatch(sessionFactory, realmId, fedModel, chunk)));
+                }
             }
-        } else {
-            // LDAP pagination not available. Do everything in single transaction
-            final List<LDAPObject> users = userQuery.getResultList();
-            SynchronizationResult currentSync = importLdapUsers(sessionFactory, realmId, fedModel, users);
-            syncResult.add(currentSync);
+
+            final SynchronizationResult syncResult = new SynchronizationResult();
+            for (CompletableFuture<SynchronizationResult> currentImport : imports) {
+                syncResult.add(currentImport.join());
+            }
+
+            progress.finish(null);
+            if (mode == SyncMode.FULL) {
+                lastFullSyncTotals.put(fedModel.getId(), progress.getProcessed());
+            }
+            return syncResult;
+        } catch (CompletionException ce) {
+            awaitImports(imports, importFailed);
+            progress.finish(ce.getCause());
+            if (ce.getCause() instanceof RuntimeException re) {
+                throw re;
+            }
+            throw new ModelException("Failed to import users from LDAP", ce.getCause());
+        } catch (RuntimeException re) {
+            awaitImports(imports, importFailed);
+            progress.finish(re);
+            throw re;
         }
+    }
 
-        return syncResult;
+    /**
+     * Waits until the imports submitted before a failure are done, so the sync is not reported as finished, and
+     * another sync can't start, while they are still writing. Imports not started yet are skipped.
+     */
+    private static void awaitImports(List<CompletableFuture<SynchronizationResult>> imports, AtomicBoolean importFailed) {
+        importFailed.set(true);
+        try {
+            CompletableFuture.allOf(imports.toArray(CompletableFuture[]::new)).join();
+        } catch (CompletionException | CancellationException e) {
+            // the first failure is reported by the caller
+        }
+    }
+
+    private CompletableFuture<SynchronizationResult> submitImport(ExecutorService executor, Semaphore importSlots, AtomicBoolean importFailed,
+                                                                  LDAPSyncProgress progress, Supplier<SynchronizationResult> importTask) {
+        try {
+            importSlots.acquire();
+        } catch (InterruptedException ie) {
+            Thread.currentThread().interrupt();
+            throw new ModelException("Interrupted while waiting for the import of users from LDAP", ie);
+        }
+
+        try {
+            Supplier<SynchronizationResult> task = () -> importFailed.get() ? new SynchronizationResult() : importTask.get();
+            return CompletableFuture.supplyAsync(task, executor).whenComplete((result, error) -> {
+                importSlots.release();
+                if (error != null) {
+                    importFailed.set(true);
+                } else {
+                    progress.add(result);
+                }
+            });
+        } catch (RuntimeException re) {
+            importSlots.release();
+            throw re;
+        }
     }
 
     /**
@@ -641,6 +809,25 @@ public class LDAPStorageProviderFactory implements UserStorageProviderFactory<LD
         return queryHolder.query;
     }
 
+    /**
+     * Imports the users in one transaction, so their inserts are batched. If the transaction fails, for example because
+     * of a single invalid user, the users are imported again each in its own transaction.
+     */
+    protected SynchronizationResult importLdapUsersInBatch(PassportSessionFactory sessionFactory, final String realmId, final ComponentModel fedModel, List<LDAPObject> ldapUsers) {
+        try {
+            return PassportModelUtils.runJobInTransactionWithResult(sessionFactory, session -> {
+                SynchronizationResult syncResult = new SynchronizationResult();
+                for (LDAPObject ldapUser : ldapUsers) {
+                    importLdapUser(session, realmId, fedModel, ldapUser, syncResult, () -> {});
+                }
+                return syncResult;
+            });
+        } catch (RuntimeException re) {
+            logger.debugf(re, "Failed to import a batch of %d users from LDAP, importing them one by one", ldapUsers.size());
+            return importLdapUsers(sessionFactory, realmId, fedModel, ldapUsers);
+        }
+    }
+
     protected SynchronizationResult importLdapUsers(PassportSessionFactory sessionFactory, final String realmId, final ComponentModel fedModel, List<LDAPObject> ldapUsers) {
         final SynchronizationResult syncResult = new SynchronizationResult();
 
@@ -658,47 +845,8 @@ public class LDAPStorageProviderFactory implements UserStorageProviderFactory<LD
 
                     @Override
                     public void run(PassportSession session) {
-                        LDAPStorageProvider ldapFedProvider = (LDAPStorageProvider)session.getProvider(UserStorageProvider.class, fedModel);
-                        RealmModel currentRealm = session.realms().getRealm(realmId);
-                        session.getContext().setRealm(currentRealm);
-
-                        String username = LDAPUtils.getUsername(ldapUser, ldapFedProvider.getLdapIdentityStore().getConfig());
                         exists.value = true;
-                        LDAPUtils.checkUuid(ldapUser, ldapFedProvider.getLdapIdentityStore().getConfig());
-                        UserModel currentUserLocal = UserStoragePrivateUtil.userLocalStorage(session).getUserByUsername(currentRealm, username);
-                        Optional<UserModel> userModelOptional = UserStoragePrivateUtil.userLocalStorage(session)
-                                .searchForUserByUserAttributeStream(currentRealm, LDAPConstants.LDAP_ID, ldapUser.getUuid())
-                                .findFirst();
-                        if (!userModelOptional.isPresent() && currentUserLocal == null) {
-                            // Add new user to Passport
-                            exists.value = false;
-                            ldapFedProvider.importUserFromLDAP(session, currentRealm, ldapUser);
-                            syncResult.increaseAdded();
-
-                        } else {
-                            UserModel currentUser = userModelOptional.isPresent() ? userModelOptional.get() : currentUserLocal;
-                            if ((fedModel.getId().equals(currentUser.getFederationLink())) && (ldapUser.getUuid().equals(currentUser.getFirstAttribute(LDAPConstants.LDAP_ID)))) {
-
-                                // Update passport user
-                                LDAPMappersComparator ldapMappersComparator = new LDAPMappersComparator(ldapFedProvider.getLdapIdentityStore().getConfig());
-                                currentRealm.getComponentsStream(fedModel.getId(), LDAPStorageMapper.class.getName())
-                                        .sorted(ldapMappersComparator.sortDesc())
-                                        .forEachOrdered(mapperModel -> {
-                                            LDAPStorageMapper ldapMapper = ldapFedProvider.getMapperManager().getMapper(mapperModel);
-                                            ldapMapper.onImportUserFromLDAP(ldapUser, currentUser, currentRealm, false);
-                                        });
-
-                                UserCache userCache = UserStorageUtil.userCache(session);
-                                if (userCache != null) {
-                                    userCache.evict(currentRealm, currentUser);
-                                }
-                                logger.debugf("Updated user from LDAP: %s", currentUser.getUsername());
-                                syncResult.increaseUpdated();
-                            } else {
-                                logger.warnf("User with ID '%s' is not updated during sync as he already exists in Passport database but is not linked to federation provider '%s'", ldapUser.getUuid(), fedModel.getName());
-                                syncResult.increaseFailed();
-                            }
-                        }
+                        importLdapUser(session, realmId, fedModel, ldapUser, syncResult, () -> exists.value = false);
                     }
 
                 });
@@ -742,6 +890,49 @@ public class LDAPStorageProviderFactory implements UserStorageProviderFactory<LD
         return syncResult;
     }
 
+    private void importLdapUser(PassportSession session, String realmId, ComponentModel fedModel, LDAPObject ldapUser, SynchronizationResult syncResult, Runnable onAdd) {
+        LDAPStorageProvider ldapFedProvider = (LDAPStorageProvider)session.getProvider(UserStorageProvider.class, fedModel);
+        RealmModel currentRealm = session.realms().getRealm(realmId);
+        session.getContext().setRealm(currentRealm);
+
+        String username = LDAPUtils.getUsername(ldapUser, ldapFedProvider.getLdapIdentityStore().getConfig());
+        LDAPUtils.checkUuid(ldapUser, ldapFedProvider.getLdapIdentityStore().getConfig());
+        UserModel currentUserLocal = UserStoragePrivateUtil.userLocalStorage(session).getUserByUsername(currentRealm, username);
+        Optional<UserModel> userModelOptional = UserStoragePrivateUtil.userLocalStorage(session)
+                .searchForUserByUserAttributeStream(currentRealm, LDAPConstants.LDAP_ID, ldapUser.getUuid())
+                .findFirst();
+        if (!userModelOptional.isPresent() && currentUserLocal == null) {
+            // Add new user to Passport
+            onAdd.run();
+            ldapFedProvider.importUserFromLDAP(session, currentRealm, ldapUser);
+            syncResult.increaseAdded();
+
+        } else {
+            UserModel currentUser = userModelOptional.isPresent() ? userModelOptional.get() : currentUserLocal;
+            if ((fedModel.getId().equals(currentUser.getFederationLink())) && (ldapUser.getUuid().equals(currentUser.getFirstAttribute(LDAPConstants.LDAP_ID)))) {
+
+                // Update passport user
+                LDAPMappersComparator ldapMappersComparator = new LDAPMappersComparator(ldapFedProvider.getLdapIdentityStore().getConfig());
+                currentRealm.getComponentsStream(fedModel.getId(), LDAPStorageMapper.class.getName())
+                        .sorted(ldapMappersComparator.sortDesc())
+                        .forEachOrdered(mapperModel -> {
+                            LDAPStorageMapper ldapMapper = ldapFedProvider.getMapperManager().getMapper(mapperModel);
+                            ldapMapper.onImportUserFromLDAP(ldapUser, currentUser, currentRealm, false);
+                        });
+
+                UserCache userCache = UserStorageUtil.userCache(session);
+                if (userCache != null) {
+                    userCache.evict(currentRealm, currentUser);
+                }
+                logger.debugf("Updated user from LDAP: %s", currentUser.getUsername());
+                syncResult.increaseUpdated();
+            } else {
+                logger.warnf("User with ID '%s' is not updated during sync as he already exists in Passport database but is not linked to federation provider '%s'", ldapUser.getUuid(), fedModel.getName());
+                syncResult.increaseFailed();
+            }
+        }
+    }
+
     protected SPNEGOAuthenticator createSPNEGOAuthenticator(String spnegoToken, CommonKerberosConfig kerberosConfig) {
         KerberosServerSubjectAuthenticator kerberosAuth = createKerberosSubjectAuthenticator(kerberosConfig);
         return new SPNEGOAuthenticator(kerberosConfig, kerberosAuth, spnegoToken);
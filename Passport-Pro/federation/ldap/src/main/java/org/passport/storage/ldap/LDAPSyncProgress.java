@@ -0,0 +1,103 @@
+/*
+ * Copyright 2026 Red Hat, Inc. and/or its affiliates
+ * and other contributors as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.passport.storage.ldap;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.passport.common.util.Time;
+import org.passport.representations.idm.SynchronizationProgressRepresentation;
+import org.passport.representations.idm.SynchronizationProgressRepresentation.Status;
+import org.passport.storage.UserStorageProviderModel.SyncMode;
+import org.passport.storage.user.SynchronizationResult;
+
+/**
+ * The progress of a synchronization of users from LDAP, updated by the import workers as they finish their pages.
+ */
+final class LDAPSyncProgress {
+
+    private final SyncMode mode;
+    private final Long estimatedTotal;
+    private final long startedAt = Time.currentTimeMillis();
+    private final AtomicLong added = new AtomicLong();
+    private final AtomicLong updated = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private volatile Status status = Status.RUNNING;
+    private volatile long finishedAt;
+    private volatile String error;
+
+    /**
+     * @param estimatedTotal the estimated number of users to process, or {@code null} if it is not known
+     */
+    LDAPSyncProgress(SyncMode mode, Long estimatedTotal) {
+        this.mode = mode;
+        this.estimatedTotal = estimatedTotal;
+    }
+
+    SyncMode getMode() {
+        return mode;
+    }
+
+    Status getStatus() {
+        return status;
+    }
+
+    void add(SynchronizationResult result) {
+        added.addAndGet(result.getAdded());
+        updated.addAndGet(result.getUpdated());
+        failed.addAndGet(result.getFailed());
+    }
+
+    long getProcessed() {
+        return added.get() + updated.get() + failed.get();
+    }
+
+    void finish(Throwable cause) {
+        if (cause != null) {
+            error = cause.getMessage() != null ? cause.getMessage() : cause.getClass().getName();
+        }
+        finishedAt = Time.currentTimeMillis();
+        status = cause == null ? Status.COMPLETED : Status.FAILED;
+    }
+
+    SynchronizationProgressRepresentation toRepresentation() {
+        SynchronizationProgressRepresentation rep = new SynchronizationProgressRepresentation();
+        long processed = getProcessed();
+        rep.setStatus(status);
+        rep.setMode(mode.name());
+        rep.setStartedAt(startedAt);
+        rep.setProcessed(processed);
+        rep.setAdded(added.get());
+        rep.setUpdated(updated.get());
+        rep.setFailed(failed.get());
+        rep.setError(error);
+
+        if (status != Status.RUNNING) {
+            rep.setFinishedAt(finishedAt);
+            rep.setEstimatedTotal(processed);
+        } else if (estimatedTotal != null) {
+            rep.setEstimatedTotal(Math.max(estimatedTotal, processed));
+
+            long elapsed = Time.currentTimeMillis() - startedAt;
+            if (processed > 0 && processed < estimatedTotal) {
+                // assumes the rate so far holds for the rest of the users
+                rep.setEstimatedRemainingSeconds((estimatedTotal - processed) * elapsed / processed / 1000);
+            }
+        }
+        return rep;
+    }
+}
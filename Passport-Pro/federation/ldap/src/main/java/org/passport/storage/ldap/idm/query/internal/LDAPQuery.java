@@ -218,8 +218,7 @@ public class LDAPQuery implements AutoCloseable {
     }
 
     public LDAPQuery initPagination() throws NamingException {
-        this.ldapContextManager = LDAPContextManager.create(ldapFedProvider.getSession(),
-                ldapFedProvider.getLdapIdentityStore().getConfig());
+        this.ldapContextManager = ldapFedProvider.getLdapIdentityStore().getOperationManager().createContextManager();
         this.paginationContext = new PaginationContext(ldapContextManager.getLdapContext());
         return this;
     }
@@ -0,0 +1,322 @@
+/*
+ * Copyright 2026 Red Hat, Inc. and/or its affiliates
+ * and other contributors as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.passport.storage.ldap.idm.store.ldap;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.naming.NamingException;
+import javax.naming.ServiceUnavailableException;
+import javax.naming.directory.SearchControls;
+import javax.naming.ldap.LdapContext;
+import javax.naming.ldap.StartTlsResponse;
+
+import org.passport.Config;
+import org.passport.common.util.Time;
+import org.passport.config.MetricsOptions;
+import org.passport.models.PassportSession;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import org.jboss.logging.Logger;
+
+/**
+ * A bounded pool of open and bound LDAP connections for one LDAP configuration.
+ * <p>
+ * Unlike the connection pooling of JNDI, the pool also keeps connections secured with StartTLS, so neither the TLS
+ * handshake nor the bind is repeated when a connection is reused. Connections are handed out to one caller at a
+ * time. A connection that was idle for longer than the validation interval is checked with a read of the root DSE
+ * before it is handed out, and connections idle for longer than the idle timeout are closed.
+ */
+public final class LDAPConnectionPool implements AutoCloseable {
+
+    private static final Logger logger = Logger.getLogger(LDAPConnectionPool.class);
+
+    private static final SearchControls VALIDATION_CONTROLS = new SearchControls(SearchControls.OBJECT_SCOPE, 1, 0, new String[] { "1.1" }, false, false);
+
+    /**
+     * Opens new connections for the pool. Connections must not be bound to the lifecycle of the given session.
+     */
+    @FunctionalInterface
+    public interface ConnectionFactory {
+        Connection open(PassportSession session) throws NamingException;
+    }
+
+    /**
+     * The limits of a pool.
+     *
+     * @param maxSize the maximum number of open connections
+     * @param maxWait the time in milliseconds to wait for a connection when all connections are in use
+     * @param idleTimeout the time in milliseconds after which an idle connection is closed
+     * @param validationInterval the time in milliseconds after which an idle connection is checked before it is used
+     */
+    public record Settings(int maxSize, long maxWait, long idleTimeout, long validationInterval) {
+    }
+
+    /**
+     * An open connection of the pool.
+     */
+    public static final class Connection {
+
+        private final LdapContext context;
+        private final StartTlsResponse tlsResponse;
+        private long lastUsed = Time.currentTimeMillis();
+
+        public Connection(LdapContext context, StartTlsResponse tlsResponse) {
+            this.context = context;
+            this.tlsResponse = tlsResponse;
+        }
+
+        public LdapContext getContext() {
+            return context;
+        }
+
+        private void close() {
+            if (tlsResponse != null) {
+                try {
+                    tlsResponse.close();
+                } catch (IOException e) {
+                    logger.debug("Could not close pooled LDAP tlsResponse.", e);
+                }
+            }
+            try {
+                context.close();
+            } catch (NamingException e) {
+                logger.debug("Could not close pooled LDAP context.", e);
+            }
+        }
+    }
+
+    private final String name;
+    private final Settings settings;
+    private final ConnectionFactory factory;
+    private final Deque<Connection> idle = new ArrayDeque<>();
+    private final Semaphore permits;
+    private final AtomicInteger active = new AtomicInteger();
+    private volatile boolean closed;
+
+    private final Counter created;
+    private final Counter timeouts;
+    private final Timer wait;
+    private final List<Meter> meters;
+
+    /**
+     * @param provider the id of the LDAP storage provider
+     * @param type the type of the connections of the pool, like {@code admin}
+     */
+    public LDAPConnectionPool(String provider, String type, Settings settings, ConnectionFactory factory) {
+        this.name = provider + "/" + type;
+        this.settings = settings;
+        this.factory = factory;
+        this.permits = new Semaphore(Math.max(1, settings.maxSize()), true);
+
+        if (Config.scope().root().getBoolean(MetricsOptions.METRICS_ENABLED.getKey(), Boolean.FALSE)) {
+            Tags tags = Tags.of("provider", provider, "type", type);
+            created = Counter.builder("passport.ldap.pool.connections.created")
+                    .description("LDAP connections opened by the pool.")
+                    .tags(tags)
+                    .register(Metrics.globalRegistry);
+            timeouts = Counter.builder("passport.ldap.pool.timeouts")
+                    .description("Requests for an LDAP connection that timed out because all connections of the pool were in use.")
+                    .tags(tags)
+                    .register(Metrics.globalRegistry);
+            wait = Timer.builder("passport.ldap.pool.wait")
+                    .description("Time waited for an LDAP connection of the pool.")
+                    .tags(tags)
+                    .register(Metrics.globalRegistry);
+            meters = List.of(created, timeouts, wait,
+                    Gauge.builder("passport.ldap.pool.connections", active, AtomicInteger::get)
+                            .description("LDAP connections of the pool.")
+                            .tags(tags.and("state", "active"))
+                            .register(Metrics.globalRegistry),
+                    Gauge.builder("passport.ldap.pool.connections", this, LDAPConnectionPool::getIdleCount)
+                            .description("LDAP connections of the pool.")
+                            .tags(tags.and("state", "idle"))
+                            .register(Metrics.globalRegistry));
+        } else {
+            created = null;
+            timeouts = null;
+            wait = null;
+            meters = List.of();
+        }
+    }
+
+    /**
+     * Hands out a connection of the pool, opening a new one if no idle connection is left. The connection must be
+     * given back with {@link #release(Connection, boolean)}.
+     *
+     * @throws ServiceUnavailableException if all connections are in use for longer than the configured wait time
+     */
+    public Connection borrow(PassportSession session) throws NamingException {
+        if (closed) {
+            throw new ServiceUnavailableException("LDAP connection pool " + name + " is closed");
+        }
+
+        acquirePermit();
+        try {
+            evictIdle();
+
+            Connection connection;
+            while ((connection = pollIdle()) != null) {
+                if (Time.currentTimeMillis() - connection.lastUsed < settings.validationInterval() || isValid(connection)) {
+                    break;
+                }
+                logger.debugf("Closing broken connection of LDAP connection pool %s", name);
+                connection.close();
+            }
+
+            if (connection == null) {
+                connection = factory.open(session);
+                if (created != null) {
+                    created.increment();
+                }
+            }
+
+            active.incrementAndGet();
+            return connection;
+        } catch (NamingException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    /**
+     * Gives a connection back to the pool.
+     *
+     * @param reusable {@code false} if the connection failed and must not be used again
+     */
+    public void release(Connection connection, boolean reusable) {
+        active.decrementAndGet();
+        try {
+            if (!reusable || closed || !reset(connection)) {
+                connection.close();
+                return;
+            }
+            connection.lastUsed = Time.currentTimeMillis();
+            synchronized (idle) {
+                idle.addFirst(connection);
+            }
+        } finally {
+            permits.release();
+        }
+        if (closed) {
+            // closed meanwhile, the connection was not closed together with the other idle connections
+            closeIdle();
+        }
+    }
+
+    /**
+     * Closes the connections that were idle for longer than the idle timeout.
+     */
+    public void evictIdle() {
+        long oldest = Time.currentTimeMillis() - settings.idleTimeout();
+        synchronized (idle) {
+            // the least recently used connections are at the end
+            Iterator<Connection> it = idle.descendingIterator();
+            while (it.hasNext()) {
+                Connection connection = it.next();
+                if (connection.lastUsed >= oldest) {
+                    break;
+                }
+                it.remove();
+                connection.close();
+            }
+        }
+    }
+
+    public int getActiveCount() {
+        return active.get();
+    }
+
+    public int getIdleCount() {
+        synchronized (idle) {
+            return idle.size();
+        }
+    }
+
+    /**
+     * Closes the idle connections. Connections that are in use are closed when they are given back.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        closeIdle();
+        meters.forEach(Metrics.globalRegistry::remove);
+    }
+
+    private void acquirePermit() throws NamingException {
+        long start = System.nanoTime();
+        boolean acquired;
+        try {
+            acquired = permits.tryAcquire(settings.maxWait(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ServiceUnavailableException("Interrupted while waiting for a connection of LDAP connection pool " + name);
+        }
+        if (wait != null) {
+            wait.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+        if (!acquired) {
+            if (timeouts != null) {
+                timeouts.increment();
+            }
+            throw new ServiceUnavailableException("Timed out after " + settings.maxWait() + " ms waiting for a connection of LDAP connection pool " + name);
+        }
+    }
+
+    private Connection pollIdle() {
+        synchronized (idle) {
+            return idle.pollFirst();
+        }
+    }
+
+    private void closeIdle() {
+        Connection connection;
+        while ((connection = pollIdle()) != null) {
+            connection.close();
+        }
+    }
+
+    private boolean isValid(Connection connection) {
+        try {
+            connection.context.search("", "(objectClass=*)", VALIDATION_CONTROLS).close();
+            return true;
+        } catch (NamingException e) {
+            return false;
+        }
+    }
+
+    private boolean reset(Connection connection) {
+        try {
+            // request controls set for the last operation, like paged results or password policy hints
+            connection.context.setRequestControls(null);
+            return true;
+        } catch (NamingException e) {
+            return false;
+        }
+    }
+}
@@ -2,13 +2,17 @@ package org.passport.storage.ldap.idm.store.ldap;
 
 import java.io.IOException;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Hashtable;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Properties;
+import java.util.Set;
 import javax.naming.AuthenticationException;
 import javax.naming.Context;
 import javax.naming.NamingException;
+import javax.naming.ldap.InitialLdapContext;
 import javax.naming.ldap.LdapContext;
 import javax.naming.ldap.StartTlsRequest;
 import javax.naming.ldap.StartTlsResponse;
@@ -32,8 +36,13 @@ public final class LDAPContextManager implements AutoCloseable {
 
     private static final Logger logger = Logger.getLogger(LDAPContextManager.class);
 
+    private static final String BORROWED_CONNECTIONS_ATTRIBUTE = LDAPContextManager.class.getName() + ".borrowed";
+
     private final PassportSession session;
     private final LDAPConfig ldapConfig;
+    private final LDAPConnectionPool connectionPool;
+    private LDAPConnectionPool.Connection pooledConnection;
+    private boolean broken;
     private StartTlsResponse tlsResponse;
 
     private VaultStringSecret vaultStringSecret = new VaultStringSecret() {
@@ -51,15 +60,74 @@ public final class LDAPContextManager implements AutoCloseable {
     private LdapContext ldapContext;
 
     public LDAPContextManager(PassportSession session, LDAPConfig connectionProperties) {
+        this(session, connectionProperties, null);
+    }
+
+    public LDAPContextManager(PassportSession session, LDAPConfig connectionProperties, LDAPConnectionPool connectionPool) {
         this.session = session;
         this.ldapConfig = connectionProperties;
+        this.connectionPool = connectionPool;
     }
 
     public static LDAPContextManager create(PassportSession session, LDAPConfig connectionProperties) {
         return new LDAPContextManager(session, connectionProperties);
     }
 
-    private void createLdapContext() throws NamingException {
+    /**
+     * Creates a manager that borrows its context from the given pool, if any, and gives it back when it is closed.
+     */
+    public static LDAPContextManager create(PassportSession session, LDAPConfig connectionProperties, LDAPConnectionPool connectionPool) {
+        return new LDAPContextManager(session, connectionProperties, connectionPool);
+    }
+
+    /**
+     * Opens a new connection bound with the credentials of the configuration for a {@link LDAPConnectionPool}. The
+     * connection is not bound to the lifecycle of the session.
+     */
+    public static LDAPConnectionPool.Connection openConnection(PassportSession session, LDAPConfig ldapConfig) throws NamingException {
+        try (LDAPContextManager manager = new LDAPContextManager(session, ldapConfig)) {
+            manager.createLdapContext(true);
+            LDAPConnectionPool.Connection connection = new LDAPConnectionPool.Connection(manager.ldapContext, manager.tlsResponse);
+            // handed over to the pool
+            manager.ldapContext = null;
+            manager.tlsResponse = null;
+            return connection;
+        }
+    }
+
+    /**
+     * Opens a new anonymous connection for a {@link LDAPConnectionPool} used to authenticate users. When StartTLS is
+     * enabled, TLS is negotiated before the connection is returned, so users can bind over the open connection with
+     * {@link LdapContext#reconnect}. The connection is not bound to the lifecycle of the session.
+     */
+    public static LDAPConnectionPool.Connection openAnonymousConnection(PassportSession session, LDAPConfig ldapConfig) throws NamingException {
+        Hashtable<Object, Object> env = getNonAuthConnectionProperties(ldapConfig);
+        env.put("com.sun.jndi.ldap.connect.pool", "false");
+
+        LdapContext context = new InitialLdapContext(env, null);
+        if (!ldapConfig.isStartTls()) {
+            return new LDAPConnectionPool.Connection(context, null);
+        }
+
+        try {
+            SSLSocketFactory sslSocketFactory = null;
+            if (LDAPUtil.shouldUseTruststoreSpi(ldapConfig)) {
+                sslSocketFactory = session.getProvider(TruststoreProvider.class).getSSLSocketFactory();
+            }
+            // no lookup after the negotiation, as a context sharing the connection would make a later bind open a new connection
+            StartTlsResponse tls = (StartTlsResponse) context.extendedOperation(new StartTlsRequest());
+            tls.negotiate(sslSocketFactory);
+            return new LDAPConnectionPool.Connection(context, tls);
+        } catch (IOException | NamingException | RuntimeException e) {
+            context.close();
+            logger.error("Could not negotiate TLS", e);
+            NamingException ne = new AuthenticationException("Could not negotiate TLS");
+            ne.setRootCause(e);
+            throw ne;
+        }
+    }
+
+    private void createLdapContext(boolean pooled) throws NamingException {
         var tracing = session.getProvider(TracingProvider.class);
         tracing.startSpan(LDAPContextManager.class, "createLdapContext");
         try {
@@ -78,7 +146,12 @@ public final class LDAPContextManager implements AutoCloseable {
                 connProp.put(LDAPConstants.CONNECTION_TRACE_BER, System.err);
             }
 
-            ldapContext = new SessionBoundInitialLdapContext(session, connProp, null);
+            if (pooled) {
+                connProp.put("com.sun.jndi.ldap.connect.pool", "false");
+                ldapContext = new InitialLdapContext(connProp, null);
+            } else {
+                ldapContext = new SessionBoundInitialLdapContext(session, connProp, null);
+            }
             if (ldapConfig.isStartTls()) {
                 SSLSocketFactory sslSocketFactory = null;
                 if (LDAPUtil.shouldUseTruststoreSpi(ldapConfig)) {
@@ -103,11 +176,42 @@ public final class LDAPContextManager implements AutoCloseable {
     }
 
     public LdapContext getLdapContext() throws NamingException {
-        if (ldapContext == null) createLdapContext();
+        if (ldapContext == null) {
+            if (connectionPool != null) {
+                pooledConnection = connectionPool.borrow(session);
+                ldapContext = pooledConnection.getContext();
+                getBorrowedConnections(session).add(this);
+            } else {
+                createLdapContext(false);
+            }
+        }
 
         return ldapContext;
     }
 
+    /**
+     * Returns the managers of the session holding a pooled connection. When the session is closed, the connections of
+     * managers not closed yet are given back, like a session bound context is closed.
+     */
+    @SuppressWarnings("unchecked")
+    private static Set<LDAPContextManager> getBorrowedConnections(PassportSession session) {
+        Set<LDAPContextManager> borrowed = session.getAttribute(BORROWED_CONNECTIONS_ATTRIBUTE, Set.class);
+        if (borrowed == null) {
+            borrowed = new HashSet<>();
+            session.setAttribute(BORROWED_CONNECTIONS_ATTRIBUTE, borrowed);
+            Set<LDAPContextManager> managers = borrowed;
+            session.enlistForClose(() -> List.copyOf(managers).forEach(LDAPContextManager::close));
+        }
+        return borrowed;
+    }
+
+    /**
+     * Marks the context as broken, so a pooled connection is closed instead of being reused.
+     */
+    public void invalidate() {
+        broken = true;
+    }
+
     private VaultStringSecret getVaultSecret() {
         return LDAPConstants.AUTH_TYPE_NONE.equals(ldapConfig.getAuthType())
                 ? null
@@ -251,6 +355,15 @@ public final class LDAPContextManager implements AutoCloseable {
 
     @Override
     public void close() {
+        if (pooledConnection != null) {
+            LDAPConnectionPool.Connection connection = pooledConnection;
+            pooledConnection = null;
+            ldapContext = null;
+            getBorrowedConnections(session).remove(this);
+            connectionPool.release(connection, !broken);
+            return;
+        }
+
         if (vaultStringSecret != null) vaultStringSecret.close();
         if (tlsResponse != null) {
             try {
@@ -81,8 +81,12 @@ public class LDAPIdentityStore implements IdentityStore {
     private final LDAPOperationManager operationManager;
 
     public LDAPIdentityStore(PassportSession session, LDAPConfig config) {
+        this(session, config, null, null);
+    }
+
+    public LDAPIdentityStore(PassportSession session, LDAPConfig config, LDAPConnectionPool connectionPool, LDAPConnectionPool authConnectionPool) {
         this.config = config;
-        this.operationManager = new LDAPOperationManager(session, config);
+        this.operationManager = new LDAPOperationManager(session, config, connectionPool, authConnectionPool);
     }
 
     @Override
@@ -90,6 +94,10 @@ public class LDAPIdentityStore implements IdentityStore {
         return this.config;
     }
 
+    public LDAPOperationManager getOperationManager() {
+        return this.operationManager;
+    }
+
     @Override
     public void add(LDAPObject ldapObject) {
         // id will be assigned by the ldap server
@@ -26,10 +26,12 @@ import java.util.List;
 import java.util.Set;
 import javax.naming.AuthenticationException;
 import javax.naming.Binding;
+import javax.naming.CommunicationException;
 import javax.naming.Context;
 import javax.naming.NameAlreadyBoundException;
 import javax.naming.NamingEnumeration;
 import javax.naming.NamingException;
+import javax.naming.ServiceUnavailableException;
 import javax.naming.directory.Attribute;
 import javax.naming.directory.Attributes;
 import javax.naming.directory.DirContext;
@@ -75,10 +77,30 @@ public class LDAPOperationManager {
 
     private final PassportSession session;
     private final LDAPConfig config;
+    private final LDAPConnectionPool connectionPool;
+    private final LDAPConnectionPool authConnectionPool;
 
     public LDAPOperationManager(PassportSession session, LDAPConfig config) {
+        this(session, config, null, null);
+    }
+
+    /**
+     * @param connectionPool the pool of connections bound with the credentials of the configuration, or {@code null} to open a new connection per session
+     * @param authConnectionPool the pool of connections used to authenticate users, or {@code null} to open a new connection per authentication
+     */
+    public LDAPOperationManager(PassportSession session, LDAPConfig config, LDAPConnectionPool connectionPool, LDAPConnectionPool authConnectionPool) {
         this.session = session;
         this.config = config;
+        this.connectionPool = connectionPool;
+        this.authConnectionPool = authConnectionPool;
+    }
+
+    /**
+     * Creates a context manager for operations spanning several requests, like paginated searches. The caller must
+     * close it.
+     */
+    public LDAPContextManager createContextManager() {
+        return LDAPContextManager.create(session, config, connectionPool);
     }
 
     /**
@@ -492,6 +514,11 @@ public class LDAPOperationManager {
         tracing.startSpan(LDAPOperationManager.class, "authenticate");
 
         try {
+            if (authConnectionPool != null) {
+                authenticatePooled(dn, password);
+                return;
+            }
+
             Hashtable<Object, Object> env = LDAPContextManager.getNonAuthConnectionProperties(config);
 
             // Never use connection pool to prevent password caching
@@ -554,6 +581,37 @@ public class LDAPOperationManager {
         }
     }
 
+    private void authenticatePooled(LdapName dn, String password) throws NamingException {
+        LDAPConnectionPool.Connection connection = authConnectionPool.borrow(session);
+        boolean reusable = false;
+        try {
+            LdapContext authCtx = connection.getContext();
+            authCtx.addToEnvironment(Context.SECURITY_AUTHENTICATION, "simple");
+            authCtx.addToEnvironment(Context.SECURITY_PRINCIPAL, dn.toString());
+            authCtx.addToEnvironment(Context.SECURITY_CREDENTIALS, password);
+            // binds over the open connection, which keeps TLS negotiated with StartTLS. The connection is not reused
+            // after a failed bind, whose state depends on the server.
+            authCtx.reconnect(null);
+            reusable = true;
+        } finally {
+            reusable &= clearCredentials(connection.getContext());
+            authConnectionPool.release(connection, reusable);
+        }
+    }
+
+    // Never keep the password of the user in the pooled context, its next bind is anonymous
+    private boolean clearCredentials(LdapContext authCtx) {
+        try {
+            authCtx.removeFromEnvironment(Context.SECURITY_CREDENTIALS);
+            authCtx.removeFromEnvironment(Context.SECURITY_PRINCIPAL);
+            authCtx.removeFromEnvironment(Context.SECURITY_AUTHENTICATION);
+            return true;
+        } catch (NamingException e) {
+            logger.debug("Could not clear the credentials of a pooled LDAP context", e);
+            return false;
+        }
+    }
+
     public void modifyAttributesNaming(final LdapName dn, final ModificationItem[] mods, LDAPOperationDecorator decorator) throws NamingException {
         if (logger.isTraceEnabled()) {
             logger.tracef("Modifying attributes for entry [%s]: [", dn);
@@ -710,8 +768,14 @@ public class LDAPOperationManager {
     }
 
     private <R> R execute(LdapOperation<R> operation, LDAPOperationDecorator decorator) throws NamingException {
-        try (LDAPContextManager ldapContextManager = LDAPContextManager.create(session, config)) {
-            return execute(operation, ldapContextManager.getLdapContext(), decorator);
+        try (LDAPContextManager ldapContextManager = LDAPContextManager.create(session, config, connectionPool)) {
+            try {
+                return execute(operation, ldapContextManager.getLdapContext(), decorator);
+            } catch (CommunicationException | ServiceUnavailableException | RuntimeException e) {
+                // the connection might be broken, don't give it to the next operation
+                ldapContextManager.invalidate();
+                throw e;
+            }
         }
     }
 
@@ -0,0 +1,84 @@
+/*
+ * Copyright 2026 Red Hat, Inc. and/or its affiliates
+ * and other contributors as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.passport.storage.ldap;
+
+import org.passport.common.util.Time;
+import org.passport.representations.idm.SynchronizationProgressRepresentation;
+import org.passport.representations.idm.SynchronizationProgressRepresentation.Status;
+import org.passport.storage.UserStorageProviderModel.SyncMode;
+import org.passport.storage.user.SynchronizationResult;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class LDAPSyncProgressTest {
+
+    @After
+    public void after() {
+        Time.setOffset(0);
+    }
+
+    @Test
+    public void testEstimatedRemainingTime() {
+        LDAPSyncProgress progress = new LDAPSyncProgress(SyncMode.FULL, 1000L);
+        progress.add(result(200, 50, 0));
+
+        Time.setOffset(100);
+        SynchronizationProgressRepresentation rep = progress.toRepresentation();
+        Assert.assertEquals(Status.RUNNING, rep.getStatus());
+        Assert.assertEquals("FULL", rep.getMode());
+        Assert.assertEquals(Long.valueOf(250), rep.getProcessed());
+        Assert.assertEquals(Long.valueOf(1000), rep.getEstimatedTotal());
+        // 250 users in 100 seconds, 750 left
+        Assert.assertEquals(300, rep.getEstimatedRemainingSeconds(), 1);
+    }
+
+    @Test
+    public void testUnknownTotal() {
+        LDAPSyncProgress progress = new LDAPSyncProgress(SyncMode.CHANGED, null);
+        progress.add(result(1, 2, 3));
+
+        SynchronizationProgressRepresentation rep = progress.toRepresentation();
+        Assert.assertEquals(Long.valueOf(6), rep.getProcessed());
+        Assert.assertNull(rep.getEstimatedTotal());
+        Assert.assertNull(rep.getEstimatedRemainingSeconds());
+    }
+
+    @Test
+    public void testFinished() {
+        LDAPSyncProgress progress = new LDAPSyncProgress(SyncMode.FULL, 1000L);
+        progress.add(result(10, 0, 1));
+        progress.finish(new IllegalStateException("LDAP unavailable"));
+
+        SynchronizationProgressRepresentation rep = progress.toRepresentation();
+        Assert.assertEquals(Status.FAILED, rep.getStatus());
+        Assert.assertEquals("LDAP unavailable", rep.getError());
+        Assert.assertEquals(Long.valueOf(11), rep.getEstimatedTotal());
+        Assert.assertNull(rep.getEstimatedRemainingSeconds());
+        Assert.assertNotNull(rep.getFinishedAt());
+    }
+
+    private static SynchronizationResult result(int added, int updated, int failed) {
+        SynchronizationResult result = new SynchronizationResult();
+        result.setAdded(added);
+        result.setUpdated(updated);
+        result.setFailed(failed);
+        return result;
+    }
+}
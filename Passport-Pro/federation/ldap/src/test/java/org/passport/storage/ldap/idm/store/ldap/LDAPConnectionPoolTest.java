@@ -0,0 +1,204 @@
+/*
+ * Copyright 2026 Red Hat, Inc. and/or its affiliates
+ * and other contributors as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.passport.storage.ldap.idm.store.ldap;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.naming.CommunicationException;
+import javax.naming.NamingEnumeration;
+import javax.naming.NamingException;
+import javax.naming.ServiceUnavailableException;
+import javax.naming.ldap.LdapContext;
+
+import org.passport.common.util.Time;
+import org.passport.models.PassportSession;
+import org.passport.provider.Provider;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class LDAPConnectionPoolTest {
+
+    private final AtomicInteger opened = new AtomicInteger();
+    private final AtomicInteger closed = new AtomicInteger();
+    private final AtomicBoolean broken = new AtomicBoolean();
+
+    @After
+    public void after() {
+        Time.setOffset(0);
+    }
+
+    @Test
+    public void testConnectionIsReused() throws NamingException {
+        try (LDAPConnectionPool pool = createPool(2, 300000, 30000)) {
+            LDAPConnectionPool.Connection connection = pool.borrow(null);
+            Assert.assertEquals(1, pool.getActiveCount());
+            pool.release(connection, true);
+            Assert.assertEquals(0, pool.getActiveCount());
+            Assert.assertEquals(1, pool.getIdleCount());
+
+            Assert.assertSame(connection, pool.borrow(null));
+            Assert.assertEquals(1, opened.get());
+        }
+    }
+
+    @Test
+    public void testBrokenConnectionIsNotReused() throws NamingException {
+        try (LDAPConnectionPool pool = createPool(2, 300000, 30000)) {
+            LDAPConnectionPool.Connection connection = pool.borrow(null);
+            pool.release(connection, false);
+            Assert.assertEquals(0, pool.getIdleCount());
+            Assert.assertEquals(1, closed.get());
+
+            Assert.assertNotSame(connection, pool.borrow(null));
+            Assert.assertEquals(2, opened.get());
+        }
+    }
+
+    @Test
+    public void testBorrowTimesOutWhenPoolIsExhausted() throws NamingException {
+        try (LDAPConnectionPool pool = createPool(1, 300000, 30000)) {
+            LDAPConnectionPool.Connection connection = pool.borrow(null);
+            Assert.assertThrows(ServiceUnavailableException.class, () -> pool.borrow(null));
+
+            pool.release(connection, true);
+            Assert.assertSame(connection, pool.borrow(null));
+        }
+    }
+
+    @Test
+    public void testIdleConnectionIsEvicted() throws NamingException {
+        try (LDAPConnectionPool pool = createPool(2, 60000, 30000)) {
+            pool.release(pool.borrow(null), true);
+
+            Time.setOffset(61);
+            pool.evictIdle();
+            Assert.assertEquals(0, pool.getIdleCount());
+            Assert.assertEquals(1, closed.get());
+        }
+    }
+
+    @Test
+    public void testIdleConnectionIsValidated() throws NamingException {
+        try (LDAPConnectionPool pool = createPool(2, 300000, 30000)) {
+            LDAPConnectionPool.Connection connection = pool.borrow(null);
+            pool.release(connection, true);
+
+            // checked after the validation interval, and replaced when the check fails
+            Time.setOffset(31);
+            Assert.assertSame(connection, pool.borrow(null));
+            Assert.assertEquals(1, opened.get());
+            pool.release(connection, true);
+
+            broken.set(true);
+            Time.setOffset(62);
+            Assert.assertNotSame(connection, pool.borrow(null));
+            Assert.assertEquals(2, opened.get());
+            Assert.assertEquals(1, closed.get());
+        }
+    }
+
+    @Test
+    public void testCloseClosesConnections() throws NamingException {
+        LDAPConnectionPool pool = createPool(2, 300000, 30000);
+        LDAPConnectionPool.Connection idle = pool.borrow(null);
+        LDAPConnectionPool.Connection active = pool.borrow(null);
+        pool.release(idle, true);
+
+        pool.close();
+        Assert.assertEquals(1, closed.get());
+        Assert.assertThrows(ServiceUnavailableException.class, () -> pool.borrow(null));
+
+        pool.release(active, true);
+        Assert.assertEquals(2, closed.get());
+    }
+
+    @Test
+    public void testSessionGivesBackConnectionsNotGivenBack() throws NamingException {
+        List<Provider> enlisted = new ArrayList<>();
+        PassportSession session = createSession(enlisted);
+        try (LDAPConnectionPool pool = createPool(2, 300000, 30000)) {
+            for (int i = 0; i < 100; i++) {
+                try (LDAPContextManager manager = LDAPContextManager.create(session, null, pool)) {
+                    manager.getLdapContext();
+                }
+            }
+            LDAPContextManager notClosed = LDAPContextManager.create(session, null, pool);
+            notClosed.getLdapContext();
+            Assert.assertEquals(1, pool.getActiveCount());
+            // a single callback for all managers of the session
+            Assert.assertEquals(1, enlisted.size());
+
+            enlisted.forEach(Provider::close);
+            Assert.assertEquals(0, pool.getActiveCount());
+            Assert.assertEquals(1, pool.getIdleCount());
+            Assert.assertEquals(1, opened.get());
+        }
+    }
+
+    private static PassportSession createSession(List<Provider> enlisted) {
+        Map<String, Object> attributes = new HashMap<>();
+        return (PassportSession) Proxy.newProxyInstance(LDAPConnectionPoolTest.class.getClassLoader(), new Class<?>[] { PassportSession.class }, (proxy, method, args) -> {
+            switch (method.getName()) {
+                case "getAttribute":
+                    return attributes.get((String) args[0]);
+                case "setAttribute":
+                    attributes.put((String) args[0], args[1]);
+                    return null;
+                case "enlistForClose":
+                    enlisted.add((Provider) args[0]);
+                    return null;
+                default:
+                    throw new UnsupportedOperationException(method.getName());
+            }
+        });
+    }
+
+    private LDAPConnectionPool createPool(int maxSize, long idleTimeout, long validationInterval) {
+        return new LDAPConnectionPool("test", "admin", new LDAPConnectionPool.Settings(maxSize, 10, idleTimeout, validationInterval),
+                session -> new LDAPConnectionPool.Connection(createContext(), null));
+    }
+
+    private LdapContext createContext() {
+        opened.incrementAndGet();
+        return (LdapContext) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[] { LdapContext.class }, (proxy, method, args) -> {
+            switch (method.getName()) {
+                case "search":
+                    if (broken.get()) {
+                        throw new CommunicationException("connection closed");
+                    }
+                    return Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[] { NamingEnumeration.class }, (p, m, a) -> null);
+                case "close":
+                    closed.incrementAndGet();
+                    return null;
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "equals":
+                    return proxy == args[0];
+                default:
+                    return null;
+            }
+        });
+    }
+}
@@ -42,6 +42,7 @@ import org.passport.representations.idm.EventRepresentation;
 import org.passport.representations.idm.GroupRepresentation;
 import org.passport.representations.idm.LDAPCapabilityRepresentation;
 import org.passport.representations.idm.PartialImportRepresentation;
+import org.passport.representations.idm.PasswordHashMigrationRepresentation;
 import org.passport.representations.idm.RealmEventsConfigRepresentation;
 import org.passport.representations.idm.RealmRepresentation;
 import org.passport.representations.idm.TestLdapConnectionRepresentation;
@@ -380,6 +381,16 @@ public interface RealmResource {
     @Produces(MediaType.APPLICATION_JSON)
     GlobalRequestResult pushRevocation();
 
+    @Path("password-hash-migration")
+    @POST
+    @Produces(MediaType.APPLICATION_JSON)
+    PasswordHashMigrationRepresentation startPasswordHashMigration();
+
+    @Path("password-hash-migration")
+    @GET
+    @Produces(MediaType.APPLICATION_JSON)
+    PasswordHashMigrationRepresentation getPasswordHashMigration();
+
     @Path("logout-all")
     @POST
     @Produces(MediaType.APPLICATION_JSON)
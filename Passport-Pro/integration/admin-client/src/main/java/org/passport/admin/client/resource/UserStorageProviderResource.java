@@ -16,6 +16,7 @@
  */
 package org.passport.admin.client.resource;
 
+import jakarta.ws.rs.GET;
 import jakarta.ws.rs.POST;
 import jakarta.ws.rs.Path;
 import jakarta.ws.rs.PathParam;
@@ -23,6 +24,7 @@ import jakarta.ws.rs.Produces;
 import jakarta.ws.rs.QueryParam;
 import jakarta.ws.rs.core.MediaType;
 
+import org.passport.representations.idm.SynchronizationProgressRepresentation;
 import org.passport.representations.idm.SynchronizationResultRepresentation;
 
 /**
@@ -45,6 +47,17 @@ public interface UserStorageProviderResource {
     @Produces(MediaType.APPLICATION_JSON)
     SynchronizationResultRepresentation syncUsers(@PathParam("componentId") String componentId, @QueryParam("action") String action);
 
+    /**
+     * Get the progress of the last sync of users started on the server
+     *
+     * @param componentId
+     * @return
+     */
+    @GET
+    @Path("{componentId}/sync")
+    @Produces(MediaType.APPLICATION_JSON)
+    SynchronizationProgressRepresentation getSyncProgress(@PathParam("componentId") String componentId);
+
     /**
      * Remove imported users
      *
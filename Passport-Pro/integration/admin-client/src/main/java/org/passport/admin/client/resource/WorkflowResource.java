@@ -11,6 +11,7 @@ import jakarta.ws.rs.Produces;
 import jakarta.ws.rs.QueryParam;
 import jakarta.ws.rs.core.Response;
 
+import org.passport.representations.workflows.WorkflowActivationRepresentation;
 import org.passport.representations.workflows.WorkflowRepresentation;
 
 import static jakarta.ws.rs.core.MediaType.APPLICATION_JSON;
@@ -36,6 +37,21 @@ public interface WorkflowResource {
     @POST
     void activate(@PathParam("type") String type, @PathParam("resourceId") String resourceId, @QueryParam("notBefore") String notBefore);
 
+    @Path("activation")
+    @POST
+    @Produces(APPLICATION_JSON)
+    WorkflowActivationRepresentation activateAll();
+
+    @Path("activation")
+    @POST
+    @Produces(APPLICATION_JSON)
+    WorkflowActivationRepresentation activateAll(@QueryParam("notBefore") String notBefore);
+
+    @Path("activation")
+    @GET
+    @Produces(APPLICATION_JSON)
+    WorkflowActivationRepresentation getActivation();
+
     @Path("deactivate/{type}/{resourceId}")
     @POST
     void deactivate(@PathParam("type") String type, @PathParam("resourceId") String resourceId);
@@ -189,6 +189,15 @@ public final class Marshalling {
     public static final int VALUE_IDENTITY_BI_FUNCTION = 65619;
     public static final int LOGIN_FAILURES_LIFESPAN_UPDATE = 65620;
 
+    /** see {@link org.passport.storage.UserLookupInvalidationEvent} */
+    public static final int USER_LOOKUP_INVALIDATION_EVENT = 65621;
+
+    /** see {@link org.passport.models.sessions.infinispan.events.RevokedTokenEvent} */
+    public static final int REVOKED_TOKEN_EVENT = 65622;
+
+    /** see {@link org.passport.protocol.oidc.IntrospectionCacheInvalidationEvent} */
+    public static final int INTROSPECTION_CACHE_INVALIDATION_EVENT = 65623;
+
     public static void configure(GlobalConfigurationBuilder builder) {
         getSchemas().forEach(builder.serialization()::addContextInitializer);
     }
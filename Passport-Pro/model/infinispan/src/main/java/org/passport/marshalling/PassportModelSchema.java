@@ -87,6 +87,7 @@ import org.passport.models.sessions.infinispan.entities.UserSessionEntity;
 import org.passport.models.sessions.infinispan.events.RealmRemovedSessionEvent;
 import org.passport.models.sessions.infinispan.events.RemoveAllUserLoginFailuresEvent;
 import org.passport.models.sessions.infinispan.events.RemoveUserSessionsEvent;
+import org.passport.models.sessions.infinispan.events.RevokedTokenEvent;
 import org.passport.models.sessions.infinispan.stream.AuthClientSessionSetMapper;
 import org.passport.models.sessions.infinispan.stream.ClientSessionFilterByUser;
 import org.passport.models.sessions.infinispan.stream.CollectionToStreamMapper;
@@ -99,7 +100,9 @@ import org.passport.models.sessions.infinispan.stream.SessionUnwrapMapper;
 import org.passport.models.sessions.infinispan.stream.SessionWrapperPredicate;
 import org.passport.models.sessions.infinispan.stream.UserSessionPredicate;
 import org.passport.models.sessions.infinispan.stream.ValueIdentityBiFunction;
+import org.passport.protocol.oidc.IntrospectionCacheInvalidationEvent;
 import org.passport.sessions.CommonClientSessionModel;
+import org.passport.storage.UserLookupInvalidationEvent;
 import org.passport.storage.UserStorageProviderClusterEvent;
 import org.passport.storage.UserStorageProviderModel;
 
@@ -130,6 +133,8 @@ import org.infinispan.protostream.types.java.CommonTypes;
                 ComponentModel.MultiMapEntry.class,
                 UserStorageProviderModel.class,
                 UserStorageProviderClusterEvent.class,
+                UserLookupInvalidationEvent.class,
+                IntrospectionCacheInvalidationEvent.class,
 
                 // clustering.infinispan package
                 LockEntry.class,
@@ -170,6 +175,7 @@ import org.infinispan.protostream.types.java.CommonTypes;
                 RealmRemovedSessionEvent.class,
                 RemoveAllUserLoginFailuresEvent.class,
                 RemoveUserSessionsEvent.class,
+                RevokedTokenEvent.class,
 
                 // models.sessions.infinispan.stream package
                 SessionPredicate.class,
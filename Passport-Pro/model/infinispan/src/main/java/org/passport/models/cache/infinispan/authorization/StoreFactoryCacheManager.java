@@ -85,6 +85,11 @@ public class StoreFactoryCacheManager extends CacheManager {
         invalidations.add(StoreFactoryCacheSession.getPermissionTicketByResource(id, serverId));
         addInvalidations(InResourcePredicate.create(name), invalidations);
 
+        if (Objects.equals(owner, serverId)) {
+            // resources owned by the resource server are indexed by type in the policy index
+            invalidations.add(StoreFactoryCacheSession.getPolicyIndexCacheKey(serverId));
+        }
+
         if (type != null) {
             invalidations.add(StoreFactoryCacheSession.getResourceByTypeCacheKey(type, serverId));
             invalidations.add(StoreFactoryCacheSession.getResourceByTypeCacheKey(type, owner, serverId));
@@ -115,6 +120,7 @@ public class StoreFactoryCacheManager extends CacheManager {
     public void policyUpdated(String id, String name, Set<String> resources, Set<String> resourceTypes, Set<String> scopes, String serverId, Set<String> invalidations) {
         invalidations.add(id);
         invalidations.add(StoreFactoryCacheSession.getPolicyByNameCacheKey(name, serverId));
+        invalidations.add(StoreFactoryCacheSession.getPolicyIndexCacheKey(serverId));
 
         if (resources != null) {
             for (String resource : resources) {
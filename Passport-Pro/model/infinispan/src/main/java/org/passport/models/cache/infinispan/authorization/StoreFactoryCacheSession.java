@@ -57,6 +57,7 @@ import org.passport.models.cache.infinispan.authorization.entities.PermissionTic
 import org.passport.models.cache.infinispan.authorization.entities.PermissionTicketQuery;
 import org.passport.models.cache.infinispan.authorization.entities.PermissionTicketResourceListQuery;
 import org.passport.models.cache.infinispan.authorization.entities.PermissionTicketScopeListQuery;
+import org.passport.models.cache.infinispan.authorization.entities.PolicyIndex;
 import org.passport.models.cache.infinispan.authorization.entities.PolicyListQuery;
 import org.passport.models.cache.infinispan.authorization.entities.PolicyQuery;
 import org.passport.models.cache.infinispan.authorization.entities.PolicyResourceListQuery;
@@ -388,6 +389,10 @@ public class StoreFactoryCacheSession implements CachedStoreFactoryProvider {
         return "policy.resource. " + resourceId + ".scope." + scope + "." + serverId;
     }
 
+    public static String getPolicyIndexCacheKey(String serverId) {
+        return "policy.index." + serverId;
+    }
+
     public static String getPermissionTicketByResource(String resourceId, String serverId) {
         return "permission.ticket.resource." + resourceId + "." + serverId;
     }
@@ -944,6 +949,11 @@ public class StoreFactoryCacheSession implements CachedStoreFactoryProvider {
 
         @Override
         public void findByResource(ResourceServer resourceServer, Resource resource, Consumer<Policy> consumer) {
+            PolicyIndex index = getPolicyIndex(resourceServer);
+            if (index != null) {
+                consumePolicies(resourceServer, index.getByResource(resource.getId()), consumer);
+                return;
+            }
             String resourceServerId = resourceServer == null ? null : resourceServer.getId();
             String cacheKey = getPolicyByResource(resource.getId(), resourceServerId);
             cacheQuery(cacheKey, PolicyResourceListQuery.class, () -> {
@@ -971,6 +981,11 @@ public class StoreFactoryCacheSession implements CachedStoreFactoryProvider {
 
         @Override
         public void findByResourceType(ResourceServer resourceServer, String resourceType, Consumer<Policy> consumer) {
+            PolicyIndex index = getPolicyIndex(resourceServer);
+            if (index != null) {
+                consumePolicies(resourceServer, index.getByResourceType(resourceType), consumer);
+                return;
+            }
             String resourceServerId = resourceServer == null ? null : resourceServer.getId();
             String cacheKey = getPolicyByResourceType(resourceType, resourceServerId);
             cacheQuery(cacheKey, PolicyResourceListQuery.class, () -> {
@@ -988,6 +1003,16 @@ public class StoreFactoryCacheSession implements CachedStoreFactoryProvider {
                     (revision, policies) -> new PolicyResourceListQuery(revision, cacheKey, resourceType, policies.stream().map(Policy::getId).collect(Collectors.toSet()), resourceServerId), resourceServer, consumer);
         }
 
+        @Override
+        public void findByResourcesOfType(ResourceServer resourceServer, String resourceType, Consumer<Policy> consumer) {
+            PolicyIndex index = getPolicyIndex(resourceServer);
+            if (index != null) {
+                consumePolicies(resourceServer, index.getByResourcesOfType(resourceType), consumer);
+                return;
+            }
+            getPolicyStoreDelegate().findByResourcesOfType(resourceServer, resourceType, consumer);
+        }
+
         @Override
         public List<Policy> findByScopes(ResourceServer resourceServer, List<Scope> scopes) {
             if (scopes == null) return null;
@@ -1018,6 +1043,13 @@ public class StoreFactoryCacheSession implements CachedStoreFactoryProvider {
 
         @Override
         public void findByScopes(ResourceServer resourceServer, Resource resource, List<Scope> scopes, Consumer<Policy> consumer) {
+            PolicyIndex index = resource == null ? getPolicyIndex(resourceServer) : null;
+            if (index != null) {
+                for (Scope scope : scopes) {
+                    consumePolicies(resourceServer, index.getByScope(scope.getId()), consumer);
+                }
+                return;
+            }
             String resourceServerId = resourceServer == null ? null : resourceServer.getId();
             String resourceId = resource == null ? null : resource.getId();
             for (Scope scope : scopes) {
@@ -1055,6 +1087,36 @@ public class StoreFactoryCacheSession implements CachedStoreFactoryProvider {
             return getPolicyStoreDelegate().findDependentPolicies(resourceServer, resourceType, groupResourceType, associatedPolicyType, configKey, configValue);
         }
 
+        /**
+         * Returns the {@link PolicyIndex} of the resource server, building and caching it if needed, or {@code null}
+         * if the policies of the resource server were changed in the current transaction.
+         */
+        private PolicyIndex getPolicyIndex(ResourceServer resourceServer) {
+            if (resourceServer == null) return null;
+            String cacheKey = getPolicyIndexCacheKey(resourceServer.getId());
+            PolicyIndex index = cache.get(cacheKey, PolicyIndex.class);
+            if (index != null) {
+                logger.tracev("cache hit for key: {0}", cacheKey);
+                return index.isInvalid(invalidations) ? null : index;
+            }
+            if (invalidations.contains(cacheKey) || invalidations.contains(resourceServer.getId())) return null;
+            Long loaded = cache.getCurrentRevision(cacheKey);
+            List<Policy> policies = getPolicyStoreDelegate().findByResourceServer(resourceServer);
+            index = new PolicyIndex(loaded, cacheKey, resourceServer.getId(), policies);
+            policies.forEach(StoreFactoryCacheSession.this::cachePolicy);
+            cache.addRevisioned(index, startupRevision);
+            return index;
+        }
+
+        private void consumePolicies(ResourceServer resourceServer, Set<String> ids, Consumer<Policy> consumer) {
+            for (String id : ids) {
+                Policy policy = findById(resourceServer, id);
+                if (policy != null) {
+                    consumer.accept(policy);
+                }
+            }
+        }
+
         private <R extends Policy, Q extends PolicyQuery> List<R> cacheQuery(String cacheKey, Class<Q> queryType, Supplier<List<R>> resultSupplier, BiFunction<Long, List<R>, Q> querySupplier, ResourceServer resourceServer) {
             return cacheQuery(cacheKey, queryType, resultSupplier, querySupplier, resourceServer, null, true);
         }
@@ -0,0 +1,121 @@
+/*
+ * Copyright 2026 Red Hat, Inc. and/or its affiliates
+ * and other contributors as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.passport.models.cache.infinispan.authorization.entities;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.passport.authorization.model.Policy;
+import org.passport.authorization.model.Resource;
+import org.passport.authorization.model.Scope;
+import org.passport.models.cache.infinispan.entities.AbstractRevisioned;
+
+/**
+ * The policies of a resource server indexed by the resources, resource types and scopes they apply to, so that
+ * the policies of a permission can be looked up without querying the database.
+ * <p>
+ * The index holds only policy ids and reproduces the queries of the {@link org.passport.authorization.store.PolicyStore}
+ * used during evaluation. It is built from all policies of the resource server and invalidated as a whole whenever
+ * one of them changes, or a resource owned by the resource server changes.
+ *
+ * @see org.passport.models.cache.infinispan.authorization.StoreFactoryCacheSession#getPolicyIndexCacheKey(String)
+ */
+public class PolicyIndex extends AbstractRevisioned implements InResourceServer {
+
+    private static final String DEFAULT_RESOURCE_TYPE = "defaultResourceType";
+
+    private final String serverId;
+    private final Map<String, Set<String>> byResource = new HashMap<>();
+    private final Map<String, Set<String>> byResourceType = new HashMap<>();
+    private final Map<String, Set<String>> byResourcesOfType = new HashMap<>();
+    private final Map<String, Set<String>> byScope = new HashMap<>();
+
+    public PolicyIndex(Long revision, String id, String serverId, List<Policy> policies) {
+        super(revision, id);
+        this.serverId = serverId;
+
+        for (Policy policy : policies) {
+            String policyId = policy.getId();
+            Set<Resource> resources = policy.getResources();
+            String defaultResourceType = policy.getConfig().get(DEFAULT_RESOURCE_TYPE);
+
+            for (Resource resource : resources) {
+                add(byResource, resource.getId(), policyId);
+
+                if (resource.getType() != null && serverId.equals(resource.getOwner())) {
+                    add(byResourcesOfType, resource.getType(), policyId);
+                }
+            }
+
+            if (defaultResourceType != null && !policy.getAssociatedPolicies().isEmpty()) {
+                add(byResourceType, defaultResourceType, policyId);
+            }
+
+            if ("scope".equals(policy.getType()) && resources.isEmpty() && defaultResourceType == null) {
+                for (Scope scope : policy.getScopes()) {
+                    add(byScope, scope.getId(), policyId);
+                }
+            }
+        }
+    }
+
+    @Override
+    public String getResourceServerId() {
+        return serverId;
+    }
+
+    /**
+     * Returns the ids of the policies associated with the given resource.
+     */
+    public Set<String> getByResource(String resourceId) {
+        return byResource.getOrDefault(resourceId, Collections.emptySet());
+    }
+
+    /**
+     * Returns the ids of the policies with the given default resource type.
+     */
+    public Set<String> getByResourceType(String resourceType) {
+        return byResourceType.getOrDefault(resourceType, Collections.emptySet());
+    }
+
+    /**
+     * Returns the ids of the policies associated with any resource of the given type owned by the resource server.
+     */
+    public Set<String> getByResourcesOfType(String resourceType) {
+        return byResourcesOfType.getOrDefault(resourceType, Collections.emptySet());
+    }
+
+    /**
+     * Returns the ids of the scope permissions for the given scope that are not associated with any resource or
+     * resource type.
+     */
+    public Set<String> getByScope(String scopeId) {
+        return byScope.getOrDefault(scopeId, Collections.emptySet());
+    }
+
+    public boolean isInvalid(Set<String> invalidations) {
+        return invalidations.contains(getId()) || invalidations.contains(getResourceServerId());
+    }
+
+    private static void add(Map<String, Set<String>> index, String key, String policyId) {
+        index.computeIfAbsent(key, k -> new LinkedHashSet<>()).add(policyId);
+    }
+}
@@ -46,12 +46,19 @@ public class InfinispanSingleUseObjectProvider implements SingleUseObjectProvide
     private final BasicCache<String, SingleUseObjectValueEntity> singleUseObjectCache;
     private final boolean persistRevokedTokens;
     private final InfinispanPassportTransaction tx;
+    private final RevokedTokenFilter revokedTokenFilter;
 
     public InfinispanSingleUseObjectProvider(PassportSession session, BasicCache<String, SingleUseObjectValueEntity> singleUseObjectCache, boolean persistRevokedTokens, InfinispanPassportTransaction tx) {
+        this(session, singleUseObjectCache, persistRevokedTokens, tx, null);
+    }
+
+    public InfinispanSingleUseObjectProvider(PassportSession session, BasicCache<String, SingleUseObjectValueEntity> singleUseObjectCache, boolean persistRevokedTokens, InfinispanPassportTransaction tx,
+                                             RevokedTokenFilter revokedTokenFilter) {
         this.session = session;
         this.singleUseObjectCache = singleUseObjectCache;
         this.persistRevokedTokens = persistRevokedTokens;
         this.tx = tx;
+        this.revokedTokenFilter = revokedTokenFilter;
     }
 
     @Override
@@ -72,6 +79,9 @@ public class InfinispanSingleUseObjectProvider implements SingleUseObjectProvide
             }
             session.getProvider(RevokedTokenPersisterProvider.class).revokeToken(key.substring(0, key.length() - REVOKED_KEY.length()), lifespanSeconds);
         }
+        if (revokedTokenFilter != null) {
+            revokedTokenFilter.revoked(session, key, lifespanSeconds);
+        }
     }
 
     @Override
@@ -124,6 +134,9 @@ public class InfinispanSingleUseObjectProvider implements SingleUseObjectProvide
             if (persistRevokedTokens && key.endsWith(REVOKED_KEY)) {
                 session.getProvider(RevokedTokenPersisterProvider.class).revokeToken(key.substring(0, key.length() - REVOKED_KEY.length()), lifespanInSeconds);
             }
+            if (revokedTokenFilter != null) {
+                revokedTokenFilter.revoked(session, key, lifespanInSeconds);
+            }
             return existing == null;
         } catch (HotRodClientException re) {
             // No need to retry. The hotrod (remoteCache) has some retries in itself in case of some random network error happened.
@@ -137,7 +150,15 @@ public class InfinispanSingleUseObjectProvider implements SingleUseObjectProvide
 
     @Override
     public boolean contains(String key) {
-        return singleUseObjectCache.containsKey(key);
+        if (revokedTokenFilter == null) {
+            return singleUseObjectCache.containsKey(key);
+        }
+        if (revokedTokenFilter.isNotRevoked(key)) {
+            return false;
+        }
+        boolean contains = singleUseObjectCache.containsKey(key);
+        revokedTokenFilter.recordLookup(key, contains);
+        return contains;
     }
 
     @Override
@@ -26,7 +26,9 @@ import java.util.Set;
 import java.util.concurrent.TimeUnit;
 
 import org.passport.Config;
+import org.passport.cluster.ClusterProvider;
 import org.passport.common.util.Time;
+import org.passport.config.MetricsOptions;
 import org.passport.connections.infinispan.InfinispanConnectionProvider;
 import org.passport.infinispan.util.InfinispanUtils;
 import org.passport.models.PassportSession;
@@ -36,6 +38,7 @@ import org.passport.models.SingleUseObjectProviderFactory;
 import org.passport.models.session.RevokedTokenPersisterProvider;
 import org.passport.models.sessions.infinispan.entities.SingleUseObjectValueEntity;
 import org.passport.models.sessions.infinispan.transaction.InfinispanTransactionProvider;
+import org.passport.models.utils.PassportModelUtils;
 import org.passport.models.utils.PostMigrationEvent;
 import org.passport.provider.EnvironmentDependentProviderFactory;
 import org.passport.provider.Provider;
@@ -56,11 +59,18 @@ public class InfinispanSingleUseObjectProviderFactory implements SingleUseObject
     public static final String CONFIG_PERSIST_REVOKED_TOKENS = "persistRevokedTokens";
     public static final boolean DEFAULT_PERSIST_REVOKED_TOKENS = true;
     public static final String LOADED = "loaded" + SingleUseObjectProvider.REVOKED_KEY;
+    public static final String CONFIG_REVOKED_TOKENS_FILTER = "revokedTokensFilter";
+    public static final boolean DEFAULT_REVOKED_TOKENS_FILTER = false;
+    public static final String CONFIG_REVOKED_TOKENS_FILTER_EXPECTED_TOKENS = "revokedTokensFilterExpectedTokens";
+    public static final int DEFAULT_REVOKED_TOKENS_FILTER_EXPECTED_TOKENS = 10000;
+    public static final String CONFIG_REVOKED_TOKENS_FILTER_FALSE_POSITIVE_RATE = "revokedTokensFilterFalsePositiveRate";
+    public static final String DEFAULT_REVOKED_TOKENS_FILTER_FALSE_POSITIVE_RATE = "0.01";
 
     protected BasicCache<String, SingleUseObjectValueEntity> singleUseObjectCache;
 
     private volatile boolean initialized;
     private boolean persistRevokedTokens;
+    private RevokedTokenFilter revokedTokenFilter;
 
     @Override
     public Set<Class<? extends Provider>> dependsOn() {
@@ -70,12 +80,37 @@ public class InfinispanSingleUseObjectProviderFactory implements SingleUseObject
     @Override
     public InfinispanSingleUseObjectProvider create(PassportSession session) {
         initialize(session);
-        return new InfinispanSingleUseObjectProvider(session, singleUseObjectCache, persistRevokedTokens, createTransaction(session));
+        return new InfinispanSingleUseObjectProvider(session, singleUseObjectCache, persistRevokedTokens, createTransaction(session), revokedTokenFilter);
     }
 
     @Override
     public void init(Config.Scope config) {
         persistRevokedTokens = config.getBoolean(CONFIG_PERSIST_REVOKED_TOKENS, DEFAULT_PERSIST_REVOKED_TOKENS);
+        revokedTokenFilter = createRevokedTokenFilter(config, persistRevokedTokens);
+    }
+
+    /**
+     * Creates the filter of revoked tokens if it is enabled. It needs the revoked tokens to be persisted, as a node
+     * can only know all revoked tokens when it starts by loading them from the database.
+     */
+    public static RevokedTokenFilter createRevokedTokenFilter(Config.Scope config, boolean persistRevokedTokens) {
+        if (!persistRevokedTokens || !config.getBoolean(CONFIG_REVOKED_TOKENS_FILTER, DEFAULT_REVOKED_TOKENS_FILTER)) {
+            return null;
+        }
+        return new RevokedTokenFilter(config.getInt(CONFIG_REVOKED_TOKENS_FILTER_EXPECTED_TOKENS, DEFAULT_REVOKED_TOKENS_FILTER_EXPECTED_TOKENS),
+                Double.parseDouble(config.get(CONFIG_REVOKED_TOKENS_FILTER_FALSE_POSITIVE_RATE, DEFAULT_REVOKED_TOKENS_FILTER_FALSE_POSITIVE_RATE)));
+    }
+
+    /**
+     * Starts the filter of revoked tokens. Revocations of other nodes are received before the persisted revoked
+     * tokens are loaded, so no revocation is missed in between.
+     */
+    public static void startRevokedTokenFilter(PassportSession session, RevokedTokenFilter revokedTokenFilter) {
+        session.getProvider(ClusterProvider.class).registerListener(RevokedTokenFilter.CLUSTER_TASK_KEY, revokedTokenFilter);
+        revokedTokenFilter.load(session.getProvider(RevokedTokenPersisterProvider.class).getAllRevokedTokens());
+        if (Config.scope().root().getBoolean(MetricsOptions.METRICS_ENABLED.getKey(), Boolean.FALSE)) {
+            revokedTokenFilter.registerMetrics();
+        }
     }
 
     private void initialize(PassportSession session) {
@@ -120,6 +155,9 @@ public class InfinispanSingleUseObjectProviderFactory implements SingleUseObject
                         // load sessions during startup, not on first request to avoid congestion
                         initialize(session);
                     }
+                    if (revokedTokenFilter != null) {
+                        PassportModelUtils.runJobInTransaction(sessionFactory, session -> startRevokedTokenFilter(session, revokedTokenFilter));
+                    }
                 }
             });
         }
@@ -127,7 +165,9 @@ public class InfinispanSingleUseObjectProviderFactory implements SingleUseObject
 
     @Override
     public void close() {
-
+        if (revokedTokenFilter != null) {
+            revokedTokenFilter.close();
+        }
     }
 
     @Override
@@ -149,6 +189,7 @@ public class InfinispanSingleUseObjectProviderFactory implements SingleUseObject
     public Map<String, String> getOperationalInfo() {
         Map<String, String> info = new HashMap<>();
         info.put(CONFIG_PERSIST_REVOKED_TOKENS, Boolean.toString(persistRevokedTokens));
+        info.put(CONFIG_REVOKED_TOKENS_FILTER, Boolean.toString(revokedTokenFilter != null));
         return info;
     }
 
@@ -162,10 +203,32 @@ public class InfinispanSingleUseObjectProviderFactory implements SingleUseObject
                 .helpText("If revoked tokens are stored persistently across restarts")
                 .defaultValue(DEFAULT_PERSIST_REVOKED_TOKENS)
                 .add();
+        addRevokedTokenFilterConfigMetadata(builder);
 
         return builder.build();
     }
 
+    public static void addRevokedTokenFilterConfigMetadata(ProviderConfigurationBuilder builder) {
+        builder.property()
+                .name(CONFIG_REVOKED_TOKENS_FILTER)
+                .type("boolean")
+                .helpText("If an in-memory filter of revoked tokens is used, so checking that a token is not revoked doesn't need a cache lookup. Requires revoked tokens to be stored persistently, and all nodes of the cluster to support it, so enable it only once no node of an older version is running.")
+                .defaultValue(DEFAULT_REVOKED_TOKENS_FILTER)
+                .add();
+        builder.property()
+                .name(CONFIG_REVOKED_TOKENS_FILTER_EXPECTED_TOKENS)
+                .type("int")
+                .helpText("Number of tokens revoked with a close expiry for which the filter meets its false-positive rate")
+                .defaultValue(DEFAULT_REVOKED_TOKENS_FILTER_EXPECTED_TOKENS)
+                .add();
+        builder.property()
+                .name(CONFIG_REVOKED_TOKENS_FILTER_FALSE_POSITIVE_RATE)
+                .type("string")
+                .helpText("Rate of tokens that are not revoked, but still need a cache lookup, with the expected number of revoked tokens")
+                .defaultValue(DEFAULT_REVOKED_TOKENS_FILTER_FALSE_POSITIVE_RATE)
+                .add();
+    }
+
     private static InfinispanPassportTransaction createTransaction(PassportSession session) {
         InfinispanTransactionProvider transactionProvider = session.getProvider(InfinispanTransactionProvider.class);
         InfinispanPassportTransaction tx = new InfinispanPassportTransaction();
@@ -42,6 +42,7 @@ import org.passport.models.sessions.infinispan.changes.CacheHolder;
 import org.passport.models.sessions.infinispan.changes.ClientSessionPersistentChangelogBasedTransaction;
 import org.passport.models.sessions.infinispan.changes.InfinispanChangelogBasedTransaction;
 import org.passport.models.sessions.infinispan.changes.InfinispanChangesUtils;
+import org.passport.models.sessions.infinispan.changes.LastSessionRefreshQueue;
 import org.passport.models.sessions.infinispan.changes.PersistentSessionsWorker;
 import org.passport.models.sessions.infinispan.changes.PersistentUpdate;
 import org.passport.models.sessions.infinispan.changes.UserSessionPersistentChangelogBasedTransaction;
@@ -61,11 +62,13 @@ import org.passport.models.sessions.infinispan.util.SessionTimeouts;
 import org.passport.models.utils.PassportModelUtils;
 import org.passport.models.utils.PostMigrationEvent;
 import org.passport.models.utils.ResetTimeOffsetEvent;
+import org.passport.models.utils.SessionTimeoutHelper;
 import org.passport.provider.EnvironmentDependentProviderFactory;
 import org.passport.provider.Provider;
 import org.passport.provider.ProviderConfigProperty;
 import org.passport.provider.ProviderConfigurationBuilder;
 import org.passport.provider.ServerInfoAwareProviderFactory;
+import org.passport.timer.TimerProvider;
 
 import org.jboss.logging.Logger;
 
@@ -92,6 +95,11 @@ public class InfinispanUserSessionProviderFactory implements UserSessionProvider
     public static final String CONFIG_EXPIRATION_PERIOD = "sessionExpirationPeriod";
     private static final int DEFAULT_EXPIRATION_PERIOD_SECONDS = 180;
     private static final int MIN_EXPIRATION_PERIOD_SECONDS = 60; // anything below 60s may be too frequent.
+    public static final String CONFIG_LAST_SESSION_REFRESH_WINDOW = "lastSessionRefreshWindow";
+    private static final int DEFAULT_LAST_SESSION_REFRESH_WINDOW_SECONDS = 0;
+    // the periodic cleaner tolerates lastSessionRefresh values in the database which are this much behind
+    private static final int MAX_LAST_SESSION_REFRESH_WINDOW_SECONDS = SessionTimeoutHelper.PERIODIC_TASK_INTERVAL_SECONDS;
+    private static final String LAST_SESSION_REFRESH_TASK_NAME = "persistent-last-session-refresh";
 
     private CacheHolder<String, UserSessionEntity> sessionCacheHolder;
     private CacheHolder<String, UserSessionEntity> offlineSessionCacheHolder;
@@ -111,6 +119,9 @@ public class InfinispanUserSessionProviderFactory implements UserSessionProvider
     private boolean useCaches;
     private boolean useBatches;
     private int expirationPeriodSeconds;
+    private int lastSessionRefreshWindowSeconds;
+    private LastSessionRefreshQueue lastSessionRefreshQueue;
+    private PassportSessionFactory sessionFactory;
 
     @Override
     public UserSessionProvider create(PassportSession session) {
@@ -155,6 +166,10 @@ public class InfinispanUserSessionProviderFactory implements UserSessionProvider
             asyncQueuePersistentUpdate = new ArrayBlockingQueue<>(1000);
         }
         expirationPeriodSeconds = getExpirationPeriodSeconds(config);
+        lastSessionRefreshWindowSeconds = getLastSessionRefreshWindowSeconds(config);
+        if (lastSessionRefreshWindowSeconds > 0 && useCaches && MultiSiteUtils.isPersistentSessionsEnabled()) {
+            lastSessionRefreshQueue = new LastSessionRefreshQueue();
+        }
     }
 
     @Override
@@ -194,6 +209,13 @@ public class InfinispanUserSessionProviderFactory implements UserSessionProvider
                     maxBatchSize);
             persistentSessionsWorker.start();
         }
+        if (lastSessionRefreshQueue != null) {
+            sessionFactory = factory;
+            try (var session = factory.create()) {
+                session.getProvider(TimerProvider.class).schedule(() -> lastSessionRefreshQueue.flush(factory),
+                        TimeUnit.SECONDS.toMillis(lastSessionRefreshWindowSeconds), LAST_SESSION_REFRESH_TASK_NAME);
+            }
+        }
 
         if (MultiSiteUtils.isPersistentSessionsEnabled()) {
             if (useCaches) {
@@ -313,6 +335,9 @@ public class InfinispanUserSessionProviderFactory implements UserSessionProvider
         if (persistentSessionsWorker != null) {
             persistentSessionsWorker.stop();
         }
+        if (lastSessionRefreshQueue != null && sessionFactory != null) {
+            lastSessionRefreshQueue.close(sessionFactory);
+        }
         if (expirationListener != null) {
             sessionCacheHolder.cache().removeListener(expirationListener);
             expirationListener = null;
@@ -347,6 +372,7 @@ public class InfinispanUserSessionProviderFactory implements UserSessionProvider
         info.put(CONFIG_USE_CACHES, Boolean.toString(useCaches));
         info.put(CONFIG_USE_BATCHES, Boolean.toString(useBatches));
         info.put(CONFIG_EXPIRATION_PERIOD, Integer.toString(expirationPeriodSeconds));
+        info.put(CONFIG_LAST_SESSION_REFRESH_WINDOW, Integer.toString(lastSessionRefreshWindowSeconds));
         return info;
     }
 
@@ -392,6 +418,15 @@ public class InfinispanUserSessionProviderFactory implements UserSessionProvider
                 .helpText("Sets the expiration task run period, to remove the expired session.")
                 .add();
 
+        builder.property()
+                .name(CONFIG_LAST_SESSION_REFRESH_WINDOW)
+                .type("int")
+                .helpText("Interval in seconds in which refreshes of persistent user sessions are collected and written to the database in batches. "
+                        + "Repeated refreshes of a session in this interval result in a single write. Disabled with 0, at most "
+                        + MAX_LAST_SESSION_REFRESH_WINDOW_SECONDS + " seconds. Only applicable to persistent sessions with caches enabled.")
+                .defaultValue(DEFAULT_LAST_SESSION_REFRESH_WINDOW_SECONDS)
+                .add();
+
         return builder.build();
     }
 
@@ -421,6 +456,15 @@ public class InfinispanUserSessionProviderFactory implements UserSessionProvider
         return period;
     }
 
+    static int getLastSessionRefreshWindowSeconds(Config.Scope config) {
+        int window = config.getInt(CONFIG_LAST_SESSION_REFRESH_WINDOW, DEFAULT_LAST_SESSION_REFRESH_WINDOW_SECONDS);
+        if (window > MAX_LAST_SESSION_REFRESH_WINDOW_SECONDS) {
+            log.warnf("Invalid lastSessionRefresh window of %d seconds. Setting it to %d seconds", window, MAX_LAST_SESSION_REFRESH_WINDOW_SECONDS);
+            return MAX_LAST_SESSION_REFRESH_WINDOW_SECONDS;
+        }
+        return Math.max(0, window);
+    }
+
     private VolatileTransactions createVolatileTransaction(PassportSession session) {
         var sessionTx = new InfinispanChangelogBasedTransaction<>(session, sessionCacheHolder);
         var offlineSessionTx = new InfinispanChangelogBasedTransaction<>(session, offlineSessionCacheHolder);
@@ -438,6 +482,7 @@ public class InfinispanUserSessionProviderFactory implements UserSessionProvider
     private PersistentTransaction createPersistentTransaction(PassportSession session) {
         var sessionTx = new UserSessionPersistentChangelogBasedTransaction(session,
                 asyncQueuePersistentUpdate,
+                lastSessionRefreshQueue,
                 sessionCacheHolder,
                 offlineSessionCacheHolder);
 
@@ -0,0 +1,320 @@
+/*
+ * Copyright 2026 Red Hat, Inc. and/or its affiliates
+ * and other contributors as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.passport.models.sessions.infinispan;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Stream;
+
+import org.passport.cluster.ClusterEvent;
+import org.passport.cluster.ClusterListener;
+import org.passport.cluster.ClusterProvider;
+import org.passport.common.util.Time;
+import org.passport.models.AbstractPassportTransaction;
+import org.passport.models.PassportSession;
+import org.passport.models.SingleUseObjectProvider;
+import org.passport.models.session.RevokedToken;
+import org.passport.models.sessions.infinispan.events.RevokedTokenEvent;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.Metrics;
+import org.infinispan.commons.hash.MurmurHash3;
+import org.jboss.logging.Logger;
+
+/**
+ * An in-memory Bloom filter of the ids of revoked tokens, so checking that a token is not revoked usually doesn't
+ * need a lookup in the single-use object store.
+ * <p>
+ * Revocations are grouped in buckets by the time they expire, with one Bloom filter per bucket. A bucket is dropped as
+ * a whole once all its revocations have expired, so entries never have to be removed one by one. Buckets are five
+ * minutes wide for revocations expiring within the hour, one hour wide for those expiring within the day and one day
+ * wide beyond, so long-lived refresh and offline tokens do not create a bucket each. The number of buckets is capped
+ * by merging the two buckets expiring last. Revocations made on other nodes are added through a
+ * {@link RevokedTokenEvent}, which is sent once the revoking transaction committed.
+ * <p>
+ * The filter only answers once it was loaded with all the revoked tokens persisted in the database, see
+ * {@link #load(Stream)}. Until then, every check falls through to the store.
+ */
+public class RevokedTokenFilter implements ClusterListener {
+
+    private static final Logger logger = Logger.getLogger(RevokedTokenFilter.class);
+
+    public static final String CLUSTER_TASK_KEY = "revoked-token-filter";
+
+    static final int MAX_BUCKETS = 64;
+
+    // a bucket is kept a bit longer than its revocations, for clocks of cluster nodes that are ahead
+    private static final long GRACE_SECONDS = 300;
+    private static final long MINUTES_BUCKET_SECONDS = 300;
+    private static final long HOURS_BUCKET_SECONDS = 3600;
+    private static final long DAYS_BUCKET_SECONDS = 86400;
+    private static final String METER_NAME_PREFIX = "passport.revoked.tokens.filter.";
+
+    // by the time before which all revocations of the bucket expire
+    private final ConcurrentNavigableMap<Long, Bucket> buckets = new ConcurrentSkipListMap<>();
+    private final int bitsPerBucket;
+    private final int hashes;
+    private final LongAdder negatives = new LongAdder();
+    private final LongAdder positives = new LongAdder();
+    private final LongAdder falsePositives = new LongAdder();
+    private final List<Meter> meters = new ArrayList<>();
+    private volatile boolean ready;
+
+    /**
+     * @param expectedTokens the number of revocations per bucket for which the false-positive rate is met
+     * @param falsePositiveRate the false-positive rate of a bucket holding the expected number of revocations
+     */
+    public RevokedTokenFilter(int expectedTokens, double falsePositiveRate) {
+        double bits = -expectedTokens * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2));
+        this.bitsPerBucket = (int) Math.min(Integer.MAX_VALUE - 63, Math.max(64, Math.ceil(bits)));
+        this.hashes = (int) Math.max(1, Math.round(bitsPerBucket / (double) expectedTokens * Math.log(2)));
+    }
+
+    /**
+     * Returns {@code true} if the key is a revoked-token key, and the filter knows that the token was not revoked.
+     */
+    public boolean isNotRevoked(String key) {
+        if (!ready || !isRevokedTokenKey(key)) {
+            return false;
+        }
+        if (mightContain(toTokenId(key))) {
+            return false;
+        }
+        negatives.increment();
+        return true;
+    }
+
+    /**
+     * Records the result of a store lookup of a key for which {@link #isNotRevoked(String)} returned {@code false}.
+     */
+    public void recordLookup(String key, boolean found) {
+        if (ready && isRevokedTokenKey(key)) {
+            (found ? positives : falsePositives).increment();
+        }
+    }
+
+    /**
+     * Adds a token revoked in this session, and sends it to the other nodes of the cluster once the transaction of the
+     * session committed. Sending it earlier would let a node that starts in between miss the revocation, as it would
+     * neither receive the event nor find the revoked token in the database.
+     */
+    public void revoked(PassportSession session, String key, long lifespanSeconds) {
+        if (!isRevokedTokenKey(key)) {
+            return;
+        }
+        RevokedTokenEvent event = new RevokedTokenEvent(toTokenId(key), Time.currentTime() + lifespanSeconds);
+        add(event.tokenId(), event.expiry());
+        session.getTransactionManager().enlistAfterCompletion(new AbstractPassportTransaction() {
+            @Override
+            protected void commitImpl() {
+                session.getProvider(ClusterProvider.class).notify(CLUSTER_TASK_KEY, event, true);
+            }
+
+            @Override
+            protected void rollbackImpl() {
+                // the revocation stays in the local filter, which only causes a lookup in the store
+            }
+        });
+    }
+
+    /**
+     * Adds the revoked tokens persisted in the database, after which the filter starts answering.
+     */
+    public void load(Stream<RevokedToken> revokedTokens) {
+        long currentTime = Time.currentTime();
+        revokedTokens.filter(token -> token.expiry() > currentTime).forEach(token -> add(token.tokenId(), token.expiry()));
+        ready = true;
+        logger.debugf("Loaded revoked token filter with %d buckets", buckets.size());
+    }
+
+    boolean isReady() {
+        return ready;
+    }
+
+    @Override
+    public void eventReceived(ClusterEvent event) {
+        if (event instanceof RevokedTokenEvent revoked) {
+            add(revoked.tokenId(), revoked.expiry());
+        }
+    }
+
+    public void registerMetrics() {
+        meters.add(Gauge.builder(METER_NAME_PREFIX + "memory", this, RevokedTokenFilter::getMemoryBytes)
+                .description("Memory used by the revoked token filter")
+                .baseUnit("bytes")
+                .register(Metrics.globalRegistry));
+        meters.add(Gauge.builder(METER_NAME_PREFIX + "false.positive.rate", this, RevokedTokenFilter::getEstimatedFalsePositiveRate)
+                .description("Estimated false-positive rate of the revoked token filter")
+                .register(Metrics.globalRegistry));
+        meters.add(Gauge.builder(METER_NAME_PREFIX + "buckets", buckets, Map::size)
+                .description("Buckets of the revoked token filter")
+                .register(Metrics.globalRegistry));
+        meters.add(registerLookupCounter("negative", negatives));
+        meters.add(registerLookupCounter("positive", positives));
+        meters.add(registerLookupCounter("false_positive", falsePositives));
+    }
+
+    public void close() {
+        meters.forEach(Metrics.globalRegistry::remove);
+        meters.clear();
+    }
+
+    private static Meter registerLookupCounter(String result, LongAdder count) {
+        return FunctionCounter.builder(METER_NAME_PREFIX + "lookups", count, LongAdder::sum)
+                .description("Checks of revoked tokens, by the result of the filter and of the store lookup on a filter hit")
+                .tag("result", result)
+                .register(Metrics.globalRegistry);
+    }
+
+    long getMemoryBytes() {
+        return (long) buckets.size() * ((bitsPerBucket + 63) / 64) * 8;
+    }
+
+    int getBucketCount() {
+        return buckets.size();
+    }
+
+    /**
+     * Returns the probability that a token that was not revoked is found in one of the buckets.
+     */
+    double getEstimatedFalsePositiveRate() {
+        double negative = 1;
+        for (Bucket bucket : buckets.values()) {
+            negative *= 1 - Math.pow(1 - Math.exp(-hashes * (double) bucket.count.get() / bitsPerBucket), hashes);
+        }
+        return 1 - negative;
+    }
+
+    void add(String tokenId, long expiry) {
+        long currentTime = Time.currentTime();
+        if (expiry + GRACE_SECONDS <= currentTime) {
+            return;
+        }
+        long[] hash = hash(tokenId);
+        long expiresBefore = expiresBefore(expiry, currentTime);
+        synchronized (buckets) {
+            purge(currentTime);
+            Bucket bucket = buckets.computeIfAbsent(expiresBefore, time -> new Bucket(bitsPerBucket));
+            bucket.add(hash, hashes, bitsPerBucket);
+            if (buckets.size() > MAX_BUCKETS) {
+                mergeLastBuckets();
+            }
+        }
+    }
+
+    boolean mightContain(String tokenId) {
+        long currentTime = Time.currentTime();
+        Long first = buckets.isEmpty() ? null : buckets.firstKey();
+        if (first != null && first + GRACE_SECONDS <= currentTime) {
+            synchronized (buckets) {
+                purge(currentTime);
+            }
+        }
+        long[] hash = hash(tokenId);
+        for (Bucket bucket : buckets.values()) {
+            if (bucket.mightContain(hash, hashes, bitsPerBucket)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void purge(long currentTime) {
+        buckets.headMap(currentTime - GRACE_SECONDS, true).clear();
+    }
+
+    private void mergeLastBuckets() {
+        // merge into the bucket expiring last, and only then remove the other one, so concurrent lookups always find the revocations
+        Map.Entry<Long, Bucket> last = buckets.lastEntry();
+        Map.Entry<Long, Bucket> previous = buckets.lowerEntry(last.getKey());
+        last.getValue().merge(previous.getValue());
+        buckets.remove(previous.getKey());
+    }
+
+    /**
+     * Returns the end of the bucket for a revocation, which is coarser the later the revocation expires.
+     */
+    static long expiresBefore(long expiry, long currentTime) {
+        long remaining = expiry - currentTime;
+        long width = remaining <= HOURS_BUCKET_SECONDS ? MINUTES_BUCKET_SECONDS
+                : remaining <= DAYS_BUCKET_SECONDS ? HOURS_BUCKET_SECONDS : DAYS_BUCKET_SECONDS;
+        return (expiry / width + 1) * width;
+    }
+
+    private static boolean isRevokedTokenKey(String key) {
+        return key.endsWith(SingleUseObjectProvider.REVOKED_KEY) && !key.equals(InfinispanSingleUseObjectProviderFactory.LOADED);
+    }
+
+    private static String toTokenId(String key) {
+        return key.substring(0, key.length() - SingleUseObjectProvider.REVOKED_KEY.length());
+    }
+
+    private static long[] hash(String tokenId) {
+        return MurmurHash3.MurmurHash3_x64_128(tokenId.getBytes(StandardCharsets.UTF_8), 9001);
+    }
+
+    private static final class Bucket {
+
+        private final AtomicLongArray words;
+        private final AtomicInteger count = new AtomicInteger();
+
+        Bucket(int bits) {
+            words = new AtomicLongArray((bits + 63) / 64);
+        }
+
+        void add(long[] hash, int hashes, int bits) {
+            for (int i = 0; i < hashes; i++) {
+                int bit = index(hash, i, bits);
+                long mask = 1L << bit;
+                words.getAndAccumulate(bit >>> 6, mask, (word, m) -> word | m);
+            }
+            count.incrementAndGet();
+        }
+
+        void merge(Bucket other) {
+            for (int i = 0; i < words.length(); i++) {
+                words.getAndAccumulate(i, other.words.get(i), (word, m) -> word | m);
+            }
+            count.addAndGet(other.count.get());
+        }
+
+        boolean mightContain(long[] hash, int hashes, int bits) {
+            for (int i = 0; i < hashes; i++) {
+                int bit = index(hash, i, bits);
+                if ((words.get(bit >>> 6) & (1L << bit)) == 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private static int index(long[] hash, int i, int bits) {
+            // double hashing, see Kirsch and Mitzenmacher, "Less Hashing, Same Performance"
+            return (int) Long.remainderUnsigned(hash[0] + i * hash[1], bits);
+        }
+    }
+}
@@ -32,6 +32,7 @@ import org.passport.models.RealmModel;
 import org.passport.models.UserModel;
 import org.passport.models.UserSessionModel;
 import org.passport.models.UserSessionProvider;
+import org.passport.models.sessions.infinispan.changes.LastSessionRefreshUpdateTask;
 import org.passport.models.sessions.infinispan.changes.SessionsChangelogBasedTransaction;
 import org.passport.models.sessions.infinispan.changes.Tasks;
 import org.passport.models.sessions.infinispan.changes.UserSessionUpdateTask;
@@ -229,28 +230,7 @@ public class UserSessionAdapter<T extends SessionRefreshStore & UserSessionProvi
             provider.getPersisterLastSessionRefreshStore().putLastSessionRefresh(session, entity.getId(), realm.getId(), lastSessionRefresh);
         }
 
-        UserSessionUpdateTask task = new UserSessionUpdateTask() {
-
-            @Override
-            public void runUpdate(UserSessionEntity entity) {
-                if (entity.getLastSessionRefresh() >= lastSessionRefresh) {
-                    return;
-                }
-                entity.setLastSessionRefresh(lastSessionRefresh);
-            }
-
-            @Override
-            public boolean isOffline() {
-                return offline;
-            }
-
-            @Override
-            public String toString() {
-                return "setLastSessionRefresh(" + lastSessionRefresh + ')';
-            }
-        };
-
-        update(task);
+        update(new LastSessionRefreshUpdateTask(lastSessionRefresh, offline));
     }
 
     @Override
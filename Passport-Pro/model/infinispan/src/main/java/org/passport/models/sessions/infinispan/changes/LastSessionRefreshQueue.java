@@ -0,0 +1,187 @@
+/*
+ * Copyright 2026 Red Hat, Inc. and/or its affiliates
+ * and other contributors as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.passport.models.sessions.infinispan.changes;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+import org.passport.Config;
+import org.passport.config.MetricsOptions;
+import org.passport.models.PassportSessionFactory;
+import org.passport.models.RealmModel;
+import org.passport.models.session.UserSessionPersisterProvider;
+import org.passport.models.utils.PassportModelUtils;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
+import org.jboss.logging.Logger;
+
+/**
+ * Collects the lastSessionRefresh updates of persistent user sessions and writes them to the database periodically.
+ * <p>
+ * Repeated refreshes of the same user session until the next flush are merged into a single update with the latest
+ * value. A flush writes the updates of each realm and session type in its own transaction as one JDBC batch, see
+ * {@link UserSessionPersisterProvider#updateLastSessionRefreshes(RealmModel, Map, boolean)}.
+ * <p>
+ * The cached user sessions are updated immediately, only the database lags behind by at most one flush interval. If
+ * a node stops abruptly, the updates not yet flushed are lost and the database keeps the previous lastSessionRefresh.
+ * <p>
+ * This class is thread safe.
+ */
+public class LastSessionRefreshQueue {
+
+    private static final Logger log = Logger.getLogger(LastSessionRefreshQueue.class);
+
+    private final ConcurrentMap<Group, ConcurrentMap<String, Integer>> pending = new ConcurrentHashMap<>();
+    private final AtomicLong received = new AtomicLong();
+    private final AtomicLong written = new AtomicLong();
+
+    private Counter receivedCounter;
+    private Counter writtenCounter;
+    private Timer flushTimer;
+    private Gauge sizeGauge;
+    private Gauge coalescingRatioGauge;
+
+    public LastSessionRefreshQueue() {
+        if (Config.scope().root().getBoolean(MetricsOptions.METRICS_ENABLED.getKey(), Boolean.FALSE)) {
+            registerMetrics();
+        }
+    }
+
+    /**
+     * Queues the lastSessionRefresh of a user session. An update still queued for the same session is replaced if the
+     * new value is more recent.
+     */
+    public void offer(String realmId, String userSessionId, boolean offline, int lastSessionRefresh) {
+        pending.computeIfAbsent(new Group(realmId, offline), group -> new ConcurrentHashMap<>())
+                .merge(userSessionId, lastSessionRefresh, Math::max);
+        received.incrementAndGet();
+        if (receivedCounter != null) {
+            receivedCounter.increment();
+        }
+    }
+
+    /**
+     * Writes all queued updates to the database. Updates of a realm which fail to be written are queued again and
+     * retried with the next flush.
+     */
+    public void flush(PassportSessionFactory factory) {
+        long start = System.nanoTime();
+        int count = 0;
+        for (Map.Entry<Group, ConcurrentMap<String, Integer>> entry : pending.entrySet()) {
+            Group group = entry.getKey();
+            Map<String, Integer> refreshes = drain(entry.getValue());
+            if (refreshes.isEmpty()) {
+                continue;
+            }
+            try {
+                // Separate transaction for each realm to keep the transactions short
+                PassportModelUtils.runJobInTransaction(factory, session -> {
+                    RealmModel realm = session.realms().getRealm(group.realmId());
+                    // If realm is null, it was deleted in the meantime together with its user sessions
+                    if (realm != null) {
+                        session.getProvider(UserSessionPersisterProvider.class).updateLastSessionRefreshes(realm, refreshes, group.offline());
+                    }
+                });
+                count += refreshes.size();
+            } catch (RuntimeException e) {
+                log.warnf(e, "Failed to write lastSessionRefresh of %d user sessions of realm '%s', will retry", refreshes.size(), group.realmId());
+                refreshes.forEach((userSessionId, lastSessionRefresh) -> entry.getValue().merge(userSessionId, lastSessionRefresh, Math::max));
+            }
+        }
+        if (count == 0) {
+            return;
+        }
+        written.addAndGet(count);
+        long duration = System.nanoTime() - start;
+        if (writtenCounter != null) {
+            writtenCounter.increment(count);
+            flushTimer.record(duration, TimeUnit.NANOSECONDS);
+        }
+        log.debugf("Wrote lastSessionRefresh of %d user sessions in %d ms", count, TimeUnit.NANOSECONDS.toMillis(duration));
+    }
+
+    /**
+     * Writes the updates still queued and removes the metrics of the queue. A failure to write the updates is logged,
+     * the updates are lost then.
+     */
+    public void close(PassportSessionFactory factory) {
+        try {
+            flush(factory);
+        } catch (RuntimeException e) {
+            log.warnf(e, "Unable to write %d queued lastSessionRefresh updates on shutdown", size());
+        }
+        Stream.of(receivedCounter, writtenCounter, flushTimer, sizeGauge, coalescingRatioGauge)
+                .filter(Objects::nonNull)
+                .forEach(Metrics.globalRegistry::remove);
+    }
+
+    /**
+     * Returns the number of user sessions with an update waiting to be written.
+     */
+    public int size() {
+        return pending.values().stream().mapToInt(Map::size).sum();
+    }
+
+    /**
+     * Returns how many lastSessionRefresh updates were received per update written to the database so far.
+     */
+    public double getCoalescingRatio() {
+        long count = written.get();
+        return count == 0 ? 0 : (double) received.get() / count;
+    }
+
+    private static Map<String, Integer> drain(ConcurrentMap<String, Integer> queued) {
+        Map<String, Integer> drained = new HashMap<>();
+        for (Map.Entry<String, Integer> entry : queued.entrySet()) {
+            drained.put(entry.getKey(), entry.getValue());
+            // an update received in the meantime stays queued for the next flush
+            queued.remove(entry.getKey(), entry.getValue());
+        }
+        return drained;
+    }
+
+    private void registerMetrics() {
+        receivedCounter = Counter.builder("passport.session.refresh.queue.received")
+                .description("lastSessionRefresh updates of user sessions queued for the database.")
+                .register(Metrics.globalRegistry);
+        writtenCounter = Counter.builder("passport.session.refresh.queue.written")
+                .description("lastSessionRefresh updates of user sessions written to the database after coalescing.")
+                .register(Metrics.globalRegistry);
+        flushTimer = Timer.builder("passport.session.refresh.queue.flush")
+                .description("Time to write the queued lastSessionRefresh updates to the database.")
+                .register(Metrics.globalRegistry);
+        sizeGauge = Gauge.builder("passport.session.refresh.queue.size", this, LastSessionRefreshQueue::size)
+                .description("User sessions with a lastSessionRefresh update waiting to be written to the database.")
+                .register(Metrics.globalRegistry);
+        coalescingRatioGauge = Gauge.builder("passport.session.refresh.queue.coalescing.ratio", this, LastSessionRefreshQueue::getCoalescingRatio)
+                .description("lastSessionRefresh updates received per update written to the database.")
+                .register(Metrics.globalRegistry);
+    }
+
+    private record Group(String realmId, boolean offline) {
+    }
+}
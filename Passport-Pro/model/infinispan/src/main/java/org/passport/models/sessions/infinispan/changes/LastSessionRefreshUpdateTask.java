@@ -0,0 +1,58 @@
+/*
+ * Copyright 2026 Red Hat, Inc. and/or its affiliates
+ * and other contributors as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.passport.models.sessions.infinispan.changes;
+
+import org.passport.models.sessions.infinispan.entities.UserSessionEntity;
+
+/**
+ * Moves the lastSessionRefresh of a user session forward. As this is the only change of most token refreshes, it is
+ * recognized by {@link UserSessionPersistentChangelogBasedTransaction} and written to the database through the
+ * {@link LastSessionRefreshQueue} if enabled.
+ */
+public class LastSessionRefreshUpdateTask extends UserSessionUpdateTask {
+
+    private final int lastSessionRefresh;
+    private final boolean offline;
+
+    public LastSessionRefreshUpdateTask(int lastSessionRefresh, boolean offline) {
+        this.lastSessionRefresh = lastSessionRefresh;
+        this.offline = offline;
+    }
+
+    @Override
+    public void runUpdate(UserSessionEntity entity) {
+        if (entity.getLastSessionRefresh() >= lastSessionRefresh) {
+            return;
+        }
+        entity.setLastSessionRefresh(lastSessionRefresh);
+    }
+
+    @Override
+    public boolean isOffline() {
+        return offline;
+    }
+
+    public int getLastSessionRefresh() {
+        return lastSessionRefresh;
+    }
+
+    @Override
+    public String toString() {
+        return "setLastSessionRefresh(" + lastSessionRefresh + ')';
+    }
+}
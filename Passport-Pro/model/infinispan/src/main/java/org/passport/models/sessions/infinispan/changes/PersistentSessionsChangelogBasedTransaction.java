@@ -135,6 +135,11 @@ abstract public class PersistentSessionsChangelogBasedTransaction<K, V extends S
                 if (c.cache() != null) {
                     // Update cache. It is non-blocking.
                     InfinispanChangesUtils.runOperationInCluster(c, entry.getKey(), merged, entry.getValue().getEntityWrapper(), stage, LOG);
+
+                    if (deferWrite(entry.getKey(), sessionUpdates, merged)) {
+                        // written to the database later, together with the changes of other sessions
+                        continue;
+                    }
                 }
 
                 if (persister == null) {
@@ -154,6 +159,16 @@ abstract public class PersistentSessionsChangelogBasedTransaction<K, V extends S
         }
     }
 
+    /**
+     * Allows subclasses to take over the database write of a change, so it can be written later together with the
+     * changes of other sessions. Only invoked if the session is cached, so readers never see the outdated database.
+     *
+     * @return {@code true} if the change is written to the database by the subclass.
+     */
+    protected boolean deferWrite(K key, SessionUpdatesList<V> sessionUpdates, MergedUpdate<V> merged) {
+        return false;
+    }
+
     @Override
     public void asyncRollback(AggregateCompletionStage<Void> stage) {
         updates.clear();
@@ -37,11 +37,40 @@ public class UserSessionPersistentChangelogBasedTransaction extends PersistentSe
 
     private static final Logger LOG = Logger.getLogger(UserSessionPersistentChangelogBasedTransaction.class);
 
+    private final LastSessionRefreshQueue lastSessionRefreshQueue;
+
+    public UserSessionPersistentChangelogBasedTransaction(PassportSession session,
+                                                          ArrayBlockingQueue<PersistentUpdate> batchingQueue,
+                                                          CacheHolder<String, UserSessionEntity> cacheHolder,
+                                                          CacheHolder<String, UserSessionEntity> offlineCacheHolder) {
+        this(session, batchingQueue, null, cacheHolder, offlineCacheHolder);
+    }
+
     public UserSessionPersistentChangelogBasedTransaction(PassportSession session,
                                                           ArrayBlockingQueue<PersistentUpdate> batchingQueue,
+                                                          LastSessionRefreshQueue lastSessionRefreshQueue,
                                                           CacheHolder<String, UserSessionEntity> cacheHolder,
                                                           CacheHolder<String, UserSessionEntity> offlineCacheHolder) {
         super(session, USER_SESSION_CACHE_NAME, batchingQueue, cacheHolder, offlineCacheHolder);
+        this.lastSessionRefreshQueue = lastSessionRefreshQueue;
+    }
+
+    @Override
+    protected boolean deferWrite(String key, SessionUpdatesList<UserSessionEntity> sessionUpdates, MergedUpdate<UserSessionEntity> merged) {
+        if (lastSessionRefreshQueue == null || merged.getOperation() != SessionUpdateTask.CacheOperation.REPLACE) {
+            return false;
+        }
+        // Only a session which was just refreshed is queued, any other change is written with the refresh as before
+        int lastSessionRefresh = 0;
+        for (SessionUpdateTask<UserSessionEntity> task : sessionUpdates.getUpdateTasks()) {
+            if (!(task instanceof LastSessionRefreshUpdateTask refreshTask)) {
+                return false;
+            }
+            lastSessionRefresh = Math.max(lastSessionRefresh, refreshTask.getLastSessionRefresh());
+        }
+        UserSessionEntity entity = sessionUpdates.getEntityWrapper().getEntity();
+        lastSessionRefreshQueue.offer(entity.getRealmId(), key, entity.isOffline(), lastSessionRefresh);
+        return true;
     }
 
     public SessionEntityWrapper<UserSessionEntity> get(RealmModel realm, String key, UserSessionModel userSession, boolean offline) {
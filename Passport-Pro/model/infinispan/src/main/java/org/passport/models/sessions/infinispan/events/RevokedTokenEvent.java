@@ -0,0 +1,36 @@
+/*
+ * Copyright 2026 Red Hat, Inc. and/or its affiliates
+ * and other contributors as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.passport.models.sessions.infinispan.events;
+
+import org.passport.cluster.ClusterEvent;
+import org.passport.marshalling.Marshalling;
+
+import org.infinispan.protostream.annotations.Proto;
+import org.infinispan.protostream.annotations.ProtoTypeId;
+
+/**
+ * Sent to the cluster when a token is revoked, so all nodes add it to their
+ * {@link org.passport.models.sessions.infinispan.RevokedTokenFilter}.
+ *
+ * @param tokenId the id of the revoked token
+ * @param expiry  the time in seconds after which the revocation can be forgotten
+ */
+@ProtoTypeId(Marshalling.REVOKED_TOKEN_EVENT)
+@Proto
+public record RevokedTokenEvent(String tokenId, long expiry) implements ClusterEvent {
+}
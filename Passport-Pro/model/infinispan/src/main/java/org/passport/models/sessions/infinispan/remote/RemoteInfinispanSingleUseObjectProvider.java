@@ -24,6 +24,7 @@ import java.util.Objects;
 import java.util.concurrent.TimeUnit;
 
 import org.passport.models.SingleUseObjectProvider;
+import org.passport.models.sessions.infinispan.RevokedTokenFilter;
 import org.passport.models.sessions.infinispan.entities.SingleUseObjectValueEntity;
 import org.passport.models.sessions.infinispan.remote.transaction.SingleUseObjectTransaction;
 
@@ -39,11 +40,16 @@ public class RemoteInfinispanSingleUseObjectProvider implements SingleUseObjectP
 
     private final SingleUseObjectTransaction transaction;
     private final RevokeTokenConsumer revokeTokenConsumer;
+    private final RevokedTokenFilter revokedTokenFilter;
 
     public RemoteInfinispanSingleUseObjectProvider(SingleUseObjectTransaction transaction, RevokeTokenConsumer revokeTokenConsumer) {
+        this(transaction, revokeTokenConsumer, null);
+    }
+
+    public RemoteInfinispanSingleUseObjectProvider(SingleUseObjectTransaction transaction, RevokeTokenConsumer revokeTokenConsumer, RevokedTokenFilter revokedTokenFilter) {
         this.transaction = Objects.requireNonNull(transaction);
         this.revokeTokenConsumer = Objects.requireNonNull(revokeTokenConsumer);
-
+        this.revokedTokenFilter = revokedTokenFilter;
     }
 
     @Override
@@ -95,7 +101,15 @@ public class RemoteInfinispanSingleUseObjectProvider implements SingleUseObjectP
 
     @Override
     public boolean contains(String key) {
-        return transaction.getCache().containsKey(key);
+        if (revokedTokenFilter == null) {
+            return transaction.getCache().containsKey(key);
+        }
+        if (revokedTokenFilter.isNotRevoked(key)) {
+            return false;
+        }
+        boolean contains = transaction.getCache().containsKey(key);
+        revokedTokenFilter.recordLookup(key, contains);
+        return contains;
     }
 
     @Override
@@ -32,9 +32,11 @@ import org.passport.models.PassportSessionFactory;
 import org.passport.models.SingleUseObjectProviderFactory;
 import org.passport.models.session.RevokedToken;
 import org.passport.models.session.RevokedTokenPersisterProvider;
+import org.passport.models.sessions.infinispan.RevokedTokenFilter;
 import org.passport.models.sessions.infinispan.entities.SingleUseObjectValueEntity;
 import org.passport.models.sessions.infinispan.remote.transaction.SingleUseObjectTransaction;
 import org.passport.models.sessions.infinispan.transaction.InfinispanTransactionProvider;
+import org.passport.models.utils.PassportModelUtils;
 import org.passport.models.utils.PostMigrationEvent;
 import org.passport.provider.EnvironmentDependentProviderFactory;
 import org.passport.provider.Provider;
@@ -53,8 +55,12 @@ import static org.passport.connections.infinispan.InfinispanConnectionProvider.A
 import static org.passport.connections.infinispan.InfinispanConnectionProvider.getRemoteCache;
 import static org.passport.models.SingleUseObjectProvider.REVOKED_KEY;
 import static org.passport.models.sessions.infinispan.InfinispanSingleUseObjectProviderFactory.CONFIG_PERSIST_REVOKED_TOKENS;
+import static org.passport.models.sessions.infinispan.InfinispanSingleUseObjectProviderFactory.CONFIG_REVOKED_TOKENS_FILTER;
 import static org.passport.models.sessions.infinispan.InfinispanSingleUseObjectProviderFactory.DEFAULT_PERSIST_REVOKED_TOKENS;
 import static org.passport.models.sessions.infinispan.InfinispanSingleUseObjectProviderFactory.LOADED;
+import static org.passport.models.sessions.infinispan.InfinispanSingleUseObjectProviderFactory.addRevokedTokenFilterConfigMetadata;
+import static org.passport.models.sessions.infinispan.InfinispanSingleUseObjectProviderFactory.createRevokedTokenFilter;
+import static org.passport.models.sessions.infinispan.InfinispanSingleUseObjectProviderFactory.startRevokedTokenFilter;
 import static org.passport.models.sessions.infinispan.remote.RemoteInfinispanSingleUseObjectProvider.REVOKED_TOKEN_VALUE;
 import static org.passport.models.sessions.infinispan.remote.RemoteInfinispanSingleUseObjectProvider.RevokeTokenConsumer;
 import static org.passport.storage.datastore.DefaultDatastoreProviderFactory.setupClearExpiredRevokedTokensScheduledTask;
@@ -69,16 +75,18 @@ public class RemoteInfinispanSingleUseObjectProviderFactory implements SingleUse
 
     private volatile RemoteCache<String, SingleUseObjectValueEntity> cache;
     private volatile boolean persistRevokedTokens;
+    private volatile RevokedTokenFilter revokedTokenFilter;
 
     @Override
     public RemoteInfinispanSingleUseObjectProvider create(PassportSession session) {
         assert cache != null;
-        return new RemoteInfinispanSingleUseObjectProvider(createAndEnlistTransaction(session), createRevokeTokenConsumer(session));
+        return new RemoteInfinispanSingleUseObjectProvider(createAndEnlistTransaction(session), createRevokeTokenConsumer(session), revokedTokenFilter);
     }
 
     @Override
     public void init(Config.Scope config) {
         persistRevokedTokens = config.getBoolean(CONFIG_PERSIST_REVOKED_TOKENS, DEFAULT_PERSIST_REVOKED_TOKENS);
+        revokedTokenFilter = createRevokedTokenFilter(config, persistRevokedTokens);
     }
 
     @Override
@@ -90,7 +98,9 @@ public class RemoteInfinispanSingleUseObjectProviderFactory implements SingleUse
 
     @Override
     public void close() {
-
+        if (revokedTokenFilter != null) {
+            revokedTokenFilter.close();
+        }
     }
 
     @Override
@@ -112,6 +122,7 @@ public class RemoteInfinispanSingleUseObjectProviderFactory implements SingleUse
     public Map<String, String> getOperationalInfo() {
         Map<String, String> info = new HashMap<>();
         info.put(CONFIG_PERSIST_REVOKED_TOKENS, Boolean.toString(persistRevokedTokens));
+        info.put(CONFIG_REVOKED_TOKENS_FILTER, Boolean.toString(revokedTokenFilter != null));
         return info;
     }
 
@@ -124,6 +135,7 @@ public class RemoteInfinispanSingleUseObjectProviderFactory implements SingleUse
                 .helpText("If revoked tokens are stored persistently across restarts")
                 .defaultValue(DEFAULT_PERSIST_REVOKED_TOKENS)
                 .add();
+        addRevokedTokenFilterConfigMetadata(builder);
 
         return builder.build();
     }
@@ -144,6 +156,9 @@ public class RemoteInfinispanSingleUseObjectProviderFactory implements SingleUse
         try (var session = sessionFactory.create()) {
             preloadRevokedTokens(session);
         }
+        if (revokedTokenFilter != null) {
+            PassportModelUtils.runJobInTransaction(sessionFactory, session -> startRevokedTokenFilter(session, revokedTokenFilter));
+        }
     }
 
     @Override
@@ -163,7 +178,18 @@ public class RemoteInfinispanSingleUseObjectProviderFactory implements SingleUse
     }
 
     private RevokeTokenConsumer createRevokeTokenConsumer(PassportSession session) {
-        return persistRevokedTokens ? getRevokedTokenPersisterProvider(session)::revokeToken : VOLATILE_REVOKE_TOKEN;
+        if (!persistRevokedTokens) {
+            return VOLATILE_REVOKE_TOKEN;
+        }
+        RevokeTokenConsumer persister = getRevokedTokenPersisterProvider(session)::revokeToken;
+        RevokedTokenFilter filter = revokedTokenFilter;
+        if (filter == null) {
+            return persister;
+        }
+        return (token, lifespanSeconds) -> {
+            persister.onTokenRevoke(token, lifespanSeconds);
+            filter.revoked(session, token + REVOKED_KEY, lifespanSeconds);
+        };
     }
 
     private void preloadRevokedTokens(PassportSession session) {
@@ -20,7 +20,6 @@ package org.passport.models.sessions.infinispan.remote;
 import java.lang.invoke.MethodHandles;
 import java.util.AbstractMap;
 import java.util.ArrayList;
-import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
@@ -38,7 +37,6 @@ import org.passport.common.util.Time;
 import org.passport.models.AuthenticatedClientSessionModel;
 import org.passport.models.ClientModel;
 import org.passport.models.PassportSession;
-import org.passport.models.PassportSessionFactory;
 import org.passport.models.RealmModel;
 import org.passport.models.UserModel;
 import org.passport.models.UserSessionModel;
@@ -59,8 +57,8 @@ import org.passport.models.sessions.infinispan.query.UserSessionQueries;
 import org.passport.models.sessions.infinispan.remote.transaction.ClientSessionChangeLogTransaction;
 import org.passport.models.sessions.infinispan.remote.transaction.UserSessionChangeLogTransaction;
 import org.passport.models.sessions.infinispan.remote.transaction.UserSessionTransaction;
+import org.passport.models.sessions.infinispan.util.PersistentSessionsLoader;
 import org.passport.models.sessions.infinispan.util.SessionExpirationPredicates;
-import org.passport.models.utils.PassportModelUtils;
 import org.passport.utils.StreamsUtil;
 
 import io.reactivex.rxjava3.core.Flowable;
@@ -82,11 +80,13 @@ public class RemoteUserSessionProvider implements UserSessionProvider {
     private final PassportSession session;
     private final UserSessionTransaction transaction;
     private final int batchSize;
+    private final int migrationThreads;
 
-    public RemoteUserSessionProvider(PassportSession session, UserSessionTransaction transaction, int batchSize) {
+    public RemoteUserSessionProvider(PassportSession session, UserSessionTransaction transaction, int batchSize, int migrationThreads) {
         this.session = session;
         this.transaction = transaction;
         this.batchSize = batchSize;
+        this.migrationThreads = migrationThreads;
     }
 
     @Override
@@ -338,53 +338,32 @@ public class RemoteUserSessionProvider implements UserSessionProvider {
     private void migrateUserSessions(boolean offline) {
         log.info("Migrate user sessions from database to the remote cache");
 
-        List<String> userSessionIds = Collections.synchronizedList(new ArrayList<>(batchSize));
-        List<Map.Entry<String, String>> clientSessionIds = Collections.synchronizedList(new ArrayList<>(batchSize));
-        boolean hasSessions;
-        do {
-            hasSessions = migrateUserSessionBatch(session.getPassportSessionFactory(), offline, userSessionIds, clientSessionIds);
-        } while (hasSessions);
-
-        log.info("All sessions migrated.");
-    }
-
-    private boolean migrateUserSessionBatch(PassportSessionFactory factory, boolean offline, List<String> userSessionBuffer, List<Map.Entry<String, String>> clientSessionBuffer) {
         var userSessionCache = getUserSessionTransaction(offline).getCache();
         var clientSessionCache = getClientSessionTransaction(offline).getCache();
+        var loader = new PersistentSessionsLoader(session.getPassportSessionFactory(), offline, batchSize, migrationThreads);
 
-        log.infof("Migrating %s user(s) session(s) from database.", batchSize);
-
-        return PassportModelUtils.runJobInTransactionWithResult(factory, kcSession -> {
+        // Each chunk is removed from the database in the transaction it was loaded in, once stored in the remote cache
+        loader.load((kcSession, userSessions) -> {
             var database = kcSession.getProvider(UserSessionPersisterProvider.class);
             var stage = CompletionStages.aggregateCompletionStage();
-            database.loadUserSessionsStream(-1, batchSize, offline, "")
-                    .forEach(userSessionModel -> {
-                        var userSessionEntity = RemoteUserSessionEntity.createFromModel(userSessionModel);
-                        stage.dependsOn(userSessionCache.putIfAbsentAsync(userSessionModel.getId(), userSessionEntity));
-                        userSessionBuffer.add(userSessionModel.getId());
-                        for (var clientSessionModel : userSessionModel.getAuthenticatedClientSessions().values()) {
-                            var clientSessionKey = new ClientSessionKey(userSessionModel.getId(), clientSessionModel.getClient().getId());
-                            clientSessionBuffer.add(Map.entry(clientSessionKey.userSessionId(), clientSessionKey.clientId()));
-                            var clientSessionEntity = RemoteAuthenticatedClientSessionEntity.createFromModel(clientSessionKey, clientSessionModel);
-                            stage.dependsOn(clientSessionCache.putIfAbsentAsync(clientSessionKey, clientSessionEntity));
-                        }
-                    });
-            CompletionStages.join(stage.freeze());
-
-            if (userSessionBuffer.isEmpty() && clientSessionBuffer.isEmpty()) {
-                return false;
+            List<Map.Entry<String, String>> clientSessionIds = new ArrayList<>();
+            for (var userSessionModel : userSessions) {
+                var userSessionEntity = RemoteUserSessionEntity.createFromModel(userSessionModel);
+                stage.dependsOn(userSessionCache.putIfAbsentAsync(userSessionModel.getId(), userSessionEntity));
+                for (var clientSessionModel : userSessionModel.getAuthenticatedClientSessions().values()) {
+                    var clientSessionKey = new ClientSessionKey(userSessionModel.getId(), clientSessionModel.getClient().getId());
+                    clientSessionIds.add(Map.entry(clientSessionKey.userSessionId(), clientSessionKey.clientId()));
+                    var clientSessionEntity = RemoteAuthenticatedClientSessionEntity.createFromModel(clientSessionKey, clientSessionModel);
+                    stage.dependsOn(clientSessionCache.putIfAbsentAsync(clientSessionKey, clientSessionEntity));
+                }
             }
+            CompletionStages.join(stage.freeze());
 
-            log.infof("%s user(s) session(s) stored in the remote cache. Removing them from database.", userSessionBuffer.size());
-
-            userSessionBuffer.forEach(s -> database.removeUserSession(s, offline));
-            userSessionBuffer.clear();
-
-            clientSessionBuffer.forEach(e -> database.removeClientSession(e.getKey(), e.getValue(), offline));
-            clientSessionBuffer.clear();
-
-            return true;
+            userSessions.forEach(userSession -> database.removeUserSession(userSession.getId(), offline));
+            clientSessionIds.forEach(e -> database.removeClientSession(e.getKey(), e.getValue(), offline));
         });
+
+        log.info("All sessions migrated.");
     }
 
     private UserSessionUpdater getUserSession(RealmModel realm, String id, boolean offline) {
@@ -47,6 +47,8 @@ public class RemoteUserSessionProviderFactory implements UserSessionProviderFact
     // Sessions are close to 1KB of data. Fetch 1MB per batch request (can be configured)
     private static final int DEFAULT_BATCH_SIZE = 1024;
     private static final String CONFIG_MAX_BATCH_SIZE = "batchSize";
+    private static final int DEFAULT_MIGRATION_THREADS = Math.min(4, Runtime.getRuntime().availableProcessors());
+    private static final String CONFIG_MIGRATION_THREADS = "migrationThreads";
 
     private volatile SharedStateImpl<String, RemoteUserSessionEntity> userSessionState;
     private volatile SharedStateImpl<String, RemoteUserSessionEntity> offlineUserSessionState;
@@ -54,6 +56,7 @@ public class RemoteUserSessionProviderFactory implements UserSessionProviderFact
     private volatile SharedStateImpl<ClientSessionKey, RemoteAuthenticatedClientSessionEntity> offlineClientSessionState;
     private volatile BlockingManager blockingManager;
     private volatile int batchSize = DEFAULT_BATCH_SIZE;
+    private volatile int migrationThreads = DEFAULT_MIGRATION_THREADS;
     private volatile int maxRetries = InfinispanUtils.DEFAULT_MAX_RETRIES;
     private volatile int backOffBaseTimeMillis = InfinispanUtils.DEFAULT_RETRIES_BASE_TIME_MILLIS;
     private volatile RemoteUserSessionExpirationListener expirationListener;
@@ -63,12 +66,13 @@ public class RemoteUserSessionProviderFactory implements UserSessionProviderFact
         var provider = session.getProvider(InfinispanTransactionProvider.class);
         var tx = createTransaction(session);
         provider.registerTransaction(tx);
-        return new RemoteUserSessionProvider(session, tx, batchSize);
+        return new RemoteUserSessionProvider(session, tx, batchSize, migrationThreads);
     }
 
     @Override
     public void init(Config.Scope config) {
         batchSize = Math.max(1, config.getInt(CONFIG_MAX_BATCH_SIZE, DEFAULT_BATCH_SIZE));
+        migrationThreads = Math.max(1, config.getInt(CONFIG_MIGRATION_THREADS, DEFAULT_MIGRATION_THREADS));
         maxRetries = InfinispanUtils.getMaxRetries(config);
         backOffBaseTimeMillis = InfinispanUtils.getRetryBaseTimeMillis(config);
     }
@@ -114,6 +118,12 @@ public class RemoteUserSessionProviderFactory implements UserSessionProviderFact
                 .helpText("Batch size when streaming session from the remote cache")
                 .defaultValue(DEFAULT_BATCH_SIZE)
                 .add();
+        builder.property()
+                .name(CONFIG_MIGRATION_THREADS)
+                .type("int")
+                .helpText("Number of threads loading user sessions from the database when migrating them to the remote cache")
+                .defaultValue(DEFAULT_MIGRATION_THREADS)
+                .add();
 
         InfinispanUtils.configureMaxRetries(builder);
         InfinispanUtils.configureRetryBaseTime(builder);
@@ -125,6 +135,7 @@ public class RemoteUserSessionProviderFactory implements UserSessionProviderFact
     public Map<String, String> getOperationalInfo() {
         Map<String, String> map = new HashMap<>();
         map.put(CONFIG_MAX_BATCH_SIZE, Integer.toString(batchSize));
+        map.put(CONFIG_MIGRATION_THREADS, Integer.toString(migrationThreads));
         InfinispanUtils.maxRetriesToOperationalInfo(map, maxRetries);
         InfinispanUtils.retryBaseTimeMillisToOperationalInfo(map, backOffBaseTimeMillis);
         return map;
@@ -0,0 +1,258 @@
+/*
+ * Copyright 2026 Red Hat, Inc. and/or its affiliates
+ * and other contributors as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.passport.models.sessions.infinispan.util;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BiConsumer;
+
+import org.passport.Config;
+import org.passport.config.MetricsOptions;
+import org.passport.executors.ExecutorsProvider;
+import org.passport.models.PassportSession;
+import org.passport.models.PassportSessionFactory;
+import org.passport.models.UserSessionModel;
+import org.passport.models.session.UserSessionPersisterProvider;
+import org.passport.models.utils.PassportModelUtils;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Metrics;
+import org.jboss.logging.Logger;
+
+/**
+ * Loads all user sessions of one type from the {@link UserSessionPersisterProvider} in parallel.
+ * <p>
+ * The calling thread reads only the ids of the user sessions, page by page with keyset pagination, and splits them
+ * into ranges of {@code chunkSize} sessions. Worker threads load the sessions of each range, including their client
+ * sessions, and pass them to the consumer. Each range is loaded and consumed in its own transaction.
+ * <p>
+ * Memory is bounded: at most two ranges per worker are waiting, and a range only holds its first and last id. If
+ * the consumer fails for a range, no further ranges are loaded and the failure is rethrown by {@link #load}.
+ */
+public class PersistentSessionsLoader {
+
+    private static final Logger log = Logger.getLogger(PersistentSessionsLoader.class);
+
+    public static final String EXECUTOR_NAME = "persistent-sessions-loader";
+
+    private static final long PROGRESS_LOG_INTERVAL_MILLIS = TimeUnit.SECONDS.toMillis(10);
+
+    private static final Range END = new Range(null, null);
+
+    private final PassportSessionFactory factory;
+    private final boolean offline;
+    private final int chunkSize;
+    private final int workers;
+
+    private final AtomicLong loaded = new AtomicLong();
+    private final AtomicLong lastProgressLog = new AtomicLong();
+    private final AtomicReference<Throwable> failure = new AtomicReference<>();
+    private volatile int total;
+    private volatile long startNanos;
+    private Counter counter;
+
+    public PersistentSessionsLoader(PassportSessionFactory factory, boolean offline, int chunkSize, int workers) {
+        this.factory = factory;
+        this.offline = offline;
+        this.chunkSize = Math.max(1, chunkSize);
+        this.workers = Math.max(1, workers);
+    }
+
+    /**
+     * Loads all user sessions and returns once all of them were consumed.
+     *
+     * @param consumer Invoked with every chunk of user sessions, in a transaction of the given session. It is invoked
+     *                 concurrently from several threads.
+     * @return The number of user sessions loaded.
+     */
+    public long load(BiConsumer<PassportSession, List<UserSessionModel>> consumer) {
+        total = PassportModelUtils.runJobInTransactionWithResult(factory,
+                session -> session.getProvider(UserSessionPersisterProvider.class).getUserSessionsCount(offline));
+        if (total == 0) {
+            return 0;
+        }
+        counter = createCounter();
+        startNanos = System.nanoTime();
+        lastProgressLog.set(System.currentTimeMillis());
+        log.infof("Loading %d %s sessions from the database with %d threads", total, sessionType(), workers);
+
+        BlockingQueue<Range> ranges = new ArrayBlockingQueue<>(workers * 2);
+        ExecutorService executor;
+        try (PassportSession session = factory.create()) {
+            executor = session.getProvider(ExecutorsProvider.class).getExecutor(EXECUTOR_NAME);
+        }
+        List<CompletableFuture<Void>> running = new ArrayList<>(workers);
+        for (int i = 0; i < workers; i++) {
+            running.add(CompletableFuture.runAsync(() -> consumeRanges(ranges, consumer), executor));
+        }
+
+        try {
+            produceRanges(ranges, running);
+        } finally {
+            for (int i = 0; i < workers; i++) {
+                enqueue(ranges, END, running);
+            }
+        }
+        awaitWorkers(running);
+
+        Throwable cause = failure.get();
+        if (cause != null) {
+            throw new IllegalStateException("Failed to load " + sessionType() + " sessions from the database", cause);
+        }
+        logProgress(true);
+        return loaded.get();
+    }
+
+    /**
+     * Returns the number of user sessions loaded so far.
+     */
+    public long getLoaded() {
+        return loaded.get();
+    }
+
+    /**
+     * Returns the number of user sessions in the database when the loading started.
+     */
+    public int getTotal() {
+        return total;
+    }
+
+    private void produceRanges(BlockingQueue<Range> ranges, List<CompletableFuture<Void>> running) {
+        String lastSessionId = "";
+        while (failure.get() == null) {
+            String from = lastSessionId;
+            List<String> ids = PassportModelUtils.runJobInTransactionWithResult(factory, session -> session.getProvider(UserSessionPersisterProvider.class)
+                    .loadUserSessionIdsStream(offline, from, chunkSize)
+                    .toList());
+            if (ids.isEmpty()) {
+                return;
+            }
+            lastSessionId = ids.get(ids.size() - 1);
+            enqueue(ranges, new Range(ids.get(0), lastSessionId), running);
+        }
+    }
+
+    private void consumeRanges(BlockingQueue<Range> ranges, BiConsumer<PassportSession, List<UserSessionModel>> consumer) {
+        while (true) {
+            Range range;
+            try {
+                range = ranges.take();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                failure.compareAndSet(null, e);
+                return;
+            }
+            if (range == END) {
+                return;
+            }
+            if (failure.get() != null) {
+                // drain the remaining ranges, so the producer is not blocked
+                continue;
+            }
+            try {
+                int count = PassportModelUtils.runJobInTransactionWithResult(factory, session -> {
+                    List<UserSessionModel> sessions = session.getProvider(UserSessionPersisterProvider.class)
+                            .loadUserSessionsStream(offline, range.from, range.to)
+                            .toList();
+                    consumer.accept(session, sessions);
+                    return sessions.size();
+                });
+                loaded.addAndGet(count);
+                if (counter != null) {
+                    counter.increment(count);
+                }
+                logProgress(false);
+            } catch (RuntimeException e) {
+                log.errorf(e, "Failed to load %s sessions between '%s' and '%s'", sessionType(), range.from, range.to);
+                failure.compareAndSet(null, e);
+            }
+        }
+    }
+
+    private void logProgress(boolean done) {
+        long now = System.currentTimeMillis();
+        long last = lastProgressLog.get();
+        if (!done && (now - last < PROGRESS_LOG_INTERVAL_MILLIS || !lastProgressLog.compareAndSet(last, now))) {
+            return;
+        }
+        long count = loaded.get();
+        double seconds = Math.max(1, System.nanoTime() - startNanos) / 1_000_000_000.0;
+        log.infof("%s %d of %d %s sessions from the database (%.0f sessions/s)", done ? "Loaded" : "Loading", count, total, sessionType(), count / seconds);
+    }
+
+    private Counter createCounter() {
+        if (!Config.scope().root().getBoolean(MetricsOptions.METRICS_ENABLED.getKey(), Boolean.FALSE)) {
+            return null;
+        }
+        return Counter.builder("passport.session.loader.sessions")
+                .description("User sessions loaded from the database in bulk.")
+                .tag("offline", Boolean.toString(offline))
+                .register(Metrics.globalRegistry);
+    }
+
+    private String sessionType() {
+        return offline ? "offline" : "regular";
+    }
+
+    private static void awaitWorkers(List<CompletableFuture<Void>> running) {
+        boolean interrupted = false;
+        for (CompletableFuture<Void> worker : running) {
+            while (true) {
+                try {
+                    worker.get();
+                    break;
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                } catch (ExecutionException e) {
+                    break;
+                }
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void enqueue(BlockingQueue<Range> queue, Range range, List<CompletableFuture<Void>> running) {
+        boolean interrupted = false;
+        // give up once no worker is left to take the range
+        while (!running.stream().allMatch(CompletableFuture::isDone)) {
+            try {
+                if (queue.offer(range, 100, TimeUnit.MILLISECONDS)) {
+                    break;
+                }
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private record Range(String from, String to) {
+    }
+}
@@ -0,0 +1,156 @@
+/*
+ * Copyright 2026 Red Hat, Inc. and/or its affiliates
+ * and other contributors as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.passport.models.cache.infinispan.authorization.entities;
+
+import java.lang.reflect.Proxy;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.passport.authorization.model.Policy;
+import org.passport.authorization.model.Resource;
+import org.passport.authorization.model.Scope;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class PolicyIndexTest {
+
+    private static final String SERVER_ID = "server";
+    private static final String USER_ID = "user";
+
+    private final Resource serverResource = resource("r1", "typeA", SERVER_ID);
+    private final Resource otherServerResource = resource("r2", "typeA", SERVER_ID);
+    private final Resource userResource = resource("r3", "typeA", USER_ID);
+    private final Resource untypedResource = resource("r4", null, SERVER_ID);
+    private final Scope read = scope("read");
+    private final Scope write = scope("write");
+    private final Policy userPolicy = policy("user-policy", "user", Set.of(), Set.of(), Map.of(), Set.of());
+
+    @Test
+    public void testIndexedByResource() {
+        Policy p1 = policy("p1", "resource", Set.of(serverResource, userResource), Set.of(), Map.of(), Set.of(userPolicy));
+        Policy p2 = policy("p2", "scope", Set.of(serverResource), Set.of(read), Map.of(), Set.of(userPolicy));
+
+        PolicyIndex index = index(p1, p2);
+
+        Assert.assertEquals(Set.of("p1", "p2"), index.getByResource("r1"));
+        Assert.assertEquals(Set.of("p1"), index.getByResource("r3"));
+        Assert.assertEquals(Set.of(), index.getByResource("r2"));
+    }
+
+    @Test
+    public void testIndexedByResourceType() {
+        Policy typed = policy("p1", "resource", Set.of(), Set.of(), Map.of("defaultResourceType", "typeA"), Set.of(userPolicy));
+        // the policies of a resource type are only found with associated policies
+        Policy withoutPolicies = policy("p2", "resource", Set.of(), Set.of(), Map.of("defaultResourceType", "typeA"), Set.of());
+        Policy otherType = policy("p3", "resource", Set.of(), Set.of(), Map.of("defaultResourceType", "typeB"), Set.of(userPolicy));
+
+        PolicyIndex index = index(typed, withoutPolicies, otherType);
+
+        Assert.assertEquals(Set.of("p1"), index.getByResourceType("typeA"));
+        Assert.assertEquals(Set.of("p3"), index.getByResourceType("typeB"));
+        Assert.assertEquals(Set.of(), index.getByResourceType("typeC"));
+    }
+
+    @Test
+    public void testIndexedByResourcesOfType() {
+        Policy p1 = policy("p1", "resource", Set.of(serverResource), Set.of(), Map.of(), Set.of(userPolicy));
+        Policy p2 = policy("p2", "resource", Set.of(serverResource, otherServerResource), Set.of(), Map.of(), Set.of(userPolicy));
+        // resources not owned by the resource server are not resources of the type
+        Policy p3 = policy("p3", "resource", Set.of(userResource), Set.of(), Map.of(), Set.of(userPolicy));
+        Policy p4 = policy("p4", "resource", Set.of(untypedResource), Set.of(), Map.of(), Set.of(userPolicy));
+
+        PolicyIndex index = index(p1, p2, p3, p4);
+
+        // each policy once, even if it is associated with several resources of the type
+        Assert.assertEquals(Set.of("p1", "p2"), index.getByResourcesOfType("typeA"));
+        Assert.assertEquals(Set.of(), index.getByResourcesOfType("typeB"));
+    }
+
+    @Test
+    public void testIndexedByScope() {
+        Policy p1 = policy("p1", "scope", Set.of(), Set.of(read, write), Map.of(), Set.of(userPolicy));
+        // scope permissions for a resource or a resource type are found by resource or resource type
+        Policy p2 = policy("p2", "scope", Set.of(serverResource), Set.of(read), Map.of(), Set.of(userPolicy));
+        Policy p3 = policy("p3", "scope", Set.of(), Set.of(read), Map.of("defaultResourceType", "typeA"), Set.of(userPolicy));
+        Policy p4 = policy("p4", "resource", Set.of(), Set.of(read), Map.of(), Set.of(userPolicy));
+
+        PolicyIndex index = index(p1, p2, p3, p4);
+
+        Assert.assertEquals(Set.of("p1"), index.getByScope("read"));
+        Assert.assertEquals(Set.of("p1"), index.getByScope("write"));
+        Assert.assertEquals(Set.of(), index.getByScope("delete"));
+    }
+
+    @Test
+    public void testIsInvalid() {
+        PolicyIndex index = index();
+
+        Assert.assertFalse(index.isInvalid(Set.of()));
+        Assert.assertFalse(index.isInvalid(Set.of("p1", "r1")));
+        Assert.assertTrue(index.isInvalid(Set.of(index.getId())));
+        Assert.assertTrue(index.isInvalid(Set.of(SERVER_ID)));
+    }
+
+    private static PolicyIndex index(Policy... policies) {
+        return new PolicyIndex(1L, "policy.index." + SERVER_ID, SERVER_ID, List.of(policies));
+    }
+
+    private static Policy policy(String id, String type, Set<Resource> resources, Set<Scope> scopes, Map<String, String> config, Set<Policy> associatedPolicies) {
+        return proxy(Policy.class, (method, args) -> switch (method) {
+            case "getId" -> id;
+            case "getType" -> type;
+            case "getResources" -> resources;
+            case "getScopes" -> scopes;
+            case "getConfig" -> config;
+            case "getAssociatedPolicies" -> associatedPolicies;
+            default -> throw new UnsupportedOperationException(method);
+        });
+    }
+
+    private static Resource resource(String id, String type, String owner) {
+        return proxy(Resource.class, (method, args) -> switch (method) {
+            case "getId" -> id;
+            case "getType" -> type;
+            case "getOwner" -> owner;
+            default -> throw new UnsupportedOperationException(method);
+        });
+    }
+
+    private static Scope scope(String id) {
+        return proxy(Scope.class, (method, args) -> switch (method) {
+            case "getId" -> id;
+            default -> throw new UnsupportedOperationException(method);
+        });
+    }
+
+    private interface Handler {
+        Object invoke(String method, Object[] args);
+    }
+
+    private static <T> T proxy(Class<T> type, Handler handler) {
+        return type.cast(Proxy.newProxyInstance(PolicyIndexTest.class.getClassLoader(), new Class<?>[] { type },
+                (proxy, method, args) -> switch (method.getName()) {
+                    // the stubs are put into sets
+                    case "equals" -> proxy == args[0];
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    default -> handler.invoke(method.getName(), args);
+                }));
+    }
+}
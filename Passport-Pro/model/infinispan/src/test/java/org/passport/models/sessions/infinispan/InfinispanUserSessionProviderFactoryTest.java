@@ -0,0 +1,62 @@
+/*
+ * Copyright 2026 Red Hat, Inc. and/or its affiliates
+ * and other contributors as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.passport.models.sessions.infinispan;
+
+import org.passport.Config;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class InfinispanUserSessionProviderFactoryTest {
+
+    private static final String PREFIX = "passport.test.userSessions.";
+    private static final Config.Scope CONFIG = new Config.SystemPropertiesScope(PREFIX);
+
+    @After
+    public void after() {
+        System.clearProperty(PREFIX + InfinispanUserSessionProviderFactory.CONFIG_LAST_SESSION_REFRESH_WINDOW);
+    }
+
+    @Test
+    public void testLastSessionRefreshWindowDisabledByDefault() {
+        Assert.assertEquals(0, InfinispanUserSessionProviderFactory.getLastSessionRefreshWindowSeconds(CONFIG));
+    }
+
+    @Test
+    public void testLastSessionRefreshWindow() {
+        setWindow(15);
+        Assert.assertEquals(15, InfinispanUserSessionProviderFactory.getLastSessionRefreshWindowSeconds(CONFIG));
+    }
+
+    @Test
+    public void testLastSessionRefreshWindowCappedAtPeriodicTaskInterval() {
+        setWindow(600);
+        Assert.assertEquals(60, InfinispanUserSessionProviderFactory.getLastSessionRefreshWindowSeconds(CONFIG));
+    }
+
+    @Test
+    public void testNegativeLastSessionRefreshWindowDisabled() {
+        setWindow(-5);
+        Assert.assertEquals(0, InfinispanUserSessionProviderFactory.getLastSessionRefreshWindowSeconds(CONFIG));
+    }
+
+    private static void setWindow(int seconds) {
+        System.setProperty(PREFIX + InfinispanUserSessionProviderFactory.CONFIG_LAST_SESSION_REFRESH_WINDOW, Integer.toString(seconds));
+    }
+}
@@ -0,0 +1,220 @@
+/*
+ * Copyright 2026 Red Hat, Inc. and/or its affiliates
+ * and other contributors as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.passport.models.sessions.infinispan;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.passport.cluster.ClusterEvent;
+import org.passport.cluster.ClusterProvider;
+import org.passport.common.util.Time;
+import org.passport.models.PassportSession;
+import org.passport.models.PassportTransaction;
+import org.passport.models.PassportTransactionManager;
+import org.passport.models.session.RevokedToken;
+import org.passport.models.sessions.infinispan.events.RevokedTokenEvent;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.passport.models.SingleUseObjectProvider.REVOKED_KEY;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class RevokedTokenFilterTest {
+
+    private RevokedTokenFilter filter;
+
+    @Before
+    public void before() {
+        filter = new RevokedTokenFilter(1000, 0.01);
+    }
+
+    @After
+    public void after() {
+        Time.setOffset(0);
+    }
+
+    @Test
+    public void testAddAndContains() {
+        filter.add("token-1", Time.currentTime() + 300);
+        filter.add("token-2", Time.currentTime() + 86400 * 30);
+
+        assertTrue(filter.mightContain("token-1"));
+        assertTrue(filter.mightContain("token-2"));
+        assertFalse(filter.mightContain("token-3"));
+    }
+
+    @Test
+    public void testNotReadyBeforeLoad() {
+        filter.add("token-1", Time.currentTime() + 300);
+
+        assertFalse(filter.isReady());
+        assertFalse(filter.isNotRevoked("token-2" + REVOKED_KEY));
+    }
+
+    @Test
+    public void testLoadThenReady() {
+        filter.load(Stream.of(new RevokedToken("token-1", Time.currentTime() + 300),
+                new RevokedToken("expired", Time.currentTime() - 1)));
+
+        assertTrue(filter.isReady());
+        assertFalse(filter.isNotRevoked("token-1" + REVOKED_KEY));
+        assertTrue(filter.isNotRevoked("token-2" + REVOKED_KEY));
+        assertFalse(filter.mightContain("expired"));
+        // keys of other single-use objects are always looked up in the store
+        assertFalse(filter.isNotRevoked("token-2"));
+    }
+
+    @Test
+    public void testBucketExpiry() {
+        filter.add("token-1", Time.currentTime() + 60);
+        filter.add("token-2", Time.currentTime() + 7200);
+        assertEquals(2, filter.getBucketCount());
+
+        // past the end of the bucket and its grace period
+        Time.setOffset(60 + 600 + 1);
+        assertFalse(filter.mightContain("token-1"));
+        assertTrue(filter.mightContain("token-2"));
+        assertEquals(1, filter.getBucketCount());
+
+        Time.setOffset(7200 + 3600 + 600 + 1);
+        assertFalse(filter.mightContain("token-2"));
+        assertEquals(0, filter.getBucketCount());
+        assertEquals(0, filter.getMemoryBytes());
+    }
+
+    @Test
+    public void testFarExpiriesShareBuckets() {
+        for (int i = 0; i < 1000; i++) {
+            filter.add("token-" + i, Time.currentTime() + 2 * 86400 + i * 60L);
+        }
+
+        // spread over less than a day, so at most two buckets of a day
+        assertTrue(filter.getBucketCount() <= 2);
+    }
+
+    @Test
+    public void testBucketCountIsCapped() {
+        for (int i = 0; i < RevokedTokenFilter.MAX_BUCKETS * 3; i++) {
+            filter.add("token-" + i, Time.currentTime() + 86400 * (2L + i));
+        }
+
+        assertEquals(RevokedTokenFilter.MAX_BUCKETS, filter.getBucketCount());
+        for (int i = 0; i < RevokedTokenFilter.MAX_BUCKETS * 3; i++) {
+            assertTrue(filter.mightContain("token-" + i));
+        }
+    }
+
+    @Test
+    public void testEventOfOtherNode() {
+        filter.load(Stream.empty());
+        assertTrue(filter.isNotRevoked("token-1" + REVOKED_KEY));
+
+        filter.eventReceived(new RevokedTokenEvent("token-1", Time.currentTime() + 300));
+
+        assertFalse(filter.isNotRevoked("token-1" + REVOKED_KEY));
+    }
+
+    @Test
+    public void testRevokedNotifiesClusterAfterCommit() {
+        List<ClusterEvent> notified = new ArrayList<>();
+        List<PassportTransaction> afterCompletion = new ArrayList<>();
+        PassportSession session = session(notified, afterCompletion);
+
+        filter.revoked(session, "token-1" + REVOKED_KEY, 300);
+
+        assertTrue(filter.mightContain("token-1"));
+        assertTrue(notified.isEmpty());
+
+        complete(afterCompletion, true);
+
+        assertEquals(1, notified.size());
+        RevokedTokenEvent event = (RevokedTokenEvent) notified.get(0);
+        assertEquals("token-1", event.tokenId());
+
+        // a node receiving the event knows the revocation
+        RevokedTokenFilter other = new RevokedTokenFilter(1000, 0.01);
+        other.load(Stream.empty());
+        other.eventReceived(event);
+        assertFalse(other.isNotRevoked("token-1" + REVOKED_KEY));
+    }
+
+    @Test
+    public void testRevokedDoesNotNotifyClusterOnRollback() {
+        List<ClusterEvent> notified = new ArrayList<>();
+        List<PassportTransaction> afterCompletion = new ArrayList<>();
+
+        filter.revoked(session(notified, afterCompletion), "token-1" + REVOKED_KEY, 300);
+        complete(afterCompletion, false);
+
+        assertTrue(notified.isEmpty());
+    }
+
+    @Test
+    public void testRevokedIgnoresOtherKeys() {
+        List<ClusterEvent> notified = new ArrayList<>();
+        List<PassportTransaction> afterCompletion = new ArrayList<>();
+
+        filter.revoked(session(notified, afterCompletion), "code-1", 300);
+
+        assertTrue(afterCompletion.isEmpty());
+        assertEquals(0, filter.getBucketCount());
+    }
+
+    private static void complete(List<PassportTransaction> transactions, boolean commit) {
+        for (PassportTransaction transaction : transactions) {
+            transaction.begin();
+            if (commit) {
+                transaction.commit();
+            } else {
+                transaction.rollback();
+            }
+        }
+    }
+
+    private static PassportSession session(List<ClusterEvent> notified, List<PassportTransaction> afterCompletion) {
+        ClusterProvider cluster = (ClusterProvider) Proxy.newProxyInstance(RevokedTokenFilterTest.class.getClassLoader(),
+                new Class<?>[] { ClusterProvider.class }, (proxy, method, args) -> {
+                    if (method.getName().equals("notify")) {
+                        notified.add((ClusterEvent) args[1]);
+                        return null;
+                    }
+                    throw new UnsupportedOperationException(method.getName());
+                });
+        PassportTransactionManager transactionManager = (PassportTransactionManager) Proxy.newProxyInstance(RevokedTokenFilterTest.class.getClassLoader(),
+                new Class<?>[] { PassportTransactionManager.class }, (proxy, method, args) -> {
+                    if (method.getName().equals("enlistAfterCompletion")) {
+                        afterCompletion.add((PassportTransaction) args[0]);
+                        return null;
+                    }
+                    throw new UnsupportedOperationException(method.getName());
+                });
+        return (PassportSession) Proxy.newProxyInstance(RevokedTokenFilterTest.class.getClassLoader(),
+                new Class<?>[] { PassportSession.class }, (proxy, method, args) -> switch (method.getName()) {
+                    case "getTransactionManager" -> transactionManager;
+                    case "getProvider" -> cluster;
+                    default -> throw new UnsupportedOperationException(method.getName());
+                });
+    }
+}
@@ -0,0 +1,234 @@
+/*
+ * Copyright 2026 Red Hat, Inc. and/or its affiliates
+ * and other contributors as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.passport.models.sessions.infinispan.changes;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+
+import org.passport.models.PassportSession;
+import org.passport.models.PassportSessionFactory;
+import org.passport.models.PassportTransactionManager;
+import org.passport.models.RealmModel;
+import org.passport.models.RealmProvider;
+import org.passport.models.session.UserSessionPersisterProvider;
+
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class LastSessionRefreshQueueTest {
+
+    private static final String METRICS_ENABLED = "passport.metrics-enabled";
+
+    private final List<Write> writes = new ArrayList<>();
+    private final Set<String> deletedRealms = new HashSet<>();
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private Consumer<Write> onWrite = write -> {};
+
+    @After
+    public void after() {
+        System.clearProperty(METRICS_ENABLED);
+        Metrics.removeRegistry(registry);
+    }
+
+    @Test
+    public void testCoalescesRefreshesOfSameSession() {
+        LastSessionRefreshQueue queue = new LastSessionRefreshQueue();
+        queue.offer("realm", "session-1", false, 10);
+        queue.offer("realm", "session-1", false, 30);
+        queue.offer("realm", "session-1", false, 20);
+        queue.offer("realm", "session-2", false, 15);
+
+        Assert.assertEquals(2, queue.size());
+        queue.flush(factory());
+
+        Assert.assertEquals(List.of(new Write("realm", Map.of("session-1", 30, "session-2", 15), false)), writes);
+        Assert.assertEquals(0, queue.size());
+        Assert.assertEquals(2.0, queue.getCoalescingRatio(), 0);
+    }
+
+    @Test
+    public void testWritesEachRealmAndSessionTypeSeparately() {
+        LastSessionRefreshQueue queue = new LastSessionRefreshQueue();
+        queue.offer("realm-a", "session-1", false, 10);
+        queue.offer("realm-a", "session-2", true, 20);
+        queue.offer("realm-b", "session-3", false, 30);
+        queue.offer("realm-a", "session-4", false, 40);
+
+        queue.flush(factory());
+
+        Assert.assertEquals(Set.of(
+                new Write("realm-a", Map.of("session-1", 10, "session-4", 40), false),
+                new Write("realm-a", Map.of("session-2", 20), true),
+                new Write("realm-b", Map.of("session-3", 30), false)), Set.copyOf(writes));
+    }
+
+    @Test
+    public void testFlushWithoutRefreshesWritesNothing() {
+        LastSessionRefreshQueue queue = new LastSessionRefreshQueue();
+
+        queue.flush(factory());
+
+        Assert.assertTrue(writes.isEmpty());
+        Assert.assertEquals(0.0, queue.getCoalescingRatio(), 0);
+    }
+
+    @Test
+    public void testRefreshDuringFlushWrittenWithNextFlush() {
+        LastSessionRefreshQueue queue = new LastSessionRefreshQueue();
+        queue.offer("realm", "session-1", false, 10);
+        onWrite = write -> queue.offer("realm", "session-1", false, 20);
+
+        queue.flush(factory());
+        onWrite = write -> {};
+
+        Assert.assertEquals(1, queue.size());
+        queue.flush(factory());
+
+        Assert.assertEquals(List.of(
+                new Write("realm", Map.of("session-1", 10), false),
+                new Write("realm", Map.of("session-1", 20), false)), writes);
+    }
+
+    @Test
+    public void testFailedFlushRetriedWithNextFlush() {
+        LastSessionRefreshQueue queue = new LastSessionRefreshQueue();
+        queue.offer("realm", "session-1", false, 10);
+        onWrite = write -> {
+            throw new RuntimeException("database unavailable");
+        };
+
+        queue.flush(factory());
+
+        Assert.assertTrue(writes.isEmpty());
+        Assert.assertEquals(1, queue.size());
+
+        onWrite = write -> {};
+        queue.offer("realm", "session-1", false, 20);
+        queue.flush(factory());
+
+        Assert.assertEquals(List.of(new Write("realm", Map.of("session-1", 20), false)), writes);
+        Assert.assertEquals(0, queue.size());
+    }
+
+    @Test
+    public void testRefreshesOfDeletedRealmDiscarded() {
+        deletedRealms.add("deleted");
+        LastSessionRefreshQueue queue = new LastSessionRefreshQueue();
+        queue.offer("deleted", "session-1", false, 10);
+
+        queue.flush(factory());
+
+        Assert.assertTrue(writes.isEmpty());
+        Assert.assertEquals(0, queue.size());
+    }
+
+    @Test
+    public void testCloseWritesQueuedRefreshesAndRemovesMetrics() {
+        System.setProperty(METRICS_ENABLED, "true");
+        Metrics.addRegistry(registry);
+        LastSessionRefreshQueue queue = new LastSessionRefreshQueue();
+        queue.offer("realm", "session-1", false, 10);
+        queue.offer("realm", "session-1", false, 20);
+
+        Assert.assertEquals(1.0, registry.get("passport.session.refresh.queue.size").gauge().value(), 0);
+        Assert.assertEquals(2.0, registry.get("passport.session.refresh.queue.received").counter().count(), 0);
+
+        queue.close(factory());
+
+        Assert.assertEquals(List.of(new Write("realm", Map.of("session-1", 20), false)), writes);
+        Assert.assertTrue(registry.getMeters().isEmpty());
+    }
+
+    @Test
+    public void testCloseIgnoresFailedWrite() {
+        LastSessionRefreshQueue queue = new LastSessionRefreshQueue();
+        queue.offer("realm", "session-1", false, 10);
+        PassportSessionFactory factory = proxy(PassportSessionFactory.class, (method, args) -> {
+            throw new IllegalStateException("factory closed");
+        });
+
+        queue.close(factory);
+
+        Assert.assertTrue(writes.isEmpty());
+    }
+
+    private PassportSessionFactory factory() {
+        return proxy(PassportSessionFactory.class, (method, args) -> {
+            if (method.equals("create")) {
+                return session();
+            }
+            throw new UnsupportedOperationException(method);
+        });
+    }
+
+    private PassportSession session() {
+        PassportTransactionManager transactionManager = proxy(PassportTransactionManager.class, (method, args) -> null);
+        RealmProvider realms = proxy(RealmProvider.class, (method, args) -> {
+            if (method.equals("getRealm")) {
+                return deletedRealms.contains((String) args[0]) ? null : realm((String) args[0]);
+            }
+            throw new UnsupportedOperationException(method);
+        });
+        UserSessionPersisterProvider persister = proxy(UserSessionPersisterProvider.class, (method, args) -> {
+            if (method.equals("updateLastSessionRefreshes") && args.length == 3 && args[1] instanceof Map<?, ?> refreshes) {
+                @SuppressWarnings("unchecked")
+                Write write = new Write(((RealmModel) args[0]).getId(), Map.copyOf((Map<String, Integer>) refreshes), (boolean) args[2]);
+                onWrite.accept(write);
+                writes.add(write);
+                return null;
+            }
+            throw new UnsupportedOperationException(method);
+        });
+        return proxy(PassportSession.class, (method, args) -> switch (method) {
+            case "getTransactionManager" -> transactionManager;
+            case "realms" -> realms;
+            case "getProvider" -> persister;
+            case "getAttribute", "setAttribute", "close" -> null;
+            default -> throw new UnsupportedOperationException(method);
+        });
+    }
+
+    private static RealmModel realm(String id) {
+        return proxy(RealmModel.class, (method, args) -> {
+            if (method.equals("getId")) {
+                return id;
+            }
+            throw new UnsupportedOperationException(method);
+        });
+    }
+
+    private record Write(String realmId, Map<String, Integer> refreshes, boolean offline) {
+    }
+
+    private interface Handler {
+        Object invoke(String method, Object[] args);
+    }
+
+    private static <T> T proxy(Class<T> type, Handler handler) {
+        return type.cast(Proxy.newProxyInstance(LastSessionRefreshQueueTest.class.getClassLoader(), new Class<?>[] { type },
+                (proxy, method, args) -> handler.invoke(method.getName(), args)));
+    }
+}
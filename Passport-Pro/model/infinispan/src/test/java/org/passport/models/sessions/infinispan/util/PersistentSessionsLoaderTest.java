@@ -0,0 +1,213 @@
+/*
+ * Copyright 2026 Red Hat, Inc. and/or its affiliates
+ * and other contributors as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.passport.models.sessions.infinispan.util;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.TreeSet;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.passport.executors.ExecutorsProvider;
+import org.passport.models.PassportSession;
+import org.passport.models.PassportSessionFactory;
+import org.passport.models.PassportTransactionManager;
+import org.passport.models.UserSessionModel;
+import org.passport.models.session.UserSessionPersisterProvider;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class PersistentSessionsLoaderTest {
+
+    private static final String METRICS_ENABLED = "passport.metrics-enabled";
+    private static final String COUNTER_NAME = "passport.session.loader.sessions";
+
+    private final TreeSet<String> onlineIds = new TreeSet<>(ids("online", 7));
+    private final TreeSet<String> offlineIds = new TreeSet<>(ids("offline", 3));
+    private final List<String> ranges = Collections.synchronizedList(new ArrayList<>());
+    private final List<String> consumed = Collections.synchronizedList(new ArrayList<>());
+    private final ExecutorService executor = Executors.newFixedThreadPool(4);
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private volatile boolean executorRequested;
+
+    @After
+    public void after() {
+        executor.shutdownNow();
+        System.clearProperty(METRICS_ENABLED);
+        Metrics.globalRegistry.find(COUNTER_NAME).counters().forEach(Metrics.globalRegistry::remove);
+        Metrics.removeRegistry(registry);
+    }
+
+    @Test
+    public void testSplitsSessionsIntoRanges() {
+        PersistentSessionsLoader loader = new PersistentSessionsLoader(factory(), false, 3, 2);
+
+        Assert.assertEquals(7, loader.load((session, sessions) -> sessions.forEach(s -> consumed.add(s.getId()))));
+
+        Assert.assertEquals(7, loader.getTotal());
+        Assert.assertEquals(7, loader.getLoaded());
+        Assert.assertEquals(List.of("online-0..online-2", "online-3..online-5", "online-6..online-6"), sorted(ranges));
+        Assert.assertEquals(List.copyOf(onlineIds), sorted(consumed));
+    }
+
+    @Test
+    public void testLoadsOnlyOfflineSessions() {
+        PersistentSessionsLoader loader = new PersistentSessionsLoader(factory(), true, 2, 2);
+
+        Assert.assertEquals(3, loader.load((session, sessions) -> sessions.forEach(s -> consumed.add(s.getId()))));
+
+        Assert.assertEquals(3, loader.getTotal());
+        Assert.assertEquals(List.of("offline-0..offline-1", "offline-2..offline-2"), sorted(ranges));
+        Assert.assertEquals(List.copyOf(offlineIds), sorted(consumed));
+    }
+
+    @Test
+    public void testNoSessionsToLoad() {
+        offlineIds.clear();
+        PersistentSessionsLoader loader = new PersistentSessionsLoader(factory(), true, 2, 2);
+
+        Assert.assertEquals(0, loader.load((session, sessions) -> Assert.fail()));
+
+        Assert.assertFalse(executorRequested);
+        Assert.assertTrue(ranges.isEmpty());
+    }
+
+    @Test
+    public void testFailureOfConsumerStopsLoading() {
+        PersistentSessionsLoader loader = new PersistentSessionsLoader(factory(), false, 1, 1);
+        RuntimeException failure = new RuntimeException("consumer failed");
+
+        IllegalStateException e = Assert.assertThrows(IllegalStateException.class, () -> loader.load((session, sessions) -> {
+            if (sessions.get(0).getId().equals("online-2")) {
+                throw failure;
+            }
+        }));
+
+        Assert.assertSame(failure, e.getCause());
+        Assert.assertEquals(2, loader.getLoaded());
+    }
+
+    @Test
+    public void testCountsLoadedSessionsWhenMetricsEnabled() {
+        System.setProperty(METRICS_ENABLED, "true");
+        Metrics.addRegistry(registry);
+
+        new PersistentSessionsLoader(factory(), false, 3, 2).load((session, sessions) -> {});
+        new PersistentSessionsLoader(factory(), true, 3, 2).load((session, sessions) -> {});
+
+        Counter online = registry.find(COUNTER_NAME).tag("offline", "false").counter();
+        Counter offline = registry.find(COUNTER_NAME).tag("offline", "true").counter();
+        Assert.assertNotNull(online);
+        Assert.assertNotNull(offline);
+        Assert.assertEquals(7.0, online.count(), 0);
+        Assert.assertEquals(3.0, offline.count(), 0);
+    }
+
+    @Test
+    public void testNoCounterWhenMetricsDisabled() {
+        Metrics.addRegistry(registry);
+
+        new PersistentSessionsLoader(factory(), false, 3, 2).load((session, sessions) -> {});
+
+        Assert.assertNull(registry.find(COUNTER_NAME).counter());
+    }
+
+    private static List<String> ids(String prefix, int count) {
+        return IntStream.range(0, count).mapToObj(i -> prefix + "-" + i).collect(Collectors.toList());
+    }
+
+    private static List<String> sorted(List<String> values) {
+        synchronized (values) {
+            return values.stream().sorted().collect(Collectors.toList());
+        }
+    }
+
+    private PassportSessionFactory factory() {
+        return proxy(PassportSessionFactory.class, (method, args) -> {
+            if (method.equals("create")) {
+                return session();
+            }
+            throw new UnsupportedOperationException(method);
+        });
+    }
+
+    private PassportSession session() {
+        PassportTransactionManager transactionManager = proxy(PassportTransactionManager.class, (method, args) -> null);
+        ExecutorsProvider executors = proxy(ExecutorsProvider.class, (method, args) -> {
+            if (method.equals("getExecutor") && PersistentSessionsLoader.EXECUTOR_NAME.equals(args[0])) {
+                executorRequested = true;
+                return executor;
+            }
+            throw new UnsupportedOperationException(method);
+        });
+        UserSessionPersisterProvider persister = persister();
+        return proxy(PassportSession.class, (method, args) -> switch (method) {
+            case "getTransactionManager" -> transactionManager;
+            case "getProvider" -> args[0] == ExecutorsProvider.class ? executors : persister;
+            case "getAttribute", "setAttribute", "close" -> null;
+            default -> throw new UnsupportedOperationException(method);
+        });
+    }
+
+    private UserSessionPersisterProvider persister() {
+        return proxy(UserSessionPersisterProvider.class, (method, args) -> {
+            if (method.equals("getUserSessionsCount") && args.length == 1) {
+                return ids((boolean) args[0]).size();
+            }
+            if (method.equals("loadUserSessionIdsStream")) {
+                return ids((boolean) args[0]).tailSet((String) args[1], false).stream().limit((int) args[2]);
+            }
+            if (method.equals("loadUserSessionsStream") && args.length == 3 && args[0] instanceof Boolean offline) {
+                ranges.add(args[1] + ".." + args[2]);
+                return ids(offline).subSet((String) args[1], true, (String) args[2], true).stream().map(PersistentSessionsLoaderTest::userSession);
+            }
+            throw new UnsupportedOperationException(method);
+        });
+    }
+
+    private TreeSet<String> ids(boolean offline) {
+        return offline ? offlineIds : onlineIds;
+    }
+
+    private static UserSessionModel userSession(String id) {
+        return proxy(UserSessionModel.class, (method, args) -> {
+            if (method.equals("getId")) {
+                return id;
+            }
+            throw new UnsupportedOperationException(method);
+        });
+    }
+
+    private interface Handler {
+        Object invoke(String method, Object[] args);
+    }
+
+    private static <T> T proxy(Class<T> type, Handler handler) {
+        return type.cast(Proxy.newProxyInstance(PersistentSessionsLoaderTest.class.getClassLoader(), new Class<?>[] { type },
+                (proxy, method, args) -> handler.invoke(method.getName(), args)));
+    }
+}
@@ -230,6 +230,22 @@ public class JPAPolicyStore implements PolicyStore {
                 .forEach(consumer::accept);
     }
 
+    @Override
+    public void findByResourcesOfType(ResourceServer resourceServer, String resourceType, Consumer<Policy> consumer) {
+        TypedQuery<PolicyEntity> query = entityManager.createNamedQuery("findPolicyIdByResourcesOfType", PolicyEntity.class);
+
+        query.setFlushMode(FlushModeType.COMMIT);
+        query.setParameter("type", resourceType);
+        query.setParameter("serverId", resourceServer.getId());
+
+        PolicyStore storeFactory = provider.getStoreFactory().getPolicyStore();
+
+        closing(query.getResultStream()
+                .map(entity -> storeFactory.findById(resourceServer, entity.getId()))
+                .filter(Objects::nonNull))
+                .forEach(consumer::accept);
+    }
+
     @Override
     public void findByResourceType(ResourceServer resourceServer, String resourceType, Consumer<Policy> consumer) {
         TypedQuery<PolicyEntity> query = entityManager.createNamedQuery("findPolicyIdByResourceType", PolicyEntity.class);
@@ -18,6 +18,7 @@
 package org.passport.events.jpa;
 
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
@@ -36,6 +37,7 @@ import org.passport.events.admin.AdminEvent;
 import org.passport.events.admin.AdminEventQuery;
 import org.passport.events.admin.AuthDetails;
 import org.passport.events.admin.OperationType;
+import org.passport.models.AbstractPassportTransaction;
 import org.passport.models.PassportSession;
 import org.passport.models.RealmModel;
 import org.passport.models.jpa.entities.RealmAttributeEntity;
@@ -54,10 +56,20 @@ public class JpaEventStoreProvider implements EventStoreProvider {
 
     private final PassportSession session;
     private final EntityManager em;
+    private final JpaEventStoreWriter writer;
+    private List<EventEntity> committedEvents;
 
     public JpaEventStoreProvider(PassportSession session, EntityManager em) {
+        this(session, em, null);
+    }
+
+    /**
+     * @param writer writer of the events outside the transaction of the session, or {@code null} to write them in the transaction of the session
+     */
+    public JpaEventStoreProvider(PassportSession session, EntityManager em, JpaEventStoreWriter writer) {
         this.session = session;
         this.em = em;
+        this.writer = writer;
     }
 
     @Override
@@ -103,7 +115,28 @@ public class JpaEventStoreProvider implements EventStoreProvider {
 
     @Override
     public void onEvent(Event event) {
-        em.persist(convertEvent(event));
+        if (writer == null) {
+            em.persist(convertEvent(event));
+            return;
+        }
+
+        if (committedEvents == null) {
+            List<EventEntity> events = new ArrayList<>();
+            // As with the synchronous insert, events of a transaction which is rolled back are not stored
+            session.getTransactionManager().enlistAfterCompletion(new AbstractPassportTransaction() {
+                @Override
+                protected void commitImpl() {
+                    writer.offer(events);
+                }
+
+                @Override
+                protected void rollbackImpl() {
+                    events.clear();
+                }
+            });
+            committedEvents = events;
+        }
+        committedEvents.add(convertEvent(event));
     }
 
     @Override
@@ -17,6 +17,10 @@
 
 package org.passport.events.jpa;
 
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
 import org.passport.Config;
 import org.passport.connections.jpa.JpaConnectionProvider;
 import org.passport.events.EventStoreProvider;
@@ -24,6 +28,9 @@ import org.passport.events.EventStoreProviderFactory;
 import org.passport.models.PassportSession;
 import org.passport.models.PassportSessionFactory;
 import org.passport.provider.InvalidationHandler;
+import org.passport.provider.Provider;
+import org.passport.provider.ProviderConfigProperty;
+import org.passport.provider.ProviderConfigurationBuilder;
 import org.passport.storage.datastore.PeriodicEventInvalidation;
 
 /**
@@ -33,23 +40,91 @@ public class JpaEventStoreProviderFactory implements EventStoreProviderFactory,
 
     public static final String ID = "jpa";
 
+    public static final String ASYNC_WRITES = "asyncWrites";
+    public static final String ASYNC_QUEUE_SIZE = "asyncQueueSize";
+    public static final String ASYNC_BATCH_SIZE = "asyncBatchSize";
+    public static final String ASYNC_BACKPRESSURE = "asyncBackpressure";
+
+    private static final int DEFAULT_ASYNC_QUEUE_SIZE = 10000;
+    private static final int DEFAULT_ASYNC_BATCH_SIZE = 100;
+    private static final String DEFAULT_ASYNC_BACKPRESSURE = "sync";
+
+    private boolean asyncWrites;
+    private int asyncQueueSize;
+    private int asyncBatchSize;
+    private JpaEventStoreWriter.Backpressure asyncBackpressure;
+    private JpaEventStoreWriter writer;
+
     @Override
     public EventStoreProvider create(PassportSession session) {
         JpaConnectionProvider connection = session.getProvider(JpaConnectionProvider.class);
-        return new JpaEventStoreProvider(session, connection.getEntityManager());
+        return new JpaEventStoreProvider(session, connection.getEntityManager(), writer);
     }
 
     @Override
     public void init(Config.Scope config) {
+        asyncWrites = config.getBoolean(ASYNC_WRITES, false);
+        asyncQueueSize = Math.max(1, config.getInt(ASYNC_QUEUE_SIZE, DEFAULT_ASYNC_QUEUE_SIZE));
+        asyncBatchSize = Math.max(1, config.getInt(ASYNC_BATCH_SIZE, DEFAULT_ASYNC_BATCH_SIZE));
+        String backpressure = config.get(ASYNC_BACKPRESSURE, DEFAULT_ASYNC_BACKPRESSURE);
+        try {
+            asyncBackpressure = JpaEventStoreWriter.Backpressure.valueOf(backpressure.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid value '" + backpressure + "' for " + ASYNC_BACKPRESSURE + ", expected one of block, drop or sync");
+        }
     }
 
     @Override
     public void postInit(PassportSessionFactory factory) {
-
+        if (asyncWrites) {
+            writer = new JpaEventStoreWriter(factory, asyncQueueSize, asyncBatchSize, asyncBackpressure);
+            writer.start();
+        }
     }
 
     @Override
     public void close() {
+        // Closed before the JPA connection provider (see dependsOn), so the queued events can still be written
+        if (writer != null) {
+            writer.stop();
+            writer = null;
+        }
+    }
+
+    @Override
+    public Set<Class<? extends Provider>> dependsOn() {
+        return Set.of(JpaConnectionProvider.class);
+    }
+
+    @Override
+    public List<ProviderConfigProperty> getConfigMetadata() {
+        return ProviderConfigurationBuilder.create()
+                .property()
+                .name(ASYNC_WRITES)
+                .type("boolean")
+                .helpText("If enabled, user events are written to the database by a background writer in batches, after the transaction of the request is committed, instead of within it. Events still queued when a node stops abruptly are lost.")
+                .defaultValue(false)
+                .add()
+                .property()
+                .name(ASYNC_QUEUE_SIZE)
+                .type("int")
+                .helpText("Maximum number of user events waiting to be written by the background writer.")
+                .defaultValue(DEFAULT_ASYNC_QUEUE_SIZE)
+                .add()
+                .property()
+                .name(ASYNC_BATCH_SIZE)
+                .type("int")
+                .helpText("Maximum number of user events written by the background writer in one transaction.")
+                .defaultValue(DEFAULT_ASYNC_BATCH_SIZE)
+                .add()
+                .property()
+                .name(ASYNC_BACKPRESSURE)
+                .type("string")
+                .helpText("What to do with new user events while the queue of the background writer is full: 'block' waits for room in the queue, 'drop' discards the events and counts them, 'sync' writes them in the request thread.")
+                .options("block", "drop", "sync")
+                .defaultValue(DEFAULT_ASYNC_BACKPRESSURE)
+                .add()
+                .build();
     }
 
     @Override
@@ -0,0 +1,258 @@
+/*
+ * Copyright 2026 Red Hat, Inc. and/or its affiliates
+ * and other contributors as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.passport.events.jpa;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+import jakarta.persistence.EntityManager;
+
+import org.passport.Config;
+import org.passport.config.MetricsOptions;
+import org.passport.connections.jpa.JpaConnectionProvider;
+import org.passport.models.PassportSessionFactory;
+import org.passport.models.utils.PassportModelUtils;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Metrics;
+import org.jboss.logging.Logger;
+
+/**
+ * Writes events to the database outside the transactions of the requests that created them.
+ * <p>
+ * Events are handed over once the transaction of the request is committed, and queued in a bounded in-memory queue.
+ * A single thread drains the queue and writes up to {@code maxBatchSize} events in one transaction, so that the
+ * inserts are sent as JDBC batches. If a batch fails, its events are written one by one in separate transactions.
+ * <p>
+ * When the queue is full, the {@link Backpressure} decides what happens to new events. Events still queued on shutdown
+ * are written by {@link #stop()}, but events queued on a node that stops abruptly are lost.
+ * <p>
+ * This class is thread safe.
+ */
+public class JpaEventStoreWriter {
+
+    private static final Logger log = Logger.getLogger(JpaEventStoreWriter.class);
+
+    /**
+     * What to do with new events while the queue is full.
+     */
+    public enum Backpressure {
+        /**
+         * Wait in the request thread until there is room in the queue.
+         */
+        BLOCK,
+        /**
+         * Discard the events and count them.
+         */
+        DROP,
+        /**
+         * Write the events in the request thread in a separate transaction.
+         */
+        SYNC
+    }
+
+    private final PassportSessionFactory factory;
+    private final ArrayBlockingQueue<EventEntity> queue;
+    private final int maxBatchSize;
+    private final Backpressure backpressure;
+    private final Thread worker;
+    private final AtomicLong dropped = new AtomicLong();
+    private volatile boolean stop;
+
+    private Counter writtenCounter;
+    private Counter droppedCounter;
+    private Counter syncCounter;
+    private Gauge queueSizeGauge;
+
+    public JpaEventStoreWriter(PassportSessionFactory factory, int queueSize, int maxBatchSize, Backpressure backpressure) {
+        this.factory = factory;
+        this.queue = new ArrayBlockingQueue<>(queueSize);
+        this.maxBatchSize = maxBatchSize;
+        this.backpressure = backpressure;
+        this.worker = new Thread(this::run, JpaEventStoreWriter.class.getName());
+        this.worker.setDaemon(true);
+        if (Config.scope().root().getBoolean(MetricsOptions.METRICS_ENABLED.getKey(), Boolean.FALSE)) {
+            registerMetrics();
+        }
+    }
+
+    public void start() {
+        worker.start();
+    }
+
+    /**
+     * Queues events of a committed transaction to be written to the database.
+     */
+    public void offer(List<EventEntity> events) {
+        List<EventEntity> rejected = new ArrayList<>();
+        for (EventEntity event : events) {
+            if (stop || !queue.offer(event)) {
+                rejected.add(event);
+            }
+        }
+        if (rejected.isEmpty()) {
+            return;
+        }
+
+        if (stop) {
+            // the writer is stopped already, nobody would drain the queue anymore
+            writeNow(rejected);
+            return;
+        }
+
+        switch (backpressure) {
+            case BLOCK -> block(rejected);
+            case DROP -> drop(rejected.size());
+            case SYNC -> writeNow(rejected);
+        }
+    }
+
+    /**
+     * Stops the writer thread, writes the events still queued and removes the metrics of the writer.
+     */
+    public void stop() {
+        stop = true;
+        worker.interrupt();
+        try {
+            worker.join(TimeUnit.MINUTES.toMillis(1));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        List<EventEntity> remaining = new ArrayList<>();
+        queue.drainTo(remaining);
+        for (int i = 0; i < remaining.size(); i += maxBatchSize) {
+            write(remaining.subList(i, Math.min(remaining.size(), i + maxBatchSize)));
+        }
+        log.debugf("Wrote %d queued events on shutdown", remaining.size());
+
+        Stream.of(writtenCounter, droppedCounter, syncCounter, queueSizeGauge)
+                .filter(Objects::nonNull)
+                .forEach(Metrics.globalRegistry::remove);
+    }
+
+    /**
+     * Returns the number of events waiting to be written.
+     */
+    public int size() {
+        return queue.size();
+    }
+
+    /**
+     * Returns the number of events discarded because the queue was full.
+     */
+    public long getDropped() {
+        return dropped.get();
+    }
+
+    private void run() {
+        while (!stop) {
+            try {
+                // Timeout is only a backup if interrupting the worker in the stop() method didn't work as expected
+                EventEntity polled = queue.poll(1, TimeUnit.SECONDS);
+                if (polled != null) {
+                    List<EventEntity> batch = new ArrayList<>();
+                    batch.add(polled);
+                    queue.drainTo(batch, maxBatchSize - 1);
+                    write(batch);
+                }
+            } catch (InterruptedException e) {
+                if (!stop) {
+                    log.warn("Caught interrupted exception", e);
+                }
+            } catch (RuntimeException e) {
+                // We will need to continue
+                log.warn("Exception when writing queued events", e);
+            }
+        }
+    }
+
+    private void block(List<EventEntity> events) {
+        for (int i = 0; i < events.size(); i++) {
+            try {
+                queue.put(events.get(i));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                writeNow(events.subList(i, events.size()));
+                return;
+            }
+        }
+    }
+
+    private void drop(int count) {
+        long total = dropped.addAndGet(count);
+        if (droppedCounter != null) {
+            droppedCounter.increment(count);
+        }
+        if (total == count || total / 1000 != (total - count) / 1000) {
+            log.warnf("Event queue is full, dropped %d events so far", total);
+        }
+    }
+
+    private void writeNow(List<EventEntity> events) {
+        if (syncCounter != null) {
+            syncCounter.increment(events.size());
+        }
+        write(events);
+    }
+
+    private void write(List<EventEntity> batch) {
+        int written = batch.size();
+        try {
+            PassportModelUtils.runJobInTransaction(factory, session -> {
+                EntityManager em = session.getProvider(JpaConnectionProvider.class).getEntityManager();
+                batch.forEach(em::persist);
+            });
+        } catch (RuntimeException e) {
+            log.warnf(e, "Failed to write a batch of %d events, writing them one by one", batch.size());
+            for (EventEntity event : batch) {
+                try {
+                    PassportModelUtils.runJobInTransaction(factory, session ->
+                            session.getProvider(JpaConnectionProvider.class).getEntityManager().persist(event));
+                } catch (RuntimeException ex) {
+                    written--;
+                    log.errorf(ex, "Failed to write event %s of realm %s", event.getId(), event.getRealmId());
+                }
+            }
+        }
+        if (writtenCounter != null) {
+            writtenCounter.increment(written);
+        }
+    }
+
+    private void registerMetrics() {
+        writtenCounter = Counter.builder("passport.events.store.written")
+                .description("Events written to the database by the asynchronous event store writer.")
+                .register(Metrics.globalRegistry);
+        droppedCounter = Counter.builder("passport.events.store.dropped")
+                .description("Events discarded because the queue of the event store writer was full.")
+                .register(Metrics.globalRegistry);
+        syncCounter = Counter.builder("passport.events.store.sync")
+                .description("Events written in the request thread because the queue of the event store writer was full.")
+                .register(Metrics.globalRegistry);
+        queueSizeGauge = Gauge.builder("passport.events.store.queue.size", this, JpaEventStoreWriter::size)
+                .description("Events waiting to be written to the database by the event store writer.")
+                .register(Metrics.globalRegistry);
+    }
+}
@@ -139,6 +139,16 @@ public class JpaUserCredentialStore implements UserCredentialStore {
                 .findFirst().orElse(null);
     }
 
+    @Override
+    public Stream<CredentialModel> getRealmCredentialsByTypeStream(RealmModel realm, String type, String lastCredentialId, int maxResults) {
+        TypedQuery<CredentialEntity> query = em.createNamedQuery("credentialsByRealmAndType", CredentialEntity.class)
+                .setParameter("realmId", realm.getId())
+                .setParameter("type", type)
+                .setParameter("lastId", lastCredentialId == null ? "" : lastCredentialId)
+                .setMaxResults(maxResults);
+        return closing(query.getResultStream().map(this::toModel));
+    }
+
     @Override
     public void close() {
 
@@ -806,7 +806,20 @@ public class JpaUserProvider implements UserProvider, UserCredentialStore, JpaUs
 
         predicates.addAll(AdminPermissionsSchema.SCHEMA.applyAuthorizationFilters(session, AdminPermissionsSchema.USERS, this, realm, builder, queryBuilder, root));
 
-        queryBuilder.distinct(true).where(predicates).orderBy(builder.asc(root.get(UserModel.USERNAME)));
+        String afterUsername = attributes.get(UserModel.SEARCH_AFTER_USERNAME);
+        String afterId = attributes.get(UserModel.SEARCH_AFTER_ID);
+        if (afterUsername != null && afterId != null) {
+            // Continue after the last user of the previous page, so the database seeks in the username index
+            // instead of reading and skipping all users of the previous pages
+            predicates.add(builder.or(
+                    builder.greaterThan(root.get(UserModel.USERNAME), afterUsername),
+                    builder.and(
+                            builder.equal(root.get(UserModel.USERNAME), afterUsername),
+                            builder.greaterThan(root.get("id"), afterId))));
+            firstResult = null;
+        }
+
+        queryBuilder.distinct(true).where(predicates).orderBy(builder.asc(root.get(UserModel.USERNAME)), builder.asc(root.get("id")));
 
         TypedQuery<UserEntity> query = em.createQuery(queryBuilder);
 
@@ -942,6 +955,11 @@ public class JpaUserProvider implements UserProvider, UserCredentialStore, JpaUs
         return credentialStore.getStoredCredentialByNameAndType(realm, user, name, type);
     }
 
+    @Override
+    public Stream<CredentialModel> getRealmCredentialsByTypeStream(RealmModel realm, String type, String lastCredentialId, int maxResults) {
+        return credentialStore.getRealmCredentialsByTypeStream(realm, type, lastCredentialId, maxResults);
+    }
+
     @Override
     public boolean moveCredentialTo(RealmModel realm, UserModel user, String id, String newPreviousCredentialId) {
         return credentialStore.moveCredentialTo(realm, user, id, newPreviousCredentialId);
@@ -1061,6 +1079,8 @@ public class JpaUserProvider implements UserProvider, UserCredentialStore, JpaUs
                     predicates.add(builder.equal(federatedIdentitiesJoin.get("userId"), value));
                     break;
                 case UserModel.EXACT:
+                case UserModel.SEARCH_AFTER_USERNAME:
+                case UserModel.SEARCH_AFTER_ID:
                     break;
                 case UserModel.INCLUDE_SERVICE_ACCOUNT: {
                     if (!attributes.containsKey(UserModel.INCLUDE_SERVICE_ACCOUNT)
@@ -36,6 +36,7 @@ import jakarta.persistence.Version;
  */
 @NamedQueries({
         @NamedQuery(name="credentialByUser", query="select cred from CredentialEntity cred where cred.user = :user order by cred.priority"),
+        @NamedQuery(name="credentialsByRealmAndType", query="select cred from CredentialEntity cred where cred.user.realmId = :realmId and cred.type = :type and cred.id > :lastId order by cred.id"),
         @NamedQuery(name="deleteCredentialsByRealm", query="delete from CredentialEntity cred where cred.user IN (select u from UserEntity u where u.realmId=:realmId)"),
         @NamedQuery(name="deleteCredentialsByRealmAndLink", query="delete from CredentialEntity cred where cred.user IN (select u from UserEntity u where u.realmId=:realmId and u.federationLink=:link)")
 
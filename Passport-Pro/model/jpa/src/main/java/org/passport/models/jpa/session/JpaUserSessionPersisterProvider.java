@@ -17,6 +17,7 @@
 
 package org.passport.models.jpa.session;
 
+import java.sql.PreparedStatement;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.HashSet;
@@ -54,6 +55,8 @@ import org.passport.models.utils.SessionExpirationUtils;
 import org.passport.storage.StorageId;
 import org.passport.utils.StreamsUtil;
 
+import org.hibernate.Session;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
 import org.hibernate.jpa.HibernateHints;
 import org.jboss.logging.Logger;
 
@@ -245,6 +248,41 @@ public class JpaUserSessionPersisterProvider implements UserSessionPersisterProv
         logger.debugf("Updated lastSessionRefresh of %d user sessions in realm '%s'", us, realm.getName());
     }
 
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The updates are sent as a single JDBC batch. A user session is only updated if its stored lastSessionRefresh is
+     * older than the new one, so a delayed update never moves the lastSessionRefresh backwards.
+     */
+    @Override
+    public void updateLastSessionRefreshes(RealmModel realm, Map<String, Integer> lastSessionRefreshes, boolean offline) {
+        if (lastSessionRefreshes.isEmpty()) {
+            return;
+        }
+        String offlineStr = offlineToString(offline);
+        String tableName = em.getEntityManagerFactory().unwrap(SessionFactoryImplementor.class).getMappingMetamodel()
+                .getEntityDescriptor(PersistentUserSessionEntity.class).getTableName();
+        String sql = "UPDATE " + tableName + " SET LAST_SESSION_REFRESH = ?"
+                + " WHERE USER_SESSION_ID = ? AND OFFLINE_FLAG = ? AND REALM_ID = ? AND LAST_SESSION_REFRESH < ?";
+
+        //noinspection resource
+        em.unwrap(Session.class).doWork(connection -> {
+            try (PreparedStatement statement = connection.prepareStatement(sql)) {
+                for (Map.Entry<String, Integer> entry : lastSessionRefreshes.entrySet()) {
+                    statement.setInt(1, entry.getValue());
+                    statement.setString(2, entry.getKey());
+                    statement.setString(3, offlineStr);
+                    statement.setString(4, realm.getId());
+                    statement.setInt(5, entry.getValue());
+                    statement.addBatch();
+                }
+                statement.executeBatch();
+            }
+        });
+
+        logger.debugf("Updated lastSessionRefresh of up to %d user sessions in realm '%s'", lastSessionRefreshes.size(), realm.getName());
+    }
+
     @Override
     public void removeExpired(RealmModel realm) {
         final RealmExpiration expiration = RealmExpiration.fromRealm(realm);
@@ -389,6 +427,27 @@ public class JpaUserSessionPersisterProvider implements UserSessionPersisterProv
         return loadUserSessionsWithClientSessions(query, offlineStr);
     }
 
+    @Override
+    public Stream<String> loadUserSessionIdsStream(boolean offline, String lastUserSessionId, int maxResults) {
+        return closing(em.createNamedQuery("findUserSessionIdsOrderedById", String.class)
+                .setParameter("offline", offlineToString(offline))
+                .setParameter("lastSessionId", lastUserSessionId)
+                .setMaxResults(maxResults)
+                .getResultStream());
+    }
+
+    @Override
+    public Stream<UserSessionModel> loadUserSessionsStream(boolean offline, String fromUserSessionId, String toUserSessionId) {
+        String offlineStr = offlineToString(offline);
+
+        TypedQuery<PersistentUserSessionEntity> query = em.createNamedQuery("findUserSessionsOrderedByIdInterval", PersistentUserSessionEntity.class)
+                .setParameter("offline", offlineStr)
+                .setParameter("fromSessionId", fromUserSessionId)
+                .setParameter("toSessionId", toUserSessionId);
+
+        return loadUserSessionsWithClientSessions(query, offlineStr);
+    }
+
     @Override
     public AuthenticatedClientSessionModel loadClientSession(RealmModel realm, ClientModel client, UserSessionModel userSession, boolean offline) {
         TypedQuery<PersistentClientSessionEntity> query;
@@ -51,6 +51,12 @@ import org.hibernate.annotations.DynamicUpdate;
         @NamedQuery(name="findUserSessionsOrderedById", query="select sess from PersistentUserSessionEntity sess, RealmEntity realm where realm.id = sess.realmId AND sess.offline = :offline" +
                 " AND sess.userSessionId > :lastSessionId" +
                 " order by sess.userSessionId"),
+        @NamedQuery(name="findUserSessionIdsOrderedById", query="select sess.userSessionId from PersistentUserSessionEntity sess where sess.offline = :offline" +
+                " AND sess.userSessionId > :lastSessionId" +
+                " order by sess.userSessionId"),
+        @NamedQuery(name="findUserSessionsOrderedByIdInterval", query="select sess from PersistentUserSessionEntity sess, RealmEntity realm where realm.id = sess.realmId AND sess.offline = :offline" +
+                " AND sess.userSessionId >= :fromSessionId AND sess.userSessionId <= :toSessionId" +
+                " order by sess.userSessionId"),
         @NamedQuery(name="findUserSession", query="select sess from PersistentUserSessionEntity sess where sess.offline = :offline" +
                 " AND sess.userSessionId = :userSessionId AND sess.realmId = :realmId AND sess.lastSessionRefresh >= :lastSessionRefresh"),
         @NamedQuery(name="findUserSessionsByUserId", query="select sess from PersistentUserSessionEntity sess where sess.offline = :offline" +
@@ -1,6 +1,7 @@
 package org.passport.models.workflow;
 
 import java.time.Duration;
+import java.time.Instant;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
@@ -22,7 +23,9 @@ import org.passport.models.PassportSessionFactory;
 import org.passport.models.ModelValidationException;
 import org.passport.models.RealmModel;
 import org.passport.models.workflow.WorkflowStateProvider.ScheduledStep;
+import org.passport.models.workflow.expression.EvaluatorUtils;
 import org.passport.representations.workflows.StepExecutionStatus;
+import org.passport.representations.workflows.WorkflowActivationRepresentation;
 import org.passport.representations.workflows.WorkflowConstants;
 import org.passport.representations.workflows.WorkflowRepresentation;
 import org.passport.representations.workflows.WorkflowStepRepresentation;
@@ -40,12 +43,14 @@ public class DefaultWorkflowProvider implements WorkflowProvider {
     private final PassportSession session;
     private final WorkflowStateProvider stateProvider;
     private final WorkflowExecutor executor;
+    private final ScheduledStepsRunner scheduledStepsRunner;
     private final PassportSessionFactory sessionFactory;
     private final RealmModel realm;
 
-    DefaultWorkflowProvider(PassportSession session, WorkflowExecutor executor) {
+    DefaultWorkflowProvider(PassportSession session, WorkflowExecutor executor, ScheduledStepsRunner scheduledStepsRunner) {
         this.session = session;
         this.executor = executor;
+        this.scheduledStepsRunner = scheduledStepsRunner;
         this.sessionFactory = session.getPassportSessionFactory();
         this.stateProvider = sessionFactory.getProviderFactory(WorkflowStateProvider.class).create(session);
         this.realm = session.getContext().getRealm();
@@ -110,6 +115,7 @@ public class DefaultWorkflowProvider implements WorkflowProvider {
             workflow.updateConfig(representation.getConfig(), newSteps);
         }
 
+        EvaluatorUtils.removeCompiledExpressions(getWorkflowComponent(workflow.getId()));
         cancelScheduledWorkflow(workflow);
         scheduleWorkflow(workflow);
     }
@@ -122,6 +128,7 @@ public class DefaultWorkflowProvider implements WorkflowProvider {
         realm.removeComponent(component);
         stateProvider.removeByWorkflow(workflow.getId());
         cancelScheduledWorkflow(workflow);
+        WorkflowActivationJob.remove(workflow.getId());
     }
 
     @Override
@@ -178,26 +185,33 @@ public class DefaultWorkflowProvider implements WorkflowProvider {
                 log.debugf("Skipping workflow %s as it is disabled", workflow.getName());
                 return;
             }
-            stateProvider.getDueScheduledSteps(workflow).forEach((scheduled) -> {
-                // check if the resource is still passes the workflow's resource conditions
-                DefaultWorkflowExecutionContext context = new DefaultWorkflowExecutionContext(session, workflow, scheduled);
-                EventBasedWorkflow provider = new EventBasedWorkflow(session, workflow.getSupportedType(), getWorkflowComponent(workflow.getId()));
-                if (!provider.validateResourceConditions(context)) {
-                    log.debugf("Resource %s is no longer eligible for workflow %s. Cancelling execution of the workflow.",
-                            scheduled.resourceId(), scheduled.workflowId());
+            scheduledStepsRunner.run(session, workflow);
+        });
+    }
+
+    /**
+     * Runs the given scheduled steps of the workflow, claimed by the {@link ScheduledStepsRunner}.
+     */
+    void runScheduledSteps(Workflow workflow, List<ScheduledStep> steps) {
+        EventBasedWorkflow provider = new EventBasedWorkflow(session, workflow.getSupportedType(), getWorkflowComponent(workflow.getId()));
+        for (ScheduledStep scheduled : steps) {
+            // check if the resource is still passes the workflow's resource conditions
+            DefaultWorkflowExecutionContext context = new DefaultWorkflowExecutionContext(session, workflow, scheduled);
+            if (!provider.validateResourceConditions(context)) {
+                log.debugf("Resource %s is no longer eligible for workflow %s. Cancelling execution of the workflow.",
+                        scheduled.resourceId(), scheduled.workflowId());
+                stateProvider.remove(scheduled.executionId());
+            } else {
+                WorkflowStep step = context.getStep();
+                if (step == null) {
+                    log.warnf("Could not find step %s in workflow %s for resource %s. Cancelling execution of the workflow.",
+                            scheduled.stepId(), scheduled.workflowId(), scheduled.resourceId());
                     stateProvider.remove(scheduled.executionId());
                 } else {
-                    WorkflowStep step = context.getStep();
-                    if (step == null) {
-                        log.warnf("Could not find step %s in workflow %s for resource %s. Cancelling execution of the workflow.",
-                                scheduled.stepId(), scheduled.workflowId(), scheduled.resourceId());
-                        stateProvider.remove(scheduled.executionId());
-                    } else {
-                        runWorkflow(context);
-                    }
+                    runWorkflow(context);
                 }
-            });
-        });
+            }
+        }
     }
 
     @Override
@@ -282,11 +296,37 @@ public class DefaultWorkflowProvider implements WorkflowProvider {
             WorkflowProvider provider = getWorkflowProvider(workflow);
             ResourceType supportedType = workflow.getSupportedType();
             ResourceTypeSelector selector = provider.getResourceTypeSelector(supportedType);
+            Duration delay = getActivationDelay(workflow);
+            if (delay != null) {
+                // the first step is scheduled, so it is scheduled for the whole batch at once
+                int batchSize = Integer.parseInt(workflow.getConfig().getFirstOrDefault(WorkflowConstants.CONFIG_SCHEDULE_BATCH_SIZE, "100"));
+                WorkflowStep firstStep = workflow.getSteps().findFirst().orElseThrow();
+                int count = selector.scheduleResources(workflow, firstStep, Instant.now().plus(delay).toEpochMilli(), batchSize);
+                log.debugf("Scheduled first step of workflow %s for %d resources", workflow.getName(), count);
+                return;
+            }
             selector.getResourceIds(workflow)
                     .forEach(resourceId -> processEvent(Stream.of(workflow), new AdhocWorkflowEvent(supportedType, resourceId)));
             }
     }
 
+    @Override
+    public WorkflowActivationRepresentation startActivationForAllEligibleResources(Workflow workflow) {
+        if (!workflow.isEnabled()) {
+            throw new ModelValidationException("Cannot activate disabled workflow " + workflow.getName() + ".");
+        }
+        WorkflowActivationJob.start(session, workflow);
+        return getActivationForAllEligibleResources(workflow);
+    }
+
+    @Override
+    public WorkflowActivationRepresentation getActivationForAllEligibleResources(Workflow workflow) {
+        WorkflowActivationJob job = WorkflowActivationJob.get(workflow.getId());
+        WorkflowActivationRepresentation rep = job == null ? new WorkflowActivationRepresentation() : job.toRepresentation();
+        rep.setRemaining(getResourceTypeSelector(workflow.getSupportedType()).getResourceIdsCount(workflow));
+        return rep;
+    }
+
     @Override
     public WorkflowRepresentation toRepresentation(Workflow workflow) {
         List<WorkflowStepRepresentation> steps = workflow.getSteps().map(this::toRepresentation).toList();
@@ -318,6 +358,21 @@ public class DefaultWorkflowProvider implements WorkflowProvider {
     public void close() {
     }
 
+    /**
+     * Returns the time after which the first step of the workflow runs when the workflow is activated for a resource,
+     * or {@code null} if the first step runs right away.
+     */
+    static Duration getActivationDelay(Workflow workflow) {
+        if (DurationConverter.isPositiveDuration(workflow.getNotBefore())) {
+            return DurationConverter.parseDuration(workflow.getNotBefore());
+        }
+        return workflow.getSteps().findFirst()
+                .map(WorkflowStep::getAfter)
+                .filter(DurationConverter::isPositiveDuration)
+                .map(DurationConverter::parseDuration)
+                .orElse(null);
+    }
+
     private ComponentModel getWorkflowComponent(String id) {
         return this.getWorkflowComponent(id, WorkflowProvider.class.getName());
     }
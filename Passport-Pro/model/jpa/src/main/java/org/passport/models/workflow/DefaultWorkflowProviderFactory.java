@@ -1,5 +1,6 @@
 package org.passport.models.workflow;
 
+import java.time.Duration;
 import java.util.List;
 import java.util.concurrent.ExecutorService;
 
@@ -21,10 +22,15 @@ public class DefaultWorkflowProviderFactory implements WorkflowProviderFactory<D
 
     static final String ID = "default";
     private static final long DEFAULT_EXECUTOR_TASK_TIMEOUT = 1000L;
+    private static final int DEFAULT_SCHEDULED_STEPS_BATCH_SIZE = 100;
+    private static final long DEFAULT_SCHEDULED_STEPS_LEASE_TIME = Duration.ofMinutes(10).toMillis();
 
     private WorkflowExecutor executor;
+    private ScheduledStepsRunner scheduledStepsRunner;
     private boolean blocking;
     private long taskTimeout;
+    private int scheduledStepsBatchSize;
+    private long scheduledStepsLeaseTime;
 
     @Override
     public String getId() {
@@ -33,12 +39,12 @@ public class DefaultWorkflowProviderFactory implements WorkflowProviderFactory<D
 
     @Override
     public DefaultWorkflowProvider create(PassportSession session, ComponentModel model) {
-        return new DefaultWorkflowProvider(session, executor);
+        return new DefaultWorkflowProvider(session, executor, scheduledStepsRunner);
     }
 
     @Override
     public DefaultWorkflowProvider create(PassportSession session) {
-        return new DefaultWorkflowProvider(session, executor);
+        return new DefaultWorkflowProvider(session, executor, scheduledStepsRunner);
     }
 
     @Override
@@ -46,11 +52,15 @@ public class DefaultWorkflowProviderFactory implements WorkflowProviderFactory<D
         blocking = config.getBoolean("executorBlocking", false);
         String executorTimeoutStr = config.get("executorTaskTimeout");
         taskTimeout = executorTimeoutStr == null ? DEFAULT_EXECUTOR_TASK_TIMEOUT : DurationConverter.parseDuration(executorTimeoutStr).toMillis();
+        scheduledStepsBatchSize = Math.max(1, config.getInt("scheduledStepsBatchSize", DEFAULT_SCHEDULED_STEPS_BATCH_SIZE));
+        String leaseTimeStr = config.get("scheduledStepsLeaseTime");
+        scheduledStepsLeaseTime = leaseTimeStr == null ? DEFAULT_SCHEDULED_STEPS_LEASE_TIME : DurationConverter.parseDuration(leaseTimeStr).toMillis();
     }
 
     @Override
     public void postInit(PassportSessionFactory factory) {
         this.executor = new WorkflowExecutor(getTaskExecutor(factory), blocking, taskTimeout);
+        this.scheduledStepsRunner = new ScheduledStepsRunner(executor, scheduledStepsBatchSize, scheduledStepsLeaseTime);
         factory.register(this);
     }
 
@@ -84,7 +94,9 @@ public class DefaultWorkflowProviderFactory implements WorkflowProviderFactory<D
 
     @Override
     public void close() {
-
+        if (scheduledStepsRunner != null) {
+            scheduledStepsRunner.close();
+        }
     }
 
     @Override
@@ -105,6 +117,18 @@ public class DefaultWorkflowProviderFactory implements WorkflowProviderFactory<D
                 .type("long")
                 .helpText("The time in milliseconds before a workflow task is marked as timed out .")
                 .defaultValue(DEFAULT_EXECUTOR_TASK_TIMEOUT)
+                .add()
+                .property()
+                .name("scheduled-steps-batch-size")
+                .type("int")
+                .helpText("The maximum number of due workflow steps claimed and run in a single transaction.")
+                .defaultValue(DEFAULT_SCHEDULED_STEPS_BATCH_SIZE)
+                .add()
+                .property()
+                .name("scheduled-steps-lease-time")
+                .type("long")
+                .helpText("The time in milliseconds a claimed workflow step is reserved for the node that claimed it. If its execution fails, the step runs again after this time.")
+                .defaultValue(DEFAULT_SCHEDULED_STEPS_LEASE_TIME)
                 .add().build();
     }
 
@@ -2,7 +2,7 @@ package org.passport.models.workflow;
 
 import org.passport.component.ComponentModel;
 import org.passport.models.PassportSession;
-import org.passport.models.workflow.expression.BooleanConditionParser;
+import org.passport.models.workflow.expression.CompiledExpression;
 import org.passport.models.workflow.expression.ConditionEvaluator;
 import org.passport.models.workflow.expression.EvaluatorUtils;
 import org.passport.models.workflow.expression.EventEvaluator;
@@ -79,9 +79,8 @@ final class EventBasedWorkflow {
     public boolean validateResourceConditions(WorkflowExecutionContext context) {
         String conditions = getModel().getConfig().getFirst(CONFIG_CONDITIONS);
         if (StringUtil.isNotBlank(conditions)) {
-            BooleanConditionParser.EvaluatorContext evaluatorContext = EvaluatorUtils.createEvaluatorContext(model, conditions);
-            ConditionEvaluator evaluator = new ConditionEvaluator(session, context);
-            return evaluator.visit(evaluatorContext);
+            CompiledExpression expression = EvaluatorUtils.getCompiledExpression(model, conditions);
+            return new ConditionEvaluator(session, context).evaluate(expression);
         } else {
             return true;
         }
@@ -101,9 +100,8 @@ final class EventBasedWorkflow {
 
         String eventConditions = model.getConfig().getFirst(CONFIG_ON_EVENT);
         if (StringUtil.isNotBlank(eventConditions)) {
-            BooleanConditionParser.EvaluatorContext context = EvaluatorUtils.createEvaluatorContext(model, eventConditions);
-            EventEvaluator eventEvaluator = new EventEvaluator(session, executionContext);
-            return eventEvaluator.visit(context);
+            CompiledExpression expression = EvaluatorUtils.getCompiledExpression(model, eventConditions);
+            return new EventEvaluator(session, executionContext).evaluate(expression);
         } else {
             return false;
         }
@@ -131,9 +129,8 @@ final class EventBasedWorkflow {
             }
             else {
                 // the flag has an event expression - parse and evaluate it
-                BooleanConditionParser.EvaluatorContext context = EvaluatorUtils.createEvaluatorContext(model, concurrencySetting);
-                EventEvaluator eventEvaluator = new EventEvaluator(session, executionContext);
-                return eventEvaluator.visit(context);
+                CompiledExpression expression = EvaluatorUtils.getCompiledExpression(model, concurrencySetting);
+                return new EventEvaluator(session, executionContext).evaluate(expression);
             }
         }
         return false;
@@ -0,0 +1,191 @@
+/*
+ * Copyright 2026 Red Hat, Inc. and/or its affiliates
+ * and other contributors as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.passport.models.workflow;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Subquery;
+
+import org.passport.common.util.MultivaluedHashMap;
+import org.passport.component.ComponentModel;
+import org.passport.connections.jpa.JpaConnectionProvider;
+import org.passport.models.PassportSession;
+import org.passport.models.RealmModel;
+import org.passport.models.utils.PassportModelUtils;
+import org.passport.models.workflow.expression.CompiledExpression;
+import org.passport.models.workflow.expression.EvaluatorUtils;
+import org.passport.models.workflow.expression.PredicateEvaluator;
+import org.passport.representations.workflows.WorkflowConstants;
+import org.passport.utils.StringUtil;
+
+import org.hibernate.Session;
+import org.hibernate.query.criteria.HibernateCriteriaBuilder;
+import org.hibernate.query.criteria.JpaCriteriaInsertSelect;
+import org.hibernate.query.criteria.JpaCriteriaQuery;
+import org.hibernate.query.criteria.JpaRoot;
+
+import static org.passport.representations.workflows.WorkflowConstants.CONFIG_CONDITIONS;
+
+/**
+ * Selects the resources of a type that are eligible for a workflow with a single query, with the conditions of the
+ * workflow pushed down into the query by the {@link PredicateEvaluator}.
+ *
+ * @param <E> the entity of the resources
+ */
+abstract class JpaResourceTypeSelector<E> implements ResourceTypeSelector {
+
+    protected final EntityManager em;
+    protected final PassportSession session;
+    private final Class<E> entityClass;
+    private final ResourceType type;
+
+    JpaResourceTypeSelector(PassportSession session, Class<E> entityClass, ResourceType type) {
+        this.session = session;
+        this.em = session.getProvider(JpaConnectionProvider.class).getEntityManager();
+        this.entityClass = entityClass;
+        this.type = type;
+    }
+
+    @Override
+    public List<String> getResourceIds(Workflow workflow) {
+        CriteriaBuilder cb = em.getCriteriaBuilder();
+        CriteriaQuery<String> query = cb.createQuery(String.class);
+        Root<E> root = query.from(entityClass);
+
+        query.select(root.get("id")).where(getEligibilityPredicates(workflow, cb, query, root));
+
+        int batchSize = Integer.parseInt(workflow.getConfig().getFirstOrDefault(WorkflowConstants.CONFIG_SCHEDULE_BATCH_SIZE, "100"));
+
+        return em.createQuery(query).setMaxResults(batchSize).getResultList();
+    }
+
+    @Override
+    public List<String> getResourceIds(Workflow workflow, String fromResourceId, int maxResults) {
+        CriteriaBuilder cb = em.getCriteriaBuilder();
+        CriteriaQuery<String> query = cb.createQuery(String.class);
+        Root<E> root = query.from(entityClass);
+
+        List<Predicate> predicates = getEligibilityPredicates(workflow, cb, query, root);
+        if (fromResourceId != null) {
+            predicates.add(cb.greaterThan(root.get("id"), fromResourceId));
+        }
+        query.select(root.get("id")).where(predicates).orderBy(cb.asc(root.get("id")));
+
+        return em.createQuery(query).setMaxResults(maxResults).getResultList();
+    }
+
+    @Override
+    public long getResourceIdsCount(Workflow workflow) {
+        CriteriaBuilder cb = em.getCriteriaBuilder();
+        CriteriaQuery<Long> query = cb.createQuery(Long.class);
+        Root<E> root = query.from(entityClass);
+
+        query.select(cb.count(root)).where(getEligibilityPredicates(workflow, cb, query, root));
+
+        return em.createQuery(query).getSingleResult();
+    }
+
+    @Override
+    public int scheduleResources(Workflow workflow, WorkflowStep step, long scheduledAt, int maxResults) {
+        Session hibernateSession = em.unwrap(Session.class);
+        HibernateCriteriaBuilder cb = hibernateSession.getCriteriaBuilder();
+
+        // SELECT :prefix || e.id, e.id, :workflowId, :stepId, :scheduledAt, 0 FROM E e WHERE <eligible> FETCH FIRST :maxResults ROWS ONLY
+        JpaCriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<E> root = query.from(entityClass);
+        // a resource is selected at most once by the statement, so the execution ids only need a unique prefix per statement
+        String executionIdPrefix = PassportModelUtils.generateId() + ".";
+        query.select(cb.tuple(
+                cb.concat(executionIdPrefix, root.get("id")),
+                root.get("id"),
+                cb.literal(workflow.getId()),
+                cb.literal(step.getId()),
+                cb.literal(scheduledAt),
+                cb.literal(0L)
+        )).where(getEligibilityPredicates(workflow, cb, query, root));
+        query.fetch(maxResults);
+
+        JpaCriteriaInsertSelect<WorkflowStateEntity> insert = cb.createCriteriaInsertSelect(WorkflowStateEntity.class);
+        JpaRoot<WorkflowStateEntity> state = insert.getTarget();
+        insert.setInsertionTargetPaths(
+                state.get("executionId"),
+                state.get("resourceId"),
+                state.get("workflowId"),
+                state.get("scheduledStepId"),
+                state.get("scheduledStepTimestamp"),
+                state.get("leaseExpiration")
+        );
+        insert.select(query);
+
+        return hibernateSession.createMutationQuery(insert).executeUpdate();
+    }
+
+    @Override
+    public Object resolveResource(String resourceId) {
+        Objects.requireNonNull(resourceId, "resourceId");
+        return type.resolveResource(session, resourceId);
+    }
+
+    private List<Predicate> getEligibilityPredicates(Workflow workflow, CriteriaBuilder cb, CriteriaQuery<?> query, Root<E> root) {
+        List<Predicate> predicates = new ArrayList<>();
+
+        // Subquery will find if a state record exists for the resource and workflow
+        // SELECT 1 FROM WorkflowStateEntity s WHERE s.resourceId = root.id AND s.workflowId = :workflowId
+        Subquery<Integer> subquery = query.subquery(Integer.class);
+        Root<WorkflowStateEntity> stateRoot = subquery.from(WorkflowStateEntity.class);
+        subquery.select(cb.literal(1));
+        subquery.where(
+            cb.and(
+                cb.equal(stateRoot.get("resourceId"), root.get("id")),
+                cb.equal(stateRoot.get("workflowId"), workflow.getId())
+            )
+        );
+        RealmModel realm = session.getContext().getRealm();
+        predicates.add(cb.equal(root.get("realmId"), realm.getId()));
+        predicates.add(cb.not(cb.exists(subquery)));
+
+        predicates.add(getConditionsPredicate(workflow, cb, query, root));
+
+        return predicates;
+    }
+
+    @SuppressWarnings("unchecked")
+    private Predicate getConditionsPredicate(Workflow workflow, CriteriaBuilder cb, CriteriaQuery<?> query, Root<E> path) {
+        MultivaluedHashMap<String, String> config = workflow.getConfig();
+        String conditions = config.getFirst(CONFIG_CONDITIONS);
+
+        if (StringUtil.isBlank(conditions)) {
+            return cb.conjunction();
+        }
+
+        ComponentModel model = session.getContext().getRealm().getComponent(workflow.getId());
+        CompiledExpression expression = model != null
+                ? EvaluatorUtils.getCompiledExpression(model, conditions)
+                : CompiledExpression.compile(EvaluatorUtils.createEvaluatorContext(conditions));
+        // conditions only use the query to create subqueries, so the type of its result does not matter
+        return new PredicateEvaluator(session, cb, (CriteriaQuery<String>) query, path).toPredicate(expression);
+    }
+}
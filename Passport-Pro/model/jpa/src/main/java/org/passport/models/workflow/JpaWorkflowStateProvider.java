@@ -19,9 +19,11 @@ package org.passport.models.workflow;
 
 import java.time.Duration;
 import java.time.Instant;
+import java.util.List;
 import java.util.stream.Stream;
 
 import jakarta.persistence.EntityManager;
+import jakarta.persistence.LockModeType;
 import jakarta.persistence.TypedQuery;
 import jakarta.persistence.criteria.CriteriaBuilder;
 import jakarta.persistence.criteria.CriteriaDelete;
@@ -36,6 +38,8 @@ import org.passport.models.PassportSession;
 import org.passport.models.RealmModel;
 import org.passport.utils.StringUtil;
 
+import org.hibernate.Timeouts;
+import org.hibernate.jpa.SpecHints;
 import org.jboss.logging.Logger;
 
 public class JpaWorkflowStateProvider implements WorkflowStateProvider {
@@ -81,6 +85,7 @@ public class JpaWorkflowStateProvider implements WorkflowStateProvider {
         } else {
             entity.setScheduledStepId(step.getId());
             entity.setScheduledStepTimestamp(Instant.now().plus(duration).toEpochMilli());
+            entity.setLeaseExpiration(0);
         }
     }
 
@@ -99,6 +104,49 @@ public class JpaWorkflowStateProvider implements WorkflowStateProvider {
                 .map(this::toScheduledStep);
     }
 
+    @Override
+    public long getDueScheduledStepsCount(Workflow workflow) {
+        CriteriaBuilder cb = em.getCriteriaBuilder();
+        CriteriaQuery<Long> query = cb.createQuery(Long.class);
+        Root<WorkflowStateEntity> stateRoot = query.from(WorkflowStateEntity.class);
+
+        Predicate byWorkflow = cb.equal(stateRoot.get("workflowId"), workflow.getId());
+        Predicate isExpired = cb.lessThan(stateRoot.get("scheduledStepTimestamp"), Time.currentTimeMillis());
+
+        query.select(cb.count(stateRoot));
+        query.where(cb.and(byWorkflow, isExpired));
+
+        return em.createQuery(query).getSingleResult();
+    }
+
+    @Override
+    public List<ScheduledStep> claimDueScheduledSteps(Workflow workflow, int maxResults, long leaseTime) {
+        long now = Time.currentTimeMillis();
+        CriteriaBuilder cb = em.getCriteriaBuilder();
+        CriteriaQuery<WorkflowStateEntity> query = cb.createQuery(WorkflowStateEntity.class);
+        Root<WorkflowStateEntity> stateRoot = query.from(WorkflowStateEntity.class);
+
+        Predicate byWorkflow = cb.equal(stateRoot.get("workflowId"), workflow.getId());
+        Predicate isExpired = cb.lessThan(stateRoot.get("scheduledStepTimestamp"), now);
+        Predicate isNotLeased = cb.lessThanOrEqualTo(stateRoot.get("leaseExpiration"), now);
+
+        query.where(cb.and(byWorkflow, isExpired, isNotLeased));
+        query.orderBy(cb.asc(stateRoot.get("scheduledStepTimestamp")));
+
+        // rows being claimed by another node are skipped instead of waiting for its transaction
+        List<WorkflowStateEntity> entities = em.createQuery(query)
+                .setMaxResults(maxResults)
+                .setLockMode(LockModeType.PESSIMISTIC_WRITE)
+                .setHint(SpecHints.HINT_SPEC_LOCK_TIMEOUT, Timeouts.SKIP_LOCKED_MILLI)
+                .getResultList();
+
+        for (WorkflowStateEntity entity : entities) {
+            entity.setLeaseExpiration(now + leaseTime);
+        }
+
+        return entities.stream().map(this::toScheduledStep).toList();
+    }
+
     @Override
     public Stream<ScheduledStep> getScheduledStepsByWorkflow(String workflowId) {
         if (StringUtil.isBlank(workflowId)) {
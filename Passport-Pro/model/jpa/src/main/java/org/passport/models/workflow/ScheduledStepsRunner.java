@@ -0,0 +1,148 @@
+/*
+ * Copyright 2026 Red Hat, Inc. and/or its affiliates
+ * and other contributors as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.passport.models.workflow;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import org.passport.Config;
+import org.passport.common.util.Time;
+import org.passport.config.MetricsOptions;
+import org.passport.models.PassportSession;
+import org.passport.models.PassportSessionFactory;
+import org.passport.models.RealmModel;
+import org.passport.models.utils.PassportModelUtils;
+import org.passport.models.workflow.WorkflowStateProvider.ScheduledStep;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
+import org.jboss.logging.Logger;
+
+/**
+ * Runs the due scheduled steps of a workflow in batches.
+ * <p>
+ * Each batch is claimed in its own short transaction, which sets a lease on the steps of the batch, and is then run
+ * in another transaction. Concurrent runs, for example on the other nodes of a cluster, claim different steps, so all
+ * nodes share the due steps. A run stops after it claimed as many steps as were due when it started, so steps whose
+ * execution failed and whose lease expired meanwhile are left to the next run.
+ */
+final class ScheduledStepsRunner {
+
+    private static final Logger log = Logger.getLogger(ScheduledStepsRunner.class);
+
+    private final WorkflowExecutor executor;
+    private final int batchSize;
+    private final long leaseTime;
+    private final DistributionSummary backlog;
+    private final Timer lag;
+
+    ScheduledStepsRunner(WorkflowExecutor executor, int batchSize, long leaseTime) {
+        this.executor = executor;
+        this.batchSize = batchSize;
+        this.leaseTime = leaseTime;
+
+        if (Config.scope().root().getBoolean(MetricsOptions.METRICS_ENABLED.getKey(), Boolean.FALSE)) {
+            backlog = DistributionSummary.builder("passport.workflow.steps.backlog")
+                    .description("Due scheduled workflow steps of a workflow when its steps are run.")
+                    .register(Metrics.globalRegistry);
+            lag = Timer.builder("passport.workflow.steps.lag")
+                    .description("Time between the scheduled time of a workflow step and the time it is claimed to run.")
+                    .register(Metrics.globalRegistry);
+        } else {
+            backlog = null;
+            lag = null;
+        }
+    }
+
+    /**
+     * Runs the due scheduled steps of the given workflow.
+     *
+     * @param session the session of the caller, used to count the due steps
+     * @param workflow the workflow
+     */
+    void run(PassportSession session, Workflow workflow) {
+        PassportSessionFactory sessionFactory = session.getPassportSessionFactory();
+        String realmId = session.getContext().getRealm().getId();
+        String workflowId = workflow.getId();
+
+        long due = session.getProvider(WorkflowStateProvider.class).getDueScheduledStepsCount(workflow);
+        if (backlog != null) {
+            backlog.record(due);
+        }
+
+        long claimed = 0;
+        while (claimed < due) {
+            List<ScheduledStep> steps = PassportModelUtils.runJobInTransactionWithResult(sessionFactory, s ->
+                    s.getProvider(WorkflowStateProvider.class).claimDueScheduledSteps(workflow, batchSize, leaseTime));
+            if (steps.isEmpty()) {
+                break;
+            }
+            claimed += steps.size();
+            recordLag(steps);
+
+            try {
+                PassportModelUtils.runJobInTransaction(sessionFactory, s -> runSteps(s, realmId, workflowId, steps));
+            } catch (RuntimeException e) {
+                log.errorf(e, "Failed to run %d scheduled steps of workflow %s, they run again after their lease expired in %s",
+                        steps.size(), workflow.getName(), Duration.ofMillis(leaseTime));
+            }
+        }
+
+        log.debugf("Claimed %d of %d due scheduled steps of workflow %s", claimed, due, workflow.getName());
+    }
+
+    private void runSteps(PassportSession session, String realmId, String workflowId, List<ScheduledStep> steps) {
+        RealmModel realm = session.realms().getRealm(realmId);
+        if (realm == null || realm.getComponent(workflowId) == null) {
+            // removed meanwhile, together with its scheduled steps
+            return;
+        }
+        session.getContext().setRealm(realm);
+
+        DefaultWorkflowProvider provider = new DefaultWorkflowProvider(session, executor, this);
+        Workflow workflow = provider.getWorkflow(workflowId);
+        if (!workflow.isEnabled()) {
+            log.debugf("Skipping workflow %s as it was disabled", workflow.getName());
+            return;
+        }
+        provider.runScheduledSteps(workflow, steps);
+    }
+
+    /**
+     * Removes the meters of this runner from the global registry.
+     */
+    void close() {
+        Stream.of(backlog, lag)
+                .filter(Objects::nonNull)
+                .forEach(Metrics.globalRegistry::remove);
+    }
+
+    private void recordLag(List<ScheduledStep> steps) {
+        if (lag == null) {
+            return;
+        }
+        long now = Time.currentTimeMillis();
+        for (ScheduledStep step : steps) {
+            lag.record(Math.max(0, now - step.scheduledAt()), TimeUnit.MILLISECONDS);
+        }
+    }
+}
@@ -0,0 +1,177 @@
+/*
+ * Copyright 2026 Red Hat, Inc. and/or its affiliates
+ * and other contributors as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.passport.models.workflow;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.passport.common.util.Time;
+import org.passport.executors.ExecutorsProvider;
+import org.passport.models.PassportSession;
+import org.passport.models.PassportSessionFactory;
+import org.passport.models.RealmModel;
+import org.passport.models.utils.PassportModelUtils;
+import org.passport.representations.workflows.WorkflowActivationRepresentation;
+import org.passport.representations.workflows.WorkflowActivationRepresentation.Status;
+
+import org.jboss.logging.Logger;
+
+/**
+ * Activates a workflow for all eligible resources in the background, one chunk of resources per transaction.
+ * <p>
+ * If the first step of the workflow is scheduled, the step is scheduled for a whole chunk of resources with a single
+ * {@code INSERT ... SELECT} statement, with the conditions of the workflow evaluated by the database. Otherwise, the
+ * first step runs right away, and the resources of a chunk are activated one at a time.
+ * <p>
+ * Resources for which the workflow is already active are not eligible, so a job that failed or was interrupted resumes
+ * where it stopped when it is started again. The last job of each workflow is kept to report its progress.
+ */
+final class WorkflowActivationJob implements Runnable {
+
+    private static final Logger log = Logger.getLogger(WorkflowActivationJob.class);
+
+    static final String EXECUTOR_NAME = "workflow-activation";
+
+    private static final int CHUNK_SIZE = 1000;
+
+    private static final ConcurrentMap<String, WorkflowActivationJob> JOBS = new ConcurrentHashMap<>();
+
+    private final PassportSessionFactory sessionFactory;
+    private final String realmId;
+    private final String workflowId;
+    private final String notBefore;
+    private final AtomicLong activated = new AtomicLong();
+    private final long startedAt = Time.currentTimeMillis();
+    private volatile Status status = Status.RUNNING;
+    private volatile long finishedAt;
+    private volatile String error;
+    private String lastResourceId;
+
+    private WorkflowActivationJob(PassportSessionFactory sessionFactory, String realmId, Workflow workflow) {
+        this.sessionFactory = sessionFactory;
+        this.realmId = realmId;
+        this.workflowId = workflow.getId();
+        this.notBefore = workflow.getNotBefore();
+    }
+
+    /**
+     * Starts activating the given workflow, unless it is already being activated.
+     *
+     * @return the job activating the workflow
+     */
+    static WorkflowActivationJob start(PassportSession session, Workflow workflow) {
+        WorkflowActivationJob created = new WorkflowActivationJob(session.getPassportSessionFactory(),
+                session.getContext().getRealm().getId(), workflow);
+        WorkflowActivationJob job = JOBS.compute(workflow.getId(), (id, current) -> current != null && current.status == Status.RUNNING ? current : created);
+
+        if (job == created) {
+            log.infof("Starting activation of workflow %s for all eligible resources", workflow.getName());
+            try {
+                session.getProvider(ExecutorsProvider.class).getExecutor(EXECUTOR_NAME).execute(job);
+            } catch (RejectedExecutionException e) {
+                job.finish(Status.FAILED, e);
+            }
+        }
+
+        return job;
+    }
+
+    /**
+     * Returns the last job that activated the given workflow, or {@code null} if there was none.
+     */
+    static WorkflowActivationJob get(String workflowId) {
+        return JOBS.get(workflowId);
+    }
+
+    /**
+     * Forgets the last job of the given workflow. A running job stops with its next chunk, as the workflow is gone.
+     */
+    static void remove(String workflowId) {
+        JOBS.remove(workflowId);
+    }
+
+    @Override
+    public void run() {
+        try {
+            int count;
+            do {
+                count = PassportModelUtils.runJobInTransactionWithResult(sessionFactory, this::activateChunk);
+                long total = activated.addAndGet(count);
+                log.debugf("Activated workflow %s for %d resources", workflowId, total);
+            } while (count == CHUNK_SIZE);
+            finish(Status.COMPLETED, null);
+        } catch (RuntimeException e) {
+            log.errorf(e, "Failed to activate workflow %s for all eligible resources after %d resources", workflowId, activated.get());
+            finish(Status.FAILED, e);
+        }
+    }
+
+    WorkflowActivationRepresentation toRepresentation() {
+        WorkflowActivationRepresentation rep = new WorkflowActivationRepresentation();
+        rep.setStatus(status);
+        rep.setActivated(activated.get());
+        rep.setStartedAt(startedAt);
+        if (status != Status.RUNNING) {
+            rep.setFinishedAt(finishedAt);
+        }
+        rep.setError(error);
+        return rep;
+    }
+
+    private int activateChunk(PassportSession session) {
+        RealmModel realm = session.realms().getRealm(realmId);
+        if (realm == null || realm.getComponent(workflowId) == null) {
+            throw new IllegalStateException("Workflow " + workflowId + " was removed");
+        }
+        session.getContext().setRealm(realm);
+
+        WorkflowProvider provider = session.getProvider(WorkflowProvider.class);
+        Workflow workflow = provider.getWorkflow(workflowId);
+        if (!workflow.isEnabled()) {
+            throw new IllegalStateException("Workflow " + workflow.getName() + " was disabled");
+        }
+        workflow.setNotBefore(notBefore);
+        ResourceType type = workflow.getSupportedType();
+        ResourceTypeSelector selector = provider.getResourceTypeSelector(type);
+
+        Duration delay = DefaultWorkflowProvider.getActivationDelay(workflow);
+        if (delay != null) {
+            WorkflowStep firstStep = workflow.getSteps().findFirst().orElseThrow();
+            return selector.scheduleResources(workflow, firstStep, Instant.now().plus(delay).toEpochMilli(), CHUNK_SIZE);
+        }
+
+        // the workflow might complete right away for a resource, so the resources are paged by id
+        List<String> resourceIds = selector.getResourceIds(workflow, lastResourceId, CHUNK_SIZE);
+        resourceIds.forEach(resourceId -> provider.activate(workflow, type, resourceId));
+        if (!resourceIds.isEmpty()) {
+            lastResourceId = resourceIds.get(resourceIds.size() - 1);
+        }
+        return resourceIds.size();
+    }
+
+    private void finish(Status status, Throwable cause) {
+        this.error = cause == null ? null : cause.getMessage();
+        this.finishedAt = Time.currentTimeMillis();
+        this.status = status;
+    }
+}
@@ -50,6 +50,9 @@ public class WorkflowStateEntity {
     @Column(name = "SCHEDULED_STEP_TIMESTAMP")
     private long scheduledStepTimestamp;
 
+    @Column(name = "LEASE_EXPIRATION")
+    private long leaseExpiration;
+
     public String getExecutionId() {
         return executionId;
     }
@@ -98,6 +101,14 @@ public class WorkflowStateEntity {
         this.scheduledStepTimestamp = scheduledStepTimestamp;
     }
 
+    public long getLeaseExpiration() {
+        return leaseExpiration;
+    }
+
+    public void setLeaseExpiration(long leaseExpiration) {
+        this.leaseExpiration = leaseExpiration;
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
@@ -0,0 +1,176 @@
+package org.passport.models.workflow.expression;
+
+import java.util.function.Function;
+
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.Predicate;
+
+/**
+ * A boolean expression compiled from its parse tree into a tree of operators and condition calls, so it can be
+ * evaluated any number of times without walking the parse tree or extracting the names and parameters of the
+ * conditions again.
+ * <p>
+ * Compiled expressions are immutable and can be shared between sessions.
+ *
+ * @see EvaluatorUtils#getCompiledExpression
+ */
+public abstract class CompiledExpression {
+
+    /**
+     * A condition of the expression, like {@code has-role(param)}.
+     *
+     * @param name the name of the condition as written in the expression
+     * @param providerId the name of the condition in lower case, with underscores replaced by dashes
+     * @param parameter the un-escaped parameter of the condition, or {@code null} if there is none
+     */
+    public record Call(String name, String providerId, String parameter) {
+    }
+
+    private CompiledExpression() {
+    }
+
+    /**
+     * Compiles the given parsed expression.
+     */
+    public static CompiledExpression compile(BooleanConditionParser.EvaluatorContext context) {
+        return new Compiler().visit(context);
+    }
+
+    /**
+     * Evaluates the expression, evaluating its conditions with the given function. Operands are evaluated from left
+     * to right and only as far as needed to determine the result.
+     */
+    public abstract boolean evaluate(Function<Call, Boolean> conditions);
+
+    /**
+     * Builds a predicate for the expression, building the predicates of its conditions with the given function.
+     */
+    public abstract Predicate toPredicate(CriteriaBuilder cb, Function<Call, Predicate> conditions);
+
+    private static final class Or extends CompiledExpression {
+
+        private final CompiledExpression left;
+        private final CompiledExpression right;
+
+        Or(CompiledExpression left, CompiledExpression right) {
+            this.left = left;
+            this.right = right;
+        }
+
+        @Override
+        public boolean evaluate(Function<Call, Boolean> conditions) {
+            return left.evaluate(conditions) || right.evaluate(conditions);
+        }
+
+        @Override
+        public Predicate toPredicate(CriteriaBuilder cb, Function<Call, Predicate> conditions) {
+            return cb.or(left.toPredicate(cb, conditions), right.toPredicate(cb, conditions));
+        }
+    }
+
+    private static final class And extends CompiledExpression {
+
+        private final CompiledExpression left;
+        private final CompiledExpression right;
+
+        And(CompiledExpression left, CompiledExpression right) {
+            this.left = left;
+            this.right = right;
+        }
+
+        @Override
+        public boolean evaluate(Function<Call, Boolean> conditions) {
+            return left.evaluate(conditions) && right.evaluate(conditions);
+        }
+
+        @Override
+        public Predicate toPredicate(CriteriaBuilder cb, Function<Call, Predicate> conditions) {
+            return cb.and(left.toPredicate(cb, conditions), right.toPredicate(cb, conditions));
+        }
+    }
+
+    private static final class Not extends CompiledExpression {
+
+        private final CompiledExpression operand;
+
+        Not(CompiledExpression operand) {
+            this.operand = operand;
+        }
+
+        @Override
+        public boolean evaluate(Function<Call, Boolean> conditions) {
+            return !operand.evaluate(conditions);
+        }
+
+        @Override
+        public Predicate toPredicate(CriteriaBuilder cb, Function<Call, Predicate> conditions) {
+            return cb.not(operand.toPredicate(cb, conditions));
+        }
+    }
+
+    private static final class Condition extends CompiledExpression {
+
+        private final Call call;
+
+        Condition(Call call) {
+            this.call = call;
+        }
+
+        @Override
+        public boolean evaluate(Function<Call, Boolean> conditions) {
+            return conditions.apply(call);
+        }
+
+        @Override
+        public Predicate toPredicate(CriteriaBuilder cb, Function<Call, Predicate> conditions) {
+            return conditions.apply(call);
+        }
+    }
+
+    private static final class Compiler extends BooleanConditionParserBaseVisitor<CompiledExpression> {
+
+        @Override
+        public CompiledExpression visitEvaluator(BooleanConditionParser.EvaluatorContext ctx) {
+            return visit(ctx.expression());
+        }
+
+        @Override
+        public CompiledExpression visitExpression(BooleanConditionParser.ExpressionContext ctx) {
+            if (ctx.expression() != null && ctx.OR() != null) {
+                return new Or(visit(ctx.expression()), visit(ctx.andExpression()));
+            }
+            return visit(ctx.andExpression());
+        }
+
+        @Override
+        public CompiledExpression visitAndExpression(BooleanConditionParser.AndExpressionContext ctx) {
+            if (ctx.andExpression() != null && ctx.AND() != null) {
+                return new And(visit(ctx.andExpression()), visit(ctx.notExpression()));
+            }
+            return visit(ctx.notExpression());
+        }
+
+        @Override
+        public CompiledExpression visitNotExpression(BooleanConditionParser.NotExpressionContext ctx) {
+            if (ctx.NOT() != null) {
+                return new Not(visit(ctx.notExpression()));
+            }
+            return visit(ctx.atom());
+        }
+
+        @Override
+        public CompiledExpression visitAtom(BooleanConditionParser.AtomContext ctx) {
+            if (ctx.conditionCall() != null) {
+                return visit(ctx.conditionCall());
+            }
+            return visit(ctx.expression());
+        }
+
+        @Override
+        public CompiledExpression visitConditionCall(BooleanConditionParser.ConditionCallContext ctx) {
+            String name = ctx.Identifier().getText();
+            return new Condition(new Call(name, name.replace("_", "-").toLowerCase(),
+                    ConditionParserUtil.extractParameter(ctx.parameter())));
+        }
+    }
+}
@@ -23,4 +23,11 @@ public class ConditionEvaluator extends AbstractBooleanEvaluator {
         return conditionProvider.evaluate(context);
     }
 
+    /**
+     * Evaluates the given compiled expression.
+     */
+    public boolean evaluate(CompiledExpression expression) {
+        return expression.evaluate(call -> getConditionProvider(session, call.providerId(), call.parameter()).evaluate(context));
+    }
+
 }
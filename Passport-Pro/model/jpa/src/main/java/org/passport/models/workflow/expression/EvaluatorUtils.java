@@ -1,5 +1,7 @@
 package org.passport.models.workflow.expression;
 
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 
 import org.passport.component.ComponentModel;
@@ -46,18 +48,29 @@ public class EvaluatorUtils {
     }
 
     /**
-     * Creates or retrieves a cached EvaluatorContext for the given workflow model and expression.
+     * Returns the compiled form of the given expression, cached as a note of the given workflow model. The note is
+     * keyed by the expression, and an updated workflow comes with a new model, so an expression is only compiled
+     * once for each version of the workflow.
      *
      * @param workflowModel the workflow component model
-     * @param expression   the boolean expression to parse
-     * @return the EvaluatorContext representing the parsed expression
+     * @param expression   the boolean expression to compile
+     * @return the compiled expression
      */
-    public static EvaluatorContext createEvaluatorContext(ComponentModel workflowModel, String expression) {
-        EvaluatorContext context = workflowModel.getNote(expression);
-        if (context == null) {
-            context = createEvaluatorContext(expression);
-            workflowModel.setNote(expression, context);
+    public static CompiledExpression getCompiledExpression(ComponentModel workflowModel, String expression) {
+        Map<String, CompiledExpression> compiled = workflowModel.getNote(CompiledExpression.class.getName());
+        if (compiled == null) {
+            compiled = new ConcurrentHashMap<>();
+            workflowModel.setNote(CompiledExpression.class.getName(), compiled);
         }
-        return context;
+        return compiled.computeIfAbsent(expression, e -> CompiledExpression.compile(createEvaluatorContext(e)));
+    }
+
+    /**
+     * Removes the compiled expressions cached as a note of the given workflow model.
+     *
+     * @param workflowModel the workflow component model
+     */
+    public static void removeCompiledExpressions(ComponentModel workflowModel) {
+        workflowModel.removeNote(CompiledExpression.class.getName());
     }
 }
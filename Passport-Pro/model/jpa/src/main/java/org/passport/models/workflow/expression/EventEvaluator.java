@@ -22,4 +22,11 @@ public class EventEvaluator extends AbstractBooleanEvaluator {
         WorkflowEventProvider provider = getEventProvider(session, name.replace("_", "-").toLowerCase(), super.extractParameter(ctx.parameter()));
         return provider.evaluate(context);
     }
+
+    /**
+     * Evaluates the given compiled expression.
+     */
+    public boolean evaluate(CompiledExpression expression) {
+        return expression.evaluate(call -> getEventProvider(session, call.providerId(), call.parameter()).evaluate(context));
+    }
 }
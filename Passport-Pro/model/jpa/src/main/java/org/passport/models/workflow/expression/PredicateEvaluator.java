@@ -78,6 +78,13 @@ public class PredicateEvaluator extends BooleanConditionParserBaseVisitor<Predic
         return conditionProvider.toPredicate(cb, query, root);
     }
 
+    /**
+     * Builds the predicate of the given compiled expression.
+     */
+    public Predicate toPredicate(CompiledExpression expression) {
+        return expression.toPredicate(cb, call -> getConditionProvider(session, call.name(), call.parameter()).toPredicate(cb, query, root));
+    }
+
     protected String extractParameter(BooleanConditionParser.ParameterContext paramCtx) {
         // Case 1: No parentheses were used (e.g., "user-logged-in")
         // Case 2: Empty parentheses were used (e.g., "user-logged-in()")
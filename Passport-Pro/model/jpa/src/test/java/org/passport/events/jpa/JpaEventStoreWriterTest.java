@@ -0,0 +1,273 @@
+/*
+ * Copyright 2026 Red Hat, Inc. and/or its affiliates
+ * and other contributors as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.passport.events.jpa;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceException;
+
+import org.passport.connections.jpa.JpaConnectionProvider;
+import org.passport.events.jpa.JpaEventStoreWriter.Backpressure;
+import org.passport.models.PassportSession;
+import org.passport.models.PassportSessionFactory;
+import org.passport.models.PassportTransactionManager;
+
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.After;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class JpaEventStoreWriterTest {
+
+    private static final String METRICS_ENABLED = "passport.metrics-enabled";
+
+    // the ids of the events of each committed transaction
+    private final List<List<String>> transactions = Collections.synchronizedList(new ArrayList<>());
+    private final Set<String> failing = ConcurrentHashMap.newKeySet();
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private JpaEventStoreWriter writer;
+
+    @After
+    public void after() {
+        if (writer != null) {
+            writer.stop();
+        }
+        System.clearProperty(METRICS_ENABLED);
+        Metrics.removeRegistry(registry);
+    }
+
+    @Test
+    public void testQueuedEventsWrittenInBatches() throws Exception {
+        writer = new JpaEventStoreWriter(factory(), 100, 10, Backpressure.BLOCK);
+        writer.offer(events(0, 25));
+        assertEquals(25, writer.size());
+        assertTrue(transactions.isEmpty());
+
+        writer.start();
+        waitForWritten(25);
+
+        assertEquals(List.of(10, 10, 5), batchSizes());
+        assertEquals(ids(0, 25), written());
+        assertEquals(0, writer.size());
+    }
+
+    @Test
+    public void testQueuedEventsWrittenOnStop() {
+        writer = new JpaEventStoreWriter(factory(), 100, 10, Backpressure.BLOCK);
+        writer.offer(events(0, 25));
+
+        writer.stop();
+
+        assertEquals(List.of(10, 10, 5), batchSizes());
+        assertEquals(ids(0, 25), written());
+        assertEquals(0, writer.size());
+    }
+
+    @Test
+    public void testEventsOfferedAfterStopWrittenNow() {
+        writer = new JpaEventStoreWriter(factory(), 100, 10, Backpressure.DROP);
+        writer.stop();
+
+        writer.offer(events(0, 2));
+
+        assertEquals(List.of(2), batchSizes());
+        assertEquals(0, writer.getDropped());
+    }
+
+    @Test
+    public void testDropWhenFull() {
+        writer = new JpaEventStoreWriter(factory(), 5, 10, Backpressure.DROP);
+
+        writer.offer(events(0, 8));
+
+        assertEquals(5, writer.size());
+        assertEquals(3, writer.getDropped());
+        assertTrue(transactions.isEmpty());
+
+        writer.stop();
+        assertEquals(ids(0, 5), written());
+    }
+
+    @Test
+    public void testSyncWhenFull() {
+        writer = new JpaEventStoreWriter(factory(), 5, 10, Backpressure.SYNC);
+
+        writer.offer(events(0, 8));
+
+        assertEquals(5, writer.size());
+        assertEquals(0, writer.getDropped());
+        assertEquals(List.of(ids(5, 8)), transactions);
+
+        writer.stop();
+        assertEquals(List.of(3, 5), batchSizes());
+    }
+
+    @Test
+    public void testBlockWhenFull() throws Exception {
+        writer = new JpaEventStoreWriter(factory(), 2, 10, Backpressure.BLOCK);
+        Thread request = new Thread(() -> writer.offer(events(0, 5)));
+        request.start();
+
+        request.join(200);
+        assertTrue(request.isAlive());
+        assertTrue(transactions.isEmpty());
+
+        writer.start();
+        request.join(TimeUnit.SECONDS.toMillis(10));
+        waitForWritten(5);
+
+        assertEquals(ids(0, 5), written());
+        assertEquals(0, writer.getDropped());
+    }
+
+    @Test
+    public void testFailedBatchWrittenOneByOne() {
+        failing.add("event-2");
+        writer = new JpaEventStoreWriter(factory(), 100, 10, Backpressure.BLOCK);
+        writer.offer(events(0, 4));
+
+        writer.stop();
+
+        assertEquals(List.of(List.of("event-0"), List.of("event-1"), List.of("event-3")), transactions);
+    }
+
+    @Test
+    public void testMetricsRemovedOnStop() {
+        System.setProperty(METRICS_ENABLED, "true");
+        Metrics.addRegistry(registry);
+        writer = new JpaEventStoreWriter(factory(), 5, 10, Backpressure.DROP);
+        writer.offer(events(0, 8));
+
+        assertEquals(3.0, Metrics.globalRegistry.get("passport.events.store.dropped").counter().count(), 0);
+        assertNotNull(Metrics.globalRegistry.find("passport.events.store.queue.size").gauge());
+
+        writer.stop();
+        writer = null;
+
+        assertNull(Metrics.globalRegistry.find("passport.events.store.written").counter());
+        assertNull(Metrics.globalRegistry.find("passport.events.store.dropped").counter());
+        assertNull(Metrics.globalRegistry.find("passport.events.store.sync").counter());
+        assertNull(Metrics.globalRegistry.find("passport.events.store.queue.size").gauge());
+        assertTrue(registry.getMeters().isEmpty());
+    }
+
+    private void waitForWritten(int count) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(10);
+        while (written().size() < count && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(count, written().size());
+    }
+
+    private List<String> written() {
+        synchronized (transactions) {
+            return transactions.stream().flatMap(List::stream).collect(Collectors.toList());
+        }
+    }
+
+    private List<Integer> batchSizes() {
+        synchronized (transactions) {
+            return transactions.stream().map(List::size).collect(Collectors.toList());
+        }
+    }
+
+    private static List<String> ids(int from, int to) {
+        return IntStream.range(from, to).mapToObj(i -> "event-" + i).collect(Collectors.toList());
+    }
+
+    private static List<EventEntity> events(int from, int to) {
+        return ids(from, to).stream().map(id -> {
+            EventEntity event = new EventEntity();
+            event.setId(id);
+            event.setRealmId("realm");
+            return event;
+        }).collect(Collectors.toList());
+    }
+
+    private PassportSessionFactory factory() {
+        return proxy(PassportSessionFactory.class, (method, args) -> {
+            if (method.equals("create")) {
+                return session();
+            }
+            throw new UnsupportedOperationException(method);
+        });
+    }
+
+    private PassportSession session() {
+        List<String> persisted = new ArrayList<>();
+        boolean[] rollbackOnly = new boolean[1];
+        EntityManager em = proxy(EntityManager.class, (method, args) -> {
+            if (method.equals("persist")) {
+                EventEntity event = (EventEntity) args[0];
+                if (failing.contains(event.getId())) {
+                    throw new PersistenceException("Failed to persist " + event.getId());
+                }
+                persisted.add(event.getId());
+                return null;
+            }
+            throw new UnsupportedOperationException(method);
+        });
+        JpaConnectionProvider connection = proxy(JpaConnectionProvider.class, (method, args) -> {
+            if (method.equals("getEntityManager")) {
+                return em;
+            }
+            throw new UnsupportedOperationException(method);
+        });
+        PassportTransactionManager transactionManager = proxy(PassportTransactionManager.class, (method, args) -> {
+            if (method.equals("setRollbackOnly")) {
+                rollbackOnly[0] = true;
+            }
+            return null;
+        });
+        return proxy(PassportSession.class, (method, args) -> switch (method) {
+            case "getTransactionManager" -> transactionManager;
+            case "getProvider" -> connection;
+            case "getAttribute", "setAttribute" -> null;
+            case "close" -> {
+                if (!rollbackOnly[0]) {
+                    transactions.add(new ArrayList<>(persisted));
+                }
+                yield null;
+            }
+            default -> throw new UnsupportedOperationException(method);
+        });
+    }
+
+    private interface Handler {
+        Object invoke(String method, Object[] args);
+    }
+
+    private static <T> T proxy(Class<T> type, Handler handler) {
+        return type.cast(Proxy.newProxyInstance(JpaEventStoreWriterTest.class.getClassLoader(), new Class<?>[] { type },
+                (proxy, method, args) -> handler.invoke(method.getName(), args)));
+    }
+}
@@ -0,0 +1,67 @@
+/*
+ * Copyright 2026 Red Hat, Inc. and/or its affiliates
+ * and other contributors as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.passport.models.workflow;
+
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+public class ScheduledStepsRunnerTest {
+
+    private static final String METRICS_ENABLED = "passport.metrics-enabled";
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    @Before
+    public void before() {
+        System.setProperty(METRICS_ENABLED, "true");
+        Metrics.addRegistry(registry);
+    }
+
+    @After
+    public void after() {
+        System.clearProperty(METRICS_ENABLED);
+        Metrics.removeRegistry(registry);
+    }
+
+    @Test
+    public void testCloseRemovesMeters() {
+        ScheduledStepsRunner runner = new ScheduledStepsRunner(null, 10, 1000);
+        assertNotNull(Metrics.globalRegistry.find("passport.workflow.steps.backlog").summary());
+        assertNotNull(Metrics.globalRegistry.find("passport.workflow.steps.lag").timer());
+
+        runner.close();
+
+        assertNull(Metrics.globalRegistry.find("passport.workflow.steps.backlog").summary());
+        assertNull(Metrics.globalRegistry.find("passport.workflow.steps.lag").timer());
+    }
+
+    @Test
+    public void testCloseWithoutMetrics() {
+        System.clearProperty(METRICS_ENABLED);
+        ScheduledStepsRunner runner = new ScheduledStepsRunner(null, 10, 1000);
+        assertNull(Metrics.globalRegistry.find("passport.workflow.steps.backlog").summary());
+
+        runner.close();
+    }
+}
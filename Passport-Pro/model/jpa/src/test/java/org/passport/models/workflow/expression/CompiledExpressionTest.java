@@ -0,0 +1,83 @@
+/*
+ * Copyright 2026 Red Hat, Inc. and/or its affiliates
+ * and other contributors as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.passport.models.workflow.expression;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Test;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.is;
+
+/**
+ * Unit tests for {@link CompiledExpression}.
+ */
+public class CompiledExpressionTest {
+
+    @Test
+    public void evaluatesLikeTheParseTree() {
+        Map<String, Boolean> values = Map.of("a", true, "b", false, "c", true);
+        List<String> expressions = List.of("a", "NOT a", "a AND b", "a OR b", "b OR NOT c", "NOT (a AND b) AND c",
+                "a AND b OR c", "b AND (b OR c)", "not not a");
+
+        for (String expression : expressions) {
+            BooleanConditionParser.EvaluatorContext context = EvaluatorUtils.createEvaluatorContext(expression);
+            boolean expected = new AbstractBooleanEvaluator() {
+                @Override
+                public Boolean visitConditionCall(BooleanConditionParser.ConditionCallContext ctx) {
+                    return values.get(ctx.Identifier().getText());
+                }
+            }.visit(context);
+
+            boolean actual = CompiledExpression.compile(context).evaluate(call -> values.get(call.name()));
+            assertThat(expression, actual, is(expected));
+        }
+    }
+
+    @Test
+    public void shortCircuits() {
+        List<String> evaluated = new ArrayList<>();
+        CompiledExpression expression = CompiledExpression.compile(EvaluatorUtils.createEvaluatorContext("a OR b AND c"));
+
+        expression.evaluate(call -> {
+            evaluated.add(call.name());
+            return call.name().equals("a");
+        });
+
+        assertThat(evaluated, contains("a"));
+    }
+
+    @Test
+    public void extractsConditionCalls() {
+        List<CompiledExpression.Call> calls = new ArrayList<>();
+        CompiledExpression expression = CompiledExpression.compile(EvaluatorUtils.createEvaluatorContext(
+                "HAS_ROLE(admin) AND user-attribute(key:a\\)b) AND is-enabled()"));
+
+        expression.evaluate(call -> {
+            calls.add(call);
+            return true;
+        });
+
+        assertThat(calls, contains(new CompiledExpression.Call("HAS_ROLE", "has-role", "admin"),
+                new CompiledExpression.Call("user-attribute", "user-attribute", "key:a)b"),
+                new CompiledExpression.Call("is-enabled", "is-enabled", null)));
+    }
+}
@@ -131,6 +131,16 @@ public class DisabledUserSessionPersisterProvider implements UserSessionPersiste
         return Stream.empty();
     }
 
+    @Override
+    public Stream<String> loadUserSessionIdsStream(boolean offline, String lastUserSessionId, int maxResults) {
+        return Stream.empty();
+    }
+
+    @Override
+    public Stream<UserSessionModel> loadUserSessionsStream(boolean offline, String fromUserSessionId, String toUserSessionId) {
+        return Stream.empty();
+    }
+
     @Override
     public AuthenticatedClientSessionModel loadClientSession(RealmModel realm, ClientModel client, UserSessionModel userSession, boolean offline) {
         return null;
@@ -19,6 +19,7 @@ package org.passport.models.session;
 
 import java.util.Collection;
 import java.util.Map;
+import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 import org.passport.models.AuthenticatedClientSessionModel;
@@ -52,6 +53,19 @@ public interface UserSessionPersisterProvider extends Provider {
     // Bulk update of lastSessionRefresh of all specified userSessions to the given value.
     void updateLastSessionRefreshes(RealmModel realm, int lastSessionRefresh, Collection<String> userSessionIds, boolean offline);
 
+    /**
+     * Bulk update of lastSessionRefresh of the specified userSessions, each to its own value. The default
+     * implementation issues one bulk update per distinct value.
+     * @param realm RealmModel Realm of the user sessions.
+     * @param lastSessionRefreshes Map from the userSession ID to its new lastSessionRefresh.
+     * @param offline boolean Flag to update offline sessions.
+     */
+    default void updateLastSessionRefreshes(RealmModel realm, Map<String, Integer> lastSessionRefreshes, boolean offline) {
+        lastSessionRefreshes.entrySet().stream()
+                .collect(Collectors.groupingBy(Map.Entry::getValue, Collectors.mapping(Map.Entry::getKey, Collectors.toSet())))
+                .forEach((lastSessionRefresh, userSessionIds) -> updateLastSessionRefreshes(realm, lastSessionRefresh, userSessionIds, offline));
+    }
+
     // Remove userSessions and clientSessions, which are expired
     void removeExpired(RealmModel realm);
 
@@ -102,6 +116,30 @@ public interface UserSessionPersisterProvider extends Provider {
     Stream<UserSessionModel> loadUserSessionsStream(Integer firstResult, Integer maxResults, boolean offline,
                                                     String lastUserSessionId);
 
+    /**
+     * Returns the ids of the user sessions in id order. Only the ids are read, so a caller can cheaply split all
+     * user sessions into id ranges and load the ranges with {@link #loadUserSessionsStream(boolean, String, String)}.
+     * @param offline {@code boolean} Flag to include offline sessions.
+     * @param lastUserSessionId {@code String} Only ids lexicographically greater than this are returned. Use an empty string to start with the first user session.
+     * @param maxResults {@code int} Maximum number of returned ids.
+     * @return Stream of user session ids. Never returns {@code null}.
+     */
+    default Stream<String> loadUserSessionIdsStream(boolean offline, String lastUserSessionId, int maxResults) {
+        return loadUserSessionsStream(-1, maxResults, offline, lastUserSessionId).map(UserSessionModel::getId);
+    }
+
+    /**
+     * Loads the user sessions with ids between {@code fromUserSessionId} and {@code toUserSessionId}, both inclusive,
+     * together with their client sessions. Ranges are typically built from {@link #loadUserSessionIdsStream(boolean, String, int)}.
+     * @param offline {@code boolean} Flag to include offline sessions.
+     * @param fromUserSessionId {@code String} Lowest id of the range.
+     * @param toUserSessionId {@code String} Highest id of the range.
+     * @return Stream of {@link UserSessionModel} in id order. Never returns {@code null}.
+     */
+    default Stream<UserSessionModel> loadUserSessionsStream(boolean offline, String fromUserSessionId, String toUserSessionId) {
+        throw new IllegalStateException("not implemented");
+    }
+
     /**
      * Loads client session from the db by provided user session and client.
      * @param realm RealmModel Realm for the associated client session.
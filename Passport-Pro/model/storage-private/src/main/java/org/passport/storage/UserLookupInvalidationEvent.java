@@ -0,0 +1,87 @@
+/*
+ * Copyright 2026 Red Hat, Inc. and/or its affiliates
+ * and other contributors as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.passport.storage;
+
+import java.util.Objects;
+
+import org.passport.cluster.ClusterEvent;
+
+import org.infinispan.protostream.annotations.ProtoField;
+import org.infinispan.protostream.annotations.ProtoTypeId;
+
+// Send to cluster when a user is created or a user storage provider is updated, so all nodes drop their negative lookups
+@ProtoTypeId(65621)
+public class UserLookupInvalidationEvent implements ClusterEvent {
+
+    private String realmId;
+    private String lookup;
+    private String providerId;
+
+    @ProtoField(1)
+    public String getRealmId() {
+        return realmId;
+    }
+
+    public void setRealmId(String realmId) {
+        this.realmId = realmId;
+    }
+
+    @ProtoField(2)
+    public String getLookup() {
+        return lookup;
+    }
+
+    public void setLookup(String lookup) {
+        this.lookup = lookup;
+    }
+
+    @ProtoField(3)
+    public String getProviderId() {
+        return providerId;
+    }
+
+    public void setProviderId(String providerId) {
+        this.providerId = providerId;
+    }
+
+    public static UserLookupInvalidationEvent lookupInvalidated(String realmId, String lookup) {
+        UserLookupInvalidationEvent event = new UserLookupInvalidationEvent();
+        event.setRealmId(realmId);
+        event.setLookup(lookup);
+        return event;
+    }
+
+    public static UserLookupInvalidationEvent providerInvalidated(String providerId) {
+        UserLookupInvalidationEvent event = new UserLookupInvalidationEvent();
+        event.setProviderId(providerId);
+        return event;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        UserLookupInvalidationEvent that = (UserLookupInvalidationEvent) o;
+        return Objects.equals(realmId, that.realmId) && Objects.equals(lookup, that.lookup) && Objects.equals(providerId, that.providerId);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(realmId, lookup, providerId);
+    }
+}
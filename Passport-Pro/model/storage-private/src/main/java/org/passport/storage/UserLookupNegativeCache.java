@@ -0,0 +1,207 @@
+/*
+ * Copyright 2026 Red Hat, Inc. and/or its affiliates
+ * and other contributors as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.passport.storage;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+
+import org.passport.Config;
+import org.passport.cluster.ClusterEvent;
+import org.passport.cluster.ClusterListener;
+import org.passport.cluster.ClusterProvider;
+import org.passport.common.util.Time;
+import org.passport.models.PassportSession;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Metrics;
+
+/**
+ * Remembers for a limited time which user storage providers did not find a user by username or email, so that
+ * repeated lookups of unknown users (typos, scanners, users of other realms) do not hit the external stores again.
+ * <p>
+ * Entries are kept per realm and lookup key, with one expiration time per provider. The number of lookup keys is
+ * bounded, the least recently used key is evicted first. Entries are invalidated on all cluster nodes when a user is
+ * created through the {@link UserStorageManager} and when the configuration of a provider changes, see
+ * {@link UserLookupInvalidationEvent}.
+ */
+public final class UserLookupNegativeCache implements ClusterListener {
+
+    public static final String CLUSTER_TASK_KEY = "user-lookup-negative-cache";
+
+    // the key of MetricsOptions.METRICS_ENABLED, which is not available to the storage modules
+    private static final String METRICS_ENABLED = "metrics-enabled";
+
+    private static final String USERNAME_PREFIX = "username:";
+    private static final String EMAIL_PREFIX = "email:";
+
+    private record Key(String realmId, String lookup) {
+    }
+
+    private final long ttl;
+    private final Map<Key, Map<String, Long>> entries;
+    private final Counter hits;
+    private final Counter misses;
+
+    public UserLookupNegativeCache(int maxSize, long ttl) {
+        this.ttl = ttl;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, Map<String, Long>> eldest) {
+                return size() > maxSize;
+            }
+        };
+
+        if (Config.scope().root().getBoolean(METRICS_ENABLED, Boolean.FALSE)) {
+            hits = Counter.builder("passport.user.lookup.negative.cache")
+                    .description("Lookups of a user in a user storage provider answered by the negative lookup cache")
+                    .tag("result", "hit")
+                    .register(Metrics.globalRegistry);
+            misses = Counter.builder("passport.user.lookup.negative.cache")
+                    .description("Lookups of a user in a user storage provider answered by the negative lookup cache")
+                    .tag("result", "miss")
+                    .register(Metrics.globalRegistry);
+        } else {
+            hits = null;
+            misses = null;
+        }
+    }
+
+    public static String usernameLookup(String username) {
+        return USERNAME_PREFIX + username.toLowerCase(Locale.ROOT);
+    }
+
+    public static String emailLookup(String email) {
+        return EMAIL_PREFIX + email.toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Returns {@code true} if the provider did not find a user for the lookup key recently.
+     */
+    public boolean isNotFound(String realmId, String providerId, String lookup) {
+        boolean found;
+
+        synchronized (entries) {
+            Map<String, Long> providers = entries.get(new Key(realmId, lookup));
+            Long expiration = providers == null ? null : providers.get(providerId);
+
+            if (expiration != null && expiration <= Time.currentTimeMillis()) {
+                providers.remove(providerId);
+                expiration = null;
+            }
+
+            found = expiration != null;
+        }
+
+        Counter counter = found ? hits : misses;
+
+        if (counter != null) {
+            counter.increment();
+        }
+
+        return found;
+    }
+
+    /**
+     * Records that the provider did not find a user for the lookup key.
+     */
+    public void putNotFound(String realmId, String providerId, String lookup) {
+        long expiration = Time.currentTimeMillis() + ttl;
+
+        synchronized (entries) {
+            entries.computeIfAbsent(new Key(realmId, lookup), key -> new HashMap<>()).put(providerId, expiration);
+        }
+    }
+
+    /**
+     * Removes the entries of all the providers for the lookup key.
+     */
+    public void invalidate(String realmId, String lookup) {
+        synchronized (entries) {
+            entries.remove(new Key(realmId, lookup));
+        }
+    }
+
+    /**
+     * Removes the entries of the provider for all the lookup keys.
+     */
+    public void invalidateProvider(String providerId) {
+        synchronized (entries) {
+            for (Iterator<Map<String, Long>> it = entries.values().iterator(); it.hasNext(); ) {
+                Map<String, Long> providers = it.next();
+                providers.remove(providerId);
+
+                if (providers.isEmpty()) {
+                    it.remove();
+                }
+            }
+        }
+    }
+
+    /**
+     * Removes the entries for the lookup key on this node and notifies the other cluster nodes.
+     */
+    public void invalidate(PassportSession session, String realmId, String lookup) {
+        invalidate(realmId, lookup);
+        notifyCluster(session, UserLookupInvalidationEvent.lookupInvalidated(realmId, lookup));
+    }
+
+    /**
+     * Removes the entries of the provider on this node and notifies the other cluster nodes.
+     */
+    public void invalidateProvider(PassportSession session, String providerId) {
+        invalidateProvider(providerId);
+        notifyCluster(session, UserLookupInvalidationEvent.providerInvalidated(providerId));
+    }
+
+    @Override
+    public void eventReceived(ClusterEvent event) {
+        UserLookupInvalidationEvent invalidation = (UserLookupInvalidationEvent) event;
+
+        if (invalidation.getProviderId() != null) {
+            invalidateProvider(invalidation.getProviderId());
+        } else {
+            invalidate(invalidation.getRealmId(), invalidation.getLookup());
+        }
+    }
+
+    private void notifyCluster(PassportSession session, UserLookupInvalidationEvent event) {
+        ClusterProvider cp = session.getProvider(ClusterProvider.class);
+
+        if (cp != null) {
+            cp.notify(CLUSTER_TASK_KEY, event, true);
+        }
+    }
+
+    int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    public void close() {
+        if (hits != null) {
+            Metrics.globalRegistry.remove(hits);
+        }
+        if (misses != null) {
+            Metrics.globalRegistry.remove(misses);
+        }
+    }
+}
@@ -23,6 +23,7 @@ import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Function;
 import java.util.function.Predicate;
@@ -59,6 +60,7 @@ import org.passport.models.cache.OnUserCache;
 import org.passport.models.cache.UserCache;
 import org.passport.models.utils.ComponentUtil;
 import org.passport.models.utils.ReadOnlyUserModelDelegate;
+import org.passport.models.utils.UserModelDelegate;
 import org.passport.organization.OrganizationProvider;
 import org.passport.storage.client.ClientStorageProvider;
 import org.passport.storage.datastore.DefaultDatastoreProvider;
@@ -74,6 +76,7 @@ import org.passport.tracing.TracingProvider;
 import org.passport.userprofile.AttributeMetadata;
 import org.passport.userprofile.UserProfileDecorator;
 import org.passport.userprofile.UserProfileMetadata;
+import org.passport.utils.ServicesUtils;
 import org.passport.utils.StreamsUtil;
 import org.passport.utils.StringUtil;
 
@@ -93,10 +96,19 @@ public class UserStorageManager extends AbstractStorageManager<UserStorageProvid
 
     private static final Logger logger = Logger.getLogger(UserStorageManager.class);
 
+    private final UserLookupNegativeCache negativeLookups;
 
     public UserStorageManager(PassportSession session) {
+        this(session, null);
+    }
+
+    /**
+     * @param negativeLookups cache of the lookups by username and email that found no user in a provider, or {@code null} to always ask the providers
+     */
+    public UserStorageManager(PassportSession session, UserLookupNegativeCache negativeLookups) {
         super(session, UserStorageProviderFactory.class, UserStorageProvider.class,
                 UserStorageProviderModel::new, "user");
+        this.negativeLookups = negativeLookups;
     }
 
     protected UserProvider localStorage() {
@@ -498,10 +510,13 @@ public class UserStorageManager extends AbstractStorageManager<UserStorageProvid
             return localStorage().addUser(realm, username);
         }
 
+        invalidateNegativeLookups(realm, username);
+
         return getEnabledStorageProviders(realm, UserRegistrationProvider.class)
                 .map(provider -> provider.addUser(realm, username))
                 .filter(Objects::nonNull)
                 .findFirst()
+                .map(user -> invalidateNegativeLookupsOnEmailChange(realm, user))
                 .orElseGet(() -> localStorage().addUser(realm, username.toLowerCase()));
     }
 
@@ -551,14 +566,14 @@ public class UserStorageManager extends AbstractStorageManager<UserStorageProvid
 
     @Override
     public UserModel getUserByUsername(RealmModel realm, String username) {
-        return getUserByAttribute(realm,
+        return getUserByAttribute(realm, UserLookupNegativeCache.usernameLookup(username),
                 provider -> provider.getUserByUsername(realm, username),
                 u -> username.equalsIgnoreCase(u.getUsername()));
     }
 
     @Override
     public UserModel getUserByEmail(RealmModel realm, String email) {
-        return getUserByAttribute(realm,
+        return getUserByAttribute(realm, UserLookupNegativeCache.emailLookup(email),
                 provider -> provider.getUserByEmail(realm, email),
                 u -> email.equalsIgnoreCase(u.getEmail()));
     }
@@ -790,6 +805,7 @@ public class UserStorageManager extends AbstractStorageManager<UserStorageProvid
 
     @Override
     public UserModel addUser(RealmModel realm, String id, String username, boolean addDefaultRoles, boolean addDefaultRequiredActions) {
+        invalidateNegativeLookups(realm, username);
         return localStorage().addUser(realm, id, username.toLowerCase(), addDefaultRoles, addDefaultRequiredActions);
     }
 
@@ -1063,6 +1079,11 @@ public class UserStorageManager extends AbstractStorageManager<UserStorageProvid
         UserStorageProviderModel previous = new UserStorageProviderModel(oldModel);
         UserStorageProviderModel actual= new UserStorageProviderModel(newModel);
 
+        if (negativeLookups != null) {
+            // the new configuration may find users the previous one did not
+            negativeLookups.invalidateProvider(session, actual.getId());
+        }
+
         if (isSyncSettingsUpdated(previous, actual)) {
             StoreSyncEvent.fire(session, realm, actual, false);
         }
@@ -1143,7 +1164,7 @@ public class UserStorageManager extends AbstractStorageManager<UserStorageProvid
         });
     }
 
-    private UserModel getUserByAttribute(RealmModel realm, Function<UserLookupProvider, UserModel> loader, Predicate<UserModel> attributeValidator) {
+    private UserModel getUserByAttribute(RealmModel realm, String lookup, Function<UserLookupProvider, UserModel> loader, Predicate<UserModel> attributeValidator) {
         // first try the local storage
         UserModel user = loader.apply(localStorage());
 
@@ -1161,9 +1182,93 @@ public class UserStorageManager extends AbstractStorageManager<UserStorageProvid
         }
 
         // try to resolve the user from the external storage
+        if (negativeLookups != null) {
+            return tryResolveFederatedUser(realm, lookup, loader);
+        }
+
         return tryResolveFederatedUser(realm, loader);
     }
 
+    private UserModel tryResolveFederatedUser(RealmModel realm, String lookup, Function<UserLookupProvider, UserModel> loader) {
+        String realmId = realm.getId();
+        long timeout = getStorageProviderTimeout();
+
+        return getEnabledStorageProviderModels(realm)
+                .filter(model -> !negativeLookups.isNotFound(realmId, model.getId(), lookup))
+                .map(ServicesUtils.timeBoundOne(session, timeout, (UserStorageProviderModel model) -> {
+                    UserLookupProvider provider = getStorageProviderInstance(model, UserLookupProvider.class, false);
+                    if (provider == null) return null;
+
+                    long start = System.nanoTime();
+                    UserModel user;
+                    try {
+                        user = loader.apply(provider);
+                    } catch (StorageUnavailableException e) {
+                        logger.warnf(e, "User storage provider %s is unavailable. " +
+                                     "Continuing with other providers for graceful degradation.",
+                                     provider.getClass().getSimpleName());
+                        return null;
+                    }
+
+                    // a provider interrupted by the timeout may return no user without having finished the lookup
+                    if (user == null && !Thread.currentThread().isInterrupted()
+                            && System.nanoTime() - start < TimeUnit.MILLISECONDS.toNanos(timeout)) {
+                        negativeLookups.putNotFound(realmId, model.getId(), lookup);
+                    }
+                    return user;
+                }))
+                .filter(Objects::nonNull)
+                .findFirst()
+                .orElse(null);
+    }
+
+    private void invalidateNegativeLookups(RealmModel realm, String username) {
+        if (negativeLookups != null) {
+            negativeLookups.invalidate(session, realm.getId(), UserLookupNegativeCache.usernameLookup(username));
+            // the username is the email in realms that use the email as username
+            negativeLookups.invalidate(session, realm.getId(), UserLookupNegativeCache.emailLookup(username));
+        }
+    }
+
+    private void invalidateNegativeEmailLookups(RealmModel realm, String email) {
+        if (email != null) {
+            negativeLookups.invalidate(session, realm.getId(), UserLookupNegativeCache.emailLookup(email));
+        }
+    }
+
+    /**
+     * Wraps a user created in a user storage provider, so that setting its email invalidates the lookups by that email
+     * which found no user in the provider before the user was created.
+     */
+    private UserModel invalidateNegativeLookupsOnEmailChange(RealmModel realm, UserModel user) {
+        if (negativeLookups == null) {
+            return user;
+        }
+        return new UserModelDelegate(user) {
+            @Override
+            public void setEmail(String email) {
+                super.setEmail(email);
+                invalidateNegativeEmailLookups(realm, email);
+            }
+
+            @Override
+            public void setSingleAttribute(String name, String value) {
+                super.setSingleAttribute(name, value);
+                if (UserModel.EMAIL.equals(name)) {
+                    invalidateNegativeEmailLookups(realm, value);
+                }
+            }
+
+            @Override
+            public void setAttribute(String name, List<String> values) {
+                super.setAttribute(name, values);
+                if (UserModel.EMAIL.equals(name) && values != null) {
+                    values.forEach(email -> invalidateNegativeEmailLookups(realm, email));
+                }
+            }
+        };
+    }
+
     private UserModel tryResolveFederatedUser(RealmModel realm, Function<UserLookupProvider, UserModel> loader) {
         return mapEnabledStorageProvidersWithTimeout(realm, UserLookupProvider.class, provider -> {
             try {
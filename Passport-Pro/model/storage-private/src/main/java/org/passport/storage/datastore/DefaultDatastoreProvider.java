@@ -104,7 +104,7 @@ public class DefaultDatastoreProvider implements DatastoreProvider, StoreManager
 
     public UserProvider userStorageManager() {
         if (userStorageManager == null) {
-            userStorageManager = new UserStorageManager(session);
+            userStorageManager = new UserStorageManager(session, factory.getUserLookupNegativeCache());
         }
         return userStorageManager;
     }
@@ -22,6 +22,7 @@ import java.util.List;
 
 import org.passport.Config;
 import org.passport.Config.Scope;
+import org.passport.cluster.ClusterProvider;
 import org.passport.migration.MigrationModelManager;
 import org.passport.models.PassportSession;
 import org.passport.models.PassportSessionFactory;
@@ -39,6 +40,7 @@ import org.passport.services.scheduled.ClusterAwareScheduledTaskRunner;
 import org.passport.storage.DatastoreProvider;
 import org.passport.storage.DatastoreProviderFactory;
 import org.passport.storage.StoreMigrateRepresentationEvent;
+import org.passport.storage.UserLookupNegativeCache;
 import org.passport.storage.UserStorageEventListener;
 import org.passport.timer.ScheduledTask;
 import org.passport.timer.TimerProvider;
@@ -51,11 +53,17 @@ public class DefaultDatastoreProviderFactory implements DatastoreProviderFactory
 
     public static final String ALLOW_MIGRATE_EXISTING_DB_TO_SNAPSHOT_OPTION = "allowMigrateExistingDatabaseToSnapshot";
 
+    public static final String USER_LOOKUP_NEGATIVE_CACHE_TTL_OPTION = "userLookupNegativeCacheTtl";
+    public static final String USER_LOOKUP_NEGATIVE_CACHE_MAX_SIZE_OPTION = "userLookupNegativeCacheMaxSize";
+    private static final long DEFAULT_USER_LOOKUP_NEGATIVE_CACHE_TTL = 60000L;
+    private static final int DEFAULT_USER_LOOKUP_NEGATIVE_CACHE_MAX_SIZE = 10000;
+
     private static final Logger logger = Logger.getLogger(DefaultDatastoreProviderFactory.class);
 
     private long clientStorageProviderTimeout;
     private long roleStorageProviderTimeout;
     private boolean allowMigrateExistingDatabaseToSnapshot;
+    private UserLookupNegativeCache userLookupNegativeCache;
     private Runnable onClose;
 
     @Override
@@ -68,6 +76,12 @@ public class DefaultDatastoreProviderFactory implements DatastoreProviderFactory
         clientStorageProviderTimeout = Config.scope("client").getLong("storageProviderTimeout", 3000L);
         roleStorageProviderTimeout = Config.scope("role").getLong("storageProviderTimeout", 3000L);
         allowMigrateExistingDatabaseToSnapshot = config.getBoolean(ALLOW_MIGRATE_EXISTING_DB_TO_SNAPSHOT_OPTION, false);
+
+        long negativeCacheTtl = config.getLong(USER_LOOKUP_NEGATIVE_CACHE_TTL_OPTION, DEFAULT_USER_LOOKUP_NEGATIVE_CACHE_TTL);
+        int negativeCacheMaxSize = config.getInt(USER_LOOKUP_NEGATIVE_CACHE_MAX_SIZE_OPTION, DEFAULT_USER_LOOKUP_NEGATIVE_CACHE_MAX_SIZE);
+        if (negativeCacheTtl > 0 && negativeCacheMaxSize > 0) {
+            userLookupNegativeCache = new UserLookupNegativeCache(negativeCacheMaxSize, negativeCacheTtl);
+        }
     }
 
     @Override
@@ -86,6 +100,9 @@ public class DefaultDatastoreProviderFactory implements DatastoreProviderFactory
         if (onClose != null) {
             onClose.run();
         }
+        if (userLookupNegativeCache != null) {
+            userLookupNegativeCache.close();
+        }
     }
 
     @Override
@@ -104,6 +121,18 @@ public class DefaultDatastoreProviderFactory implements DatastoreProviderFactory
                         "nightly/development server against production database when explicitly switch to true. This option is recommended just in the development environments and should be never used in the production!")
                 .defaultValue(false)
                 .add()
+                .property()
+                .name(USER_LOOKUP_NEGATIVE_CACHE_TTL_OPTION)
+                .type("long")
+                .helpText("Time in milliseconds for which a user storage provider is not asked again for a username or email it did not find. Use 0 to disable the cache.")
+                .defaultValue(DEFAULT_USER_LOOKUP_NEGATIVE_CACHE_TTL)
+                .add()
+                .property()
+                .name(USER_LOOKUP_NEGATIVE_CACHE_MAX_SIZE_OPTION)
+                .type("int")
+                .helpText("Maximum number of usernames and emails kept in the cache of lookups that found no user in a user storage provider.")
+                .defaultValue(DEFAULT_USER_LOOKUP_NEGATIVE_CACHE_MAX_SIZE)
+                .add()
                 .build();
     }
 
@@ -115,6 +144,10 @@ public class DefaultDatastoreProviderFactory implements DatastoreProviderFactory
         return roleStorageProviderTimeout;
     }
 
+    public UserLookupNegativeCache getUserLookupNegativeCache() {
+        return userLookupNegativeCache;
+    }
+
     boolean isAllowMigrateExistingDatabaseToSnapshot() {
         return allowMigrateExistingDatabaseToSnapshot;
     }
@@ -123,6 +156,7 @@ public class DefaultDatastoreProviderFactory implements DatastoreProviderFactory
     public void onEvent(ProviderEvent event) {
         if (event instanceof PostMigrationEvent) {
             setupScheduledTasks(((PostMigrationEvent) event).getFactory());
+            registerUserLookupNegativeCacheListener(((PostMigrationEvent) event).getFactory());
         } else if (event instanceof StoreMigrateRepresentationEvent) {
             StoreMigrateRepresentationEvent ev = (StoreMigrateRepresentationEvent) event;
             MigrationModelManager.migrateImport(ev.getSession(), ev.getRealm(), ev.getRep(), ev.isSkipUserDependent());
@@ -138,6 +172,18 @@ public class DefaultDatastoreProviderFactory implements DatastoreProviderFactory
         }
     }
 
+    private void registerUserLookupNegativeCacheListener(PassportSessionFactory sessionFactory) {
+        if (userLookupNegativeCache == null) {
+            return;
+        }
+        try (PassportSession session = sessionFactory.create()) {
+            ClusterProvider clusterProvider = session.getProvider(ClusterProvider.class);
+            if (clusterProvider != null) {
+                clusterProvider.registerListener(UserLookupNegativeCache.CLUSTER_TASK_KEY, userLookupNegativeCache);
+            }
+        }
+    }
+
     protected static void scheduleTasks(PassportSessionFactory sessionFactory, TimerProvider timer, long interval) {
         for (ScheduledTask task : getScheduledTasks()) {
             scheduleTask(timer, sessionFactory, task, interval);
@@ -0,0 +1,89 @@
+/*
+ * Copyright 2026 Red Hat, Inc. and/or its affiliates
+ * and other contributors as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.passport.storage;
+
+import org.passport.common.util.Time;
+
+import org.junit.After;
+import org.junit.Test;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+public class UserLookupNegativeCacheTest {
+
+    private final UserLookupNegativeCache cache = new UserLookupNegativeCache(2, 60000);
+
+    @After
+    public void after() {
+        Time.setOffset(0);
+        cache.close();
+    }
+
+    @Test
+    public void testNotFoundPerProvider() {
+        String lookup = UserLookupNegativeCache.usernameLookup("John");
+        cache.putNotFound("realm", "ldap", lookup);
+
+        assertThat(cache.isNotFound("realm", "ldap", UserLookupNegativeCache.usernameLookup("john")), is(true));
+        assertThat(cache.isNotFound("realm", "kerberos", lookup), is(false));
+        assertThat(cache.isNotFound("other", "ldap", lookup), is(false));
+        assertThat(cache.isNotFound("realm", "ldap", UserLookupNegativeCache.emailLookup("john")), is(false));
+    }
+
+    @Test
+    public void testExpiration() {
+        String lookup = UserLookupNegativeCache.emailLookup("john@passport.org");
+        cache.putNotFound("realm", "ldap", lookup);
+
+        Time.setOffset(61);
+
+        assertThat(cache.isNotFound("realm", "ldap", lookup), is(false));
+    }
+
+    @Test
+    public void testLeastRecentlyUsedLookupEvicted() {
+        cache.putNotFound("realm", "ldap", "username:a");
+        cache.putNotFound("realm", "ldap", "username:b");
+        cache.isNotFound("realm", "ldap", "username:a");
+        cache.putNotFound("realm", "ldap", "username:c");
+
+        assertThat(cache.size(), is(2));
+        assertThat(cache.isNotFound("realm", "ldap", "username:a"), is(true));
+        assertThat(cache.isNotFound("realm", "ldap", "username:b"), is(false));
+        assertThat(cache.isNotFound("realm", "ldap", "username:c"), is(true));
+    }
+
+    @Test
+    public void testInvalidation() {
+        cache.putNotFound("realm", "ldap", "username:a");
+        cache.putNotFound("realm", "kerberos", "username:a");
+        cache.putNotFound("realm", "ldap", "username:b");
+
+        cache.eventReceived(UserLookupInvalidationEvent.lookupInvalidated("realm", "username:a"));
+
+        assertThat(cache.isNotFound("realm", "ldap", "username:a"), is(false));
+        assertThat(cache.isNotFound("realm", "kerberos", "username:a"), is(false));
+        assertThat(cache.isNotFound("realm", "ldap", "username:b"), is(true));
+
+        cache.eventReceived(UserLookupInvalidationEvent.providerInvalidated("ldap"));
+
+        assertThat(cache.isNotFound("realm", "ldap", "username:b"), is(false));
+        assertThat(cache.size(), is(0));
+    }
+}
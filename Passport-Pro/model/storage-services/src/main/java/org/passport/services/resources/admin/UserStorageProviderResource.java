@@ -37,6 +37,7 @@ import org.passport.events.admin.OperationType;
 import org.passport.models.PassportSession;
 import org.passport.models.PassportSessionFactory;
 import org.passport.models.RealmModel;
+import org.passport.representations.idm.SynchronizationProgressRepresentation;
 import org.passport.services.ErrorResponse;
 import org.passport.services.ServicesLogger;
 import org.passport.services.managers.LDAPServerCapabilitiesManager;
@@ -46,6 +47,7 @@ import org.passport.storage.UserStorageProvider;
 import org.passport.storage.UserStorageProviderModel;
 import org.passport.storage.ldap.LDAPStorageProvider;
 import org.passport.storage.ldap.mappers.LDAPStorageMapper;
+import org.passport.storage.user.ImportSynchronization;
 import org.passport.storage.user.SynchronizationResult;
 
 import org.jboss.logging.Logger;
@@ -183,6 +185,34 @@ public class UserStorageProviderResource {
         return syncResult;
     }
 
+    /**
+     * Get the progress of the last sync of users started on this server
+     *
+     * @param id
+     * @return
+     */
+    @GET
+    @Path("{id}/sync")
+    @NoCache
+    @Produces(MediaType.APPLICATION_JSON)
+    public SynchronizationProgressRepresentation getSyncProgress(@PathParam("id") String id) {
+        auth.users().requireView();
+
+        ComponentModel model = realm.getComponent(id);
+        if (model == null) {
+            throw new NotFoundException("Could not find component");
+        }
+        if (!model.getProviderType().equals(UserStorageProvider.class.getName())) {
+            throw new NotFoundException("found, but not a UserStorageProvider");
+        }
+
+        SynchronizationProgressRepresentation progress = null;
+        if (session.getPassportSessionFactory().getProviderFactory(UserStorageProvider.class, model.getProviderId()) instanceof ImportSynchronization factory) {
+            progress = factory.getSyncProgress(new UserStorageProviderModel(model));
+        }
+        return progress != null ? progress : new SynchronizationProgressRepresentation();
+    }
+
     /**
      * Remove imported users
      *
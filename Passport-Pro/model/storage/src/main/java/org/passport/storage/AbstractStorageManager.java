@@ -92,12 +92,22 @@ public abstract class AbstractStorageManager<ProviderType extends Provider,
      * @return enabled storage providers for realm and @{code getProviderTypeClass()}
      */
     protected <T> Stream<T> getEnabledStorageProviders(RealmModel realm, Class<T> capabilityInterface) {
+        return getEnabledStorageProviderModels(realm)
+                .map(storageProviderModelType -> getStorageProviderInstance(storageProviderModelType, capabilityInterface, false))
+                .filter(Objects::nonNull);
+    }
+
+    /**
+     * Returns stream of the models of all enabled storageProviders within the realm, in the order of their priority.
+     *
+     * @param realm realm
+     * @return enabled storage provider models for realm and @{code getProviderTypeClass()}
+     */
+    protected Stream<StorageProviderModelType> getEnabledStorageProviderModels(RealmModel realm) {
         return getStorageProviderModels(realm, providerTypeClass)
                 .map(toStorageProviderModelTypeFunction)
                 .filter(StorageProviderModelType::isEnabled)
-                .sorted(StorageProviderModelType.comparator)
-                .map(storageProviderModelType -> getStorageProviderInstance(storageProviderModelType, capabilityInterface, false))
-                .filter(Objects::nonNull);
+                .sorted(StorageProviderModelType.comparator);
     }
 
     /**
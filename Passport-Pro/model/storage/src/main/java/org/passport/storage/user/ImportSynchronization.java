@@ -19,6 +19,7 @@ package org.passport.storage.user;
 import java.util.Date;
 
 import org.passport.models.PassportSessionFactory;
+import org.passport.representations.idm.SynchronizationProgressRepresentation;
 import org.passport.storage.UserStorageProviderModel;
 
 /**
@@ -34,4 +35,12 @@ public interface ImportSynchronization {
     SynchronizationResult sync(PassportSessionFactory sessionFactory, String realmId, UserStorageProviderModel model);
 
     SynchronizationResult syncSince(Date lastSync, PassportSessionFactory sessionFactory, String realmId, UserStorageProviderModel model);
+
+    /**
+     * Returns the progress of the last synchronization of the given provider started on this server, or {@code null}
+     * if the factory does not track the progress of synchronizations.
+     */
+    default SynchronizationProgressRepresentation getSyncProgress(UserStorageProviderModel model) {
+        return null;
+    }
 }
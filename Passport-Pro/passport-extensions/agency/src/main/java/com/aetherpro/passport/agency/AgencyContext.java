@@ -1,5 +1,6 @@
 package com.aetherpro.passport.agency;
 
+import java.time.Instant;
 import java.util.List;
 import java.util.Set;
 
@@ -26,6 +27,9 @@ public class AgencyContext {
     /** List of valid qualification names */
     private List<String> qualifications;
     
+    /** Enabled delegations with their active mandates and the principal's active passports */
+    private List<Delegation> delegations;
+    
     public AgencyContext() {}
     
     public AgencyContext(
@@ -82,6 +86,14 @@ public class AgencyContext {
         this.qualifications = qualifications;
     }
     
+    public List<Delegation> getDelegations() {
+        return delegations;
+    }
+    
+    public void setDelegations(List<Delegation> delegations) {
+        this.delegations = delegations;
+    }
+    
     /**
      * Reference to a principal being represented
      */
@@ -126,4 +138,123 @@ public class AgencyContext {
             this.activeMandateScopes = activeMandateScopes;
         }
     }
+    
+    /**
+     * An enabled delegation of the user, as rendered into token claims
+     */
+    public static class Delegation {
+        private final String delegateId;
+        private final DelegationType delegateType;
+        private final String principalId;
+        private final String principalName;
+        private final PrincipalType principalType;
+        private final List<MandateReference> mandates;
+        private final List<PassportReference> passports;
+        
+        public Delegation(
+            String delegateId,
+            DelegationType delegateType,
+            String principalId,
+            String principalName,
+            PrincipalType principalType,
+            List<MandateReference> mandates,
+            List<PassportReference> passports
+        ) {
+            this.delegateId = delegateId;
+            this.delegateType = delegateType;
+            this.principalId = principalId;
+            this.principalName = principalName;
+            this.principalType = principalType;
+            this.mandates = mandates;
+            this.passports = passports;
+        }
+        
+        public String getDelegateId() {
+            return delegateId;
+        }
+        
+        public DelegationType getDelegateType() {
+            return delegateType;
+        }
+        
+        public String getPrincipalId() {
+            return principalId;
+        }
+        
+        public String getPrincipalName() {
+            return principalName;
+        }
+        
+        public PrincipalType getPrincipalType() {
+            return principalType;
+        }
+        
+        public List<MandateReference> getMandates() {
+            return mandates;
+        }
+        
+        public List<PassportReference> getPassports() {
+            return passports;
+        }
+    }
+    
+    /**
+     * Reference to an active mandate of a delegation
+     */
+    public static class MandateReference {
+        private final String mandateId;
+        private final String scope;
+        private final Instant validUntil;
+        
+        public MandateReference(String mandateId, String scope, Instant validUntil) {
+            this.mandateId = mandateId;
+            this.scope = scope;
+            this.validUntil = validUntil;
+        }
+        
+        public String getMandateId() {
+            return mandateId;
+        }
+        
+        public String getScope() {
+            return scope;
+        }
+        
+        public Instant getValidUntil() {
+            return validUntil;
+        }
+    }
+    
+    /**
+     * Reference to an active agent passport of the represented principal
+     */
+    public static class PassportReference {
+        private final String passportId;
+        private final String principalId;
+        private final String capabilities;
+        private final Instant expiresAt;
+        
+        public PassportReference(String passportId, String principalId, String capabilities, Instant expiresAt) {
+            this.passportId = passportId;
+            this.principalId = principalId;
+            this.capabilities = capabilities;
+            this.expiresAt = expiresAt;
+        }
+        
+        public String getPassportId() {
+            return passportId;
+        }
+        
+        public String getPrincipalId() {
+            return principalId;
+        }
+        
+        public String getCapabilities() {
+            return capabilities;
+        }
+        
+        public Instant getExpiresAt() {
+            return expiresAt;
+        }
+    }
 }
@@ -1,8 +1,11 @@
 package com.aetherpro.passport.agency;
 
+import com.aetherpro.passport.agency.crypto.JwksDocument;
+import com.aetherpro.passport.agency.crypto.SignedAction;
 import com.aetherpro.passport.agency.jpa.AgencyKeypairEntity;
 import org.passport.models.RealmModel;
 import org.passport.models.UserModel;
+import org.passport.models.UserSessionModel;
 import org.passport.provider.Provider;
 
 import java.time.Instant;
@@ -149,6 +152,13 @@ public interface AgencyProvider extends Provider {
 
     void recordMandateUsage(String mandateId);
 
+    /**
+     * Number of times a mandate was used, including uses recorded on this node
+     * which are not yet written to the database. Use this for usage limits
+     * instead of {@link MandateModel#getUsageCount()}.
+     */
+    long getMandateUsageCount(String mandateId);
+
     void suspendMandate(String mandateId, String reason);
 
     void revokeMandate(String mandateId, String reason);
@@ -195,6 +205,14 @@ public interface AgencyProvider extends Provider {
      */
     AgencyContext getAgencyContext(UserModel user);
 
+    /**
+     * Get the agency context of the user of the given session.
+     * Implementations may reuse the context for all tokens issued within the session.
+     */
+    default AgencyContext getAgencyContext(UserSessionModel userSession) {
+        return getAgencyContext(userSession.getUser());
+    }
+
     /**
      * Check if user can act on behalf of principal for specific action
      * Integrates with Policy Router for complex decisions
@@ -253,6 +271,13 @@ public interface AgencyProvider extends Provider {
      */
     List<AgencyKeypairEntity> getKeypairs(RealmModel realm, String entityType, String entityId);
 
+    /**
+     * Get the JSON Web Key Set of the active issuer keys of the realm, rebuilt only after keys were saved or rotated
+     *
+     * @return the document or {@code null} if it could not be built
+     */
+    JwksDocument getJwks(RealmModel realm);
+
     /**
      * Sign an action representation using a delegate's private key
      */
@@ -263,6 +288,14 @@ public interface AgencyProvider extends Provider {
      */
     boolean verifySignatureChain(String signedActionJson);
 
+    /**
+     * Verify the three-party signature chains of several signed actions.
+     * Public keys shared by the actions are decoded only once.
+     *
+     * @return the verification result of each action, in the order of the given actions
+     */
+    List<Boolean> verifyAll(List<SignedAction> signedActions);
+
     /**
      * Log a signed action for audit purposes
      */
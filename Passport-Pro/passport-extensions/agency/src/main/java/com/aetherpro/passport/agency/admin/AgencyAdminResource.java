@@ -4,9 +4,11 @@ import com.aetherpro.passport.agency.*;
 import com.aetherpro.passport.agency.admin.representations.*;
 import com.aetherpro.passport.agency.crypto.SignedAction;
 import com.aetherpro.passport.agency.jpa.AgentPassportEntity;
+import com.aetherpro.passport.agency.protocol.AgencyJwksEndpoint;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import jakarta.ws.rs.*;
+import jakarta.ws.rs.core.HttpHeaders;
 import jakarta.ws.rs.core.MediaType;
 import jakarta.ws.rs.core.Response;
 import org.jboss.logging.Logger;
@@ -776,6 +778,20 @@ public class AgencyAdminResource {
         return Response.ok("{\"valid\":" + valid + "}").build();
     }
 
+    @POST
+    @Path("/actions/verify-batch")
+    @Consumes(MediaType.APPLICATION_JSON)
+    @Produces(MediaType.APPLICATION_JSON)
+    public Response verifyActions(List<SignedAction> signedActions) {
+        auth.realm().requireViewRealm();
+
+        if (signedActions == null) {
+            throw new BadRequestException("A list of signed actions is required");
+        }
+        List<Boolean> valid = getAgencyProvider().verifyAll(signedActions);
+        return Response.ok(Map.of("valid", valid)).build();
+    }
+
     // ========== PUBLIC KEY DISCOVERY (JWKS) ==========
 
     /**
@@ -785,56 +801,9 @@ public class AgencyAdminResource {
     @GET
     @Path("/jwks")
     @Produces(MediaType.APPLICATION_JSON)
-    public Response getJwks() {
+    public Response getJwks(@HeaderParam(HttpHeaders.IF_NONE_MATCH) String ifNoneMatch) {
         // NO AUTH REQUIRED - public endpoint for key discovery
-        AgencyProvider agency = getAgencyProvider();
-
-        List<java.util.Map<String, Object>> keys = new java.util.ArrayList<>();
-
-        try {
-            // Get issuer (realm) keypair
-            List<com.aetherpro.passport.agency.jpa.AgencyKeypairEntity> issuerKeys = agency.getKeypairs(realm, "ISSUER",
-                    realm.getId());
-
-            for (com.aetherpro.passport.agency.jpa.AgencyKeypairEntity keypair : issuerKeys) {
-                if ("ACTIVE".equals(keypair.getStatus())) {
-                    keys.add(buildJwk(keypair, "sig"));
-                }
-            }
-
-            logger.debugf("JWKS: Returning %d active keys for realm %s", keys.size(), realm.getName());
-
-        } catch (Exception e) {
-            logger.error("Error fetching JWKS for realm " + realm.getName(), e);
-        }
-
-        java.util.Map<String, Object> jwks = new java.util.HashMap<>();
-        jwks.put("keys", keys);
-        return Response.ok(jwks).build();
-    }
-
-    /**
-     * Build a JWK (JSON Web Key) object for Ed25519 public key
-     */
-    private java.util.Map<String, Object> buildJwk(com.aetherpro.passport.agency.jpa.AgencyKeypairEntity keypair,
-            String use) {
-        java.util.Map<String, Object> jwk = new java.util.HashMap<>();
-        jwk.put("kty", "OKP"); // Octet Key Pair (for EdDSA)
-        jwk.put("crv", "Ed25519");
-        jwk.put("kid", keypair.getKid());
-        jwk.put("alg", "EdDSA");
-        jwk.put("use", use);
-
-        // Public key (base64url encoded)
-        String publicKeyBase64 = java.util.Base64.getUrlEncoder()
-                .withoutPadding()
-                .encodeToString(keypair.getPublicKeyBytes());
-        jwk.put("x", publicKeyBase64);
-
-        jwk.put("entity_type", keypair.getEntityType());
-        jwk.put("entity_id", keypair.getEntityId());
-
-        return jwk;
+        return AgencyJwksEndpoint.toResponse(getAgencyProvider().getJwks(realm), ifNoneMatch);
     }
 
     // ========== REALM CONFIGURATION ==========
@@ -999,7 +968,7 @@ public class AgencyAdminResource {
         rep.setActive(model.isActive());
         rep.setValidFrom(model.getValidFrom());
         rep.setValidUntil(model.getValidUntil());
-        rep.setUsageCount(model.getUsageCount());
+        rep.setUsageCount((int) getAgencyProvider().getMandateUsageCount(model.getId()));
         rep.setLastUsedAt(model.getLastUsedAt());
         rep.setCreatedAt(model.getCreatedAt());
         rep.setSuspendedAt(model.getSuspendedAt());
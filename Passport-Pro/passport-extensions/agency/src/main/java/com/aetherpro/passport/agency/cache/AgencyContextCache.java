@@ -0,0 +1,82 @@
+package com.aetherpro.passport.agency.cache;
+
+import com.aetherpro.passport.agency.AgencyContext;
+import org.passport.common.util.Time;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Node-local cache of the {@link AgencyContext} of each user session.
+ *
+ * Token refreshes of the same session reuse the context instead of reloading it for every token. Entries are
+ * dropped together with the decision index entries of their realm when a principal, delegate, mandate or passport
+ * changes, and expire after a lifespan so time-based mandate validity is re-evaluated from time to time.
+ */
+public class AgencyContextCache {
+
+    public static final int DEFAULT_MAX_ENTRIES = 100_000;
+    public static final int DEFAULT_LIFESPAN_SECONDS = 300;
+
+    private final ConcurrentMap<String, Entry> contexts = new ConcurrentHashMap<>();
+
+    // Guards against caching a context loaded concurrently with an invalidation, see AgencyDecisionIndex
+    private final AtomicLong revision = new AtomicLong();
+
+    private final int maxEntries;
+    private final int lifespanSeconds;
+
+    public AgencyContextCache(int maxEntries, int lifespanSeconds) {
+        this.maxEntries = maxEntries;
+        this.lifespanSeconds = lifespanSeconds;
+    }
+
+    public AgencyContext get(String userSessionId, String realmId, Supplier<AgencyContext> loader) {
+        int currentTime = Time.currentTime();
+        Entry entry = contexts.get(userSessionId);
+        if (entry != null && entry.expiration > currentTime) {
+            return entry.context;
+        }
+
+        long startRevision = revision.get();
+        AgencyContext context = loader.get();
+
+        if (revision.get() == startRevision && hasCapacity(currentTime)) {
+            contexts.put(userSessionId, new Entry(realmId, context, currentTime + lifespanSeconds));
+        }
+        return context;
+    }
+
+    public void invalidateRealm(String realmId) {
+        revision.incrementAndGet();
+        contexts.values().removeIf(entry -> entry.realmId.equals(realmId));
+    }
+
+    public void clear() {
+        revision.incrementAndGet();
+        contexts.clear();
+    }
+
+    private boolean hasCapacity(int currentTime) {
+        if (contexts.size() < maxEntries) {
+            return true;
+        }
+        contexts.values().removeIf(entry -> entry.expiration <= currentTime);
+        return contexts.size() < maxEntries;
+    }
+
+    private static class Entry {
+
+        private final String realmId;
+        private final AgencyContext context;
+        private final int expiration;
+
+        private Entry(String realmId, AgencyContext context, int expiration) {
+            this.realmId = realmId;
+            this.context = context;
+            this.expiration = expiration;
+        }
+    }
+}
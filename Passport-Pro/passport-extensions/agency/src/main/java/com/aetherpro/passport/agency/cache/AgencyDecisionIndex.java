@@ -0,0 +1,167 @@
+package com.aetherpro.passport.agency.cache;
+
+import java.time.Instant;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Node-local index of principal → delegate → mandate grants held by each agent.
+ *
+ * Used by {@link com.aetherpro.passport.agency.AgencyProvider#evaluateAgencyAccess} so that an
+ * allow/deny decision is answered from memory. Entries are loaded lazily per agent and tagged with
+ * the realm of their delegations. Any change to a principal, delegate or mandate drops all entries
+ * of the affected realm on every cluster node (see {@link AgencyInvalidationEvent}).
+ *
+ * Entries only hold the validity windows of delegates and mandates, time checks are done on lookup.
+ */
+public class AgencyDecisionIndex {
+
+    public static final String AGENCY_INVALIDATION_EVENTS = "AGENCY_INVALIDATION_EVENTS";
+
+    public static final int DEFAULT_MAX_ENTRIES = 100_000;
+
+    private final ConcurrentMap<String, AgentGrants> agents = new ConcurrentHashMap<>();
+
+    // Bumped on every invalidation, loads which overlap with an invalidation are not cached
+    private final AtomicLong revision = new AtomicLong();
+
+    private final int maxEntries;
+
+    public AgencyDecisionIndex(int maxEntries) {
+        this.maxEntries = maxEntries;
+    }
+
+    /**
+     * Returns the grants of the given agent, loading and caching them on a miss.
+     */
+    public AgentGrants get(String agentId, Function<String, AgentGrants> loader) {
+        AgentGrants grants = agents.get(agentId);
+        if (grants != null) {
+            return grants;
+        }
+
+        long startRevision = revision.get();
+        grants = loader.apply(agentId);
+
+        if (revision.get() == startRevision && agents.size() < maxEntries) {
+            AgentGrants existing = agents.putIfAbsent(agentId, grants);
+            if (existing != null) {
+                return existing;
+            }
+        }
+        return grants;
+    }
+
+    /**
+     * Drops all entries of the given realm. Agents without any delegation are not bound to a realm
+     * and are dropped as well, as the change may have added their first delegation.
+     */
+    public void invalidateRealm(String realmId) {
+        revision.incrementAndGet();
+        agents.values().removeIf(grants -> grants.getRealmId() == null || grants.getRealmId().equals(realmId));
+    }
+
+    public void clear() {
+        revision.incrementAndGet();
+        agents.clear();
+    }
+
+    public int size() {
+        return agents.size();
+    }
+
+    /**
+     * Immutable snapshot of the enabled delegations of one agent, grouped by principal.
+     */
+    public static class AgentGrants {
+
+        public static final AgentGrants EMPTY = new AgentGrants(null, Collections.emptyMap());
+
+        private final String realmId;
+        private final Map<String, List<DelegationGrant>> delegationsByPrincipal;
+
+        public AgentGrants(String realmId, Map<String, List<DelegationGrant>> delegationsByPrincipal) {
+            this.realmId = realmId;
+            this.delegationsByPrincipal = delegationsByPrincipal;
+        }
+
+        public String getRealmId() {
+            return realmId;
+        }
+
+        /**
+         * Whether one of the delegations for the principal is inside its validity window.
+         */
+        public boolean isValidDelegate(String principalId, Instant now) {
+            for (DelegationGrant delegation : delegationsByPrincipal.getOrDefault(principalId, Collections.emptyList())) {
+                if (isWithin(delegation.validFrom, delegation.validUntil, now)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        /**
+         * Finds a currently valid mandate for the principal covering the given scope.
+         *
+         * @return the mandate id or {@code null} if none covers the scope
+         */
+        public String findMandate(String principalId, String scope, Instant now) {
+            for (DelegationGrant delegation : delegationsByPrincipal.getOrDefault(principalId, Collections.emptyList())) {
+                for (MandateGrant mandate : delegation.mandates) {
+                    if (mandate.covers(scope) && isWithin(mandate.validFrom, mandate.validUntil, now)) {
+                        return mandate.id;
+                    }
+                }
+            }
+            return null;
+        }
+    }
+
+    public static class DelegationGrant {
+
+        private final String delegateId;
+        private final Instant validFrom;
+        private final Instant validUntil;
+        private final List<MandateGrant> mandates;
+
+        public DelegationGrant(String delegateId, Instant validFrom, Instant validUntil, List<MandateGrant> mandates) {
+            this.delegateId = delegateId;
+            this.validFrom = validFrom;
+            this.validUntil = validUntil;
+            this.mandates = mandates;
+        }
+
+        public String getDelegateId() {
+            return delegateId;
+        }
+    }
+
+    public static class MandateGrant {
+
+        private final String id;
+        private final String scope;
+        private final Instant validFrom;
+        private final Instant validUntil;
+
+        public MandateGrant(String id, String scope, Instant validFrom, Instant validUntil) {
+            this.id = id;
+            this.scope = scope;
+            this.validFrom = validFrom;
+            this.validUntil = validUntil;
+        }
+
+        boolean covers(String requestedScope) {
+            return "*".equals(scope) || scope.equals(requestedScope);
+        }
+    }
+
+    private static boolean isWithin(Instant validFrom, Instant validUntil, Instant now) {
+        return (validFrom == null || !validFrom.isAfter(now)) && (validUntil == null || !validUntil.isBefore(now));
+    }
+}
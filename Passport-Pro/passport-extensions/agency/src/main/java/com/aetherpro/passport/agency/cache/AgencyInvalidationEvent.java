@@ -0,0 +1,45 @@
+package com.aetherpro.passport.agency.cache;
+
+import org.infinispan.protostream.annotations.ProtoFactory;
+import org.infinispan.protostream.annotations.ProtoField;
+import org.infinispan.protostream.annotations.ProtoTypeId;
+import org.passport.cluster.ClusterEvent;
+
+import java.util.Objects;
+
+/**
+ * Sent to all cluster nodes after a principal, delegate or mandate of a realm changed,
+ * so every node drops the decision index entries of that realm.
+ */
+@ProtoTypeId(AgencyModelSchema.AGENCY_INVALIDATION_EVENT)
+public class AgencyInvalidationEvent implements ClusterEvent {
+
+    private final String realmId;
+
+    @ProtoFactory
+    public AgencyInvalidationEvent(String realmId) {
+        this.realmId = Objects.requireNonNull(realmId);
+    }
+
+    @ProtoField(1)
+    public String getRealmId() {
+        return realmId;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        return realmId.equals(((AgencyInvalidationEvent) o).realmId);
+    }
+
+    @Override
+    public int hashCode() {
+        return realmId.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return "AgencyInvalidationEvent [ " + realmId + " ]";
+    }
+}
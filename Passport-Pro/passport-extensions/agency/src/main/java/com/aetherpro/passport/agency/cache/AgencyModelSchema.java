@@ -0,0 +1,30 @@
+package com.aetherpro.passport.agency.cache;
+
+import org.infinispan.protostream.GeneratedSchema;
+import org.infinispan.protostream.annotations.ProtoSchema;
+import org.infinispan.protostream.annotations.ProtoSyntax;
+
+/**
+ * Protostream schema for the cluster messages sent by the Agency extension.
+ *
+ * The implementation is generated by the protostream annotation processor and registered
+ * through META-INF/services, so the cluster provider picks it up like the built-in schemas.
+ * Type ids live in their own range to avoid clashing with the server's own marshalling ids.
+ */
+@ProtoSchema(
+        syntax = ProtoSyntax.PROTO3,
+        schemaPackageName = AgencyModelSchema.PROTO_SCHEMA_PACKAGE,
+        schemaFilePath = "proto/generated",
+        schemaFileName = "passport-agency.proto",
+        allowNullFields = true,
+        includeClasses = {
+                AgencyInvalidationEvent.class
+        }
+)
+public interface AgencyModelSchema extends GeneratedSchema {
+
+    String PROTO_SCHEMA_PACKAGE = "passport.agency";
+
+    /** see {@link AgencyInvalidationEvent} */
+    int AGENCY_INVALIDATION_EVENT = 66100;
+}
@@ -0,0 +1,118 @@
+package com.aetherpro.passport.agency.cache;
+
+import java.time.Instant;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Write-behind buffer for mandate usage, so recording a use does not write to the database on the request path.
+ *
+ * Uses are counted in memory, striped by mandate id so concurrent agents only contend on a short in-memory
+ * critical section instead of a row lock. The counts are written by {@link MandateUsageFlushTask} with one
+ * batched increment statement per flush. If the node stops abruptly, at most one flush interval of usage is lost.
+ *
+ * Counts drained by a running flush stay visible through {@link #getPendingCount(String)} until the flush
+ * completes, so reads of the usage never go backwards while a flush is in progress.
+ */
+public class MandateUsageAccumulator {
+
+    private static final int STRIPES = 64;
+
+    private final Stripe[] stripes = new Stripe[STRIPES];
+
+    private volatile Map<String, PendingUsage> inFlight = Collections.emptyMap();
+
+    public MandateUsageAccumulator() {
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new Stripe();
+        }
+    }
+
+    public void record(String mandateId, Instant usedAt) {
+        stripeFor(mandateId).add(mandateId, 1, usedAt);
+    }
+
+    /**
+     * Number of uses recorded on this node which are not yet written to the database.
+     */
+    public long getPendingCount(String mandateId) {
+        // Stripe first: a concurrent drain can then only make us count a use twice, never miss it
+        long pendingCount = stripeFor(mandateId).count(mandateId);
+        PendingUsage flushing = inFlight.get(mandateId);
+        return pendingCount + (flushing != null ? flushing.count : 0);
+    }
+
+    /**
+     * Takes all pending usage for writing. It stays visible to {@link #getPendingCount(String)} until
+     * {@link #flushed()} or {@link #restore(Map)} is called.
+     */
+    public synchronized Map<String, PendingUsage> drain() {
+        Map<String, PendingUsage> drained = new HashMap<>();
+        for (Stripe stripe : stripes) {
+            drained.putAll(stripe.swap());
+        }
+        inFlight = drained;
+        return drained;
+    }
+
+    /**
+     * Marks the last drained usage as written.
+     */
+    public synchronized void flushed() {
+        inFlight = Collections.emptyMap();
+    }
+
+    /**
+     * Puts back usage which could not be written, so it is retried with the next flush.
+     */
+    public synchronized void restore(Map<String, PendingUsage> drained) {
+        drained.forEach((mandateId, usage) -> stripeFor(mandateId).add(mandateId, usage.count, usage.lastUsedAt));
+        inFlight = Collections.emptyMap();
+    }
+
+    private Stripe stripeFor(String mandateId) {
+        return stripes[(mandateId.hashCode() & 0x7fffffff) % STRIPES];
+    }
+
+    private static class Stripe {
+
+        private Map<String, PendingUsage> pending = new HashMap<>();
+
+        synchronized void add(String mandateId, long count, Instant usedAt) {
+            PendingUsage usage = pending.computeIfAbsent(mandateId, id -> new PendingUsage());
+            usage.count += count;
+            if (usage.lastUsedAt == null || usedAt.isAfter(usage.lastUsedAt)) {
+                usage.lastUsedAt = usedAt;
+            }
+        }
+
+        synchronized long count(String mandateId) {
+            PendingUsage usage = pending.get(mandateId);
+            return usage != null ? usage.count : 0;
+        }
+
+        synchronized Map<String, PendingUsage> swap() {
+            if (pending.isEmpty()) {
+                return Collections.emptyMap();
+            }
+            Map<String, PendingUsage> swapped = pending;
+            pending = new HashMap<>();
+            return swapped;
+        }
+    }
+
+    public static class PendingUsage {
+
+        private long count;
+        private Instant lastUsedAt;
+
+        public long getCount() {
+            return count;
+        }
+
+        public Instant getLastUsedAt() {
+            return lastUsedAt;
+        }
+    }
+}
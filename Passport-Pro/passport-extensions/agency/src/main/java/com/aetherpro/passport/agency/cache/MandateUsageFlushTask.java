@@ -0,0 +1,74 @@
+package com.aetherpro.passport.agency.cache;
+
+import jakarta.persistence.EntityManager;
+import org.hibernate.Session;
+import org.jboss.logging.Logger;
+import org.passport.connections.jpa.JpaConnectionProvider;
+import org.passport.connections.jpa.util.JpaUtils;
+import org.passport.models.PassportSession;
+import org.passport.models.PassportSessionFactory;
+import org.passport.models.utils.PassportModelUtils;
+
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.util.Map;
+
+/**
+ * Writes the mandate usage buffered by {@link MandateUsageAccumulator} to the database.
+ *
+ * All pending increments are sent as one JDBC batch of {@code UPDATE ... SET USAGE_COUNT = USAGE_COUNT + ?},
+ * so concurrent nodes never lose each other's increments. Runs on every node, as each node only flushes the
+ * usage it has recorded itself. Usage which fails to be written is kept for the next flush.
+ */
+public class MandateUsageFlushTask implements Runnable {
+
+    private static final Logger logger = Logger.getLogger(MandateUsageFlushTask.class);
+
+    private final PassportSessionFactory sessionFactory;
+    private final MandateUsageAccumulator accumulator;
+
+    public MandateUsageFlushTask(PassportSessionFactory sessionFactory, MandateUsageAccumulator accumulator) {
+        this.sessionFactory = sessionFactory;
+        this.accumulator = accumulator;
+    }
+
+    @Override
+    public void run() {
+        Map<String, MandateUsageAccumulator.PendingUsage> drained = accumulator.drain();
+        if (drained.isEmpty()) {
+            accumulator.flushed();
+            return;
+        }
+
+        try {
+            PassportModelUtils.runJobInTransaction(sessionFactory, session -> write(session, drained));
+            accumulator.flushed();
+            logger.debugf("Flushed usage of %d mandates", drained.size());
+        } catch (RuntimeException e) {
+            logger.warnf(e, "Failed to flush usage of %d mandates, will retry with the next flush", drained.size());
+            accumulator.restore(drained);
+        }
+    }
+
+    private void write(PassportSession session, Map<String, MandateUsageAccumulator.PendingUsage> drained) {
+        EntityManager em = session.getProvider(JpaConnectionProvider.class).getEntityManager();
+        String sql = "UPDATE " + JpaUtils.getTableNameForNativeQuery("PASSPORT_MANDATE", em)
+                + " SET USAGE_COUNT = COALESCE(USAGE_COUNT, 0) + ?,"
+                + " LAST_USED_AT = CASE WHEN LAST_USED_AT IS NULL OR LAST_USED_AT < ? THEN ? ELSE LAST_USED_AT END"
+                + " WHERE ID = ?";
+
+        em.unwrap(Session.class).doWork(connection -> {
+            try (PreparedStatement statement = connection.prepareStatement(sql)) {
+                for (Map.Entry<String, MandateUsageAccumulator.PendingUsage> entry : drained.entrySet()) {
+                    Timestamp lastUsedAt = Timestamp.from(entry.getValue().getLastUsedAt());
+                    statement.setLong(1, entry.getValue().getCount());
+                    statement.setTimestamp(2, lastUsedAt);
+                    statement.setTimestamp(3, lastUsedAt);
+                    statement.setString(4, entry.getKey());
+                    statement.addBatch();
+                }
+                statement.executeBatch();
+            }
+        });
+    }
+}
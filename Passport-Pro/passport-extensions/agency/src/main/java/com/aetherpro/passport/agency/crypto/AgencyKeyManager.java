@@ -2,6 +2,7 @@ package com.aetherpro.passport.agency.crypto;
 
 import com.aetherpro.passport.agency.jpa.AgencyKeypairEntity;
 import jakarta.persistence.EntityManager;
+import jakarta.persistence.NoResultException;
 import org.jboss.logging.Logger;
 import org.passport.models.utils.PassportModelUtils;
 
@@ -14,6 +15,7 @@ import java.security.spec.X509EncodedKeySpec;
 import java.time.Instant;
 import java.util.Base64;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 /**
  * Manages Ed25519 keypairs for Issuers, Principals, and Delegates.
@@ -28,9 +30,16 @@ public class AgencyKeyManager {
     private static final String MASTER_SECRET_ENV = "AGENCY_KEY_ENCRYPTION_SECRET";
 
     private final EntityManager em;
+    private final PublicKeyCache publicKeyCache;
+    private final Consumer<String> keySavedListener;
 
-    public AgencyKeyManager(EntityManager em) {
+    /**
+     * @param keySavedListener called with the realm id after a keypair was saved, to drop key material cached for the realm
+     */
+    public AgencyKeyManager(EntityManager em, PublicKeyCache publicKeyCache, Consumer<String> keySavedListener) {
         this.em = em;
+        this.publicKeyCache = publicKeyCache;
+        this.keySavedListener = keySavedListener;
     }
 
     public AgencyKeypairEntity generateAndSaveKeypair(String realmId, String entityType, String entityId) {
@@ -71,6 +80,7 @@ public class AgencyKeyManager {
 
             em.persist(entity);
             em.flush();
+            keySavedListener.accept(realmId);
 
             logger.infof("Generated %s keypair for %s (%s). KID: %s", entityType, entityId, realmId, kid);
 
@@ -97,6 +107,26 @@ public class AgencyKeyManager {
         }
     }
 
+    /**
+     * Resolves the public key of a KID from the node-local cache, reading the keypair only on a miss.
+     */
+    public Optional<PublicKey> getPublicKey(String kid) {
+        if (kid == null) {
+            return Optional.empty();
+        }
+        return Optional.ofNullable(publicKeyCache.get(kid, this::findKeypair, entity -> getPublicKey(entity).orElse(null)));
+    }
+
+    private AgencyKeypairEntity findKeypair(String kid) {
+        try {
+            return em.createNamedQuery("AgencyKeypairEntity.findByKid", AgencyKeypairEntity.class)
+                    .setParameter("kid", kid)
+                    .getSingleResult();
+        } catch (NoResultException e) {
+            return null;
+        }
+    }
+
     public Optional<PublicKey> getPublicKey(AgencyKeypairEntity entity) {
         try {
             KeyFactory kf = KeyFactory.getInstance(ALGORITHM);
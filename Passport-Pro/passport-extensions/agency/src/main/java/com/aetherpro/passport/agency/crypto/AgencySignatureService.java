@@ -1,8 +1,8 @@
 package com.aetherpro.passport.agency.crypto;
 
-import com.aetherpro.passport.agency.jpa.AgencyKeypairEntity;
 import org.jboss.logging.Logger;
 
+import java.security.GeneralSecurityException;
 import java.security.PrivateKey;
 import java.security.PublicKey;
 import java.security.Signature;
@@ -10,15 +10,26 @@ import java.util.Base64;
 
 /**
  * Service for signing and verifying the signature chain.
+ *
+ * The {@link Signature} engine is looked up once per thread and re-initialized for each operation,
+ * so verifying a batch of chains does not repeat the provider lookup for every signature.
  */
 public class AgencySignatureService {
 
     private static final Logger logger = Logger.getLogger(AgencySignatureService.class);
     private static final String SIGNATURE_ALGORITHM = "Ed25519";
 
+    private static final ThreadLocal<Signature> SIGNATURE = ThreadLocal.withInitial(() -> {
+        try {
+            return Signature.getInstance(SIGNATURE_ALGORITHM);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Signature algorithm " + SIGNATURE_ALGORITHM + " not available", e);
+        }
+    });
+
     public String sign(PrivateKey privateKey, String data) {
         try {
-            Signature signature = Signature.getInstance(SIGNATURE_ALGORITHM);
+            Signature signature = SIGNATURE.get();
             signature.initSign(privateKey);
             signature.update(data.getBytes());
             return Base64.getUrlEncoder().withoutPadding().encodeToString(signature.sign());
@@ -29,7 +40,8 @@ public class AgencySignatureService {
 
     public boolean verify(PublicKey publicKey, String data, String signatureBase64) {
         try {
-            Signature signature = Signature.getInstance(SIGNATURE_ALGORITHM);
+            // initVerify resets the engine, also after a previous failed operation on this thread
+            Signature signature = SIGNATURE.get();
             signature.initVerify(publicKey);
             signature.update(data.getBytes());
             return signature.verify(Base64.getUrlDecoder().decode(signatureBase64));
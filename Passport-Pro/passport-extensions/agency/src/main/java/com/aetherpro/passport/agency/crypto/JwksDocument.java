@@ -0,0 +1,68 @@
+package com.aetherpro.passport.agency.crypto;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+
+/**
+ * Serialized JWKS of the agency issuer keys of a realm, with a strong entity tag over its bytes.
+ */
+public class JwksDocument {
+
+    private final byte[] content;
+    private final String etag;
+    private final int maxAgeSeconds;
+
+    public JwksDocument(byte[] content, int maxAgeSeconds) {
+        this.content = content;
+        this.etag = computeEtag(content);
+        this.maxAgeSeconds = maxAgeSeconds;
+    }
+
+    public byte[] getContent() {
+        return content;
+    }
+
+    /**
+     * Opaque tag value, without quotes, which changes whenever the content changes.
+     */
+    public String getEtag() {
+        return etag;
+    }
+
+    /**
+     * Time in seconds relying parties may use the document without revalidating it.
+     */
+    public int getMaxAgeSeconds() {
+        return maxAgeSeconds;
+    }
+
+    /**
+     * Whether the value of an {@code If-None-Match} header matches this document.
+     */
+    public boolean matches(String ifNoneMatch) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (String tag : ifNoneMatch.split(",")) {
+            tag = tag.trim();
+            // Weak comparison as required for If-None-Match (RFC 9110, 13.1.2)
+            if (tag.startsWith("W/")) {
+                tag = tag.substring(2);
+            }
+            if (tag.equals("*") || tag.equals("\"" + etag + "\"")) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String computeEtag(byte[] content) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(content);
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package com.aetherpro.passport.agency.crypto;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Node-local cache of the serialized agency JWKS of each realm.
+ *
+ * The document is only rebuilt after a keypair of the realm was saved or rotated, which drops the entry of
+ * the realm on every cluster node together with the other agency caches.
+ */
+public class JwksDocumentCache {
+
+    public static final int DEFAULT_MAX_AGE_SECONDS = 300;
+
+    private final ConcurrentMap<String, JwksDocument> documents = new ConcurrentHashMap<>();
+
+    // Bumped on every invalidation, documents built concurrently with an invalidation are not cached
+    private final AtomicLong revision = new AtomicLong();
+
+    private final int maxAgeSeconds;
+
+    public JwksDocumentCache(int maxAgeSeconds) {
+        this.maxAgeSeconds = maxAgeSeconds;
+    }
+
+    /**
+     * Returns the JWKS of the realm, building it on a miss. The builder may return {@code null} if the
+     * document could not be built, in which case nothing is cached.
+     */
+    public JwksDocument get(String realmId, Supplier<JwksDocument> builder) {
+        JwksDocument document = documents.get(realmId);
+        if (document != null) {
+            return document;
+        }
+
+        long startRevision = revision.get();
+        document = builder.get();
+
+        if (document != null && revision.get() == startRevision) {
+            documents.put(realmId, document);
+        }
+        return document;
+    }
+
+    /**
+     * Time in seconds relying parties may use a fetched JWKS without revalidating it, see {@link JwksDocument}.
+     */
+    public int getMaxAgeSeconds() {
+        return maxAgeSeconds;
+    }
+
+    public void invalidateRealm(String realmId) {
+        revision.incrementAndGet();
+        documents.remove(realmId);
+    }
+
+    public void clear() {
+        revision.incrementAndGet();
+        documents.clear();
+    }
+}
@@ -0,0 +1,77 @@
+package com.aetherpro.passport.agency.crypto;
+
+import com.aetherpro.passport.agency.jpa.AgencyKeypairEntity;
+
+import java.security.PublicKey;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Node-local cache of decoded agency public keys by KID.
+ *
+ * A KID is the SHA-256 of its public key, so a cached key can never be wrong for its KID, it can only
+ * outlive its keypair. Entries are dropped per realm whenever keypairs of the realm are generated or rotated,
+ * on every cluster node together with the other agency caches.
+ */
+public class PublicKeyCache {
+
+    public static final int DEFAULT_MAX_ENTRIES = 10_000;
+
+    private final ConcurrentMap<String, CachedKey> keys = new ConcurrentHashMap<>();
+
+    // Bumped on every invalidation, loads which overlap with an invalidation are not cached
+    private final AtomicLong revision = new AtomicLong();
+
+    private final int maxEntries;
+
+    public PublicKeyCache(int maxEntries) {
+        this.maxEntries = maxEntries;
+    }
+
+    /**
+     * Returns the public key for the KID, looking up and decoding the keypair on a miss.
+     *
+     * @return the public key or {@code null} if there is no keypair for the KID
+     */
+    public PublicKey get(String kid, Function<String, AgencyKeypairEntity> lookup, Function<AgencyKeypairEntity, PublicKey> decoder) {
+        CachedKey cached = keys.get(kid);
+        if (cached != null) {
+            return cached.publicKey;
+        }
+
+        long startRevision = revision.get();
+        AgencyKeypairEntity keypair = lookup.apply(kid);
+        if (keypair == null) {
+            return null;
+        }
+        PublicKey publicKey = decoder.apply(keypair);
+
+        if (publicKey != null && revision.get() == startRevision && keys.size() < maxEntries) {
+            keys.putIfAbsent(kid, new CachedKey(keypair.getRealmId(), publicKey));
+        }
+        return publicKey;
+    }
+
+    public void invalidateRealm(String realmId) {
+        revision.incrementAndGet();
+        keys.values().removeIf(cached -> realmId.equals(cached.realmId));
+    }
+
+    public void clear() {
+        revision.incrementAndGet();
+        keys.clear();
+    }
+
+    private static class CachedKey {
+
+        private final String realmId;
+        private final PublicKey publicKey;
+
+        private CachedKey(String realmId, PublicKey publicKey) {
+            this.realmId = realmId;
+            this.publicKey = publicKey;
+        }
+    }
+}
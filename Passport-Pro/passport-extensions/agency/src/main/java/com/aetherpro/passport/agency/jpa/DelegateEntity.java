@@ -26,6 +26,14 @@ import java.time.Instant;
     @NamedQuery(
         name = "DelegateEntity.findActiveByAgentAndPrincipal",
         query = "SELECT d FROM DelegateEntity d WHERE d.agentId = :agentId AND d.principalId = :principalId AND d.active = true AND d.revokedAt IS NULL AND (d.validUntil IS NULL OR d.validUntil > :now)"
+    ),
+    @NamedQuery(
+        name = "DelegateEntity.findEnabledGrantsByAgent",
+        query = "SELECT d, m FROM DelegateEntity d LEFT JOIN MandateEntity m ON m.delegateId = d.id AND m.active = true WHERE d.agentId = :agentId AND d.active = true"
+    ),
+    @NamedQuery(
+        name = "DelegateEntity.findAgencyContextByAgent",
+        query = "SELECT d, p, m, a FROM DelegateEntity d JOIN PrincipalEntity p ON p.id = d.principalId LEFT JOIN MandateEntity m ON m.delegateId = d.id AND m.active = true LEFT JOIN AgentPassportEntity a ON a.principalId = p.id AND a.active = true WHERE d.agentId = :agentId AND d.active = true ORDER BY d.createdAt DESC"
     )
 })
 public class DelegateEntity implements DelegateModel {
@@ -1,17 +1,27 @@
 package com.aetherpro.passport.agency.jpa;
 
 import com.aetherpro.passport.agency.*;
+import com.aetherpro.passport.agency.cache.AgencyContextCache;
+import com.aetherpro.passport.agency.cache.AgencyDecisionIndex;
+import com.aetherpro.passport.agency.cache.AgencyInvalidationEvent;
+import com.aetherpro.passport.agency.cache.MandateUsageAccumulator;
 import com.aetherpro.passport.agency.crypto.AgencyKeyManager;
 import com.aetherpro.passport.agency.crypto.AgencySignatureService;
+import com.aetherpro.passport.agency.crypto.JwksDocument;
+import com.aetherpro.passport.agency.crypto.JwksDocumentCache;
+import com.aetherpro.passport.agency.crypto.PublicKeyCache;
 import com.aetherpro.passport.agency.crypto.SignedAction;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.NoResultException;
 import jakarta.persistence.TypedQuery;
 import org.jboss.logging.Logger;
+import org.passport.cluster.ClusterProvider;
+import org.passport.models.AbstractPassportTransaction;
 import org.passport.models.PassportSession;
 import org.passport.models.RealmModel;
 import org.passport.models.UserModel;
+import org.passport.models.UserSessionModel;
 import org.passport.models.utils.PassportModelUtils;
 
 import java.security.PrivateKey;
@@ -32,12 +42,27 @@ public class JpaAgencyProvider implements AgencyProvider {
     private final EntityManager em;
     private final AgencyKeyManager keyManager;
     private final AgencySignatureService signatureService;
-
-    public JpaAgencyProvider(PassportSession session, EntityManager em) {
+    private final AgencyDecisionIndex decisionIndex;
+    private final AgencyContextCache contextCache;
+    private final MandateUsageAccumulator usageAccumulator;
+    private final PublicKeyCache publicKeyCache;
+    private final JwksDocumentCache jwksCache;
+
+    // Realms whose delegates or mandates were changed in this session, the index is bypassed until commit
+    private final Set<String> invalidatedRealms = new HashSet<>();
+
+    public JpaAgencyProvider(PassportSession session, EntityManager em, AgencyDecisionIndex decisionIndex,
+                             AgencyContextCache contextCache, MandateUsageAccumulator usageAccumulator,
+                             PublicKeyCache publicKeyCache, JwksDocumentCache jwksCache) {
         this.session = session;
         this.em = em;
-        this.keyManager = new AgencyKeyManager(em);
+        this.keyManager = new AgencyKeyManager(em, publicKeyCache, this::invalidate);
         this.signatureService = new AgencySignatureService();
+        this.decisionIndex = decisionIndex;
+        this.contextCache = contextCache;
+        this.usageAccumulator = usageAccumulator;
+        this.publicKeyCache = publicKeyCache;
+        this.jwksCache = jwksCache;
     }
 
     @Override
@@ -164,6 +189,7 @@ public class JpaAgencyProvider implements AgencyProvider {
             entity.setUpdatedAt(Instant.now());
             em.merge(entity);
             em.flush();
+            invalidate(entity.getRealmId());
         }
     }
 
@@ -177,6 +203,7 @@ public class JpaAgencyProvider implements AgencyProvider {
             entity.setUpdatedAt(Instant.now());
             em.merge(entity);
             em.flush();
+            invalidate(entity.getRealmId());
             logger.infof("Suspended principal %s: %s", principalId, reason);
         }
     }
@@ -191,6 +218,7 @@ public class JpaAgencyProvider implements AgencyProvider {
             entity.setUpdatedAt(Instant.now());
             em.merge(entity);
             em.flush();
+            invalidate(entity.getRealmId());
             logger.infof("Activated principal %s", principalId);
         }
     }
@@ -206,6 +234,7 @@ public class JpaAgencyProvider implements AgencyProvider {
         if (entity != null) {
             em.remove(entity);
             em.flush();
+            invalidate(entity.getRealmId());
             logger.infof("Deleted principal %s", principalId);
         }
     }
@@ -217,6 +246,7 @@ public class JpaAgencyProvider implements AgencyProvider {
                                         String constraints, Instant validFrom, Instant validUntil) {
         DelegateEntity entity = new DelegateEntity();
         entity.setId(PassportModelUtils.generateId());
+        entity.setRealmId(principal.getRealmId());
         entity.setAgentId(agent.getId());
         entity.setPrincipalId(principal.getId());
         entity.setType(type);
@@ -228,6 +258,7 @@ public class JpaAgencyProvider implements AgencyProvider {
 
         em.persist(entity);
         em.flush();
+        invalidate(entity.getRealmId());
 
         logger.debugf("Created delegate %s: agent %s -> principal %s",
                 entity.getId(), agent.getId(), principal.getId());
@@ -324,6 +355,7 @@ public class JpaAgencyProvider implements AgencyProvider {
             entity.setValidUntil(delegate.getValidUntil());
             em.merge(entity);
             em.flush();
+            invalidate(entity.getRealmId());
         }
     }
 
@@ -336,6 +368,7 @@ public class JpaAgencyProvider implements AgencyProvider {
             entity.setRevocationReason(reason);
             em.merge(entity);
             em.flush();
+            invalidate(entity.getRealmId());
             logger.infof("Revoked delegate %s: %s", delegateId, reason);
         }
     }
@@ -346,6 +379,7 @@ public class JpaAgencyProvider implements AgencyProvider {
         if (entity != null) {
             em.remove(entity);
             em.flush();
+            invalidate(entity.getRealmId());
         }
     }
 
@@ -371,6 +405,7 @@ public class JpaAgencyProvider implements AgencyProvider {
 
         em.persist(entity);
         em.flush();
+        invalidate(entity.getRealmId());
 
         // CRYPTOGRAPHIC SIGNATURE: Principal signs the mandate
         try {
@@ -510,24 +545,23 @@ public class JpaAgencyProvider implements AgencyProvider {
             return MandateValidationResult.requires2FA();
         }
 
-        // Validation passed - update usage
-        Integer currentCount = entity.getUsageCount() != null ? entity.getUsageCount() : 0;
-        entity.setUsageCount(currentCount + 1);
-        entity.setLastUsedAt(now);
-        em.merge(entity);
+        // Validation passed - record usage
+        usageAccumulator.record(mandateId, now);
 
         return MandateValidationResult.valid();
     }
 
     @Override
     public void recordMandateUsage(String mandateId) {
+        // Buffered in memory and written in batches by MandateUsageFlushTask
+        usageAccumulator.record(mandateId, Instant.now());
+    }
+
+    @Override
+    public long getMandateUsageCount(String mandateId) {
         MandateEntity entity = em.find(MandateEntity.class, mandateId);
-        if (entity != null) {
-            Integer currentCount = entity.getUsageCount() != null ? entity.getUsageCount() : 0;
-            entity.setUsageCount(currentCount + 1);
-            entity.setLastUsedAt(Instant.now());
-            em.merge(entity);
-        }
+        long persisted = entity != null && entity.getUsageCount() != null ? entity.getUsageCount() : 0;
+        return persisted + usageAccumulator.getPendingCount(mandateId);
     }
 
     @Override
@@ -539,6 +573,7 @@ public class JpaAgencyProvider implements AgencyProvider {
             entity.setSuspensionReason(reason);
             em.merge(entity);
             em.flush();
+            invalidate(entity.getRealmId());
         }
     }
 
@@ -553,6 +588,7 @@ public class JpaAgencyProvider implements AgencyProvider {
         if (entity != null) {
             em.remove(entity);
             em.flush();
+            invalidate(entity.getRealmId());
         }
     }
 
@@ -656,6 +692,7 @@ public class JpaAgencyProvider implements AgencyProvider {
 
         em.persist(entity);
         em.flush();
+        invalidate(entity.getRealmId());
 
         // CRYPTOGRAPHIC SIGNATURE CHAIN: Complete 3-party signing
         try {
@@ -790,6 +827,7 @@ public class JpaAgencyProvider implements AgencyProvider {
             entity.setRevocationReason(reason);
             em.merge(entity);
             em.flush();
+            invalidate(entity.getRealmId());
         }
     }
 
@@ -804,6 +842,7 @@ public class JpaAgencyProvider implements AgencyProvider {
         if (entity != null) {
             em.remove(entity);
             em.flush();
+            invalidate(entity.getRealmId());
         }
     }
 
@@ -811,21 +850,78 @@ public class JpaAgencyProvider implements AgencyProvider {
 
     @Override
     public AgencyContext getAgencyContext(UserModel user) {
-        List<DelegateModel> activeDelegates = getActiveDelegatesForAgent(user);
+        return loadAgencyContext(user.getId());
+    }
 
-        if (activeDelegates.isEmpty()) {
+    @Override
+    public AgencyContext getAgencyContext(UserSessionModel userSession) {
+        if (!invalidatedRealms.isEmpty()) {
+            return loadAgencyContext(userSession.getUser().getId());
+        }
+        return contextCache.get(userSession.getId(), userSession.getRealm().getId(),
+                () -> loadAgencyContext(userSession.getUser().getId()));
+    }
+
+    /**
+     * Builds the agency context from a single query returning the enabled delegations of the agent
+     * joined with their principal, active mandates and the principal's active passports.
+     */
+    private AgencyContext loadAgencyContext(String agentId) {
+        List<Object[]> rows = em.createNamedQuery("DelegateEntity.findAgencyContextByAgent", Object[].class)
+                .setParameter("agentId", agentId)
+                .getResultList();
+
+        if (rows.isEmpty()) {
             return new AgencyContext();  // Empty context - no agency relationships
         }
 
-        // Build context from active delegates
+        // The joins multiply rows per delegation, collect each entity once keeping the query order
+        Map<String, DelegateEntity> delegates = new LinkedHashMap<>();
+        Map<String, PrincipalEntity> principals = new HashMap<>();
+        Map<String, Map<String, MandateEntity>> mandatesByDelegate = new HashMap<>();
+        Map<String, Map<String, AgentPassportEntity>> passportsByPrincipal = new HashMap<>();
+        for (Object[] row : rows) {
+            DelegateEntity delegate = (DelegateEntity) row[0];
+            PrincipalEntity principal = (PrincipalEntity) row[1];
+            MandateEntity mandate = (MandateEntity) row[2];
+            AgentPassportEntity passport = (AgentPassportEntity) row[3];
+
+            delegates.putIfAbsent(delegate.getId(), delegate);
+            principals.putIfAbsent(principal.getId(), principal);
+            Map<String, MandateEntity> mandates = mandatesByDelegate.computeIfAbsent(delegate.getId(), id -> new LinkedHashMap<>());
+            if (mandate != null) {
+                mandates.putIfAbsent(mandate.getId(), mandate);
+            }
+            Map<String, AgentPassportEntity> passports = passportsByPrincipal.computeIfAbsent(principal.getId(), id -> new LinkedHashMap<>());
+            if (passport != null) {
+                passports.putIfAbsent(passport.getId(), passport);
+            }
+        }
+
+        List<AgencyContext.Delegation> delegations = new ArrayList<>();
         List<AgencyContext.PrincipalReference> representing = new ArrayList<>();
         Set<String> allScopes = new HashSet<>();
 
-        for (DelegateModel delegate : activeDelegates) {
-            PrincipalEntity principal = em.find(PrincipalEntity.class, delegate.getPrincipalId());
-            if (principal != null && principal.isActive()) {
-                // Get mandates for this delegate
-                List<MandateModel> mandates = getMandatesForDelegate(delegate.getId());
+        for (DelegateEntity delegate : delegates.values()) {
+            PrincipalEntity principal = principals.get(delegate.getPrincipalId());
+            Collection<MandateEntity> mandates = mandatesByDelegate.get(delegate.getId()).values();
+
+            delegations.add(new AgencyContext.Delegation(
+                    delegate.getId(),
+                    delegate.getType(),
+                    principal.getId(),
+                    principal.getName(),
+                    principal.getType(),
+                    mandates.stream()
+                            .map(m -> new AgencyContext.MandateReference(m.getId(), m.getScope(), m.getValidUntil()))
+                            .collect(Collectors.toList()),
+                    passportsByPrincipal.get(principal.getId()).values().stream()
+                            .map(a -> new AgencyContext.PassportReference(a.getId(), a.getPrincipalId(),
+                                    a.getCapabilities(), a.getExpiresAt()))
+                            .collect(Collectors.toList())
+            ));
+
+            if (delegate.isCurrentlyValid() && principal.isActive()) {
                 Set<String> delegateScopes = mandates.stream()
                         .filter(MandateModel::isCurrentlyValid)
                         .map(MandateModel::getScope)
@@ -841,33 +937,110 @@ public class JpaAgencyProvider implements AgencyProvider {
         }
 
         AgencyContext context = new AgencyContext();
-        context.setAgent(true);
+        context.setAgent(!representing.isEmpty());
         context.setRepresenting(representing);
         context.setActiveScopes(allScopes);
+        context.setDelegations(delegations);
         return context;
     }
 
     @Override
     public AgencyDecision evaluateAgencyAccess(UserModel user, String principalId,
                                                 String action, String resource, String context) {
+        AgencyDecisionIndex.AgentGrants grants = invalidatedRealms.isEmpty()
+                ? decisionIndex.get(user.getId(), this::loadAgentGrants)
+                : loadAgentGrants(user.getId());
+        Instant now = Instant.now();
+
         // Check if user has active delegation for this principal
-        if (!isValidDelegate(user, principalId, action)) {
+        if (!grants.isValidDelegate(principalId, now)) {
             return AgencyDecision.deny("No active delegation for principal " + principalId);
         }
 
-        // Find active mandates that cover this action
-        List<MandateModel> mandates = getActiveMandatesForAgent(user, action);
+        // Find an active mandate of this principal that covers the action
+        String mandateId = grants.findMandate(principalId, action, now);
+        if (mandateId != null) {
+            recordMandateUsage(mandateId);
+            return AgencyDecision.allow(mandateId, principalId);
+        }
+
+        return AgencyDecision.deny("No mandate covers action '" + action + "' on resource '" + resource + "'");
+    }
 
-        for (MandateModel mandate : mandates) {
-            // Check if mandate is for the requested principal
-            DelegateEntity delegate = em.find(DelegateEntity.class, mandate.getDelegateId());
-            if (delegate != null && delegate.getPrincipalId().equals(principalId)) {
-                recordMandateUsage(mandate.getId());
-                return AgencyDecision.allow(mandate.getId(), principalId);
+    /**
+     * Loads all enabled delegations of the agent together with their active mandates in one query.
+     * Validity windows are kept in the result and checked at decision time.
+     */
+    private AgencyDecisionIndex.AgentGrants loadAgentGrants(String agentId) {
+        List<Object[]> rows = em.createNamedQuery("DelegateEntity.findEnabledGrantsByAgent", Object[].class)
+                .setParameter("agentId", agentId)
+                .getResultList();
+
+        if (rows.isEmpty()) {
+            return AgencyDecisionIndex.AgentGrants.EMPTY;
+        }
+
+        Map<String, DelegateEntity> delegates = new LinkedHashMap<>();
+        Map<String, List<AgencyDecisionIndex.MandateGrant>> mandatesByDelegate = new HashMap<>();
+        for (Object[] row : rows) {
+            DelegateEntity delegate = (DelegateEntity) row[0];
+            MandateEntity mandate = (MandateEntity) row[1];
+            delegates.putIfAbsent(delegate.getId(), delegate);
+            List<AgencyDecisionIndex.MandateGrant> mandates = mandatesByDelegate.computeIfAbsent(delegate.getId(), id -> new ArrayList<>());
+            if (mandate != null) {
+                mandates.add(new AgencyDecisionIndex.MandateGrant(mandate.getId(), mandate.getScope(),
+                        mandate.getValidFrom(), mandate.getValidUntil()));
             }
         }
 
-        return AgencyDecision.deny("No mandate covers action '" + action + "' on resource '" + resource + "'");
+        String realmId = null;
+        Map<String, List<AgencyDecisionIndex.DelegationGrant>> byPrincipal = new HashMap<>();
+        for (DelegateEntity delegate : delegates.values()) {
+            realmId = realmId != null ? realmId : delegate.getRealmId();
+            byPrincipal.computeIfAbsent(delegate.getPrincipalId(), id -> new ArrayList<>())
+                    .add(new AgencyDecisionIndex.DelegationGrant(delegate.getId(), delegate.getValidFrom(),
+                            delegate.getValidUntil(), List.copyOf(mandatesByDelegate.get(delegate.getId()))));
+        }
+        byPrincipal.replaceAll((principalId, grants) -> List.copyOf(grants));
+
+        return new AgencyDecisionIndex.AgentGrants(realmId, Map.copyOf(byPrincipal));
+    }
+
+    /**
+     * Drops the decision index entries of the realm on all nodes once this session's transaction completes.
+     */
+    private void invalidate(String realmId) {
+        if (realmId == null) {
+            return;
+        }
+        if (invalidatedRealms.isEmpty()) {
+            session.getTransactionManager().enlistAfterCompletion(new AbstractPassportTransaction() {
+                @Override
+                protected void commitImpl() {
+                    runInvalidations();
+                }
+
+                @Override
+                protected void rollbackImpl() {
+                    runInvalidations();
+                }
+            });
+        }
+        invalidatedRealms.add(realmId);
+    }
+
+    private void runInvalidations() {
+        invalidatedRealms.forEach(decisionIndex::invalidateRealm);
+        invalidatedRealms.forEach(contextCache::invalidateRealm);
+        invalidatedRealms.forEach(publicKeyCache::invalidateRealm);
+        invalidatedRealms.forEach(jwksCache::invalidateRealm);
+
+        ClusterProvider cluster = session.getProvider(ClusterProvider.class);
+        List<AgencyInvalidationEvent> events = invalidatedRealms.stream()
+                .map(AgencyInvalidationEvent::new)
+                .collect(Collectors.toList());
+        cluster.notify(AgencyDecisionIndex.AGENCY_INVALIDATION_EVENTS, events, true);
+        invalidatedRealms.clear();
     }
 
     // ========== CRYPTO & SIGNATURE CHAIN ==========
@@ -897,6 +1070,46 @@ public class JpaAgencyProvider implements AgencyProvider {
         return query.getResultList();
     }
 
+    @Override
+    public JwksDocument getJwks(RealmModel realm) {
+        if (invalidatedRealms.contains(realm.getId())) {
+            return buildJwks(realm);
+        }
+        return jwksCache.get(realm.getId(), () -> buildJwks(realm));
+    }
+
+    private JwksDocument buildJwks(RealmModel realm) {
+        List<Map<String, Object>> keys = new ArrayList<>();
+        try {
+            for (AgencyKeypairEntity keypair : getKeypairs(realm, "ISSUER", realm.getId())) {
+                if ("ACTIVE".equals(keypair.getStatus())) {
+                    keys.add(buildJwk(keypair, "sig"));
+                }
+            }
+            logger.debugf("JWKS: Built document with %d active keys for realm %s", keys.size(), realm.getName());
+            return new JwksDocument(MAPPER.writeValueAsBytes(Map.of("keys", keys)), jwksCache.getMaxAgeSeconds());
+        } catch (Exception e) {
+            logger.error("Error building JWKS for realm " + realm.getName(), e);
+            return null;
+        }
+    }
+
+    /**
+     * Build a JWK (JSON Web Key) object for Ed25519 public key
+     */
+    private Map<String, Object> buildJwk(AgencyKeypairEntity keypair, String use) {
+        Map<String, Object> jwk = new LinkedHashMap<>();
+        jwk.put("kty", "OKP"); // Octet Key Pair (for EdDSA)
+        jwk.put("crv", "Ed25519");
+        jwk.put("kid", keypair.getKid());
+        jwk.put("alg", "EdDSA");
+        jwk.put("use", use);
+        jwk.put("x", Base64.getUrlEncoder().withoutPadding().encodeToString(keypair.getPublicKeyBytes()));
+        jwk.put("entity_type", keypair.getEntityType());
+        jwk.put("entity_id", keypair.getEntityId());
+        return jwk;
+    }
+
     @Override
     public String signAction(RealmModel realm, String delegateKid, String actionData) {
         AgencyKeypairEntity keypair = getKeypair(delegateKid)
@@ -912,39 +1125,53 @@ public class JpaAgencyProvider implements AgencyProvider {
     public boolean verifySignatureChain(String signedActionJson) {
         try {
             SignedAction signedAction = MAPPER.readValue(signedActionJson, SignedAction.class);
+            return verifyChain(signedAction);
+        } catch (Exception e) {
+            logger.error("Signature chain verification failed", e);
+            return false;
+        }
+    }
 
-            // 1. Verify Delegate Signature
-            AgencyKeypairEntity delegateKey = getKeypair(signedAction.getDelegateKid())
-                    .orElseThrow(() -> new RuntimeException("Delegate key not found"));
-            PublicKey delegatePub = keyManager.getPublicKey(delegateKey).orElseThrow();
-            if (!signatureService.verify(delegatePub, signedAction.getActionData(), signedAction.getDelegateSignature())) {
-                logger.warn("Invalid delegate signature");
-                return false;
+    @Override
+    public List<Boolean> verifyAll(List<SignedAction> signedActions) {
+        List<Boolean> results = new ArrayList<>(signedActions.size());
+        for (SignedAction signedAction : signedActions) {
+            try {
+                results.add(verifyChain(signedAction));
+            } catch (Exception e) {
+                logger.error("Signature chain verification failed", e);
+                results.add(false);
             }
+        }
+        return results;
+    }
 
-            // 2. Verify Principal Signature (signing the Delegate's KID)
-            AgencyKeypairEntity principalKey = getKeypair(signedAction.getPrincipalKid())
-                    .orElseThrow(() -> new RuntimeException("Principal key not found"));
-            PublicKey principalPub = keyManager.getPublicKey(principalKey).orElseThrow();
-            if (!signatureService.verify(principalPub, signedAction.getDelegateKid(), signedAction.getPrincipalSignature())) {
-                logger.warn("Invalid principal signature on delegate key");
-                return false;
-            }
+    private boolean verifyChain(SignedAction signedAction) {
+        // 1. Verify Delegate Signature
+        PublicKey delegatePub = keyManager.getPublicKey(signedAction.getDelegateKid())
+                .orElseThrow(() -> new RuntimeException("Delegate key not found"));
+        if (!signatureService.verify(delegatePub, signedAction.getActionData(), signedAction.getDelegateSignature())) {
+            logger.warn("Invalid delegate signature");
+            return false;
+        }
 
-            // 3. Verify Issuer Signature (signing the Principal's KID)
-            AgencyKeypairEntity issuerKey = getKeypair(signedAction.getIssuerKid())
-                    .orElseThrow(() -> new RuntimeException("Issuer key not found"));
-            PublicKey issuerPub = keyManager.getPublicKey(issuerKey).orElseThrow();
-            if (!signatureService.verify(issuerPub, signedAction.getPrincipalKid(), signedAction.getIssuerSignature())) {
-                logger.warn("Invalid issuer signature on principal key");
-                return false;
-            }
+        // 2. Verify Principal Signature (signing the Delegate's KID)
+        PublicKey principalPub = keyManager.getPublicKey(signedAction.getPrincipalKid())
+                .orElseThrow(() -> new RuntimeException("Principal key not found"));
+        if (!signatureService.verify(principalPub, signedAction.getDelegateKid(), signedAction.getPrincipalSignature())) {
+            logger.warn("Invalid principal signature on delegate key");
+            return false;
+        }
 
-            return true;
-        } catch (Exception e) {
-            logger.error("Signature chain verification failed", e);
+        // 3. Verify Issuer Signature (signing the Principal's KID)
+        PublicKey issuerPub = keyManager.getPublicKey(signedAction.getIssuerKid())
+                .orElseThrow(() -> new RuntimeException("Issuer key not found"));
+        if (!signatureService.verify(issuerPub, signedAction.getPrincipalKid(), signedAction.getIssuerSignature())) {
+            logger.warn("Invalid issuer signature on principal key");
             return false;
         }
+
+        return true;
     }
 
     @Override
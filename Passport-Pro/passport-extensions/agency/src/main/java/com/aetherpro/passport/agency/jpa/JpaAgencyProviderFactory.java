@@ -2,52 +2,174 @@ package com.aetherpro.passport.agency.jpa;
 
 import com.aetherpro.passport.agency.AgencyProvider;
 import com.aetherpro.passport.agency.AgencyProviderFactory;
+import com.aetherpro.passport.agency.cache.AgencyContextCache;
+import com.aetherpro.passport.agency.cache.AgencyDecisionIndex;
+import com.aetherpro.passport.agency.cache.AgencyInvalidationEvent;
+import com.aetherpro.passport.agency.cache.MandateUsageAccumulator;
+import com.aetherpro.passport.agency.cache.MandateUsageFlushTask;
+import com.aetherpro.passport.agency.crypto.JwksDocumentCache;
+import com.aetherpro.passport.agency.crypto.PublicKeyCache;
 import jakarta.persistence.EntityManager;
 import org.passport.Config;
+import org.passport.cluster.ClusterEvent;
+import org.passport.cluster.ClusterProvider;
 import org.passport.connections.jpa.JpaConnectionProvider;
 import org.passport.models.PassportSession;
 import org.passport.models.PassportSessionFactory;
+import org.passport.provider.Provider;
+import org.passport.provider.ProviderConfigProperty;
+import org.passport.provider.ProviderConfigurationBuilder;
+import org.passport.timer.TimerProvider;
+
+import java.util.List;
+import java.util.Set;
 
 /**
  * Factory for JPA Agency Provider
- * 
+ *
  * Follows Passport's JpaUserProviderFactory pattern exactly:
  * - Gets EntityManager from JpaConnectionProvider
  * - Creates provider with session and em
+ *
+ * The decision index, the agency context cache, the public key and JWKS caches and the mandate usage
+ * accumulator are shared by all providers of this node.
  */
 public class JpaAgencyProviderFactory implements AgencyProviderFactory {
-    
+
     public static final String PROVIDER_ID = "jpa-agency";
     public static final int PROVIDER_PRIORITY = 1;
-    
+
+    public static final String USAGE_FLUSH_INTERVAL = "usageFlushInterval";
+    public static final int DEFAULT_USAGE_FLUSH_INTERVAL_SECONDS = 10;
+
+    public static final String CONTEXT_CACHE_MAX_ENTRIES = "contextCacheMaxEntries";
+    public static final String CONTEXT_CACHE_LIFESPAN = "contextCacheLifespan";
+    public static final String PUBLIC_KEY_CACHE_MAX_ENTRIES = "publicKeyCacheMaxEntries";
+    public static final String JWKS_MAX_AGE = "jwksMaxAge";
+
+    private static final String USAGE_FLUSH_TASK_NAME = "AgencyMandateUsageFlush";
+
+    private AgencyDecisionIndex decisionIndex;
+    private AgencyContextCache contextCache;
+    private PublicKeyCache publicKeyCache;
+    private JwksDocumentCache jwksCache;
+    private final MandateUsageAccumulator usageAccumulator = new MandateUsageAccumulator();
+    private volatile boolean listenerRegistered;
+    private long usageFlushIntervalMillis;
+    private MandateUsageFlushTask usageFlushTask;
+
     @Override
     public AgencyProvider create(PassportSession session) {
+        lazyInit(session);
         EntityManager em = session.getProvider(JpaConnectionProvider.class).getEntityManager();
-        return new JpaAgencyProvider(session, em);
+        return new JpaAgencyProvider(session, em, decisionIndex, contextCache, usageAccumulator, publicKeyCache, jwksCache);
     }
-    
+
+    private void lazyInit(PassportSession session) {
+        if (!listenerRegistered) {
+            synchronized (this) {
+                if (!listenerRegistered) {
+                    ClusterProvider cluster = session.getProvider(ClusterProvider.class);
+                    cluster.registerListener(AgencyDecisionIndex.AGENCY_INVALIDATION_EVENTS, (ClusterEvent event) -> {
+                        if (event instanceof AgencyInvalidationEvent invalidation) {
+                            decisionIndex.invalidateRealm(invalidation.getRealmId());
+                            contextCache.invalidateRealm(invalidation.getRealmId());
+                            publicKeyCache.invalidateRealm(invalidation.getRealmId());
+                            jwksCache.invalidateRealm(invalidation.getRealmId());
+                        }
+                    });
+                    listenerRegistered = true;
+                }
+            }
+        }
+    }
+
     @Override
     public void init(Config.Scope config) {
-        // No configuration needed
+        decisionIndex = new AgencyDecisionIndex(config.getInt("decisionIndexMaxEntries", AgencyDecisionIndex.DEFAULT_MAX_ENTRIES));
+        contextCache = new AgencyContextCache(
+                config.getInt(CONTEXT_CACHE_MAX_ENTRIES, AgencyContextCache.DEFAULT_MAX_ENTRIES),
+                config.getInt(CONTEXT_CACHE_LIFESPAN, AgencyContextCache.DEFAULT_LIFESPAN_SECONDS));
+        publicKeyCache = new PublicKeyCache(config.getInt(PUBLIC_KEY_CACHE_MAX_ENTRIES, PublicKeyCache.DEFAULT_MAX_ENTRIES));
+        jwksCache = new JwksDocumentCache(config.getInt(JWKS_MAX_AGE, JwksDocumentCache.DEFAULT_MAX_AGE_SECONDS));
+        // The flush interval bounds how much mandate usage can be lost if a node stops abruptly
+        usageFlushIntervalMillis = Math.max(1, config.getInt(USAGE_FLUSH_INTERVAL, DEFAULT_USAGE_FLUSH_INTERVAL_SECONDS)) * 1000L;
     }
-    
+
     @Override
     public void postInit(PassportSessionFactory factory) {
-        // No post-initialization needed
+        usageFlushTask = new MandateUsageFlushTask(factory, usageAccumulator);
+        try (PassportSession session = factory.create()) {
+            TimerProvider timer = session.getProvider(TimerProvider.class);
+            if (timer != null) {
+                timer.schedule(usageFlushTask, usageFlushIntervalMillis, USAGE_FLUSH_TASK_NAME);
+            }
+        }
     }
-    
+
     @Override
     public void close() {
-        // Nothing to close at factory level
+        // Closed before the JPA connection provider (see dependsOn), so the pending usage can still be written
+        if (usageFlushTask != null) {
+            usageFlushTask.run();
+        }
     }
-    
+
     @Override
     public String getId() {
         return PROVIDER_ID;
     }
-    
+
     @Override
     public int order() {
         return PROVIDER_PRIORITY;
     }
+
+    @Override
+    public Set<Class<? extends Provider>> dependsOn() {
+        return Set.of(JpaConnectionProvider.class, TimerProvider.class);
+    }
+
+    @Override
+    public List<ProviderConfigProperty> getConfigMetadata() {
+        return ProviderConfigurationBuilder.create()
+                .property()
+                    .name("decisionIndexMaxEntries")
+                    .type(ProviderConfigProperty.INTEGER_TYPE)
+                    .helpText("Maximum number of agents kept in the in-memory agency decision index.")
+                    .defaultValue(AgencyDecisionIndex.DEFAULT_MAX_ENTRIES)
+                    .add()
+                .property()
+                    .name(CONTEXT_CACHE_MAX_ENTRIES)
+                    .type(ProviderConfigProperty.INTEGER_TYPE)
+                    .helpText("Maximum number of user sessions whose agency context is kept in memory.")
+                    .defaultValue(AgencyContextCache.DEFAULT_MAX_ENTRIES)
+                    .add()
+                .property()
+                    .name(CONTEXT_CACHE_LIFESPAN)
+                    .type(ProviderConfigProperty.INTEGER_TYPE)
+                    .helpText("Time in seconds after which the cached agency context of a user session is reloaded.")
+                    .defaultValue(AgencyContextCache.DEFAULT_LIFESPAN_SECONDS)
+                    .add()
+                .property()
+                    .name(PUBLIC_KEY_CACHE_MAX_ENTRIES)
+                    .type(ProviderConfigProperty.INTEGER_TYPE)
+                    .helpText("Maximum number of decoded agency public keys kept in memory for signature verification.")
+                    .defaultValue(PublicKeyCache.DEFAULT_MAX_ENTRIES)
+                    .add()
+                .property()
+                    .name(JWKS_MAX_AGE)
+                    .type(ProviderConfigProperty.INTEGER_TYPE)
+                    .helpText("Cache-Control max-age in seconds of the agency JWKS. Relying parties revalidate with the ETag afterwards.")
+                    .defaultValue(JwksDocumentCache.DEFAULT_MAX_AGE_SECONDS)
+                    .add()
+                .property()
+                    .name(USAGE_FLUSH_INTERVAL)
+                    .type(ProviderConfigProperty.INTEGER_TYPE)
+                    .helpText("Interval in seconds in which buffered mandate usage is written to the database. "
+                            + "This is also the maximum window of usage lost if a node stops abruptly.")
+                    .defaultValue(DEFAULT_USAGE_FLUSH_INTERVAL_SECONDS)
+                    .add()
+                .build();
+    }
 }
@@ -56,10 +56,11 @@ public class MandateEntity implements MandateModel {
     @Column(name = "VALID_UNTIL")
     private Instant validUntil;
     
-    @Column(name = "USAGE_COUNT")
+    // Only incremented by MandateUsageFlushTask, never written back by entity updates
+    @Column(name = "USAGE_COUNT", updatable = false)
     private Integer usageCount = 0;
     
-    @Column(name = "LAST_USED_AT")
+    @Column(name = "LAST_USED_AT", updatable = false)
     private Instant lastUsedAt;
     
     @Column(name = "CREATED_AT", nullable = false)
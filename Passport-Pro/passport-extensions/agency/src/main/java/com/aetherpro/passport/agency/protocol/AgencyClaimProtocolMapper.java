@@ -17,11 +17,10 @@
 package com.aetherpro.passport.agency.protocol;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Optional;
-import java.util.stream.Collectors;
 
 import org.passport.models.ClientSessionContext;
 import org.passport.models.PassportSession;
@@ -41,12 +40,9 @@ import org.passport.provider.ProviderConfigProperty;
 import org.passport.representations.AccessTokenResponse;
 import org.passport.representations.IDToken;
 
+import com.aetherpro.passport.agency.AgencyContext;
 import com.aetherpro.passport.agency.AgencyProvider;
 import com.aetherpro.passport.agency.AgencyRealmConfig;
-import com.aetherpro.passport.agency.AgentPassport;
-import com.aetherpro.passport.agency.DelegateModel;
-import com.aetherpro.passport.agency.MandateModel;
-import com.aetherpro.passport.agency.PrincipalModel;
 
 /**
  * OIDC Protocol Mapper that adds Agency/LBAC context to access tokens.
@@ -189,50 +185,39 @@ public class AgencyClaimProtocolMapper extends AbstractOIDCProtocolMapper
         
         Map<String, Object> agencyClaim = new HashMap<>();
         
-        // Get all delegates for this user
-        List<DelegateModel> delegates = agencyProvider.getDelegatesForAgent(user);
+        // Enabled delegations with their principal, mandates and passports, loaded once per user session
+        List<AgencyContext.Delegation> delegations = agencyProvider.getAgencyContext(userSession).getDelegations();
+        if (delegations == null) {
+            delegations = Collections.emptyList();
+        }
         
         // Add delegate principals
-        if (includePrincipals && delegates != null && !delegates.isEmpty()) {
-            List<Map<String, Object>> principalsList = delegates.stream()
-                .filter(DelegateModel::isActive)
-                .map(delegate -> {
-                    Optional<PrincipalModel> principalOpt = agencyProvider.getPrincipal(realm, delegate.getPrincipalId());
-                    if (!principalOpt.isPresent()) return null;
-                    PrincipalModel principal = principalOpt.get();
-                    Map<String, Object> p = new HashMap<>();
-                    p.put("id", principal.getId());
-                    p.put("name", principal.getName());
-                    p.put("type", principal.getType().name().toLowerCase());
-                    p.put("delegate_id", delegate.getId());
-                    p.put("delegate_type", delegate.getType().name().toLowerCase());
-                    return p;
-                })
-                .filter(p -> p != null)
-                .collect(Collectors.toList());
-            
-            if (!principalsList.isEmpty()) {
-                agencyClaim.put("principals", principalsList);
+        if (includePrincipals && !delegations.isEmpty()) {
+            List<Map<String, Object>> principalsList = new ArrayList<>();
+            for (AgencyContext.Delegation delegation : delegations) {
+                Map<String, Object> p = new HashMap<>();
+                p.put("id", delegation.getPrincipalId());
+                p.put("name", delegation.getPrincipalName());
+                p.put("type", delegation.getPrincipalType().name().toLowerCase());
+                p.put("delegate_id", delegation.getDelegateId());
+                p.put("delegate_type", delegation.getDelegateType().name().toLowerCase());
+                principalsList.add(p);
             }
+            agencyClaim.put("principals", principalsList);
         }
         
         // Add active mandates
-        if (includeMandates && delegates != null) {
+        if (includeMandates) {
             List<Map<String, Object>> mandatesList = new ArrayList<>();
-            for (DelegateModel delegate : delegates) {
-                if (!delegate.isActive()) continue;
-                List<MandateModel> mandates = agencyProvider.getMandatesForDelegate(delegate);
-                if (mandates != null) {
-                    for (MandateModel mandate : mandates) {
-                        if (!mandate.isActive()) continue;
-                        Map<String, Object> m = new HashMap<>();
-                        m.put("id", mandate.getId());
-                        m.put("scope", mandate.getScope());
-                        m.put("principal_id", delegate.getPrincipalId());
-                        m.put("valid_until", mandate.getValidUntil() != null ? 
-                            mandate.getValidUntil().toEpochMilli() : null);
-                        mandatesList.add(m);
-                    }
+            for (AgencyContext.Delegation delegation : delegations) {
+                for (AgencyContext.MandateReference mandate : delegation.getMandates()) {
+                    Map<String, Object> m = new HashMap<>();
+                    m.put("id", mandate.getMandateId());
+                    m.put("scope", mandate.getScope());
+                    m.put("principal_id", delegation.getPrincipalId());
+                    m.put("valid_until", mandate.getValidUntil() != null ? 
+                        mandate.getValidUntil().toEpochMilli() : null);
+                    mandatesList.add(m);
                 }
             }
             if (!mandatesList.isEmpty()) {
@@ -240,26 +225,18 @@ public class AgencyClaimProtocolMapper extends AbstractOIDCProtocolMapper
             }
         }
         
-        // Add agent passports (for AI agents) - check if user has associated passports via their delegates
-        if (includePassports && delegates != null) {
+        // Add agent passports (for AI agents) of the principals the user is a delegate for
+        if (includePassports) {
             List<Map<String, Object>> passportsList = new ArrayList<>();
-            for (DelegateModel delegate : delegates) {
-                if (!delegate.isActive()) continue;
-                Optional<PrincipalModel> principalOpt = agencyProvider.getPrincipal(realm, delegate.getPrincipalId());
-                if (!principalOpt.isPresent()) continue;
-                
-                List<AgentPassport> passports = agencyProvider.getAgentPassportsForPrincipal(principalOpt.get());
-                if (passports != null) {
-                    for (AgentPassport passport : passports) {
-                        if (!passport.isActive()) continue;
-                        Map<String, Object> pp = new HashMap<>();
-                        pp.put("id", passport.getId());
-                        pp.put("principal_id", passport.getPrincipalId());
-                        pp.put("capabilities", passport.getCapabilities());
-                        pp.put("valid_until", passport.getExpiresAt() != null ? 
-                            passport.getExpiresAt().toEpochMilli() : null);
-                        passportsList.add(pp);
-                    }
+            for (AgencyContext.Delegation delegation : delegations) {
+                for (AgencyContext.PassportReference passport : delegation.getPassports()) {
+                    Map<String, Object> pp = new HashMap<>();
+                    pp.put("id", passport.getPassportId());
+                    pp.put("principal_id", passport.getPrincipalId());
+                    pp.put("capabilities", passport.getCapabilities());
+                    pp.put("valid_until", passport.getExpiresAt() != null ? 
+                        passport.getExpiresAt().toEpochMilli() : null);
+                    passportsList.add(pp);
                 }
             }
             if (!passportsList.isEmpty()) {
@@ -1,21 +1,20 @@
 package com.aetherpro.passport.agency.protocol;
 
 import com.aetherpro.passport.agency.AgencyProvider;
-import com.aetherpro.passport.agency.jpa.AgencyKeypairEntity;
+import com.aetherpro.passport.agency.crypto.JwksDocument;
 import jakarta.ws.rs.GET;
+import jakarta.ws.rs.HeaderParam;
 import jakarta.ws.rs.Path;
 import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.core.CacheControl;
+import jakarta.ws.rs.core.EntityTag;
+import jakarta.ws.rs.core.HttpHeaders;
 import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Response;
 import org.jboss.logging.Logger;
 import org.passport.models.PassportSession;
 import org.passport.models.RealmModel;
 
-import java.util.ArrayList;
-import java.util.Base64;
-import java.util.HashMap;
-import java.util.List;
-import java.util.Map;
-
 /**
  * JWKS (JSON Web Key Set) endpoint for Agency public keys
  *
@@ -23,6 +22,9 @@ import java.util.Map;
  * without requiring authentication. Services can verify Agent Passport
  * signatures by fetching keys from this endpoint.
  *
+ * The serialized document is cached per realm and served with a strong ETag,
+ * so polling relying parties get a 304 until a key is saved or rotated.
+ *
  * URL: GET /realms/{realm}/agency/jwks
  */
 public class AgencyJwksEndpoint {
@@ -46,66 +48,39 @@ public class AgencyJwksEndpoint {
     @GET
     @Path("/jwks")
     @Produces(MediaType.APPLICATION_JSON)
-    public Map<String, Object> getJwks() {
+    public Response getJwks(@HeaderParam(HttpHeaders.IF_NONE_MATCH) String ifNoneMatch) {
         AgencyProvider agency = session.getProvider(AgencyProvider.class);
-
-        List<Map<String, Object>> keys = new ArrayList<>();
-
-        try {
-            // Get issuer (realm) keypair
-            List<AgencyKeypairEntity> issuerKeys = agency.getKeypairs(realm, "ISSUER", realm.getId());
-            for (AgencyKeypairEntity keypair : issuerKeys) {
-                if ("ACTIVE".equals(keypair.getStatus())) {
-                    keys.add(buildJwk(keypair, "sig", "Issuer key for " + realm.getName()));
-                }
-            }
-
-            logger.debugf("Returning %d active keys for realm %s", keys.size(), realm.getName());
-
-        } catch (Exception e) {
-            logger.error("Error fetching JWKS for realm " + realm.getName(), e);
-        }
-
-        Map<String, Object> jwks = new HashMap<>();
-        jwks.put("keys", keys);
-        return jwks;
+        return toResponse(agency.getJwks(realm), ifNoneMatch);
     }
 
     /**
-     * Build a JWK (JSON Web Key) object for Ed25519 public key
+     * Builds the response for a JWKS request, {@code 304 Not Modified} if the client already has the document.
      */
-    private Map<String, Object> buildJwk(AgencyKeypairEntity keypair, String use, String description) {
-        Map<String, Object> jwk = new HashMap<>();
-
-        // Key type
-        jwk.put("kty", "OKP"); // Octet Key Pair (for EdDSA)
-
-        // Curve
-        jwk.put("crv", "Ed25519");
-
-        // Key ID
-        jwk.put("kid", keypair.getKid());
-
-        // Algorithm
-        jwk.put("alg", "EdDSA");
-
-        // Use (sig = signature, enc = encryption)
-        jwk.put("use", use);
+    public static Response toResponse(JwksDocument jwks, String ifNoneMatch) {
+        if (jwks == null) {
+            logger.debug("JWKS not available, returning an empty key set");
+            return Response.ok("{\"keys\":[]}", MediaType.APPLICATION_JSON_TYPE)
+                    .cacheControl(noCache())
+                    .build();
+        }
 
-        // Public key (base64url encoded)
-        String publicKeyBase64 = Base64.getUrlEncoder()
-                .withoutPadding()
-                .encodeToString(keypair.getPublicKeyBytes());
-        jwk.put("x", publicKeyBase64);
+        CacheControl cacheControl = new CacheControl();
+        cacheControl.setNoTransform(false);
+        cacheControl.setMaxAge(jwks.getMaxAgeSeconds());
+        EntityTag etag = new EntityTag(jwks.getEtag());
 
-        // Metadata
-        if (description != null) {
-            jwk.put("x5t", description); // Certificate thumbprint field repurposed for description
+        if (jwks.matches(ifNoneMatch)) {
+            return Response.notModified(etag).cacheControl(cacheControl).build();
         }
+        return Response.ok(jwks.getContent(), MediaType.APPLICATION_JSON_TYPE)
+                .tag(etag)
+                .cacheControl(cacheControl)
+                .build();
+    }
 
-        jwk.put("entity_type", keypair.getEntityType());
-        jwk.put("entity_id", keypair.getEntityId());
-
-        return jwk;
+    private static CacheControl noCache() {
+        CacheControl cacheControl = new CacheControl();
+        cacheControl.setNoCache(true);
+        return cacheControl;
     }
 }
@@ -82,11 +82,19 @@ public final class AuthorizationProvider implements Provider {
     private StoreFactory storeFactoryDelegate;
     private final PassportSession passportSession;
     private final RealmModel realm;
+    private final int evaluationThreads;
+    private final int evaluationPermissionsPerThread;
 
     public AuthorizationProvider(PassportSession session, RealmModel realm, PolicyEvaluator policyEvaluator) {
+        this(session, realm, policyEvaluator, 1, Integer.MAX_VALUE);
+    }
+
+    public AuthorizationProvider(PassportSession session, RealmModel realm, PolicyEvaluator policyEvaluator, int evaluationThreads, int evaluationPermissionsPerThread) {
         this.passportSession = session;
         this.realm = realm;
         this.policyEvaluator = policyEvaluator;
+        this.evaluationThreads = evaluationThreads;
+        this.evaluationPermissionsPerThread = evaluationPermissionsPerThread;
     }
 
     /**
@@ -170,6 +178,24 @@ public final class AuthorizationProvider implements Provider {
         return realm;
     }
 
+    /**
+     * Returns the maximum number of threads evaluating the permissions of a single request.
+     *
+     * @return the maximum number of threads, {@code 1} if permissions are only evaluated in the calling thread
+     */
+    public int getEvaluationThreads() {
+        return evaluationThreads;
+    }
+
+    /**
+     * Returns the minimum number of permissions evaluated by each thread when permissions are evaluated in parallel.
+     *
+     * @return the minimum number of permissions per thread
+     */
+    public int getEvaluationPermissionsPerThread() {
+        return evaluationPermissionsPerThread;
+    }
+
     public PolicyEvaluator getPolicyEvaluator(ResourceServer resourceServer) {
         PolicyEvaluator schemaPolicyEvaluator = AdminPermissionsSchema.SCHEMA.getPolicyEvaluator(passportSession, resourceServer);
         return schemaPolicyEvaluator == null ? policyEvaluator : schemaPolicyEvaluator;
@@ -456,6 +482,11 @@ public final class AuthorizationProvider implements Provider {
             public void findByResourceType(ResourceServer resourceServer, String type, Consumer<Policy> policyConsumer) {
                 policyStore.findByResourceType(resourceServer, type, policyConsumer);
             }
+
+            @Override
+            public void findByResourcesOfType(ResourceServer resourceServer, String type, Consumer<Policy> policyConsumer) {
+                policyStore.findByResourcesOfType(resourceServer, type, policyConsumer);
+            }
         };
     }
 
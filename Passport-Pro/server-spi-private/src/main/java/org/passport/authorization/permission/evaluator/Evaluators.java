@@ -19,11 +19,14 @@
 package org.passport.authorization.permission.evaluator;
 
 import java.util.Collection;
+import java.util.List;
+import java.util.function.Function;
 
 import org.passport.authorization.AuthorizationProvider;
 import org.passport.authorization.model.ResourceServer;
 import org.passport.authorization.permission.ResourcePermission;
 import org.passport.authorization.policy.evaluation.EvaluationContext;
+import org.passport.models.PassportSession;
 import org.passport.representations.idm.authorization.AuthorizationRequest;
 
 /**
@@ -47,6 +50,29 @@ public final class Evaluators {
         return new IterablePermissionEvaluator(permissions.iterator(), resourceServer, evaluationContext, authorizationProvider);
     }
 
+    /**
+     * Returns a {@link PermissionEvaluator} for the given permissions that evaluates them in parallel if more than one
+     * thread is enabled by {@link AuthorizationProvider#getEvaluationThreads()} and each thread gets at least
+     * {@link AuthorizationProvider#getEvaluationPermissionsPerThread()} permissions. Otherwise, the permissions are
+     * evaluated sequentially in the calling thread.
+     *
+     * @param permissions the permissions to evaluate
+     * @param resourceServer the resource server of the permissions
+     * @param evaluationContext the context to evaluate the permissions in the calling thread
+     * @param evaluationContextFactory creates an equivalent context for the session of another thread
+     * @return the permission evaluator
+     */
+    public PermissionEvaluator from(List<ResourcePermission> permissions, ResourceServer resourceServer, EvaluationContext evaluationContext,
+            Function<PassportSession, EvaluationContext> evaluationContextFactory) {
+        int threads = Math.min(authorizationProvider.getEvaluationThreads(), permissions.size() / authorizationProvider.getEvaluationPermissionsPerThread());
+
+        if (threads < 2) {
+            return new IterablePermissionEvaluator(permissions.iterator(), resourceServer, evaluationContext, authorizationProvider);
+        }
+
+        return new ParallelPermissionEvaluator(permissions, resourceServer, evaluationContext, evaluationContextFactory, authorizationProvider, threads);
+    }
+
     public PermissionEvaluator from(EvaluationContext evaluationContext, ResourceServer resourceServer, AuthorizationRequest request) {
         return new UnboundedPermissionEvaluator(evaluationContext, authorizationProvider, resourceServer, request);
     }
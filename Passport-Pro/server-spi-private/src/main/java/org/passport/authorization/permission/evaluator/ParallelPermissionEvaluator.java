@@ -0,0 +1,213 @@
+/*
+ * Copyright 2026 Red Hat, Inc. and/or its affiliates
+ * and other contributors as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.passport.authorization.permission.evaluator;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.function.Function;
+
+import org.passport.authorization.AuthorizationProvider;
+import org.passport.authorization.Decision;
+import org.passport.authorization.model.Resource;
+import org.passport.authorization.model.ResourceServer;
+import org.passport.authorization.model.Scope;
+import org.passport.authorization.permission.ResourcePermission;
+import org.passport.authorization.policy.evaluation.EvaluationContext;
+import org.passport.authorization.store.ResourceStore;
+import org.passport.authorization.store.ScopeStore;
+import org.passport.authorization.store.StoreFactory;
+import org.passport.executors.ExecutorsProvider;
+import org.passport.models.ClientModel;
+import org.passport.models.PassportSession;
+import org.passport.models.PassportSessionFactory;
+import org.passport.models.RealmModel;
+import org.passport.models.utils.PassportModelUtils;
+import org.passport.representations.idm.authorization.AuthorizationRequest;
+import org.passport.representations.idm.authorization.Permission;
+
+/**
+ * A {@link PermissionEvaluator} that splits the permissions into consecutive partitions and evaluates them in
+ * parallel.
+ * <p>
+ * A {@link PassportSession} must not be shared between threads, so the first partition is evaluated in the calling
+ * thread and each other partition in a thread of the {@link #EXECUTOR_NAME} executor, in a session of its own. The
+ * permissions of these partitions are resolved again in the new session, and the {@link EvaluationContext} is created
+ * for it by the given factory. Each partition is collected by its own
+ * {@link org.passport.authorization.policy.evaluation.DecisionPermissionCollector} and decision cache, and the granted
+ * permissions are merged in the order of the partitions, so the result does not depend on the order in which the
+ * partitions complete.
+ * <p>
+ * Only {@link #evaluate(ResourceServer, AuthorizationRequest)} is evaluated in parallel. Arbitrary decisions can not be
+ * merged, so they are evaluated sequentially in the calling thread.
+ */
+class ParallelPermissionEvaluator implements PermissionEvaluator {
+
+    static final String EXECUTOR_NAME = "authz-permission-evaluation";
+
+    private final List<ResourcePermission> permissions;
+    private final ResourceServer resourceServer;
+    private final EvaluationContext executionContext;
+    private final Function<PassportSession, EvaluationContext> executionContextFactory;
+    private final AuthorizationProvider authorizationProvider;
+    private final int threads;
+
+    ParallelPermissionEvaluator(List<ResourcePermission> permissions, ResourceServer resourceServer, EvaluationContext executionContext,
+            Function<PassportSession, EvaluationContext> executionContextFactory, AuthorizationProvider authorizationProvider, int threads) {
+        this.permissions = permissions;
+        this.resourceServer = resourceServer;
+        this.executionContext = executionContext;
+        this.executionContextFactory = executionContextFactory;
+        this.authorizationProvider = authorizationProvider;
+        this.threads = threads;
+    }
+
+    @Override
+    public Decision evaluate(Decision decision) {
+        return new IterablePermissionEvaluator(permissions.iterator(), resourceServer, executionContext, authorizationProvider).evaluate(decision);
+    }
+
+    @Override
+    public Collection<Permission> evaluate(ResourceServer resourceServer, AuthorizationRequest request) {
+        List<List<ResourcePermission>> partitions = partition();
+        PassportSession session = authorizationProvider.getPassportSession();
+        PassportSessionFactory sessionFactory = session.getPassportSessionFactory();
+        ExecutorService executor = session.getProvider(ExecutorsProvider.class).getExecutor(EXECUTOR_NAME);
+        String realmId = authorizationProvider.getRealm().getId();
+        ClientModel client = session.getContext().getClient();
+        String clientId = client == null ? null : client.getId();
+        String resourceServerId = resourceServer.getId();
+        List<CompletableFuture<Collection<Permission>>> running = new ArrayList<>(partitions.size() - 1);
+
+        for (List<ResourcePermission> partition : partitions.subList(1, partitions.size())) {
+            // permissions are bound to the calling session, only pass their identifiers to other threads
+            List<PermissionReference> references = partition.stream().map(PermissionReference::new).toList();
+
+            running.add(CompletableFuture.supplyAsync(() -> PassportModelUtils.runJobInTransactionWithResult(sessionFactory,
+                    workerSession -> evaluate(workerSession, realmId, clientId, resourceServerId, references, request)), executor));
+        }
+
+        Set<Permission> results = new LinkedHashSet<>(new IterablePermissionEvaluator(partitions.get(0).iterator(), resourceServer, executionContext, authorizationProvider)
+                .evaluate(resourceServer, request));
+
+        for (CompletableFuture<Collection<Permission>> partition : running) {
+            results.addAll(join(partition));
+        }
+
+        return results;
+    }
+
+    @Override
+    public <D extends Decision<?>> D getDecision(ResourceServer resourceServer, AuthorizationRequest request, Class<D> decisionType) {
+        return new IterablePermissionEvaluator(permissions.iterator(), resourceServer, executionContext, authorizationProvider)
+                .getDecision(resourceServer, request, decisionType);
+    }
+
+    private Collection<Permission> evaluate(PassportSession session, String realmId, String clientId, String resourceServerId,
+            List<PermissionReference> references, AuthorizationRequest request) {
+        RealmModel realm = session.realms().getRealm(realmId);
+        session.getContext().setRealm(realm);
+
+        if (clientId != null) {
+            session.getContext().setClient(realm.getClientById(clientId));
+        }
+
+        AuthorizationProvider authorization = session.getProvider(AuthorizationProvider.class);
+        StoreFactory storeFactory = authorization.getStoreFactory();
+        ResourceServer resourceServer = storeFactory.getResourceServerStore().findById(resourceServerId);
+        ResourceStore resourceStore = storeFactory.getResourceStore();
+        ScopeStore scopeStore = storeFactory.getScopeStore();
+        List<ResourcePermission> permissions = new ArrayList<>(references.size());
+
+        for (PermissionReference reference : references) {
+            Resource resource = null;
+
+            if (reference.resourceId() != null) {
+                resource = resourceStore.findById(resourceServer, reference.resourceId());
+
+                if (resource == null) {
+                    // removed after the permissions were resolved
+                    continue;
+                }
+            }
+
+            Set<Scope> scopes = new LinkedHashSet<>();
+
+            for (String scopeId : reference.scopeIds()) {
+                Scope scope = scopeStore.findById(resourceServer, scopeId);
+
+                if (scope != null) {
+                    scopes.add(scope);
+                }
+            }
+
+            ResourcePermission permission = new ResourcePermission(reference.resourceType(), resource, scopes, resourceServer, reference.claims());
+
+            permission.setGranted(reference.granted());
+            permissions.add(permission);
+        }
+
+        return new IterablePermissionEvaluator(permissions.iterator(), resourceServer, executionContextFactory.apply(session), authorization)
+                .evaluate(resourceServer, request);
+    }
+
+    private List<List<ResourcePermission>> partition() {
+        int size = (permissions.size() + threads - 1) / threads;
+        List<List<ResourcePermission>> partitions = new ArrayList<>(threads);
+
+        for (int i = 0; i < permissions.size(); i += size) {
+            partitions.add(permissions.subList(i, Math.min(i + size, permissions.size())));
+        }
+
+        return partitions;
+    }
+
+    private static Collection<Permission> join(CompletableFuture<Collection<Permission>> partition) {
+        try {
+            return partition.join();
+        } catch (CompletionException cause) {
+            if (cause.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new RuntimeException("Failed to evaluate permissions", cause.getCause());
+        }
+    }
+
+    private record PermissionReference(String resourceType, String resourceId, List<String> scopeIds, Map<String, Set<String>> claims, boolean granted) {
+
+        PermissionReference(ResourcePermission permission) {
+            this(permission.getResourceType(),
+                    permission.getResource() == null ? null : permission.getResource().getId(),
+                    permission.getScopes().stream().map(Scope::getId).toList(),
+                    copy(permission.getClaims()),
+                    permission.isGranted());
+        }
+
+        private static Map<String, Set<String>> copy(Map<String, Set<String>> claims) {
+            Map<String, Set<String>> copy = new HashMap<>();
+            claims.forEach((name, values) -> copy.put(name, new LinkedHashSet<>(values)));
+            return copy;
+        }
+    }
+}
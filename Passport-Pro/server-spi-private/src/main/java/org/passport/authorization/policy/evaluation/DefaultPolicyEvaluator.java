@@ -102,11 +102,7 @@ public class DefaultPolicyEvaluator implements PolicyEvaluator {
             policyStore.findByResourceType(resourceServer, resource.getType(), policyConsumer);
 
             if (!resource.getOwner().equals(resourceServer.getClientId())) {
-                ResourceStore resourceStore = storeFactory.getResourceStore();
-
-                for (Resource typedResource : resourceStore.findByType(resourceServer, resource.getType())) {
-                    policyStore.findByResource(resourceServer, typedResource, policyConsumer);
-                }
+                policyStore.findByResourcesOfType(resourceServer, resource.getType(), policyConsumer);
             }
         }
     }
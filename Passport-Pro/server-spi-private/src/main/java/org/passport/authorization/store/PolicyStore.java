@@ -139,6 +139,16 @@ public interface PolicyStore {
      */
     void findByResourceType(ResourceServer resourceServer, String type, Consumer<Policy> policyConsumer);
 
+    /**
+     * Searches for policies associated with any {@link org.passport.authorization.model.Resource} of the given <code>type</code>
+     * that is owned by the resource server and passes the result to the consumer. Each policy is passed once.
+     *
+     * @param resourceServer the resourceServer. Cannot be {@code null}.
+     * @param type the type of the resources
+     * @param policyConsumer consumer of policies resulted from the search
+     */
+    void findByResourcesOfType(ResourceServer resourceServer, String type, Consumer<Policy> policyConsumer);
+
     /**
      * Returns a list of {@link Policy} associated with a {@link org.passport.authorization.model.Scope} within the given <code>scope</code>.
      *
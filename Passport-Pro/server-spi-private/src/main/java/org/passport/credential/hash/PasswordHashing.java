@@ -0,0 +1,218 @@
+/*
+ * Copyright 2026 Red Hat, Inc. and/or its affiliates
+ * and other contributors as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.passport.credential.hash;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import org.passport.models.ModelException;
+import org.passport.models.credential.PasswordCredentialModel;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
+import io.opentelemetry.context.Context;
+import org.jboss.logging.Logger;
+
+/**
+ * Runs the hashing of {@link PasswordHashProvider}s on a dedicated pool of threads, sized to the number of cores by
+ * default, so a burst of logins can't occupy every request thread with hashing.
+ * <p>
+ * The calling thread waits for the hash to complete. Virtual threads park while waiting and release their carrier
+ * thread. When more hashes are waiting than the configured maximum, a {@link PasswordHashingRejectedException} is
+ * thrown immediately.
+ * <p>
+ * Until {@link #start(int, int, boolean)} is called, and for calls made from a hashing thread, passwords are hashed
+ * on the calling thread.
+ */
+public final class PasswordHashing {
+
+    private static final Logger logger = Logger.getLogger(PasswordHashing.class);
+
+    private static final String METER_NAME_PREFIX = "passport.credentials.password.hashing.";
+    private static final String METER_ALGORITHM_TAG = "algorithm";
+    private static final String UNKNOWN_ALGORITHM = "unknown";
+
+    private static volatile PasswordHashing instance;
+
+    private final ThreadPoolExecutor executor;
+    private final Timer queueWaitTimer;
+    private final Meter.MeterProvider<Timer> hashTimer;
+    private final Counter rejectedCounter;
+    private final Gauge queueSizeGauge;
+
+    private PasswordHashing(int threads, int maxQueueSize, boolean metricsEnabled) {
+        AtomicInteger counter = new AtomicInteger();
+        executor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(maxQueueSize),
+                r -> new HashingThread(r, "password-hashing-" + counter.incrementAndGet()), new ThreadPoolExecutor.AbortPolicy());
+
+        if (metricsEnabled) {
+            queueWaitTimer = Timer.builder(METER_NAME_PREFIX + "queue.wait")
+                    .description("Time passwords waited for a hashing thread")
+                    .register(Metrics.globalRegistry);
+            hashTimer = Timer.builder(METER_NAME_PREFIX + "duration")
+                    .description("Time spent hashing passwords")
+                    .withRegistry(Metrics.globalRegistry);
+            rejectedCounter = Counter.builder(METER_NAME_PREFIX + "rejected")
+                    .description("Passwords not hashed because the hashing queue was full")
+                    .register(Metrics.globalRegistry);
+            queueSizeGauge = Gauge.builder(METER_NAME_PREFIX + "queue.size", executor, e -> e.getQueue().size())
+                    .description("Passwords waiting for a hashing thread")
+                    .register(Metrics.globalRegistry);
+        } else {
+            queueWaitTimer = null;
+            hashTimer = null;
+            rejectedCounter = null;
+            queueSizeGauge = null;
+        }
+    }
+
+    /**
+     * Starts hashing passwords on {@code threads} threads, with at most {@code maxQueueSize} passwords waiting for a
+     * thread. Replaces the threads started before, if any.
+     */
+    public static synchronized void start(int threads, int maxQueueSize, boolean metricsEnabled) {
+        stop();
+        instance = new PasswordHashing(threads, Math.max(1, maxQueueSize), metricsEnabled);
+        logger.debugf("Hashing passwords on %d threads with at most %d passwords waiting", threads, maxQueueSize);
+    }
+
+    /**
+     * Stops the hashing threads once the passwords already submitted are hashed and removes their metrics. Passwords
+     * are hashed on the calling thread afterwards.
+     */
+    public static synchronized void stop() {
+        PasswordHashing current = instance;
+        if (current == null) {
+            return;
+        }
+        instance = null;
+        current.executor.shutdown();
+        if (current.queueWaitTimer != null) {
+            Metrics.globalRegistry.remove(current.queueWaitTimer);
+            Metrics.globalRegistry.remove(current.rejectedCounter);
+            Metrics.globalRegistry.remove(current.queueSizeGauge);
+            Metrics.globalRegistry.find(METER_NAME_PREFIX + "duration").timers().forEach(Metrics.globalRegistry::remove);
+        }
+    }
+
+    /**
+     * Verifies the password with the given provider, see {@link PasswordHashProvider#verify(String, PasswordCredentialModel)}.
+     *
+     * @throws PasswordHashingRejectedException if too many passwords are waiting to be hashed
+     */
+    public static boolean verify(PasswordHashProvider provider, String rawPassword, PasswordCredentialModel credential) {
+        String algorithm = credential.getPasswordCredentialData().getAlgorithm();
+        return execute(() -> provider.verify(rawPassword, credential), valid -> algorithm);
+    }
+
+    /**
+     * Hashes the password with the given provider, see {@link PasswordHashProvider#encodedCredential(String, int)}.
+     *
+     * @throws PasswordHashingRejectedException if too many passwords are waiting to be hashed
+     */
+    public static PasswordCredentialModel encodedCredential(PasswordHashProvider provider, String rawPassword, int iterations) {
+        return execute(() -> provider.encodedCredential(rawPassword, iterations),
+                credential -> credential.getPasswordCredentialData().getAlgorithm());
+    }
+
+    static int queueSize() {
+        PasswordHashing current = instance;
+        return current == null ? 0 : current.executor.getQueue().size();
+    }
+
+    private static <T> T execute(Callable<T> task, Function<T, String> algorithm) {
+        PasswordHashing current = instance;
+        if (current == null || Thread.currentThread() instanceof HashingThread) {
+            return call(task);
+        }
+        return current.submit(task, algorithm);
+    }
+
+    private <T> T submit(Callable<T> task, Function<T, String> algorithm) {
+        long queuedAt = System.nanoTime();
+        Callable<T> measured = () -> {
+            long startedAt = System.nanoTime();
+            T result = task.call();
+            if (queueWaitTimer != null) {
+                queueWaitTimer.record(startedAt - queuedAt, TimeUnit.NANOSECONDS);
+                String name = algorithm.apply(result);
+                hashTimer.withTags(METER_ALGORITHM_TAG, name == null ? UNKNOWN_ALGORITHM : name)
+                        .record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
+            }
+            return result;
+        };
+
+        Future<T> future;
+        try {
+            future = executor.submit(Context.current().wrap(measured));
+        } catch (RejectedExecutionException e) {
+            if (executor.isShutdown()) {
+                return call(task);
+            }
+            if (rejectedCounter != null) {
+                rejectedCounter.increment();
+            }
+            throw new PasswordHashingRejectedException("Too many passwords waiting to be hashed");
+        }
+
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new ModelException("Interrupted while waiting for the password to be hashed", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException re) {
+                throw re;
+            }
+            if (cause instanceof Error error) {
+                throw error;
+            }
+            throw new ModelException(cause.getMessage(), cause);
+        }
+    }
+
+    private static <T> T call(Callable<T> task) {
+        try {
+            return task.call();
+        } catch (RuntimeException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new ModelException(e.getMessage(), e);
+        }
+    }
+
+    private static final class HashingThread extends Thread {
+
+        HashingThread(Runnable target, String name) {
+            super(target, name);
+            setDaemon(true);
+        }
+    }
+}
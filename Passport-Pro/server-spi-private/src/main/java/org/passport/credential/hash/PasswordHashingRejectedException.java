@@ -0,0 +1,31 @@
+/*
+ * Copyright 2026 Red Hat, Inc. and/or its affiliates
+ * and other contributors as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.passport.credential.hash;
+
+import org.passport.models.ModelException;
+
+/**
+ * Thrown when a password can't be hashed because the queue of {@link PasswordHashing} is full. Callers should fail
+ * the request as temporarily unavailable instead of treating the password as invalid.
+ */
+public class PasswordHashingRejectedException extends ModelException {
+
+    public PasswordHashingRejectedException(String message) {
+        super(message);
+    }
+}
@@ -17,5 +17,32 @@ public interface ResourceTypeSelector {
      */
     List<String> getResourceIds(Workflow workflow);
 
+    /**
+     * Finds the resources that are eligible for the first action of a workflow, in the order of their ids.
+     *
+     * @param fromResourceId only resources with an id greater than this are returned, or {@code null} to start with the first resource.
+     * @param maxResults the maximum number of returned resources.
+     * @return A list of eligible resource IDs.
+     */
+    List<String> getResourceIds(Workflow workflow, String fromResourceId, int maxResults);
+
+    /**
+     * Counts the resources that are eligible for the first action of a workflow.
+     *
+     * @return The number of eligible resources.
+     */
+    long getResourceIdsCount(Workflow workflow);
+
+    /**
+     * Schedules the given step of a workflow for eligible resources, without loading the resources. A new execution
+     * of the workflow is started for each resource.
+     *
+     * @param step the step to schedule, usually the first step of the workflow.
+     * @param scheduledAt the time in milliseconds when the step is due.
+     * @param maxResults the maximum number of resources to schedule.
+     * @return The number of resources the step was scheduled for.
+     */
+    int scheduleResources(Workflow workflow, WorkflowStep step, long scheduledAt, int maxResults);
+
     Object resolveResource(String resourceId);
 }
@@ -21,6 +21,7 @@ import java.util.Comparator;
 import java.util.stream.Stream;
 
 import org.passport.provider.Provider;
+import org.passport.representations.workflows.WorkflowActivationRepresentation;
 import org.passport.representations.workflows.WorkflowRepresentation;
 import org.passport.utils.StringUtil;
 
@@ -69,6 +70,27 @@ public interface WorkflowProvider extends Provider {
 
     void activateForAllEligibleResources(Workflow workflow);
 
+    /**
+     * Starts activating the workflow for all eligible resources in the background, in chunks that are each activated
+     * in their own transaction. Resources for which the workflow is already active are skipped, so an activation that
+     * was interrupted resumes where it stopped when it is started again.
+     * <br/>
+     * If the workflow has a positive {@link Workflow#getNotBefore() notBefore}, the first step of each resource is
+     * scheduled with it. If an activation of the workflow is already running on this server, it is not started again.
+     *
+     * @param workflow the workflow to activate.
+     * @return the progress of the activation.
+     */
+    WorkflowActivationRepresentation startActivationForAllEligibleResources(Workflow workflow);
+
+    /**
+     * Returns the progress of the last activation of the workflow for all eligible resources started on this server.
+     *
+     * @param workflow the workflow.
+     * @return the progress of the activation.
+     */
+    WorkflowActivationRepresentation getActivationForAllEligibleResources(Workflow workflow);
+
     /**
      * Migrates scheduled resources from one workflow step to another. The destination step might be a step in the same
      * workflow or a step in a different workflow.
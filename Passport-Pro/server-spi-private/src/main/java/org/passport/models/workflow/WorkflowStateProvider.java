@@ -17,6 +17,7 @@
 
 package org.passport.models.workflow;
 
+import java.util.List;
 import java.util.stream.Stream;
 
 import org.passport.provider.Provider;
@@ -77,5 +78,27 @@ public interface WorkflowStateProvider extends Provider {
 
     Stream<ScheduledStep> getDueScheduledSteps(Workflow workflow);
 
+    /**
+     * Returns the number of due scheduled steps for the given {@code workflow}, including steps claimed by
+     * {@link #claimDueScheduledSteps(Workflow, int, long)}.
+     *
+     * @param workflow the workflow.
+     * @return the number of due scheduled steps.
+     */
+    long getDueScheduledStepsCount(Workflow workflow);
+
+    /**
+     * Claims up to {@code maxResults} due scheduled steps for the given {@code workflow}, the longest due first. Claimed
+     * steps are leased for {@code leaseTime} milliseconds and are not returned by other calls until the lease expires,
+     * so concurrent callers, like the nodes of a cluster, claim different steps. The lease ends once the step is
+     * rescheduled or removed. If the execution of a step fails, the step is claimed again after the lease expired.
+     *
+     * @param workflow the workflow.
+     * @param maxResults the maximum number of steps to claim.
+     * @param leaseTime the duration of the lease in milliseconds.
+     * @return the claimed steps.
+     */
+    List<ScheduledStep> claimDueScheduledSteps(Workflow workflow, int maxResults, long leaseTime);
+
     record ScheduledStep(String workflowId, String stepId, String resourceId, String executionId, long scheduledAt) {}
 }
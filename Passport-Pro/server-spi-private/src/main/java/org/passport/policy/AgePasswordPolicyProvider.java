@@ -21,6 +21,7 @@ import java.time.Duration;
 
 import org.passport.common.util.Time;
 import org.passport.credential.hash.PasswordHashProvider;
+import org.passport.credential.hash.PasswordHashing;
 import org.passport.models.PassportSession;
 import org.passport.models.PasswordPolicy;
 import org.passport.models.RealmModel;
@@ -58,7 +59,7 @@ public class AgePasswordPolicyProvider implements PasswordPolicyProvider {
                     .anyMatch(passwordCredential -> {
                         PasswordHashProvider hash = session.getProvider(PasswordHashProvider.class,
                                 passwordCredential.getPasswordCredentialData().getAlgorithm());
-                        return hash != null && hash.verify(password, passwordCredential);
+                        return hash != null && PasswordHashing.verify(hash, password, passwordCredential);
                     })) {
                 return new PolicyError(ERROR_MESSAGE, passwordAgePolicyValue);
             }
@@ -71,7 +72,7 @@ public class AgePasswordPolicyProvider implements PasswordPolicyProvider {
                         .anyMatch(passwordCredential -> {
                             PasswordHashProvider hash = session.getProvider(PasswordHashProvider.class,
                                     passwordCredential.getPasswordCredentialData().getAlgorithm());
-                            return hash.verify(password, passwordCredential);
+                            return PasswordHashing.verify(hash, password, passwordCredential);
                         })) {
                     return new PolicyError(ERROR_MESSAGE, passwordAgePolicyValue);
                 }
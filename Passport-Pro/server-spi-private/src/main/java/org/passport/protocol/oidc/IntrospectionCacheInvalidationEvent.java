@@ -0,0 +1,132 @@
+/*
+ * Copyright 2026 Red Hat, Inc. and/or its affiliates
+ * and other contributors as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.passport.protocol.oidc;
+
+import java.util.Objects;
+
+import org.passport.cluster.ClusterEvent;
+
+import org.infinispan.protostream.annotations.ProtoField;
+import org.infinispan.protostream.annotations.ProtoTypeId;
+
+// Send to cluster when a user session, user, token or client changes in a way that makes cached introspection responses stale
+@ProtoTypeId(65623)
+public class IntrospectionCacheInvalidationEvent implements ClusterEvent {
+
+    private String realmId;
+    private String userSessionId;
+    private String userId;
+    private String tokenId;
+    private String clientId;
+
+    @ProtoField(1)
+    public String getRealmId() {
+        return realmId;
+    }
+
+    public void setRealmId(String realmId) {
+        this.realmId = realmId;
+    }
+
+    @ProtoField(2)
+    public String getUserSessionId() {
+        return userSessionId;
+    }
+
+    public void setUserSessionId(String userSessionId) {
+        this.userSessionId = userSessionId;
+    }
+
+    @ProtoField(3)
+    public String getUserId() {
+        return userId;
+    }
+
+    public void setUserId(String userId) {
+        this.userId = userId;
+    }
+
+    @ProtoField(4)
+    public String getTokenId() {
+        return tokenId;
+    }
+
+    public void setTokenId(String tokenId) {
+        this.tokenId = tokenId;
+    }
+
+    /**
+     * The internal id of the client.
+     */
+    @ProtoField(5)
+    public String getClientId() {
+        return clientId;
+    }
+
+    public void setClientId(String clientId) {
+        this.clientId = clientId;
+    }
+
+    public static IntrospectionCacheInvalidationEvent userSessionInvalidated(String realmId, String userSessionId) {
+        IntrospectionCacheInvalidationEvent event = new IntrospectionCacheInvalidationEvent();
+        event.setRealmId(realmId);
+        event.setUserSessionId(userSessionId);
+        return event;
+    }
+
+    public static IntrospectionCacheInvalidationEvent userInvalidated(String realmId, String userId) {
+        IntrospectionCacheInvalidationEvent event = new IntrospectionCacheInvalidationEvent();
+        event.setRealmId(realmId);
+        event.setUserId(userId);
+        return event;
+    }
+
+    public static IntrospectionCacheInvalidationEvent tokenInvalidated(String realmId, String tokenId) {
+        IntrospectionCacheInvalidationEvent event = new IntrospectionCacheInvalidationEvent();
+        event.setRealmId(realmId);
+        event.setTokenId(tokenId);
+        return event;
+    }
+
+    public static IntrospectionCacheInvalidationEvent clientInvalidated(String realmId, String clientId) {
+        IntrospectionCacheInvalidationEvent event = new IntrospectionCacheInvalidationEvent();
+        event.setRealmId(realmId);
+        event.setClientId(clientId);
+        return event;
+    }
+
+    public static IntrospectionCacheInvalidationEvent realmInvalidated(String realmId) {
+        IntrospectionCacheInvalidationEvent event = new IntrospectionCacheInvalidationEvent();
+        event.setRealmId(realmId);
+        return event;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        IntrospectionCacheInvalidationEvent that = (IntrospectionCacheInvalidationEvent) o;
+        return Objects.equals(realmId, that.realmId) && Objects.equals(userSessionId, that.userSessionId) && Objects.equals(userId, that.userId)
+                && Objects.equals(tokenId, that.tokenId) && Objects.equals(clientId, that.clientId);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(realmId, userSessionId, userId, tokenId, clientId);
+    }
+}
@@ -0,0 +1,160 @@
+/*
+ * Copyright 2026 Red Hat, Inc. and/or its affiliates
+ * and other contributors as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.passport.credential.hash;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.passport.models.PasswordPolicy;
+import org.passport.models.credential.PasswordCredentialModel;
+
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.After;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
+
+public class PasswordHashingTest {
+
+    private static final PasswordCredentialModel CREDENTIAL = PasswordCredentialModel.createFromValues("test", new byte[0], 1, "secret");
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    @After
+    public void stop() {
+        PasswordHashing.stop();
+        Metrics.removeRegistry(registry);
+    }
+
+    @Test
+    public void testHashesOnCallingThreadWhenNotStarted() {
+        TestProvider provider = new TestProvider(null);
+
+        assertTrue(PasswordHashing.verify(provider, "secret", CREDENTIAL));
+        assertEquals(Thread.currentThread(), provider.thread);
+    }
+
+    @Test
+    public void testHashesOnHashingThread() {
+        PasswordHashing.start(1, 1, false);
+        TestProvider provider = new TestProvider(null);
+
+        assertEquals("test", PasswordHashing.encodedCredential(provider, "secret", 1).getPasswordCredentialData().getAlgorithm());
+        assertNotEquals(Thread.currentThread(), provider.thread);
+    }
+
+    @Test
+    public void testRejectsWhenQueueIsFull() throws Exception {
+        PasswordHashing.start(1, 1, false);
+        CountDownLatch release = new CountDownLatch(1);
+        TestProvider provider = new TestProvider(release);
+        ExecutorService callers = Executors.newFixedThreadPool(2);
+
+        try {
+            Future<Boolean> running = callers.submit(() -> PasswordHashing.verify(provider, "secret", CREDENTIAL));
+            assertTrue(provider.started.await(10, TimeUnit.SECONDS));
+            Future<Boolean> queued = callers.submit(() -> PasswordHashing.verify(provider, "secret", CREDENTIAL));
+            while (PasswordHashing.queueSize() < 1) {
+                Thread.sleep(10);
+            }
+
+            assertThrows(PasswordHashingRejectedException.class, () -> PasswordHashing.verify(provider, "secret", CREDENTIAL));
+
+            release.countDown();
+            assertTrue(running.get(10, TimeUnit.SECONDS));
+            assertTrue(queued.get(10, TimeUnit.SECONDS));
+        } finally {
+            release.countDown();
+            callers.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testPropagatesProviderExceptions() {
+        PasswordHashing.start(1, 1, false);
+        TestProvider provider = new TestProvider(null);
+
+        assertThrows(IllegalArgumentException.class, () -> PasswordHashing.verify(provider, null, CREDENTIAL));
+    }
+
+    @Test
+    public void testRemovesMetricsOnStop() {
+        Metrics.addRegistry(registry);
+        PasswordHashing.start(1, 1, true);
+        TestProvider provider = new TestProvider(null);
+
+        assertTrue(PasswordHashing.verify(provider, "secret", CREDENTIAL));
+        assertNotNull(registry.find("passport.credentials.password.hashing.duration").tag("algorithm", "test").timer());
+
+        PasswordHashing.stop();
+
+        assertTrue(registry.getMeters().isEmpty());
+        assertTrue(Metrics.globalRegistry.find("passport.credentials.password.hashing.duration").timers().isEmpty());
+    }
+
+    private static final class TestProvider implements PasswordHashProvider {
+
+        private final CountDownLatch release;
+        private final CountDownLatch started = new CountDownLatch(1);
+        private volatile Thread thread;
+
+        TestProvider(CountDownLatch release) {
+            this.release = release;
+        }
+
+        @Override
+        public boolean policyCheck(PasswordPolicy policy, PasswordCredentialModel credential) {
+            return true;
+        }
+
+        @Override
+        public PasswordCredentialModel encodedCredential(String rawPassword, int iterations) {
+            thread = Thread.currentThread();
+            return CREDENTIAL;
+        }
+
+        @Override
+        public boolean verify(String rawPassword, PasswordCredentialModel credential) {
+            thread = Thread.currentThread();
+            if (rawPassword == null) {
+                throw new IllegalArgumentException();
+            }
+            started.countDown();
+            if (release != null) {
+                try {
+                    release.await(10, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            return true;
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
@@ -64,6 +64,21 @@ public interface UserCredentialStore extends Provider {
 
     CredentialModel getStoredCredentialByNameAndType(RealmModel realm, UserModel user, String name, String type);
 
+    /**
+     * Obtains the stored credentials of all users of the realm that match the specified type, ordered by id. Pages
+     * can be read one after the other by passing the id of the last credential of a page as {@code lastCredentialId}.
+     *
+     * @param realm a reference to the realm.
+     * @param type the type of credentials being searched.
+     * @param lastCredentialId only credentials with an id greater than this are returned, or {@code null} to start with the first credential.
+     * @param maxResults maximum number of returned credentials.
+     * @return a non-null {@link Stream} of credentials ordered by id. Stores that can't list the credentials of a
+     * realm return an empty {@link Stream}.
+     */
+    default Stream<CredentialModel> getRealmCredentialsByTypeStream(RealmModel realm, String type, String lastCredentialId, int maxResults) {
+        return Stream.empty();
+    }
+
     //list operations
     boolean moveCredentialTo(RealmModel realm, UserModel user, String id, String newPreviousCredentialId);
 
@@ -47,6 +47,9 @@ public interface UserModel extends RoleMapperModel {
     String GROUPS = "passport.session.realm.users.query.groups";
     String SEARCH = "passport.session.realm.users.query.search";
     String EXACT = "passport.session.realm.users.query.exact";
+    // keyset pagination: only users ordered after the given username and id are searched
+    String SEARCH_AFTER_USERNAME = "passport.session.realm.users.query.search_after_username";
+    String SEARCH_AFTER_ID = "passport.session.realm.users.query.search_after_id";
     String DISABLED_REASON = "disabledReason";
     //attribute name used to mark a temporary admin user/service account as temporary
     String IS_TEMP_ADMIN_ATTR_NAME = "is_temporary_admin";
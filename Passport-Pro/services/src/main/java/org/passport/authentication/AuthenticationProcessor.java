@@ -36,6 +36,7 @@ import org.passport.authentication.authenticators.client.ClientAuthUtil;
 import org.passport.authentication.authenticators.util.AcrStore;
 import org.passport.common.ClientConnection;
 import org.passport.common.util.Time;
+import org.passport.credential.hash.PasswordHashingRejectedException;
 import org.passport.events.Details;
 import org.passport.events.Errors;
 import org.passport.events.EventBuilder;
@@ -903,6 +904,10 @@ public class AuthenticationProcessor {
                 if (e.getResponse() != null) return e.getResponse();
                 return ErrorPage.error(session, authenticationSession, Response.Status.BAD_REQUEST, Messages.INVALID_USER);
             }
+        } else if (failure instanceof PasswordHashingRejectedException) {
+            logger.debug("Failed authentication as the password could not be hashed", failure);
+            event.error(Errors.GENERIC_AUTHENTICATION_ERROR);
+            return ErrorPage.error(session, authenticationSession, Response.Status.SERVICE_UNAVAILABLE, Messages.TEMPORARILY_UNAVAILABLE);
         } else {
             ServicesLogger.LOGGER.failedAuthentication(failure);
             event.error(Errors.INVALID_USER_CREDENTIALS);
@@ -23,6 +23,7 @@ import java.util.Map;
 import org.passport.authentication.AuthenticationFlowContext;
 import org.passport.common.util.Time;
 import org.passport.credential.hash.PasswordHashProvider;
+import org.passport.credential.hash.PasswordHashing;
 import org.passport.events.Errors;
 import org.passport.forms.login.LoginFormsProvider;
 import org.passport.models.Constants;
@@ -78,7 +79,7 @@ public final class AuthenticatorUtils {
             provider = context.getSession().getProvider(PasswordHashProvider.class);
         }
         int iterations = passwordPolicy != null ? passwordPolicy.getHashIterations() : -1;
-        provider.encodedCredential("SlightlyLongerDummyPassword", iterations);
+        PasswordHashing.encodedCredential(provider, "SlightlyLongerDummyPassword", iterations);
     }
 
     /**
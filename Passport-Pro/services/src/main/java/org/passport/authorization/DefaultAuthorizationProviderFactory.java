@@ -18,19 +18,31 @@
 
 package org.passport.authorization;
 
+import java.util.List;
+
 import org.passport.Config;
 import org.passport.authorization.policy.evaluation.DefaultPolicyEvaluator;
 import org.passport.authorization.policy.evaluation.PolicyEvaluator;
 import org.passport.models.PassportSession;
 import org.passport.models.PassportSessionFactory;
 import org.passport.models.RealmModel;
+import org.passport.provider.ProviderConfigProperty;
+import org.passport.provider.ProviderConfigurationBuilder;
 
 /**
  * @author <a href="mailto:psilva@redhat.com">Pedro Igor</a>
  */
 public class DefaultAuthorizationProviderFactory implements AuthorizationProviderFactory {
 
+    public static final String CONFIG_EVALUATION_THREADS = "evaluationThreads";
+    public static final String CONFIG_EVALUATION_PERMISSIONS_PER_THREAD = "evaluationPermissionsPerThread";
+
+    private static final int DEFAULT_EVALUATION_THREADS = 1;
+    private static final int DEFAULT_EVALUATION_PERMISSIONS_PER_THREAD = 500;
+
     private PolicyEvaluator policyEvaluator = new DefaultPolicyEvaluator();
+    private int evaluationThreads;
+    private int evaluationPermissionsPerThread;
 
     @Override
     public AuthorizationProvider create(PassportSession session) {
@@ -39,6 +51,8 @@ public class DefaultAuthorizationProviderFactory implements AuthorizationProvide
 
     @Override
     public void init(Config.Scope config) {
+        evaluationThreads = Math.max(1, config.getInt(CONFIG_EVALUATION_THREADS, DEFAULT_EVALUATION_THREADS));
+        evaluationPermissionsPerThread = Math.max(1, config.getInt(CONFIG_EVALUATION_PERMISSIONS_PER_THREAD, DEFAULT_EVALUATION_PERMISSIONS_PER_THREAD));
     }
 
     @Override
@@ -57,6 +71,24 @@ public class DefaultAuthorizationProviderFactory implements AuthorizationProvide
 
     @Override
     public AuthorizationProvider create(PassportSession session, RealmModel realm) {
-        return new AuthorizationProvider(session, realm, policyEvaluator);
+        return new AuthorizationProvider(session, realm, policyEvaluator, evaluationThreads, evaluationPermissionsPerThread);
+    }
+
+    @Override
+    public List<ProviderConfigProperty> getConfigMetadata() {
+        return ProviderConfigurationBuilder.create()
+                .property()
+                .name(CONFIG_EVALUATION_THREADS)
+                .type("int")
+                .helpText("Maximum number of threads evaluating the permissions of a single authorization request. The default of 1 evaluates all permissions in the request thread.")
+                .defaultValue(DEFAULT_EVALUATION_THREADS)
+                .add()
+                .property()
+                .name(CONFIG_EVALUATION_PERMISSIONS_PER_THREAD)
+                .type("int")
+                .helpText("Minimum number of permissions evaluated by each thread. Requests with fewer permissions are evaluated in the request thread.")
+                .defaultValue(DEFAULT_EVALUATION_PERMISSIONS_PER_THREAD)
+                .add()
+                .build();
     }
 }
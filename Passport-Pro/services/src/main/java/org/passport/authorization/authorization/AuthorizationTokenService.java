@@ -32,6 +32,7 @@ import java.util.Set;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.BiFunction;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 import jakarta.ws.rs.HttpMethod;
@@ -41,6 +42,7 @@ import jakarta.ws.rs.core.Response.Status;
 
 import org.passport.OAuthErrorException;
 import org.passport.authorization.AuthorizationProvider;
+import org.passport.authorization.attribute.Attributes;
 import org.passport.authorization.common.DefaultEvaluationContext;
 import org.passport.authorization.common.PassportIdentity;
 import org.passport.authorization.model.PermissionTicket;
@@ -286,6 +288,13 @@ public class AuthorizationTokenService {
 
     private Collection<Permission> evaluatePermissions(PassportAuthorizationRequest request, PermissionTicketToken ticket, ResourceServer resourceServer, EvaluationContext evaluationContext, PassportIdentity identity) {
         AuthorizationProvider authorization = request.getAuthorization();
+
+        if (authorization.getEvaluationThreads() > 1) {
+            return authorization.evaluators()
+                    .from(new ArrayList<>(createPermissions(ticket, request, resourceServer, authorization, evaluationContext)), resourceServer, evaluationContext, createEvaluationContextFactory(evaluationContext))
+                    .evaluate(resourceServer, request);
+        }
+
         return authorization.evaluators()
                 .from(createPermissions(ticket, request, resourceServer, authorization, evaluationContext), evaluationContext)
                 .evaluate(resourceServer, request);
@@ -300,11 +309,38 @@ public class AuthorizationTokenService {
 
     private Collection<Permission> evaluateAllPermissions(PassportAuthorizationRequest request, ResourceServer resourceServer, EvaluationContext evaluationContext) {
         AuthorizationProvider authorization = request.getAuthorization();
+
+        if (authorization.getEvaluationThreads() > 1) {
+            List<ResourcePermission> permissions = new ArrayList<>();
+
+            Permissions.all(resourceServer, evaluationContext.getIdentity(), authorization, request, permissions::add);
+
+            return authorization.evaluators()
+                    .from(permissions, resourceServer, evaluationContext, createEvaluationContextFactory(evaluationContext))
+                    .evaluate(resourceServer, request);
+        }
+
         return authorization.evaluators()
                 .from(evaluationContext, resourceServer, request)
                 .evaluate(resourceServer, request);
     }
 
+    /**
+     * Creates the context to evaluate permissions in the session of another thread. The identity is a copy of the one
+     * of the given context, and the attributes are the ones of the given context, as the other session has no request.
+     */
+    private Function<PassportSession, EvaluationContext> createEvaluationContextFactory(EvaluationContext evaluationContext) {
+        PassportIdentity identity = PassportIdentity.class.cast(evaluationContext.getIdentity());
+        Attributes attributes = evaluationContext.getAttributes();
+
+        return session -> new DefaultEvaluationContext(new PassportIdentity(identity, session), session) {
+            @Override
+            public Attributes getAttributes() {
+                return attributes;
+            }
+        };
+    }
+
     private AuthorizationResponse createAuthorizationResponse(PassportIdentity identity, Collection<Permission> entitlements, PassportAuthorizationRequest request, ClientModel targetClient) {
         PassportSession passportSession = request.getPassportSession();
         AccessToken accessToken = identity.getAccessToken();
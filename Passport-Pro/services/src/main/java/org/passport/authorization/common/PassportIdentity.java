@@ -272,6 +272,19 @@ public class PassportIdentity implements Identity {
         this.attributes = Attributes.from(attributes);
     }
 
+    /**
+     * Creates a copy of the given identity for another session, with the same id, attributes and resource server
+     * flag, without looking up the client and the user of the access token again.
+     */
+    public PassportIdentity(PassportIdentity identity, PassportSession passportSession) {
+        this.accessToken = identity.accessToken;
+        this.passportSession = passportSession;
+        this.realm = passportSession.getContext().getRealm();
+        this.attributes = identity.attributes;
+        this.resourceServer = identity.resourceServer;
+        this.id = identity.id;
+    }
+
     @Override
     public String getId() {
         return this.id;
@@ -24,6 +24,8 @@ import java.util.stream.Stream;
 
 import org.passport.common.util.Time;
 import org.passport.credential.hash.PasswordHashProvider;
+import org.passport.credential.hash.PasswordHashing;
+import org.passport.credential.hash.PasswordHashingRejectedException;
 import org.passport.models.AbstractPassportTransaction;
 import org.passport.models.PassportSession;
 import org.passport.models.ModelException;
@@ -66,10 +68,18 @@ public class PasswordCredentialProvider implements CredentialProvider<PasswordCr
     private final boolean withRealmInMetric;
     private final boolean withHashingStrengthInMetric;
     private final boolean withOutcomeInMetric;
+    private final PasswordRehashBudget rehashBudget;
 
     public PasswordCredentialProvider(PassportSession session, Meter.MeterProvider<Counter> meterProvider, boolean metricsEnabled,
                                       boolean withRealmInMetric, boolean withAlgorithmInMetric, boolean withHashingStrengthInMetric, boolean withOutcomeInMetric) {
+        this(session, meterProvider, metricsEnabled, withRealmInMetric, withAlgorithmInMetric, withHashingStrengthInMetric, withOutcomeInMetric, null);
+    }
+
+    public PasswordCredentialProvider(PassportSession session, Meter.MeterProvider<Counter> meterProvider, boolean metricsEnabled,
+                                      boolean withRealmInMetric, boolean withAlgorithmInMetric, boolean withHashingStrengthInMetric, boolean withOutcomeInMetric,
+                                      PasswordRehashBudget rehashBudget) {
         this.session = session;
+        this.rehashBudget = rehashBudget;
         this.meterProvider = meterProvider;
         this.metricsEnabled = metricsEnabled;
         this.withRealmInMetric = withRealmInMetric;
@@ -95,9 +105,11 @@ public class PasswordCredentialProvider implements CredentialProvider<PasswordCr
             return false;
         }
         try {
-            PasswordCredentialModel credentialModel = hash.encodedCredential(password, policy.getHashIterations());
+            PasswordCredentialModel credentialModel = PasswordHashing.encodedCredential(hash, password, policy.getHashIterations());
             credentialModel.setCreatedDate(Time.currentTimeMillis());
             createCredential(realm, user, credentialModel);
+        } catch (PasswordHashingRejectedException e) {
+            throw e;
         } catch (Throwable t) {
             throw new ModelException(t.getMessage(), t);
         }
@@ -228,7 +240,7 @@ public class PasswordCredentialProvider implements CredentialProvider<PasswordCr
             return false;
         }
         try {
-            boolean isValid = hash.verify(input.getChallengeResponse(), password);
+            boolean isValid = PasswordHashing.verify(hash, input.getChallengeResponse(), password);
             if (!isValid) {
                 logger.debugv("Failed password validation for user {0} ", user.getUsername());
                 publishMetricIfEnabled(realm, algorithm, hash.credentialHashingStrength(password), METER_VALIDATION_OUTCOME_INVALID_TAG_VALUE);
@@ -236,6 +248,8 @@ public class PasswordCredentialProvider implements CredentialProvider<PasswordCr
             }
 
             rehashPasswordIfRequired(session, realm, user, input, password);
+        } catch (PasswordHashingRejectedException e) {
+            throw e;
         } catch (Throwable t) {
             logger.warn("Error when validating user password", t);
             publishMetricIfEnabled(realm, algorithm, hash.credentialHashingStrength(password), METER_VALIDATION_OUTCOME_ERROR_TAG_VALUE);
@@ -284,6 +298,10 @@ public class PasswordCredentialProvider implements CredentialProvider<PasswordCr
         }
 
         if (!provider.policyCheck(passwordPolicy, password)) {
+            if (rehashBudget != null && !rehashBudget.tryAcquire(realm.getId())) {
+                logger.debugv("Deferring re-hashing of the password of user {0} as the rehash budget is used up", user.getUsername());
+                return;
+            }
             final int iterations = passwordPolicy != null ? passwordPolicy.getHashIterations() : -1;
             final String hashAlgorithm = passwordPolicy != null ? passwordPolicy.getHashAlgorithm() : null;
             // Refresh the password in a different transaction, do not fail if there is a model exception on current modifications due to concurrent logins.
@@ -295,7 +313,7 @@ public class PasswordCredentialProvider implements CredentialProvider<PasswordCr
                     try {
                         PassportModelUtils.runJobInTransaction(session.getPassportSessionFactory(), session.getContext(),
                                 (PassportSession s) -> refreshPassword(s, hashAlgorithm, iterations, input.getChallengeResponse(),
-                                        password.getId(), password.getCreatedDate(), password.getUserLabel(), user.getId()));
+                                        password.getId(), password.getCreatedDate(), password.getUserLabel(), user.getId(), rehashBudget));
                     } catch (ModelException e) {
                         logger.info("Error re-hashing the password in a different transaction", e);
                     }
@@ -310,11 +328,14 @@ public class PasswordCredentialProvider implements CredentialProvider<PasswordCr
     }
 
     private static void refreshPassword(PassportSession s, String hashAlgorithm, int iterations, String challenge,
-            String passwordId, Long passwordDate, String passwordLabel, String userId) {
-        PasswordCredentialModel newPassword = ((hashAlgorithm != null)
+            String passwordId, Long passwordDate, String passwordLabel, String userId, PasswordRehashBudget rehashBudget) {
+        long start = System.nanoTime();
+        PasswordCredentialModel newPassword = PasswordHashing.encodedCredential((hashAlgorithm != null)
                 ? s.getProvider(PasswordHashProvider.class, hashAlgorithm)
-                : s.getProvider(PasswordHashProvider.class))
-                .encodedCredential(challenge, iterations);
+                : s.getProvider(PasswordHashProvider.class), challenge, iterations);
+        if (rehashBudget != null) {
+            rehashBudget.consume(s.getContext().getRealm().getId(), System.nanoTime() - start);
+        }
         newPassword.setId(passwordId);
         newPassword.setCreatedDate(passwordDate);
         newPassword.setUserLabel(passwordLabel);
@@ -23,9 +23,14 @@ import java.util.stream.Collectors;
 
 import org.passport.Config;
 import org.passport.config.MetricsOptions;
+import org.passport.credential.hash.PasswordHashing;
 import org.passport.models.PassportSession;
+import org.passport.models.PassportSessionFactory;
+import org.passport.models.RealmModel;
+import org.passport.models.RealmModel.RealmRemovedEvent;
 import org.passport.provider.ProviderConfigProperty;
 import org.passport.provider.ProviderConfigurationBuilder;
+import org.passport.representations.idm.PasswordHashMigrationRepresentation;
 
 import io.micrometer.core.instrument.Counter;
 import io.micrometer.core.instrument.Meter;
@@ -48,6 +53,13 @@ public class PasswordCredentialProviderFactory implements CredentialProviderFact
     public static final String METER_VALIDATION_OUTCOME_TAG = "outcome";
     private static final String HASHES_COUNTER_TAGS_DEFAULT_VALUE = String.format("%s,%s,%s,%s", METER_REALM_TAG, METER_ALGORITHM_TAG, METER_HASHING_STRENGTH_TAG, METER_VALIDATION_OUTCOME_TAG);
 
+    private static final String HASHING_THREADS = "hashingThreads";
+    private static final int HASHING_THREADS_DEFAULT_VALUE = Runtime.getRuntime().availableProcessors();
+    private static final String HASHING_MAX_QUEUE_SIZE = "hashingMaxQueueSize";
+    private static final int HASHING_MAX_QUEUE_SIZE_DEFAULT_VALUE = 1000;
+    private static final String REHASH_CPU_BUDGET = "rehashCpuBudget";
+    private static final int REHASH_CPU_BUDGET_DEFAULT_VALUE = -1;
+
     private boolean metricsEnabled;
     private boolean withRealmInMetric;
     private boolean withAlgorithmInMetric;
@@ -55,10 +67,11 @@ public class PasswordCredentialProviderFactory implements CredentialProviderFact
     private boolean withOutcomeInMetric;
 
     private Meter.MeterProvider<Counter> meterProvider;
+    private PasswordRehashBudget rehashBudget;
 
     @Override
     public PasswordCredentialProvider create(PassportSession session) {
-        return new PasswordCredentialProvider(session, meterProvider, metricsEnabled, withRealmInMetric, withAlgorithmInMetric, withHashingStrengthInMetric, withOutcomeInMetric);
+        return new PasswordCredentialProvider(session, meterProvider, metricsEnabled, withRealmInMetric, withAlgorithmInMetric, withHashingStrengthInMetric, withOutcomeInMetric, rehashBudget);
     }
 
     @Override
@@ -76,6 +89,55 @@ public class PasswordCredentialProviderFactory implements CredentialProviderFact
             withHashingStrengthInMetric = tags.contains(METER_HASHING_STRENGTH_TAG);
             withOutcomeInMetric = tags.contains(METER_VALIDATION_OUTCOME_TAG);
         }
+
+        rehashBudget = new PasswordRehashBudget(config.getInt(REHASH_CPU_BUDGET, REHASH_CPU_BUDGET_DEFAULT_VALUE), metricsEnabled);
+
+        int hashingThreads = config.getInt(HASHING_THREADS, HASHING_THREADS_DEFAULT_VALUE);
+        if (hashingThreads > 0) {
+            PasswordHashing.start(hashingThreads, config.getInt(HASHING_MAX_QUEUE_SIZE, HASHING_MAX_QUEUE_SIZE_DEFAULT_VALUE), metricsEnabled);
+        }
+    }
+
+    @Override
+    public void postInit(PassportSessionFactory factory) {
+        factory.register(event -> {
+            if (event instanceof RealmRemovedEvent removed) {
+                PasswordHashMigrationJob.remove(removed.getRealm().getId());
+                rehashBudget.remove(removed.getRealm().getId());
+            }
+        });
+    }
+
+    @Override
+    public void close() {
+        PasswordHashing.stop();
+    }
+
+    /**
+     * Starts scanning the password hashes of the realm in the background, unless a scan is already running on this
+     * server. Hashes that don't match the password policy of the realm are upgraded on the next login of their user.
+     *
+     * @return the progress of the scan
+     */
+    public PasswordHashMigrationRepresentation startHashMigration(PassportSession session, RealmModel realm) {
+        return PasswordHashMigrationJob.start(session, realm, rehashBudget).toRepresentation();
+    }
+
+    /**
+     * Returns the progress of the last scan of the password hashes of the realm started on this server.
+     *
+     * @return the progress of the scan, with a {@code null} status if there was none
+     */
+    public PasswordHashMigrationRepresentation getHashMigration(RealmModel realm) {
+        PasswordHashMigrationJob job = PasswordHashMigrationJob.get(realm.getId());
+        if (job != null) {
+            return job.toRepresentation();
+        }
+        PasswordHashMigrationRepresentation rep = new PasswordHashMigrationRepresentation();
+        rep.setUpgraded(rehashBudget.getUpgraded(realm.getId()));
+        rep.setDeferred(rehashBudget.getDeferred(realm.getId()));
+        rep.setRehashCpuBudgetMillis(rehashBudget.getBudgetMillisPerSecond());
+        return rep;
     }
 
     @Override
@@ -93,6 +155,24 @@ public class PasswordCredentialProviderFactory implements CredentialProviderFact
                     .options(METER_REALM_TAG, METER_ALGORITHM_TAG, METER_HASHING_STRENGTH_TAG, METER_VALIDATION_OUTCOME_TAG)
                     .defaultValue(HASHES_COUNTER_TAGS_DEFAULT_VALUE)
                     .add()
+                .property()
+                    .name(HASHING_THREADS)
+                    .type("int")
+                    .helpText("Number of threads shared by all password hash providers to hash passwords. Defaults to the number of available processors. Use 0 to hash passwords on the request threads.")
+                    .defaultValue(HASHING_THREADS_DEFAULT_VALUE)
+                    .add()
+                .property()
+                    .name(HASHING_MAX_QUEUE_SIZE)
+                    .type("int")
+                    .helpText("Maximum number of passwords waiting for a hashing thread. Requests beyond this fail with HTTP 503 and error 'temporarily_unavailable'.")
+                    .defaultValue(HASHING_MAX_QUEUE_SIZE_DEFAULT_VALUE)
+                    .add()
+                .property()
+                    .name(REHASH_CPU_BUDGET)
+                    .type("int")
+                    .helpText("Milliseconds of hashing per second this server spends on upgrading password hashes to the password policy at login. When used up, upgrades are deferred to a later login. Use -1 to not limit upgrades.")
+                    .defaultValue(REHASH_CPU_BUDGET_DEFAULT_VALUE)
+                    .add()
                 .build();
     }
 }
@@ -0,0 +1,264 @@
+/*
+ * Copyright 2026 Red Hat, Inc. and/or its affiliates
+ * and other contributors as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.passport.credential;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.passport.common.util.Time;
+import org.passport.credential.hash.PasswordHashProvider;
+import org.passport.executors.ExecutorsProvider;
+import org.passport.models.PassportSession;
+import org.passport.models.PassportSessionFactory;
+import org.passport.models.PasswordPolicy;
+import org.passport.models.RealmModel;
+import org.passport.models.credential.PasswordCredentialModel;
+import org.passport.models.utils.PassportModelUtils;
+import org.passport.representations.idm.PasswordHashMigrationRepresentation;
+import org.passport.representations.idm.PasswordHashMigrationRepresentation.HashGroup;
+import org.passport.representations.idm.PasswordHashMigrationRepresentation.Status;
+import org.passport.storage.UserStoragePrivateUtil;
+
+import org.jboss.logging.Logger;
+
+/**
+ * Walks the password credentials of a realm in the background, one page per transaction, grouping them by hash
+ * algorithm and hashing strength and counting those that don't match the password policy of the realm.
+ * <p>
+ * The job doesn't hash any password of a user. Hashes are upgraded by {@link PasswordCredentialProvider} on the next
+ * login of a user, as far as the {@link PasswordRehashBudget} allows. To project the CPU time of the upgrades, the job
+ * hashes a dummy password with the password policy of the realm. The last job of each realm is kept to report its
+ * progress.
+ */
+final class PasswordHashMigrationJob implements Runnable {
+
+    private static final Logger log = Logger.getLogger(PasswordHashMigrationJob.class);
+
+    static final String EXECUTOR_NAME = "password-hash-migration";
+
+    private static final int PAGE_SIZE = 1000;
+    private static final int COST_SAMPLES = 3;
+    private static final String DUMMY_PASSWORD = "SlightlyLongerDummyPassword";
+
+    private static final ConcurrentMap<String, PasswordHashMigrationJob> JOBS = new ConcurrentHashMap<>();
+
+    private final PassportSessionFactory sessionFactory;
+    private final String realmId;
+    private final PasswordRehashBudget budget;
+    private final ConcurrentMap<GroupKey, AtomicLong> groups = new ConcurrentHashMap<>();
+    private final AtomicLong scanned = new AtomicLong();
+    private final AtomicLong upgradeRequired = new AtomicLong();
+    private final long upgradedAtStart;
+    private final long deferredAtStart;
+    private final long startedAt = Time.currentTimeMillis();
+    private volatile Status status = Status.RUNNING;
+    private volatile long finishedAt;
+    private volatile String error;
+    private volatile String algorithm;
+    private volatile String hashingStrength;
+    private volatile double hashCostNanos = -1;
+    private String lastCredentialId;
+
+    private PasswordHashMigrationJob(PassportSessionFactory sessionFactory, String realmId, PasswordRehashBudget budget) {
+        this.sessionFactory = sessionFactory;
+        this.realmId = realmId;
+        this.budget = budget;
+        this.upgradedAtStart = budget.getUpgraded(realmId);
+        this.deferredAtStart = budget.getDeferred(realmId);
+    }
+
+    /**
+     * Starts scanning the password hashes of the given realm, unless they are already being scanned.
+     *
+     * @return the job scanning the realm
+     */
+    static PasswordHashMigrationJob start(PassportSession session, RealmModel realm, PasswordRehashBudget budget) {
+        PasswordHashMigrationJob created = new PasswordHashMigrationJob(session.getPassportSessionFactory(), realm.getId(), budget);
+        PasswordHashMigrationJob job = JOBS.compute(realm.getId(), (id, current) -> current != null && current.status == Status.RUNNING ? current : created);
+
+        if (job == created) {
+            log.infof("Starting scan of the password hashes of realm %s", realm.getName());
+            try {
+                session.getProvider(ExecutorsProvider.class).getExecutor(EXECUTOR_NAME).execute(job);
+            } catch (RejectedExecutionException e) {
+                job.finish(Status.FAILED, e);
+            }
+        }
+
+        return job;
+    }
+
+    /**
+     * Returns the last job that scanned the given realm, or {@code null} if there was none.
+     */
+    static PasswordHashMigrationJob get(String realmId) {
+        return JOBS.get(realmId);
+    }
+
+    /**
+     * Forgets the last job of the given realm. A running job stops with its next page, as the realm is gone.
+     */
+    static void remove(String realmId) {
+        JOBS.remove(realmId);
+    }
+
+    @Override
+    public void run() {
+        try {
+            PassportModelUtils.runJobInTransaction(sessionFactory, this::measureHashCost);
+            int count;
+            do {
+                count = PassportModelUtils.runJobInTransactionWithResult(sessionFactory, this::scanPage);
+                log.debugf("Scanned %d password hashes of realm %s", scanned.get(), realmId);
+            } while (count == PAGE_SIZE);
+            finish(Status.COMPLETED, null);
+        } catch (RuntimeException e) {
+            log.errorf(e, "Failed to scan the password hashes of realm %s after %d hashes", realmId, scanned.get());
+            finish(Status.FAILED, e);
+        }
+    }
+
+    PasswordHashMigrationRepresentation toRepresentation() {
+        PasswordHashMigrationRepresentation rep = new PasswordHashMigrationRepresentation();
+        rep.setStatus(status);
+        rep.setStartedAt(startedAt);
+        if (status != Status.RUNNING) {
+            rep.setFinishedAt(finishedAt);
+        }
+        rep.setError(error);
+        rep.setAlgorithm(algorithm);
+        rep.setHashingStrength(hashingStrength);
+        rep.setScanned(scanned.get());
+        rep.setUpgradeRequired(upgradeRequired.get());
+        rep.setHashes(groups.entrySet().stream()
+                .sorted(Comparator.comparing((Map.Entry<GroupKey, AtomicLong> e) -> e.getValue().get()).reversed())
+                .map(e -> e.getKey().toRepresentation(e.getValue().get()))
+                .toList());
+        double cost = hashCostNanos;
+        if (cost >= 0) {
+            rep.setHashCostMillis(cost / 1_000_000);
+            rep.setProjectedCpuMillis((long) (cost * upgradeRequired.get() / 1_000_000));
+        }
+        rep.setUpgraded(budget.getUpgraded(realmId) - upgradedAtStart);
+        rep.setDeferred(budget.getDeferred(realmId) - deferredAtStart);
+        rep.setRehashCpuBudgetMillis(budget.getBudgetMillisPerSecond());
+        return rep;
+    }
+
+    private void measureHashCost(PassportSession session) {
+        RealmModel realm = getRealm(session);
+        PasswordPolicy policy = realm.getPasswordPolicy();
+        PasswordHashProvider provider = getPolicyProvider(session, policy);
+        if (provider == null) {
+            throw new IllegalStateException("No password hash provider for the password policy of realm " + realm.getName());
+        }
+
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        boolean cpuTime = threads.isCurrentThreadCpuTimeSupported() && threads.isThreadCpuTimeEnabled();
+        long total = 0;
+        PasswordCredentialModel credential = null;
+        for (int i = 0; i < COST_SAMPLES; i++) {
+            long start = cpuTime ? threads.getCurrentThreadCpuTime() : System.nanoTime();
+            credential = provider.encodedCredential(DUMMY_PASSWORD, policy.getHashIterations());
+            total += (cpuTime ? threads.getCurrentThreadCpuTime() : System.nanoTime()) - start;
+        }
+
+        algorithm = credential.getPasswordCredentialData().getAlgorithm();
+        hashingStrength = provider.credentialHashingStrength(credential);
+        hashCostNanos = (double) total / COST_SAMPLES;
+    }
+
+    private int scanPage(PassportSession session) {
+        RealmModel realm = getRealm(session);
+        PasswordPolicy policy = realm.getPasswordPolicy();
+        PasswordHashProvider policyProvider = getPolicyProvider(session, policy);
+        UserCredentialStore store = (UserCredentialStore) UserStoragePrivateUtil.userLocalStorage(session);
+
+        List<CredentialModel> credentials = store.getRealmCredentialsByTypeStream(realm, PasswordCredentialModel.TYPE, lastCredentialId, PAGE_SIZE).toList();
+        for (CredentialModel credential : credentials) {
+            scan(session, policy, policyProvider, credential);
+        }
+        if (!credentials.isEmpty()) {
+            lastCredentialId = credentials.get(credentials.size() - 1).getId();
+        }
+        return credentials.size();
+    }
+
+    private void scan(PassportSession session, PasswordPolicy policy, PasswordHashProvider policyProvider, CredentialModel credential) {
+        PasswordCredentialModel password;
+        try {
+            password = PasswordCredentialModel.createFromCredentialModel(credential);
+        } catch (RuntimeException e) {
+            log.debugf(e, "Skipping password credential %s that can't be read", credential.getId());
+            return;
+        }
+
+        String hashAlgorithm = password.getPasswordCredentialData().getAlgorithm();
+        PasswordHashProvider provider = session.getProvider(PasswordHashProvider.class, hashAlgorithm);
+        String strength = provider != null ? provider.credentialHashingStrength(password)
+                : String.valueOf(password.getPasswordCredentialData().getHashIterations());
+        boolean upgrade = policyProvider != null && !policyProvider.policyCheck(policy, password);
+
+        groups.computeIfAbsent(new GroupKey(hashAlgorithm, strength, upgrade), key -> new AtomicLong()).incrementAndGet();
+        scanned.incrementAndGet();
+        if (upgrade) {
+            upgradeRequired.incrementAndGet();
+        }
+    }
+
+    private RealmModel getRealm(PassportSession session) {
+        RealmModel realm = session.realms().getRealm(realmId);
+        if (realm == null || JOBS.get(realmId) != this) {
+            throw new IllegalStateException("Realm " + realmId + " was removed");
+        }
+        session.getContext().setRealm(realm);
+        return realm;
+    }
+
+    private static PasswordHashProvider getPolicyProvider(PassportSession session, PasswordPolicy policy) {
+        if (policy != null && policy.getHashAlgorithm() != null) {
+            return session.getProvider(PasswordHashProvider.class, policy.getHashAlgorithm());
+        }
+        return session.getProvider(PasswordHashProvider.class);
+    }
+
+    private void finish(Status status, Throwable cause) {
+        this.error = cause == null ? null : cause.getMessage();
+        this.finishedAt = Time.currentTimeMillis();
+        this.status = status;
+    }
+
+    private record GroupKey(String algorithm, String hashingStrength, boolean upgradeRequired) {
+
+        HashGroup toRepresentation(long count) {
+            HashGroup group = new HashGroup();
+            group.setAlgorithm(algorithm);
+            group.setHashingStrength(hashingStrength);
+            group.setCount(count);
+            group.setUpgradeRequired(upgradeRequired);
+            return group;
+        }
+    }
+}
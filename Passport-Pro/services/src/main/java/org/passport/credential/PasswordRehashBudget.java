@@ -0,0 +1,138 @@
+/*
+ * Copyright 2026 Red Hat, Inc. and/or its affiliates
+ * and other contributors as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.passport.credential;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.Metrics;
+
+/**
+ * Limits the time this server spends hashing passwords to upgrade them at login to the password policy of their realm.
+ * <p>
+ * The budget is a number of milliseconds of hashing per second, which is refilled continuously and can be saved up for
+ * at most one second. An upgrade is allowed while some budget is left, and the time of the hashing is taken from the
+ * budget once done. When no budget is left, the upgrade is deferred to a later login of the user.
+ */
+public class PasswordRehashBudget {
+
+    private static final String METER_NAME = "passport.credentials.password.rehash";
+    private static final String METER_OUTCOME_TAG = "outcome";
+
+    private final long budgetNanosPerSecond;
+    private final Meter.MeterProvider<Counter> meterProvider;
+    private final ConcurrentMap<String, AtomicLong> upgraded = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, AtomicLong> deferred = new ConcurrentHashMap<>();
+    private long availableNanos;
+    private long refilledAt = System.nanoTime();
+
+    /**
+     * @param budgetMillisPerSecond milliseconds of hashing per second, or a negative value to not limit upgrades
+     * @param metricsEnabled if the upgraded and deferred hashes are counted in a metric
+     */
+    public PasswordRehashBudget(long budgetMillisPerSecond, boolean metricsEnabled) {
+        this.budgetNanosPerSecond = budgetMillisPerSecond < 0 ? -1 : TimeUnit.MILLISECONDS.toNanos(budgetMillisPerSecond);
+        this.availableNanos = Math.max(0, budgetNanosPerSecond);
+        this.meterProvider = metricsEnabled ? Counter.builder(METER_NAME)
+                .description("Password hashes upgraded at login, or deferred as the rehash budget was used up")
+                .withRegistry(Metrics.globalRegistry) : null;
+    }
+
+    /**
+     * Returns the milliseconds of hashing per second, or {@code null} if upgrades are not limited.
+     */
+    public Long getBudgetMillisPerSecond() {
+        return budgetNanosPerSecond < 0 ? null : TimeUnit.NANOSECONDS.toMillis(budgetNanosPerSecond);
+    }
+
+    /**
+     * Returns {@code true} if a password hash of the realm can be upgraded now, otherwise counts the upgrade as
+     * deferred.
+     */
+    public boolean tryAcquire(String realmId) {
+        if (budgetNanosPerSecond < 0) {
+            return true;
+        }
+        synchronized (this) {
+            refill();
+            if (availableNanos > 0) {
+                return true;
+            }
+        }
+        count(deferred, realmId, "deferred");
+        return false;
+    }
+
+    /**
+     * Takes the time spent to upgrade a password hash of the realm from the budget.
+     */
+    public void consume(String realmId, long nanos) {
+        if (budgetNanosPerSecond >= 0) {
+            synchronized (this) {
+                refill();
+                availableNanos -= nanos;
+            }
+        }
+        count(upgraded, realmId, "upgraded");
+    }
+
+    /**
+     * Returns the number of password hashes of the realm upgraded at login on this server.
+     */
+    public long getUpgraded(String realmId) {
+        AtomicLong count = upgraded.get(realmId);
+        return count == null ? 0 : count.get();
+    }
+
+    /**
+     * Returns the number of upgrades of password hashes of the realm this server deferred to a later login.
+     */
+    public long getDeferred(String realmId) {
+        AtomicLong count = deferred.get(realmId);
+        return count == null ? 0 : count.get();
+    }
+
+    /**
+     * Forgets the counts of the realm.
+     */
+    public void remove(String realmId) {
+        upgraded.remove(realmId);
+        deferred.remove(realmId);
+    }
+
+    private void refill() {
+        long now = System.nanoTime();
+        long elapsed = now - refilledAt;
+        refilledAt = now;
+        // the budget can be saved up for one second at most
+        long refill = elapsed >= TimeUnit.SECONDS.toNanos(1) ? budgetNanosPerSecond
+                : (long) ((double) elapsed * budgetNanosPerSecond / TimeUnit.SECONDS.toNanos(1));
+        availableNanos = Math.min(budgetNanosPerSecond, availableNanos + refill);
+    }
+
+    private void count(ConcurrentMap<String, AtomicLong> counts, String realmId, String outcome) {
+        counts.computeIfAbsent(realmId, id -> new AtomicLong()).incrementAndGet();
+        if (meterProvider != null) {
+            meterProvider.withTag(METER_OUTCOME_TAG, outcome).increment();
+        }
+    }
+}
@@ -25,7 +25,8 @@ import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
-import java.util.function.Consumer;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 import javax.crypto.SecretKey;
@@ -34,6 +35,7 @@ import org.passport.component.ComponentModel;
 import org.passport.crypto.Algorithm;
 import org.passport.crypto.KeyUse;
 import org.passport.crypto.KeyWrapper;
+import org.passport.crypto.SignatureInstancePool;
 import org.passport.models.KeyManager;
 import org.passport.models.PassportSession;
 import org.passport.models.RealmModel;
@@ -48,8 +50,14 @@ public class DefaultKeyManager implements KeyManager {
 
     private static final Logger logger = Logger.getLogger(DefaultKeyManager.class);
 
+    // Bounds the snapshots kept for removed realms
+    private static final int MAX_KEY_SNAPSHOTS = 10_000;
+
+    private static final ConcurrentMap<String, KeySnapshot> KEY_SNAPSHOTS = new ConcurrentHashMap<>();
+
     private final PassportSession session;
     private final Map<String, List<KeyProvider>> providersMap = new HashMap<>();
+    private final Map<String, KeySnapshot> snapshotsMap = new HashMap<>();
 
     public DefaultKeyManager(PassportSession session) {
         this.session = session;
@@ -57,7 +65,7 @@ public class DefaultKeyManager implements KeyManager {
 
     @Override
     public KeyWrapper getActiveKey(RealmModel realm, KeyUse use, String algorithm) {
-        KeyWrapper activeKey = getActiveKey(getProviders(realm), realm, use, algorithm);
+        KeyWrapper activeKey = getActiveKey(getSnapshot(realm), realm, use, algorithm);
         if (activeKey != null) {
             return activeKey;
         }
@@ -72,8 +80,8 @@ public class DefaultKeyManager implements KeyManager {
                 .findFirst();
         if (keyProviderFactory.isPresent()) {
             providersMap.remove(realm.getId());
-            List<KeyProvider> providers = getProviders(realm);
-            activeKey = getActiveKey(providers, realm, use, algorithm);
+            snapshotsMap.remove(realm.getId());
+            activeKey = getActiveKey(getSnapshot(realm), realm, use, algorithm);
             if (activeKey != null) {
                 logger.infov("No keys found for realm={0} and algorithm={1} for use={2}. Generating keys.",
                         realm.getName(), algorithm, use.name());
@@ -85,24 +93,13 @@ public class DefaultKeyManager implements KeyManager {
         throw new RuntimeException("Failed to find key: realm=" + realm.getName() + " algorithm=" + algorithm + " use=" + use.name());
     }
 
-    private KeyWrapper getActiveKey(List<KeyProvider> providers, RealmModel realm, KeyUse use, String algorithm) {
-        Consumer<KeyWrapper> loggerConsumer = key -> {
-            if (logger.isTraceEnabled()) {
-                logger.tracev("Active key found: realm={0} kid={1} algorithm={2} use={3}",
-                        realm.getName(), key.getKid(), algorithm, use.name());
-            }
-        };
-
-        for (KeyProvider p : providers) {
-            Optional<KeyWrapper> keyWrapper = p.getKeysStream()
-                    .filter(key -> key.getStatus().isActive() && matches(key, use, algorithm))
-                    .peek(loggerConsumer)
-                    .findFirst();
-            if (keyWrapper.isPresent()) {
-                return keyWrapper.get();
-            }
+    private KeyWrapper getActiveKey(KeySnapshot snapshot, RealmModel realm, KeyUse use, String algorithm) {
+        KeyWrapper key = snapshot.getActiveKey(use, algorithm);
+        if (key != null && logger.isTraceEnabled()) {
+            logger.tracev("Active key found: realm={0} kid={1} algorithm={2} use={3}",
+                    realm.getName(), key.getKid(), algorithm, use.name());
         }
-        return null;
+        return key;
     }
 
     @Override
@@ -112,22 +109,13 @@ public class DefaultKeyManager implements KeyManager {
             return null;
         }
 
-        Consumer<KeyWrapper> loggerConsumer = key -> {
+        KeyWrapper key = getSnapshot(realm).getKey(kid, use, algorithm);
+        if (key != null) {
             if (logger.isTraceEnabled()) {
                 logger.tracev("Found key: realm={0} kid={1} algorithm={2} use={3}",
                         realm.getName(), key.getKid(), algorithm, use.name());
             }
-        };
-
-        for (KeyProvider p : getProviders(realm)) {
-            Optional<KeyWrapper> keyWrapper = p.getKeysStream()
-                    .filter(key -> Objects.equals(key.getKid(), kid) && key.getStatus().isEnabled() && matches(key, use, algorithm))
-                    .peek(loggerConsumer)
-                    .findFirst();
-
-            if (keyWrapper.isPresent()) {
-                return keyWrapper.get();
-            }
+            return key;
         }
 
         if (logger.isTraceEnabled()) {
@@ -250,28 +238,77 @@ public class DefaultKeyManager implements KeyManager {
     private List<KeyProvider> getProviders(RealmModel realm) {
         List<KeyProvider> providers = providersMap.get(realm.getId());
         if (providers == null) {
-            providers = realm.getComponentsStream(realm.getId(), KeyProvider.class.getName())
-                    .sorted(new ProviderComparator())
-                    .map(c -> {
-                        try {
-                            ProviderFactory<KeyProvider> f = session.getPassportSessionFactory().getProviderFactory(KeyProvider.class, c.getProviderId());
-                            KeyProviderFactory factory = (KeyProviderFactory) f;
-                            KeyProvider provider = factory.create(session, c);
-                            session.enlistForClose(provider);
-                            return provider;
-                        } catch (Throwable t) {
-                            logger.errorv(t, "Failed to load provider {0}", c.getId());
-                            return null;
-                        }
-                    })
-                    .filter(Objects::nonNull)
-                    .collect(Collectors.toList());
-
+            providers = createProviders(realm.getComponentsStream(realm.getId(), KeyProvider.class.getName()));
             providersMap.put(realm.getId(), providers);
         }
         return providers;
     }
 
+    /**
+     * Returns the key snapshot of the realm. A snapshot is shared with other sessions as long as the realm returns
+     * the same key provider components, so it is only built after the key providers of the realm changed.
+     */
+    private KeySnapshot getSnapshot(RealmModel realm) {
+        KeySnapshot snapshot = snapshotsMap.get(realm.getId());
+        if (snapshot != null) {
+            return snapshot;
+        }
+
+        List<ComponentModel> components = realm.getComponentsStream(realm.getId(), KeyProvider.class.getName())
+                .collect(Collectors.toList());
+        snapshot = KEY_SNAPSHOTS.get(realm.getId());
+        if (snapshot == null || !snapshot.isBuiltFrom(components.iterator())) {
+            List<KeyProvider> providers = providersMap.get(realm.getId());
+            if (providers == null) {
+                providers = createProviders(components.stream());
+                providersMap.put(realm.getId(), providers);
+            }
+            snapshot = new KeySnapshot(components, providers);
+
+            // a provider failing to load is retried by the next session, so its snapshot is not shared
+            if (providers.size() == components.size()) {
+                if (KEY_SNAPSHOTS.size() >= MAX_KEY_SNAPSHOTS) {
+                    KEY_SNAPSHOTS.clear();
+                }
+                snapshot.manageSignatureInstances();
+                KeySnapshot previous = KEY_SNAPSHOTS.put(realm.getId(), snapshot);
+                if (previous != null) {
+                    // the keys were rotated or the key providers changed
+                    previous.evictSignatureInstances(snapshot);
+                }
+            }
+        }
+        snapshotsMap.put(realm.getId(), snapshot);
+        return snapshot;
+    }
+
+    private List<KeyProvider> createProviders(Stream<ComponentModel> components) {
+        return components
+                .sorted(new ProviderComparator())
+                .map(c -> {
+                    try {
+                        ProviderFactory<KeyProvider> f = session.getPassportSessionFactory().getProviderFactory(KeyProvider.class, c.getProviderId());
+                        KeyProviderFactory factory = (KeyProviderFactory) f;
+                        KeyProvider provider = factory.create(session, c);
+                        session.enlistForClose(provider);
+                        return provider;
+                    } catch (Throwable t) {
+                        logger.errorv(t, "Failed to load provider {0}", c.getId());
+                        return null;
+                    }
+                })
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Drops all key snapshots, for example after key providers were redeployed.
+     */
+    public static void clearKeySnapshots() {
+        KEY_SNAPSHOTS.clear();
+        SignatureInstancePool.clear();
+    }
+
     private static class ProviderComparator implements Comparator<ComponentModel> {
 
         @Override
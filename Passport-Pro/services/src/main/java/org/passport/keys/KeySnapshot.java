@@ -0,0 +1,147 @@
+/*
+ * Copyright 2026 Red Hat, Inc. and/or its affiliates
+ * and other contributors as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.passport.keys;
+
+import java.security.Key;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.passport.component.ComponentModel;
+import org.passport.crypto.KeyUse;
+import org.passport.crypto.KeyWrapper;
+import org.passport.crypto.SignatureInstancePool;
+
+/**
+ * Immutable view of the keys of a realm, indexed for the lookups done for every signed or verified token.
+ * <p>
+ * The snapshot holds the active key per use and algorithm, taken from the provider with the highest priority, and
+ * the enabled keys per kid. It remembers the key provider components it was built from and is only reused as long
+ * as the realm returns the very same component instances. The key providers keep their keys as notes of these
+ * instances, and a new instance is returned by the realm after any update of a key provider, including key rotation,
+ * so such a change leads to a new snapshot.
+ * <p>
+ * This class is thread safe, snapshots are shared between sessions.
+ *
+ * @see DefaultKeyManager
+ */
+final class KeySnapshot {
+
+    private final List<ComponentModel> source;
+    private final Map<KeyUse, Map<String, KeyWrapper>> activeKeys = new EnumMap<>(KeyUse.class);
+    private final Map<String, List<KeyWrapper>> keysByKid = new HashMap<>();
+
+    /**
+     * @param source the key provider components, in the order of the providers
+     * @param providers the key providers created from the components, in order of their priority
+     */
+    KeySnapshot(List<ComponentModel> source, List<KeyProvider> providers) {
+        this.source = List.copyOf(source);
+        for (KeyProvider provider : providers) {
+            provider.getKeysStream().forEach(this::add);
+        }
+        keysByKid.replaceAll((kid, keys) -> List.copyOf(keys));
+    }
+
+    private void add(KeyWrapper key) {
+        if (key.getUse() == null || !key.getStatus().isEnabled()) {
+            return;
+        }
+        if (key.getStatus().isActive()) {
+            activeKeys.computeIfAbsent(key.getUse(), use -> new HashMap<>())
+                    .putIfAbsent(key.getAlgorithmOrDefault(), key);
+        }
+        if (key.getKid() != null) {
+            keysByKid.computeIfAbsent(key.getKid(), kid -> new ArrayList<>(1)).add(key);
+        }
+    }
+
+    /**
+     * Returns the active key with the given use and algorithm, or {@code null} if there is none.
+     */
+    KeyWrapper getActiveKey(KeyUse use, String algorithm) {
+        return activeKeys.getOrDefault(use, Collections.emptyMap()).get(algorithm);
+    }
+
+    /**
+     * Returns the enabled key with the given kid, use and algorithm, or {@code null} if there is none.
+     */
+    KeyWrapper getKey(String kid, KeyUse use, String algorithm) {
+        List<KeyWrapper> keys = keysByKid.get(kid);
+        if (keys != null) {
+            for (KeyWrapper key : keys) {
+                if (use.equals(key.getUse()) && key.getAlgorithmOrDefault().equals(algorithm)) {
+                    return key;
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Pools the signature and MAC instances initialized with the keys of this snapshot, once it is shared.
+     */
+    void manageSignatureInstances() {
+        for (Key key : getKeys()) {
+            SignatureInstancePool.manage(key);
+        }
+    }
+
+    /**
+     * Discards the pooled signature and MAC instances initialized with the keys of this snapshot that are no longer
+     * part of the snapshot with the current keys of the realm replacing it.
+     */
+    void evictSignatureInstances(KeySnapshot current) {
+        Set<Key> currentKeys = Collections.newSetFromMap(new IdentityHashMap<>());
+        currentKeys.addAll(current.getKeys());
+        for (Key key : getKeys()) {
+            if (!currentKeys.contains(key)) {
+                SignatureInstancePool.evict(key);
+            }
+        }
+    }
+
+    private List<Key> getKeys() {
+        return Stream.concat(activeKeys.values().stream().flatMap(keys -> keys.values().stream()),
+                        keysByKid.values().stream().flatMap(List::stream))
+                .flatMap(key -> Stream.of(key.getPrivateKey(), key.getPublicKey(), key.getSecretKey()))
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Checks if this snapshot was built from exactly the given component instances, in the same order.
+     */
+    boolean isBuiltFrom(Iterator<ComponentModel> current) {
+        for (ComponentModel component : source) {
+            if (!current.hasNext() || current.next() != component) {
+                return false;
+            }
+        }
+        return !current.hasNext();
+    }
+}
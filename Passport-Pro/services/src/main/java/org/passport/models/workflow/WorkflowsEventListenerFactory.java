@@ -28,7 +28,6 @@ import org.passport.models.PassportSession;
 import org.passport.models.PassportSessionFactory;
 import org.passport.provider.EnvironmentDependentProviderFactory;
 import org.passport.provider.ProviderEvent;
-import org.passport.services.scheduled.ClusterAwareScheduledTaskRunner;
 import org.passport.timer.TimerProvider;
 
 public class WorkflowsEventListenerFactory implements EventListenerProviderFactory, EnvironmentDependentProviderFactory {
@@ -87,7 +86,8 @@ public class WorkflowsEventListenerFactory implements EventListenerProviderFacto
     private void scheduleStepRunnerTask(PassportSessionFactory factory) {
         try (PassportSession session = factory.create()) {
             TimerProvider timer = session.getProvider(TimerProvider.class);
-            timer.schedule(new ClusterAwareScheduledTaskRunner(factory, new WorkflowRunnerScheduledTask(factory), stepRunnerTaskInterval), stepRunnerTaskInterval);
+            // every node runs the task, due steps are claimed so that each step runs on a single node
+            timer.scheduleTask(new WorkflowRunnerScheduledTask(factory), stepRunnerTaskInterval);
         }
     }
 }
@@ -0,0 +1,83 @@
+/*
+ * Copyright 2026 Red Hat, Inc. and/or its affiliates
+ * and other contributors as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.passport.protocol;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+import org.passport.models.ProtocolMapperModel;
+
+/**
+ * Protocol mappers of a client and a set of its client scopes, resolved to their provider and sorted by priority.
+ * <p>
+ * A plan is built once for the mappers of the client and its scopes and then reused by every token issued for
+ * the same client and scopes, so the mappers need not be resolved, filtered and sorted for each token. A plan
+ * remembers the mapper models it was built from and is only reused as long as the current mappers are equal to
+ * them, so any update of a mapper, the client or one of the scopes leads to a new plan.
+ * <p>
+ * This class is thread safe, plans are shared between sessions.
+ *
+ * @see ProtocolMapperUtils#getProtocolMapperPlan
+ */
+public class ProtocolMapperPlan {
+
+    private final Set<ProtocolMapperModel> source;
+    private final List<Entry<ProtocolMapperModel, ProtocolMapper>> mappers;
+    private final Map<Class<?>, List<Entry<ProtocolMapperModel, ProtocolMapper>>> mappersByType = new ConcurrentHashMap<>();
+
+    ProtocolMapperPlan(Set<ProtocolMapperModel> source, List<Entry<ProtocolMapperModel, ProtocolMapper>> mappers) {
+        this.source = Set.copyOf(source);
+        this.mappers = List.copyOf(mappers);
+    }
+
+    /**
+     * Returns all mappers of the plan sorted by priority.
+     */
+    public List<Entry<ProtocolMapperModel, ProtocolMapper>> getMappers() {
+        return mappers;
+    }
+
+    /**
+     * Returns the mappers of the plan implementing the given mapper interface, like {@code OIDCAccessTokenMapper},
+     * sorted by priority.
+     */
+    public List<Entry<ProtocolMapperModel, ProtocolMapper>> getMappers(Class<?> mapperType) {
+        return mappersByType.computeIfAbsent(mapperType, type -> mappers.stream()
+                .filter(mapper -> type.isInstance(mapper.getValue()))
+                .collect(Collectors.toUnmodifiableList()));
+    }
+
+    /**
+     * Checks if this plan was built from exactly the given mapper models, comparing their configuration as well.
+     */
+    boolean isBuiltFrom(Iterator<ProtocolMapperModel> current) {
+        int count = 0;
+        while (current.hasNext()) {
+            if (!source.contains(current.next())) {
+                return false;
+            }
+            count++;
+        }
+        return count == source.size();
+    }
+}
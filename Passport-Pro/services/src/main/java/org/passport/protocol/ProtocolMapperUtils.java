@@ -21,11 +21,18 @@ import java.lang.reflect.Method;
 import java.util.AbstractMap;
 import java.util.Comparator;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map.Entry;
 import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.function.Predicate;
+import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
+import org.passport.models.ClientModel;
+import org.passport.models.ClientScopeModel;
 import org.passport.models.ClientSessionContext;
 import org.passport.models.PassportSession;
 import org.passport.models.PassportSessionFactory;
@@ -90,6 +97,11 @@ public class ProtocolMapperUtils {
 
     private static final HashMap<String, Method> ACCESSORS = new HashMap<>();
 
+    // Bounds the plans kept for clients with many distinct combinations of client scopes
+    private static final int MAX_PROTOCOL_MAPPER_PLANS = 10_000;
+
+    private static final ConcurrentMap<ProtocolMapperPlanKey, ProtocolMapperPlan> PROTOCOL_MAPPER_PLANS = new ConcurrentHashMap<>();
+
     // This caches known methods to avoid generating unnecessary failed lookups and exception at runtime which are expensive
     static {
         for (Method method : UserModel.class.getMethods()) {
@@ -169,6 +181,40 @@ public class ProtocolMapperUtils {
         return protocolMapperStream.sorted(Comparator.comparing(ProtocolMapperUtils::compare));
     }
 
+    /**
+     * Returns the plan of the protocol mappers of the client and client scopes of the given context. The plan is
+     * shared by all contexts with the same client and client scopes, until one of their mappers changes.
+     *
+     * @return the plan, never {@code null}
+     */
+    public static ProtocolMapperPlan getProtocolMapperPlan(PassportSession session, ClientSessionContext ctx) {
+        ClientModel client = ctx.getClientSession().getClient();
+        ProtocolMapperPlanKey key = new ProtocolMapperPlanKey(client.getId(), client.getProtocol(),
+                ctx.getClientScopesStream().map(ClientScopeModel::getId).collect(Collectors.toSet()));
+
+        ProtocolMapperPlan plan = PROTOCOL_MAPPER_PLANS.get(key);
+        if (plan != null && plan.isBuiltFrom(ctx.getProtocolMappersStream().iterator())) {
+            return plan;
+        }
+
+        Set<ProtocolMapperModel> source = ctx.getProtocolMappersStream().collect(Collectors.toSet());
+        List<Entry<ProtocolMapperModel, ProtocolMapper>> mappers = getSortedProtocolMappers(session, ctx).collect(Collectors.toList());
+        plan = new ProtocolMapperPlan(source, mappers);
+
+        if (PROTOCOL_MAPPER_PLANS.size() >= MAX_PROTOCOL_MAPPER_PLANS) {
+            PROTOCOL_MAPPER_PLANS.clear();
+        }
+        PROTOCOL_MAPPER_PLANS.put(key, plan);
+        return plan;
+    }
+
+    /**
+     * Drops all protocol mapper plans, for example after protocol mapper providers were redeployed.
+     */
+    public static void clearProtocolMapperPlans() {
+        PROTOCOL_MAPPER_PLANS.clear();
+    }
+
     public static int compare(Entry<ProtocolMapperModel, ProtocolMapper> entry) {
         int priority = entry.getValue().getPriority();
         return priority;
@@ -177,4 +223,7 @@ public class ProtocolMapperUtils {
     public static boolean isEnabled(PassportSession session, ProtocolMapperModel mapper) {
         return session.getPassportSessionFactory().getProviderFactory(ProtocolMapper.class, mapper.getProtocolMapper()) != null;
     }
+
+    private record ProtocolMapperPlanKey(String clientId, String protocol, Set<String> clientScopeIds) {
+    }
 }
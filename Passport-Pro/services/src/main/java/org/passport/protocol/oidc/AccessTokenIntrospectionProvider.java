@@ -59,6 +59,7 @@ public class AccessTokenIntrospectionProvider<T extends AccessToken> implements
     protected final RealmModel realm;
     private static final Logger logger = Logger.getLogger(AccessTokenIntrospectionProvider.class);
     protected EventBuilder eventBuilder;
+    private final IntrospectionResponseCache responseCache;
 
     // Those are set after successfully verified
     protected T token;
@@ -67,9 +68,14 @@ public class AccessTokenIntrospectionProvider<T extends AccessToken> implements
     protected UserModel user;
 
     public AccessTokenIntrospectionProvider(PassportSession session) {
+        this(session, null);
+    }
+
+    public AccessTokenIntrospectionProvider(PassportSession session, IntrospectionResponseCache responseCache) {
         this.session = session;
         this.realm = session.getContext().getRealm();
         this.tokenManager = new TokenManager();
+        this.responseCache = responseCache;
     }
 
     @Override
@@ -78,6 +84,17 @@ public class AccessTokenIntrospectionProvider<T extends AccessToken> implements
         AccessToken accessToken = null;
         try {
             ClientModel authenticatedClient = session.getContext().getClient();
+            boolean isJwtRequest = org.passport.utils.MediaType.APPLICATION_JWT.equals(session.getContext().getRequestHeaders().getHeaderString(HttpHeaders.ACCEPT))
+                    && Boolean.parseBoolean(authenticatedClient.getAttribute(Constants.SUPPORT_JWT_CLAIM_IN_INTROSPECTION_RESPONSE_ENABLED));
+
+            IntrospectionResponseCache.Key cacheKey = null;
+            if (responseCache != null && Boolean.parseBoolean(authenticatedClient.getAttribute(Constants.INTROSPECTION_RESPONSE_CACHE_ENABLED))) {
+                cacheKey = new IntrospectionResponseCache.Key(IntrospectionResponseCache.hash(tokenStr), authenticatedClient.getId(), isJwtRequest);
+                IntrospectionResponseCache.Entry cached = responseCache.get(cacheKey);
+                if (cached != null) {
+                    return cachedResponse(cached);
+                }
+            }
 
             ObjectNode tokenMetadata;
             if (introspectionChecks(tokenStr)) {
@@ -119,15 +136,20 @@ public class AccessTokenIntrospectionProvider<T extends AccessToken> implements
             }
 
             // if consumer requests application/jwt return a JWT representation of the introspection contents in an jwt field
-            if (accessToken != null) {
-                boolean isJwtRequest = org.passport.utils.MediaType.APPLICATION_JWT.equals(session.getContext().getRequestHeaders().getHeaderString(HttpHeaders.ACCEPT));
-                if (isJwtRequest && Boolean.parseBoolean(authenticatedClient.getAttribute(Constants.SUPPORT_JWT_CLAIM_IN_INTROSPECTION_RESPONSE_ENABLED))) {
-                    // consumers can use this to convert an opaque token into an JWT based token
-                    tokenMetadata.put("jwt", session.tokens().encode(accessToken));
-                }
+            if (accessToken != null && isJwtRequest) {
+                // consumers can use this to convert an opaque token into an JWT based token
+                tokenMetadata.put("jwt", session.tokens().encode(accessToken));
             }
 
-            return Response.ok(JsonSerialization.writeValueAsBytes(tokenMetadata)).type(MediaType.APPLICATION_JSON_TYPE).build();
+            byte[] response = JsonSerialization.writeValueAsBytes(tokenMetadata);
+
+            // only active tokens are cached, so an inactive token is checked again and its error event is sent every time
+            if (cacheKey != null && accessToken != null) {
+                responseCache.put(cacheKey, new IntrospectionResponseCache.Entry(response, realm.getId(), userSession.getId(), user.getId(),
+                        token.getId(), token.getType(), client.getClientId(), client.getId(), responseCache.expiration(token.getExp())));
+            }
+
+            return Response.ok(response).type(MediaType.APPLICATION_JSON_TYPE).build();
         } catch (Exception e) {
             String clientId = accessToken != null ? accessToken.getIssuedFor() : "unknown";
             logger.debugf(e, "Exception during Passport introspection for %s client in realm %s", clientId, realm.getName());
@@ -138,6 +160,16 @@ public class AccessTokenIntrospectionProvider<T extends AccessToken> implements
     }
 
 
+    private Response cachedResponse(IntrospectionResponseCache.Entry cached) {
+        eventBuilder.detail(Details.TOKEN_ID, cached.tokenId())
+                .detail(Details.TOKEN_TYPE, cached.tokenType())
+                .detail(Details.TOKEN_ISSUED_FOR, cached.issuedFor())
+                .session(cached.userSessionId())
+                .user(cached.userId())
+                .success();
+        return Response.ok(cached.response()).type(MediaType.APPLICATION_JSON_TYPE).build();
+    }
+
     public AccessToken transformAccessToken(AccessToken token, UserSessionModel userSession) {
         ClientModel client = realm.getClientByClientId(token.getIssuedFor());
         AuthenticatedClientSessionModel clientSession = userSession.getAuthenticatedClientSessionByClient(client.getId());
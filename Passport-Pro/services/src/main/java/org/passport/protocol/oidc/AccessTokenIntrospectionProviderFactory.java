@@ -17,9 +17,16 @@
  */
 package org.passport.protocol.oidc;
 
+import java.util.List;
+
 import org.passport.Config;
+import org.passport.cluster.ClusterProvider;
+import org.passport.config.MetricsOptions;
 import org.passport.models.PassportSession;
 import org.passport.models.PassportSessionFactory;
+import org.passport.models.utils.PostMigrationEvent;
+import org.passport.provider.ProviderConfigProperty;
+import org.passport.provider.ProviderConfigurationBuilder;
 
 /**
  * @author <a href="mailto:psilva@redhat.com">Pedro Igor</a>
@@ -28,28 +35,78 @@ public class AccessTokenIntrospectionProviderFactory implements TokenIntrospecti
 
     public static final String ACCESS_TOKEN_TYPE = "access_token";
 
+    private static final String RESPONSE_CACHE_MAX_SIZE_OPTION = "responseCacheMaxSize";
+    private static final String RESPONSE_CACHE_MAX_LIFESPAN_OPTION = "responseCacheMaxLifespan";
+    private static final int DEFAULT_RESPONSE_CACHE_MAX_SIZE = 0;
+    private static final long DEFAULT_RESPONSE_CACHE_MAX_LIFESPAN = 60000L;
+
+    private IntrospectionResponseCache responseCache;
+
     @Override
     public TokenIntrospectionProvider create(PassportSession session) {
-        return new AccessTokenIntrospectionProvider(session);
+        return new AccessTokenIntrospectionProvider(session, responseCache);
     }
 
     @Override
     public void init(Config.Scope config) {
-
+        int maxSize = config.getInt(RESPONSE_CACHE_MAX_SIZE_OPTION, DEFAULT_RESPONSE_CACHE_MAX_SIZE);
+        long maxLifespan = config.getLong(RESPONSE_CACHE_MAX_LIFESPAN_OPTION, DEFAULT_RESPONSE_CACHE_MAX_LIFESPAN);
+        if (maxSize > 0 && maxLifespan > 0) {
+            responseCache = new IntrospectionResponseCache(maxSize, maxLifespan, config.root().getBoolean(MetricsOptions.METRICS_ENABLED.getKey(), false));
+        }
     }
 
     @Override
     public void postInit(PassportSessionFactory factory) {
-
+        if (responseCache == null) {
+            return;
+        }
+        factory.register(event -> {
+            if (event instanceof PostMigrationEvent pme) {
+                try (PassportSession session = pme.getFactory().create()) {
+                    ClusterProvider clusterProvider = session.getProvider(ClusterProvider.class);
+                    if (clusterProvider != null) {
+                        clusterProvider.registerListener(IntrospectionResponseCache.CLUSTER_TASK_KEY, responseCache);
+                    }
+                }
+            }
+        });
     }
 
     @Override
     public void close() {
-
+        if (responseCache != null) {
+            responseCache.close();
+        }
     }
 
     @Override
     public String getId() {
         return ACCESS_TOKEN_TYPE;
     }
+
+    /**
+     * Returns the cache of introspection responses, or {@code null} if it is disabled.
+     */
+    public IntrospectionResponseCache getResponseCache() {
+        return responseCache;
+    }
+
+    @Override
+    public List<ProviderConfigProperty> getConfigMetadata() {
+        return ProviderConfigurationBuilder.create()
+                .property()
+                .name(RESPONSE_CACHE_MAX_SIZE_OPTION)
+                .type("int")
+                .helpText("Maximum number of introspection responses kept in the cache for clients that enable it. Use 0 to disable the cache.")
+                .defaultValue(DEFAULT_RESPONSE_CACHE_MAX_SIZE)
+                .add()
+                .property()
+                .name(RESPONSE_CACHE_MAX_LIFESPAN_OPTION)
+                .type("long")
+                .helpText("Maximum time in milliseconds for which an introspection response is served from the cache, even if the token is valid for longer.")
+                .defaultValue(DEFAULT_RESPONSE_CACHE_MAX_LIFESPAN)
+                .add()
+                .build();
+    }
 }
@@ -0,0 +1,94 @@
+/*
+ * Copyright 2026 Red Hat, Inc. and/or its affiliates
+ * and other contributors as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.passport.protocol.oidc;
+
+import org.passport.events.Details;
+import org.passport.events.Event;
+import org.passport.events.EventListenerProvider;
+import org.passport.events.EventListenerTransaction;
+import org.passport.events.EventType;
+import org.passport.events.admin.AdminEvent;
+import org.passport.events.admin.OperationType;
+import org.passport.models.PassportSession;
+
+/**
+ * Invalidates the cached introspection responses when a user session is logged out, removed or expires, when a token
+ * is revoked, and when an administrator changes a user or client, or logs out all the sessions of the realm.
+ * Invalidations are applied once the transaction completes, so a concurrent introspection does not cache the state
+ * before the change.
+ */
+public class IntrospectionCacheEventListenerProvider implements EventListenerProvider {
+
+    private final PassportSession session;
+    private final IntrospectionResponseCache cache;
+    private final EventListenerTransaction tx = new EventListenerTransaction(this::invalidate, this::invalidate);
+
+    public IntrospectionCacheEventListenerProvider(PassportSession session, IntrospectionResponseCache cache) {
+        this.session = session;
+        this.cache = cache;
+        if (cache != null) {
+            session.getTransactionManager().enlistAfterCompletion(tx);
+        }
+    }
+
+    @Override
+    public void onEvent(Event event) {
+        if (cache != null && (event.getType() == EventType.LOGOUT || event.getType() == EventType.USER_SESSION_DELETED
+                || event.getType() == EventType.REVOKE_GRANT) && event.getRealmId() != null) {
+            tx.addEvent(event);
+        }
+    }
+
+    @Override
+    public void onEvent(AdminEvent event, boolean includeRepresentation) {
+        if (cache != null && event.getError() == null && event.getOperationType() != OperationType.CREATE
+                && event.getRealmId() != null && event.getResourcePath() != null) {
+            tx.addAdminEvent(event, includeRepresentation);
+        }
+    }
+
+    private void invalidate(Event event) {
+        String tokenId = event.getDetails() == null ? null : event.getDetails().get(Details.TOKEN_ID);
+
+        if (event.getSessionId() != null) {
+            cache.invalidate(session, IntrospectionCacheInvalidationEvent.userSessionInvalidated(event.getRealmId(), event.getSessionId()));
+        } else if (tokenId != null) {
+            cache.invalidate(session, IntrospectionCacheInvalidationEvent.tokenInvalidated(event.getRealmId(), tokenId));
+        } else if (event.getUserId() != null) {
+            cache.invalidate(session, IntrospectionCacheInvalidationEvent.userInvalidated(event.getRealmId(), event.getUserId()));
+        }
+    }
+
+    private void invalidate(AdminEvent event, boolean includeRepresentation) {
+        String[] path = event.getResourcePath().split("/");
+
+        if (path.length == 1 && ("logout-all".equals(path[0]) || "push-revocation".equals(path[0]))) {
+            cache.invalidate(session, IntrospectionCacheInvalidationEvent.realmInvalidated(event.getRealmId()));
+        } else if (path.length >= 2 && "sessions".equals(path[0]) && event.getOperationType() == OperationType.DELETE) {
+            cache.invalidate(session, IntrospectionCacheInvalidationEvent.userSessionInvalidated(event.getRealmId(), path[1]));
+        } else if (path.length >= 2 && "users".equals(path[0])) {
+            cache.invalidate(session, IntrospectionCacheInvalidationEvent.userInvalidated(event.getRealmId(), path[1]));
+        } else if (path.length >= 2 && "clients".equals(path[0])) {
+            cache.invalidate(session, IntrospectionCacheInvalidationEvent.clientInvalidated(event.getRealmId(), path[1]));
+        }
+    }
+
+    @Override
+    public void close() {
+    }
+}
@@ -0,0 +1,61 @@
+/*
+ * Copyright 2026 Red Hat, Inc. and/or its affiliates
+ * and other contributors as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.passport.protocol.oidc;
+
+import org.passport.Config;
+import org.passport.events.EventListenerProvider;
+import org.passport.events.EventListenerProviderFactory;
+import org.passport.models.PassportSession;
+import org.passport.models.PassportSessionFactory;
+
+public class IntrospectionCacheEventListenerProviderFactory implements EventListenerProviderFactory {
+
+    public static final String ID = "introspection-cache-invalidation";
+
+    private IntrospectionResponseCache cache;
+
+    @Override
+    public EventListenerProvider create(PassportSession session) {
+        return new IntrospectionCacheEventListenerProvider(session, cache);
+    }
+
+    @Override
+    public boolean isGlobal() {
+        return true;
+    }
+
+    @Override
+    public void init(Config.Scope config) {
+    }
+
+    @Override
+    public void postInit(PassportSessionFactory factory) {
+        AccessTokenIntrospectionProviderFactory introspectionFactory = (AccessTokenIntrospectionProviderFactory) factory
+                .getProviderFactory(TokenIntrospectionProvider.class, AccessTokenIntrospectionProviderFactory.ACCESS_TOKEN_TYPE);
+        cache = introspectionFactory == null ? null : introspectionFactory.getResponseCache();
+    }
+
+    @Override
+    public void close() {
+    }
+
+    @Override
+    public String getId() {
+        return ID;
+    }
+}
@@ -0,0 +1,293 @@
+/*
+ * Copyright 2026 Red Hat, Inc. and/or its affiliates
+ * and other contributors as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.passport.protocol.oidc;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.BiPredicate;
+
+import org.passport.cluster.ClusterEvent;
+import org.passport.cluster.ClusterListener;
+import org.passport.cluster.ClusterProvider;
+import org.passport.common.util.Time;
+import org.passport.models.PassportSession;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Metrics;
+
+/**
+ * Remembers the responses of successful introspections of access tokens, so that resource servers introspecting the
+ * same token again and again do not verify the token, load the user session and run the protocol mappers every time.
+ * <p>
+ * Responses are kept per token and calling client, until the token expires or the maximum lifespan of the cache
+ * passes, whichever comes first. The number of responses is bounded, the least recently used response is evicted
+ * first. Responses are invalidated on all cluster nodes when the user session is logged out or removed, when the token
+ * is revoked and when the user, the client or the realm changes, see {@link IntrospectionCacheInvalidationEvent}.
+ */
+public final class IntrospectionResponseCache implements ClusterListener {
+
+    public static final String CLUSTER_TASK_KEY = "introspection-response-cache";
+
+    /**
+     * @param tokenHash the SHA-256 hash of the token, so the cache does not hold tokens
+     * @param clientId the internal id of the client calling the introspection endpoint
+     * @param jwt if the response holds the token as a JWT
+     */
+    public record Key(String tokenHash, String clientId, boolean jwt) {
+    }
+
+    /**
+     * @param response the serialized response
+     * @param realmId the realm of the token
+     * @param userSessionId the user session of the token
+     * @param userId the user of the token
+     * @param tokenId the id of the token
+     * @param tokenType the type of the token
+     * @param issuedFor the client id of the client the token was issued for
+     * @param issuedForId the internal id of the client the token was issued for
+     * @param expiration the time in milliseconds after which the response is not used anymore, see {@link #expiration(Long)}
+     */
+    public record Entry(byte[] response, String realmId, String userSessionId, String userId, String tokenId,
+                        String tokenType, String issuedFor, String issuedForId, long expiration) {
+    }
+
+    private final long maxLifespan;
+    private final Map<Key, Entry> entries;
+    private final Map<String, Set<Key>> keysByUserSession = new HashMap<>();
+    private final Counter hits;
+    private final Counter misses;
+
+    public IntrospectionResponseCache(int maxSize, long maxLifespan, boolean metricsEnabled) {
+        this.maxLifespan = maxLifespan;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, Entry> eldest) {
+                if (size() > maxSize) {
+                    unindex(eldest.getKey(), eldest.getValue());
+                    return true;
+                }
+                return false;
+            }
+        };
+
+        if (metricsEnabled) {
+            hits = Counter.builder("passport.introspection.cache")
+                    .description("Introspections of access tokens answered by the introspection response cache")
+                    .tag("result", "hit")
+                    .register(Metrics.globalRegistry);
+            misses = Counter.builder("passport.introspection.cache")
+                    .description("Introspections of access tokens answered by the introspection response cache")
+                    .tag("result", "miss")
+                    .register(Metrics.globalRegistry);
+        } else {
+            hits = null;
+            misses = null;
+        }
+    }
+
+    public static String hash(String token) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Returns the response for the key, or {@code null} if there is none or it has expired.
+     */
+    public Entry get(Key key) {
+        Entry entry;
+
+        synchronized (entries) {
+            entry = entries.get(key);
+
+            if (entry != null && entry.expiration() <= Time.currentTimeMillis()) {
+                remove(key);
+                entry = null;
+            }
+        }
+
+        Counter counter = entry != null ? hits : misses;
+
+        if (counter != null) {
+            counter.increment();
+        }
+
+        return entry;
+    }
+
+    /**
+     * Returns the expiration of a response for a token, which is when the token expires, but not later than the
+     * maximum lifespan of the cache.
+     *
+     * @param tokenExpiration the expiration of the token in seconds, or {@code null} if the token does not expire
+     */
+    public long expiration(Long tokenExpiration) {
+        long expiration = Time.currentTimeMillis() + maxLifespan;
+
+        if (tokenExpiration != null) {
+            expiration = Math.min(expiration, tokenExpiration * 1000);
+        }
+
+        return expiration;
+    }
+
+    public void put(Key key, Entry entry) {
+        synchronized (entries) {
+            Entry previous = entries.put(key, entry);
+
+            if (previous != null) {
+                unindex(key, previous);
+            }
+            if (entry.userSessionId() != null) {
+                keysByUserSession.computeIfAbsent(entry.userSessionId(), id -> new HashSet<>()).add(key);
+            }
+        }
+    }
+
+    /**
+     * Removes the responses for the tokens of the user session.
+     */
+    public void invalidateUserSession(String userSessionId) {
+        synchronized (entries) {
+            Set<Key> keys = keysByUserSession.remove(userSessionId);
+
+            if (keys != null) {
+                keys.forEach(entries::remove);
+            }
+        }
+    }
+
+    /**
+     * Removes the responses for the tokens of the user.
+     */
+    public void invalidateUser(String realmId, String userId) {
+        removeIf((key, entry) -> realmId.equals(entry.realmId()) && userId.equals(entry.userId()));
+    }
+
+    /**
+     * Removes the responses for the token.
+     */
+    public void invalidateToken(String realmId, String tokenId) {
+        removeIf((key, entry) -> realmId.equals(entry.realmId()) && tokenId.equals(entry.tokenId()));
+    }
+
+    /**
+     * Removes the responses for the tokens issued for the client, and the responses to the client.
+     */
+    public void invalidateClient(String clientId) {
+        removeIf((key, entry) -> clientId.equals(key.clientId()) || clientId.equals(entry.issuedForId()));
+    }
+
+    /**
+     * Removes the responses for all the tokens of the realm.
+     */
+    public void invalidateRealm(String realmId) {
+        removeIf((key, entry) -> realmId.equals(entry.realmId()));
+    }
+
+    /**
+     * Removes the responses on this node and notifies the other cluster nodes.
+     */
+    public void invalidate(PassportSession session, IntrospectionCacheInvalidationEvent event) {
+        eventReceived(event);
+
+        ClusterProvider cp = session.getProvider(ClusterProvider.class);
+
+        if (cp != null) {
+            cp.notify(CLUSTER_TASK_KEY, event, true);
+        }
+    }
+
+    @Override
+    public void eventReceived(ClusterEvent event) {
+        IntrospectionCacheInvalidationEvent invalidation = (IntrospectionCacheInvalidationEvent) event;
+
+        if (invalidation.getUserSessionId() != null) {
+            invalidateUserSession(invalidation.getUserSessionId());
+        } else if (invalidation.getUserId() != null) {
+            invalidateUser(invalidation.getRealmId(), invalidation.getUserId());
+        } else if (invalidation.getTokenId() != null) {
+            invalidateToken(invalidation.getRealmId(), invalidation.getTokenId());
+        } else if (invalidation.getClientId() != null) {
+            invalidateClient(invalidation.getClientId());
+        } else {
+            invalidateRealm(invalidation.getRealmId());
+        }
+    }
+
+    int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    public void close() {
+        if (hits != null) {
+            Metrics.globalRegistry.remove(hits);
+        }
+        if (misses != null) {
+            Metrics.globalRegistry.remove(misses);
+        }
+    }
+
+    private void removeIf(BiPredicate<Key, Entry> predicate) {
+        synchronized (entries) {
+            entries.entrySet().removeIf(e -> {
+                boolean remove = predicate.test(e.getKey(), e.getValue());
+                if (remove) {
+                    unindex(e.getKey(), e.getValue());
+                }
+                return remove;
+            });
+        }
+    }
+
+    private void remove(Key key) {
+        Entry entry = entries.remove(key);
+
+        if (entry != null) {
+            unindex(key, entry);
+        }
+    }
+
+    private void unindex(Key key, Entry entry) {
+        if (entry.userSessionId() == null) {
+            return;
+        }
+
+        Set<Key> keys = keysByUserSession.get(entry.userSessionId());
+
+        if (keys != null) {
+            keys.remove(key);
+
+            if (keys.isEmpty()) {
+                keysByUserSession.remove(entry.userSessionId());
+            }
+        }
+    }
+}
@@ -17,7 +17,13 @@
  */
 package org.passport.protocol.oidc;
 
+import java.util.Collections;
+import java.util.List;
+
+import org.passport.Config;
 import org.passport.models.PassportSession;
+import org.passport.models.PassportSessionFactory;
+import org.passport.provider.ProviderConfigProperty;
 
 /**
  * @author <a href="mailto:psilva@redhat.com">Pedro Igor</a>
@@ -31,8 +37,23 @@ public class RefreshTokenIntrospectionProviderFactory extends AccessTokenIntrosp
         return new RefreshTokenIntrospectionProvider(session);
     }
 
+    @Override
+    public void init(Config.Scope config) {
+        // refresh tokens are introspected rarely, the response cache is only for access tokens
+    }
+
+    @Override
+    public void postInit(PassportSessionFactory factory) {
+
+    }
+
     @Override
     public String getId() {
         return REFRESH_TOKEN_TYPE;
     }
+
+    @Override
+    public List<ProviderConfigProperty> getConfigMetadata() {
+        return Collections.emptyList();
+    }
 }
@@ -29,12 +29,8 @@ import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
-import java.util.function.BiConsumer;
-import java.util.function.BinaryOperator;
 import java.util.function.Function;
 import java.util.function.Predicate;
-import java.util.function.Supplier;
-import java.util.stream.Collector;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -818,13 +814,10 @@ public class TokenManager {
 
     public AccessToken transformAccessToken(PassportSession session, AccessToken token,
                                             UserSessionModel userSession, ClientSessionContext clientSessionCtx) {
-        AccessToken accessToken = ProtocolMapperUtils.getSortedProtocolMappers(session, clientSessionCtx, mapper -> mapper.getValue() instanceof OIDCAccessTokenMapper)
-                .collect(new TokenCollector<AccessToken>(token) {
-                    @Override
-                    protected AccessToken applyMapper(AccessToken token, Map.Entry<ProtocolMapperModel, ProtocolMapper> mapper) {
-                        return ((OIDCAccessTokenMapper) mapper.getValue()).transformAccessToken(token, mapper.getKey(), session, userSession, clientSessionCtx);
-                    }
-                });
+        AccessToken accessToken = token;
+        for (Map.Entry<ProtocolMapperModel, ProtocolMapper> mapper : getProtocolMappers(session, clientSessionCtx, OIDCAccessTokenMapper.class)) {
+            accessToken = ((OIDCAccessTokenMapper) mapper.getValue()).transformAccessToken(accessToken, mapper.getKey(), session, userSession, clientSessionCtx);
+        }
         final ClientModel[] requestedAudienceClients = clientSessionCtx.getAttribute(Constants.REQUESTED_AUDIENCE_CLIENTS, ClientModel[].class);
         if (requestedAudienceClients != null) {
             restrictRequestedAudience(accessToken, Arrays.stream(requestedAudienceClients)
@@ -837,35 +830,26 @@ public class TokenManager {
     public AccessTokenResponse transformAccessTokenResponse(PassportSession session, AccessTokenResponse accessTokenResponse,
             UserSessionModel userSession, ClientSessionContext clientSessionCtx) {
 
-        return ProtocolMapperUtils.getSortedProtocolMappers(session, clientSessionCtx, mapper -> mapper.getValue() instanceof OIDCAccessTokenResponseMapper)
-                .collect(new TokenCollector<AccessTokenResponse>(accessTokenResponse) {
-                    @Override
-                    protected AccessTokenResponse applyMapper(AccessTokenResponse token, Map.Entry<ProtocolMapperModel, ProtocolMapper> mapper) {
-                        return ((OIDCAccessTokenResponseMapper) mapper.getValue()).transformAccessTokenResponse(token, mapper.getKey(), session, userSession, clientSessionCtx);
-                    }
-                });
+        for (Map.Entry<ProtocolMapperModel, ProtocolMapper> mapper : getProtocolMappers(session, clientSessionCtx, OIDCAccessTokenResponseMapper.class)) {
+            accessTokenResponse = ((OIDCAccessTokenResponseMapper) mapper.getValue()).transformAccessTokenResponse(accessTokenResponse, mapper.getKey(), session, userSession, clientSessionCtx);
+        }
+        return accessTokenResponse;
     }
 
     public AccessToken transformUserInfoAccessToken(PassportSession session, AccessToken token,
                                                     UserSessionModel userSession, ClientSessionContext clientSessionCtx) {
-        return ProtocolMapperUtils.getSortedProtocolMappers(session, clientSessionCtx, mapper -> mapper.getValue() instanceof UserInfoTokenMapper)
-                .collect(new TokenCollector<AccessToken>(token) {
-                    @Override
-                    protected AccessToken applyMapper(AccessToken token, Map.Entry<ProtocolMapperModel, ProtocolMapper> mapper) {
-                        return ((UserInfoTokenMapper) mapper.getValue()).transformUserInfoToken(token, mapper.getKey(), session, userSession, clientSessionCtx);
-                    }
-                });
+        for (Map.Entry<ProtocolMapperModel, ProtocolMapper> mapper : getProtocolMappers(session, clientSessionCtx, UserInfoTokenMapper.class)) {
+            token = ((UserInfoTokenMapper) mapper.getValue()).transformUserInfoToken(token, mapper.getKey(), session, userSession, clientSessionCtx);
+        }
+        return token;
     }
 
     public AccessToken transformIntrospectionAccessToken(PassportSession session, AccessToken token,
                                                          UserSessionModel userSession, ClientSessionContext clientSessionCtx) {
-        return ProtocolMapperUtils.getSortedProtocolMappers(session, clientSessionCtx, mapper -> mapper.getValue() instanceof TokenIntrospectionTokenMapper)
-                .collect(new TokenCollector<AccessToken>(token) {
-                    @Override
-                    protected AccessToken applyMapper(AccessToken token, Map.Entry<ProtocolMapperModel, ProtocolMapper> mapper) {
-                        return ((TokenIntrospectionTokenMapper) mapper.getValue()).transformIntrospectionToken(token, mapper.getKey(), session, userSession, clientSessionCtx);
-                    }
-                });
+        for (Map.Entry<ProtocolMapperModel, ProtocolMapper> mapper : getProtocolMappers(session, clientSessionCtx, TokenIntrospectionTokenMapper.class)) {
+            token = ((TokenIntrospectionTokenMapper) mapper.getValue()).transformIntrospectionToken(token, mapper.getKey(), session, userSession, clientSessionCtx);
+        }
+        return token;
     }
 
     public Map<String, Object> generateUserInfoClaims(AccessToken userInfo, UserModel userModel) {
@@ -959,51 +943,16 @@ public class TokenManager {
         return claims;
     }
 
-    private abstract static class TokenCollector<T> implements Collector<Map.Entry<ProtocolMapperModel, ProtocolMapper>, TokenCollector<T>, T> {
-
-        private T token;
-
-        public TokenCollector(T token) {
-            this.token = token;
-        }
-
-        @Override
-        public Supplier<TokenCollector<T>> supplier() {
-            return () -> this;
-        }
-
-        @Override
-        public Function<TokenCollector<T>, T> finisher() {
-            return idTokenWrapper -> idTokenWrapper.token;
-        }
-
-        @Override
-        public Set<Collector.Characteristics> characteristics() {
-            return Collections.emptySet();
-        }
-
-        @Override
-        public BinaryOperator<TokenCollector<T>> combiner() {
-            return (tMutableWrapper, tMutableWrapper2) -> { throw new IllegalStateException("can't combine"); };
-        }
-
-        @Override
-        public BiConsumer<TokenCollector<T>, Map.Entry<ProtocolMapperModel, ProtocolMapper>> accumulator() {
-            return (idToken, mapper) -> idToken.token = applyMapper(idToken.token, mapper);
+    public IDToken transformIDToken(PassportSession session, IDToken token,
+                                    UserSessionModel userSession, ClientSessionContext clientSessionCtx) {
+        for (Map.Entry<ProtocolMapperModel, ProtocolMapper> mapper : getProtocolMappers(session, clientSessionCtx, OIDCIDTokenMapper.class)) {
+            token = ((OIDCIDTokenMapper) mapper.getValue()).transformIDToken(token, mapper.getKey(), session, userSession, clientSessionCtx);
         }
-
-        protected abstract T applyMapper(T token, Map.Entry<ProtocolMapperModel, ProtocolMapper> mapper);
-
+        return token;
     }
 
-    public IDToken transformIDToken(PassportSession session, IDToken token,
-                                    UserSessionModel userSession, ClientSessionContext clientSessionCtx) {
-        return ProtocolMapperUtils.getSortedProtocolMappers(session, clientSessionCtx, mapper -> mapper.getValue() instanceof OIDCIDTokenMapper)
-                .collect(new TokenCollector<IDToken>(token) {
-                    protected IDToken applyMapper(IDToken token, Map.Entry<ProtocolMapperModel, ProtocolMapper> mapper) {
-                        return ((OIDCIDTokenMapper) mapper.getValue()).transformIDToken(token, mapper.getKey(), session, userSession, clientSessionCtx);
-                    }
-                });
+    private static List<Map.Entry<ProtocolMapperModel, ProtocolMapper>> getProtocolMappers(PassportSession session, ClientSessionContext clientSessionCtx, Class<?> mapperType) {
+        return ProtocolMapperUtils.getProtocolMapperPlan(session, clientSessionCtx).getMappers(mapperType);
     }
 
     protected AccessToken initToken(PassportSession session, RealmModel realm, ClientModel client, UserModel user, UserSessionModel userSession,
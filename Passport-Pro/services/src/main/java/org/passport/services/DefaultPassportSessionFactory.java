@@ -39,9 +39,11 @@ import org.passport.common.util.MultivaluedHashMap;
 import org.passport.component.ComponentFactoryProvider;
 import org.passport.component.ComponentFactoryProviderFactory;
 import org.passport.component.ComponentModel;
+import org.passport.keys.DefaultKeyManager;
 import org.passport.models.PassportSession;
 import org.passport.models.PassportSessionFactory;
 import org.passport.models.ThemeManager;
+import org.passport.protocol.ProtocolMapperUtils;
 import org.passport.provider.EnvironmentDependentProviderFactory;
 import org.passport.provider.InvalidationHandler;
 import org.passport.provider.PassportDeploymentInfo;
@@ -224,6 +226,9 @@ public abstract class DefaultPassportSessionFactory implements PassportSessionFa
         if (pm.getInfo().hasThemes() || pm.getInfo().hasThemeResources()) {
             ((ThemeManagerFactory)getProviderFactory(ThemeManager.class)).clearCache();
         }
+        // plans hold the protocol mapper instances of the previous deployment, snapshots the keys of its key providers
+        ProtocolMapperUtils.clearProtocolMapperPlans();
+        DefaultKeyManager.clearKeySnapshots();
     }
 
     // Register SPIs of this providerManager, which are possibly not yet registered in this factory
@@ -261,6 +266,8 @@ public abstract class DefaultPassportSessionFactory implements PassportSessionFa
         for (ProviderFactory factory : undeployed) {
             factory.close();
         }
+        ProtocolMapperUtils.clearProtocolMapperPlans();
+        DefaultKeyManager.clearKeySnapshots();
     }
 
     protected void checkProvider() {
@@ -16,6 +16,7 @@ import jakarta.ws.rs.ext.Provider;
 
 import org.passport.Config;
 import org.passport.OAuthErrorException;
+import org.passport.credential.hash.PasswordHashingRejectedException;
 import org.passport.forms.login.MessageType;
 import org.passport.forms.login.freemarker.model.UrlBean;
 import org.passport.models.PassportSession;
@@ -81,7 +82,7 @@ public class PassportErrorHandler implements ExceptionMapper<Throwable> {
         Response.Status responseStatus = getResponseStatus(throwable);
         boolean isServerError = responseStatus.getFamily().equals(Response.Status.Family.SERVER_ERROR);
 
-        if (isServerError) {
+        if (isServerError && !(throwable instanceof PasswordHashingRejectedException)) {
             logger.error(UNCAUGHT_SERVER_ERROR_TEXT, throwable);
         } else {
             logger.debugv(throwable, ERROR_RESPONSE_TEXT, responseStatus);
@@ -146,6 +147,10 @@ public class PassportErrorHandler implements ExceptionMapper<Throwable> {
             return Response.Status.CONFLICT;
         }
 
+        if (throwable instanceof PasswordHashingRejectedException) {
+            return Response.Status.SERVICE_UNAVAILABLE;
+        }
+
         return Response.Status.INTERNAL_SERVER_ERROR;
     }
 
@@ -160,6 +165,10 @@ public class PassportErrorHandler implements ExceptionMapper<Throwable> {
             return "conflict";
         }
 
+        if (throwable instanceof PasswordHashingRejectedException) {
+            return OAuthErrorException.TEMPORARILY_UNAVAILABLE;
+        }
+
         if (throwable instanceof WebApplicationException && throwable.getMessage() != null) {
             return throwable.getMessage();
         }
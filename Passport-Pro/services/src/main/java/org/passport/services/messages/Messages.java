@@ -197,6 +197,8 @@ public class Messages {
 
     public static final String UNEXPECTED_ERROR_HANDLING_REQUEST = "unexpectedErrorHandlingRequestMessage";
 
+    public static final String TEMPORARILY_UNAVAILABLE = "temporarilyUnavailableMessage";
+
     public static final String INVALID_ACCESS_CODE = "invalidAccessCodeMessage";
 
     public static final String SESSION_NOT_ACTIVE = "sessionNotActiveMessage";
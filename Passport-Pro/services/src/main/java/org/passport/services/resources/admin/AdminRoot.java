@@ -248,7 +248,7 @@ public class AdminRoot {
             }
         }
 
-        Cors.builder().allowedOrigins(auth.getToken()).allowedMethods("GET", "PUT", "POST", "DELETE").exposedHeaders("Location").auth().add();
+        Cors.builder().allowedOrigins(auth.getToken()).allowedMethods("GET", "PUT", "POST", "DELETE").exposedHeaders("Location", UsersResource.CONTINUATION_TOKEN_HEADER).auth().add();
 
         return new RealmsAdminResource(session, auth, tokenManager);
     }
@@ -55,6 +55,8 @@ import org.passport.common.ClientConnection;
 import org.passport.common.Profile;
 import org.passport.common.VerificationException;
 import org.passport.common.util.PemUtils;
+import org.passport.credential.CredentialProvider;
+import org.passport.credential.PasswordCredentialProviderFactory;
 import org.passport.email.EmailAuthenticator;
 import org.passport.email.EmailException;
 import org.passport.email.EmailTemplateProvider;
@@ -94,6 +96,7 @@ import org.passport.representations.idm.ComponentRepresentation;
 import org.passport.representations.idm.EventRepresentation;
 import org.passport.representations.idm.GroupRepresentation;
 import org.passport.representations.idm.ManagementPermissionReference;
+import org.passport.representations.idm.PasswordHashMigrationRepresentation;
 import org.passport.representations.idm.RealmEventsConfigRepresentation;
 import org.passport.representations.idm.RealmRepresentation;
 import org.passport.services.ErrorResponse;
@@ -697,6 +700,61 @@ public class RealmAdminResource {
         return result;
     }
 
+    /**
+     * Scan the password hashes of the realm in the background. Hashes that don't match the password policy of the
+     * realm are upgraded on the next login of their user, as far as the rehash budget of the server allows.
+     *
+     * @return the progress of the scan
+     */
+    @Path("password-hash-migration")
+    @POST
+    @Produces(MediaType.APPLICATION_JSON)
+    @Tag(name = PassportOpenAPI.Admin.Tags.REALMS_ADMIN)
+    @Operation(
+            summary = "Scan the password hashes of the realm",
+            description = "Start scanning the password hashes of the realm in the background to report which ones are upgraded to the password policy on the next login. If a scan is already running, its progress is returned."
+    )
+    @APIResponses(value = {
+        @APIResponse(responseCode = "202", description = "Accepted", content = @Content(schema = @Schema(implementation = PasswordHashMigrationRepresentation.class))),
+        @APIResponse(responseCode = "403", description = "Forbidden")
+    })
+    public Response startPasswordHashMigration() {
+        auth.realm().requireManageRealm();
+
+        PasswordHashMigrationRepresentation rep = getPasswordCredentialProviderFactory().startHashMigration(session, realm);
+        adminEvent.operation(OperationType.ACTION).resourcePath(session.getContext().getUri()).success();
+        return Response.accepted(rep).build();
+    }
+
+    /**
+     * Get the progress of the migration of the password hashes of the realm.
+     *
+     * @return the progress of the migration
+     */
+    @Path("password-hash-migration")
+    @GET
+    @NoCache
+    @Produces(MediaType.APPLICATION_JSON)
+    @Tag(name = PassportOpenAPI.Admin.Tags.REALMS_ADMIN)
+    @Operation(
+            summary = "Get the progress of the password hash migration",
+            description = "Get the password hashes of the realm found by the last scan started on the server, the projected CPU time to upgrade them, and the number of hashes upgraded or deferred at login on the server since."
+    )
+    @APIResponses(value = {
+        @APIResponse(responseCode = "200", description = "OK", content = @Content(schema = @Schema(implementation = PasswordHashMigrationRepresentation.class))),
+        @APIResponse(responseCode = "403", description = "Forbidden")
+    })
+    public PasswordHashMigrationRepresentation getPasswordHashMigration() {
+        auth.realm().requireViewRealm();
+
+        return getPasswordCredentialProviderFactory().getHashMigration(realm);
+    }
+
+    private PasswordCredentialProviderFactory getPasswordCredentialProviderFactory() {
+        return (PasswordCredentialProviderFactory) session.getPassportSessionFactory()
+                .getProviderFactory(CredentialProvider.class, PasswordCredentialProviderFactory.PROVIDER_ID);
+    }
+
     /**
      * Removes all user sessions. Any client that has an admin url will also be told to invalidate any sessions
      * they have.
@@ -16,6 +16,7 @@
  */
 package org.passport.services.resources.admin;
 
+import java.io.IOException;
 import java.text.MessageFormat;
 import java.util.Arrays;
 import java.util.Collections;
@@ -45,6 +46,7 @@ import jakarta.ws.rs.core.Response;
 import org.passport.authorization.fgap.AdminPermissionsSchema;
 import org.passport.common.ClientConnection;
 import org.passport.common.Profile;
+import org.passport.common.util.Base64Url;
 import org.passport.events.admin.OperationType;
 import org.passport.events.admin.ResourceType;
 import org.passport.models.Constants;
@@ -67,9 +69,12 @@ import org.passport.services.ErrorResponseException;
 import org.passport.services.resources.PassportOpenAPI;
 import org.passport.services.resources.admin.fgap.AdminPermissionEvaluator;
 import org.passport.services.resources.admin.fgap.UserPermissionEvaluator;
+import org.passport.storage.UserStorageProvider;
+import org.passport.storage.UserStorageProviderModel;
 import org.passport.userprofile.UserProfile;
 import org.passport.userprofile.UserProfileContext;
 import org.passport.userprofile.UserProfileProvider;
+import org.passport.util.JsonSerialization;
 import org.passport.utils.SearchQueryUtils;
 
 import org.eclipse.microprofile.openapi.annotations.Operation;
@@ -100,6 +105,12 @@ public class UsersResource {
     private static final Logger logger = Logger.getLogger(UsersResource.class);
     private static final String SEARCH_ID_PARAMETER = "id:";
 
+    /**
+     * Response header with the continuation token of the next page of a user search. It is only set if the page is
+     * full, so there might be more users.
+     */
+    public static final String CONTINUATION_TOKEN_HEADER = "X-Continuation-Token";
+
     protected final RealmModel realm;
 
     private final AdminPermissionEvaluator auth;
@@ -262,6 +273,7 @@ public class UsersResource {
      * @param briefRepresentation Boolean which defines whether brief representations are returned (default: false)
      * @param exact Boolean which defines whether the params "last", "first", "email" and "username" must match exactly
      * @param searchQuery A query to search for custom attributes, in the format 'key1:value2 key2:value2'
+     * @param continuationToken The continuation token returned in the {@value #CONTINUATION_TOKEN_HEADER} header of the previous page, replaces the offset
      * @return a non-null {@code Stream} of users
      */
     @GET
@@ -287,7 +299,8 @@ public class UsersResource {
             @Parameter(description = "Boolean representing if user is enabled or not") @QueryParam("enabled") Boolean enabled,
             @Parameter(description = "Boolean which defines whether brief representations are returned (default: false)") @QueryParam("briefRepresentation") Boolean briefRepresentation,
             @Parameter(description = "Boolean which defines whether the params \"last\", \"first\", \"email\" and \"username\" must match exactly") @QueryParam("exact") Boolean exact,
-            @Parameter(description = "A query to search for custom attributes, in the format 'key1:value2 key2:value2'") @QueryParam("q") String searchQuery) {
+            @Parameter(description = "A query to search for custom attributes, in the format 'key1:value2 key2:value2'") @QueryParam("q") String searchQuery,
+            @Parameter(description = "The continuation token returned in the " + CONTINUATION_TOKEN_HEADER + " header of the previous page. Continues the search after the last user of that page and can not be combined with a pagination offset. Not supported in searches by id and in realms with user federation.") @QueryParam("after") String continuationToken) {
         UserPermissionEvaluator userPermissionEvaluator = auth.users();
 
         userPermissionEvaluator.requireQuery();
@@ -302,6 +315,10 @@ public class UsersResource {
         Stream<UserModel> userModels = Stream.empty();
         if (search != null) {
             if (search.startsWith(SEARCH_ID_PARAMETER)) {
+                // users are returned in the order of the given ids, there is nothing to continue after
+                if (continuationToken != null) {
+                    throw ErrorResponse.error("Continuation tokens are not supported in searches by id", Response.Status.BAD_REQUEST);
+                }
                 String[] userIds = search.substring(SEARCH_ID_PARAMETER.length()).trim().split("\\s+");
                 userModels = Arrays.stream(userIds).map(id -> session.users().getUserById(realm, id)).filter(Objects::nonNull);
                 if (AdminPermissionsSchema.SCHEMA.isAdminPermissionsEnabled(realm)) {
@@ -318,7 +335,7 @@ public class UsersResource {
                 }
 
                 return searchForUser(attributes, realm, userPermissionEvaluator, briefRepresentation, firstResult,
-                        maxResults, false);
+                        maxResults, false, continuationToken);
             }
         } else if (last != null || first != null || email != null || username != null || emailVerified != null
                 || idpAlias != null || idpUserId != null || enabled != null || exact != null || !searchAttributes.isEmpty()) {
@@ -354,10 +371,10 @@ public class UsersResource {
                     attributes.putAll(searchAttributes);
 
                     return searchForUser(attributes, realm, userPermissionEvaluator, briefRepresentation, firstResult,
-                            maxResults, true);
+                            maxResults, true, continuationToken);
                 } else {
                     return searchForUser(new HashMap<>(), realm, userPermissionEvaluator, briefRepresentation,
-                            firstResult, maxResults, false);
+                            firstResult, maxResults, false, continuationToken);
                 }
 
         return toRepresentation(realm, userPermissionEvaluator, briefRepresentation, userModels);
@@ -519,7 +536,7 @@ public class UsersResource {
         return new UserProfileResource(session, auth, adminEvent);
     }
 
-    private Stream<UserRepresentation> searchForUser(Map<String, String> attributes, RealmModel realm, UserPermissionEvaluator usersEvaluator, Boolean briefRepresentation, Integer firstResult, Integer maxResults, Boolean includeServiceAccounts) {
+    private Stream<UserRepresentation> searchForUser(Map<String, String> attributes, RealmModel realm, UserPermissionEvaluator usersEvaluator, Boolean briefRepresentation, Integer firstResult, Integer maxResults, Boolean includeServiceAccounts, String continuationToken) {
         attributes.put(UserModel.INCLUDE_SERVICE_ACCOUNT, includeServiceAccounts.toString());
 
         if (Profile.isFeatureEnabled(Profile.Feature.ADMIN_FINE_GRAINED_AUTHZ)) {
@@ -529,7 +546,57 @@ public class UsersResource {
             }
         }
 
-        return toRepresentation(realm, usersEvaluator, briefRepresentation, session.users().searchForUserStream(realm, attributes, firstResult, maxResults));
+        // Users of federation providers are merged into the results by their position, so they can only be paged with an offset
+        if (hasEnabledUserStorageProviders(realm)) {
+            if (continuationToken != null) {
+                throw ErrorResponse.error("Continuation tokens are not supported in realms with user federation", Response.Status.BAD_REQUEST);
+            }
+            return toRepresentation(realm, usersEvaluator, briefRepresentation, session.users().searchForUserStream(realm, attributes, firstResult, maxResults));
+        }
+
+        if (continuationToken != null) {
+            if (firstResult > 0) {
+                throw ErrorResponse.error("Continuation tokens can not be combined with a pagination offset", Response.Status.BAD_REQUEST);
+            }
+            String[] after = decodeContinuationToken(continuationToken);
+            attributes.put(UserModel.SEARCH_AFTER_USERNAME, after[0]);
+            attributes.put(UserModel.SEARCH_AFTER_ID, after[1]);
+            firstResult = -1;
+        }
+
+        List<UserModel> users = session.users().searchForUserStream(realm, attributes, firstResult, maxResults).toList();
+        if (maxResults > 0 && users.size() == maxResults) {
+            UserModel last = users.get(users.size() - 1);
+            session.getContext().getHttpResponse().setHeader(CONTINUATION_TOKEN_HEADER, encodeContinuationToken(last));
+        }
+
+        return toRepresentation(realm, usersEvaluator, briefRepresentation, users.stream());
+    }
+
+    private static boolean hasEnabledUserStorageProviders(RealmModel realm) {
+        return realm.getComponentsStream(realm.getId(), UserStorageProvider.class.getName())
+                .map(UserStorageProviderModel::new)
+                .anyMatch(UserStorageProviderModel::isEnabled);
+    }
+
+    private static String encodeContinuationToken(UserModel user) {
+        try {
+            return Base64Url.encode(JsonSerialization.writeValueAsBytes(List.of(user.getUsername(), user.getId())));
+        } catch (IOException e) {
+            throw new ModelException("Could not create continuation token", e);
+        }
+    }
+
+    private static String[] decodeContinuationToken(String continuationToken) {
+        try {
+            String[] after = JsonSerialization.readValue(Base64Url.decode(continuationToken), String[].class);
+            if (after.length == 2 && after[0] != null && after[1] != null) {
+                return after;
+            }
+        } catch (IOException | IllegalArgumentException e) {
+            logger.debugf(e, "Invalid continuation token %s", continuationToken);
+        }
+        throw ErrorResponse.error("Invalid continuation token", Response.Status.BAD_REQUEST);
     }
 
     private Stream<UserRepresentation> toRepresentation(RealmModel realm, UserPermissionEvaluator usersEvaluator, Boolean briefRepresentation, Stream<UserModel> userModels) {
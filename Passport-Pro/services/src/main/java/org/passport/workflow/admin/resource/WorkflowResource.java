@@ -17,6 +17,7 @@ import org.passport.models.ModelException;
 import org.passport.models.workflow.ResourceType;
 import org.passport.models.workflow.Workflow;
 import org.passport.models.workflow.WorkflowProvider;
+import org.passport.representations.workflows.WorkflowActivationRepresentation;
 import org.passport.representations.workflows.WorkflowRepresentation;
 import org.passport.services.ErrorResponse;
 import org.passport.services.resources.PassportOpenAPI;
@@ -154,6 +155,67 @@ public class WorkflowResource {
         provider.activate(workflow, type, resourceId);
     }
 
+    /**
+     * Activate the workflow for all eligible resources in the background. Resources for which the workflow is already
+     * active are skipped, so an activation that failed or was interrupted resumes where it stopped.
+     *
+     * @param notBefore optional value representing the time to schedule the first workflow step, overriding the first
+     *                  step time configuration (after). The value has the same format as for the activation of a single resource.
+     * @return the progress of the activation
+     */
+    @POST
+    @Path("activation")
+    @Produces(MediaType.APPLICATION_JSON)
+    @Tag(name = PassportOpenAPI.Admin.Tags.WORKFLOWS)
+    @Operation(
+            summary = "Activate workflow for all eligible resources",
+            description = "Start activating the workflow for all eligible resources in the background. If an activation is already running, its progress is returned."
+    )
+    @APIResponses(value = {
+            @APIResponse(responseCode = "202", description = "Accepted", content = @Content(schema = @Schema(implementation = WorkflowActivationRepresentation.class))),
+            @APIResponse(responseCode = "400", description = "Bad Request")
+    })
+    public Response activateAll(
+            @Parameter(
+                    description = "Optional value representing the time to schedule the first workflow step. " +
+                            "The value is either an integer representing the seconds from now, " +
+                            "an integer followed by 'ms' representing milliseconds from now, " +
+                            "or an ISO-8601 date string."
+            )
+            @QueryParam("notBefore") String notBefore
+    ) {
+        if (notBefore != null) {
+            workflow.setNotBefore(notBefore);
+        }
+
+        try {
+            WorkflowActivationRepresentation rep = provider.startActivationForAllEligibleResources(workflow);
+            return Response.accepted(rep).build();
+        } catch (ModelException me) {
+            throw ErrorResponse.error(me.getMessage(), Response.Status.BAD_REQUEST);
+        }
+    }
+
+    /**
+     * Get the progress of the activation of the workflow for all eligible resources.
+     *
+     * @return the progress of the activation
+     */
+    @GET
+    @Path("activation")
+    @Produces(MediaType.APPLICATION_JSON)
+    @Tag(name = PassportOpenAPI.Admin.Tags.WORKFLOWS)
+    @Operation(
+            summary = "Get activation progress",
+            description = "Get the progress of the last activation of the workflow for all eligible resources started on the server, and the number of eligible resources the workflow is not yet active for."
+    )
+    @APIResponses(value = {
+            @APIResponse(responseCode = "200", description = "OK", content = @Content(schema = @Schema(implementation = WorkflowActivationRepresentation.class)))
+    })
+    public WorkflowActivationRepresentation getActivation() {
+        return provider.getActivationForAllEligibleResources(workflow);
+    }
+
     /**
      * Deactivate the workflow for the resource.
      *
@@ -0,0 +1,252 @@
+/*
+ * Copyright 2026 Red Hat, Inc. and/or its affiliates
+ * and other contributors as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.passport.credential;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+
+import org.passport.common.crypto.CryptoIntegration;
+import org.passport.credential.hash.PasswordHashProvider;
+import org.passport.credential.hash.Pbkdf2PasswordHashProvider;
+import org.passport.executors.ExecutorsProvider;
+import org.passport.models.PassportContext;
+import org.passport.models.PassportSession;
+import org.passport.models.PassportSessionFactory;
+import org.passport.models.PassportTransactionManager;
+import org.passport.models.PasswordPolicy;
+import org.passport.models.RealmModel;
+import org.passport.models.RealmProvider;
+import org.passport.models.UserProvider;
+import org.passport.models.credential.PasswordCredentialModel;
+import org.passport.representations.idm.PasswordHashMigrationRepresentation;
+import org.passport.representations.idm.PasswordHashMigrationRepresentation.Status;
+import org.passport.storage.DatastoreProvider;
+import org.passport.storage.datastore.DefaultDatastoreProvider;
+
+import org.junit.After;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+public class PasswordHashMigrationJobTest {
+
+    private static final String REALM_ID = "realm";
+    private static final String POLICY_ALGORITHM = "pbkdf2-sha256";
+    private static final int POLICY_ITERATIONS = 1000;
+
+    private final PasswordHashProvider policyProvider = new Pbkdf2PasswordHashProvider(POLICY_ALGORITHM, "PBKDF2WithHmacSHA256", POLICY_ITERATIONS, 0, 256);
+    private final List<CredentialModel> credentials = new ArrayList<>();
+    // the id of the last credential of the previous page of each page read
+    private final List<String> pages = new ArrayList<>();
+
+    @BeforeClass
+    public static void init() {
+        CryptoIntegration.init(PasswordHashMigrationJobTest.class.getClassLoader());
+    }
+
+    @After
+    public void after() {
+        PasswordHashMigrationJob.remove(REALM_ID);
+    }
+
+    @Test
+    public void testScanGroupsHashesOverSeveralPages() {
+        for (int i = 0; i < 2500; i++) {
+            switch (i % 10) {
+                case 0 -> credentials.add(password(i, "pbkdf2-sha512", POLICY_ITERATIONS));
+                case 1, 2, 3 -> credentials.add(password(i, POLICY_ALGORITHM, 10));
+                default -> credentials.add(password(i, POLICY_ALGORITHM, POLICY_ITERATIONS));
+            }
+        }
+
+        PasswordHashMigrationRepresentation rep = start().toRepresentation();
+
+        assertEquals(Status.COMPLETED, rep.getStatus());
+        assertNull(rep.getError());
+        assertEquals(Arrays.asList(null, id(999), id(1999)), pages);
+        assertEquals(Long.valueOf(2500), rep.getScanned());
+        assertEquals(Long.valueOf(1000), rep.getUpgradeRequired());
+        assertEquals(List.of(
+                group(POLICY_ALGORITHM, "1000", false, 1500),
+                group(POLICY_ALGORITHM, "10", true, 750),
+                group("pbkdf2-sha512", "1000", true, 250)), groups(rep));
+        assertEquals(POLICY_ALGORITHM, rep.getAlgorithm());
+        assertEquals("1000", rep.getHashingStrength());
+        assertNotNull(rep.getHashCostMillis());
+        assertEquals(rep.getHashCostMillis() * 1000, rep.getProjectedCpuMillis(), 1);
+    }
+
+    @Test
+    public void testScanEndsWithEmptyPageAfterFullPages() {
+        for (int i = 0; i < 2000; i++) {
+            credentials.add(password(i, POLICY_ALGORITHM, i < 1500 ? POLICY_ITERATIONS : 10));
+        }
+
+        PasswordHashMigrationRepresentation rep = start().toRepresentation();
+
+        assertEquals(Status.COMPLETED, rep.getStatus());
+        assertEquals(Arrays.asList(null, id(999), id(1999)), pages);
+        assertEquals(Long.valueOf(2000), rep.getScanned());
+        assertEquals(Long.valueOf(500), rep.getUpgradeRequired());
+        assertEquals(List.of(
+                group(POLICY_ALGORITHM, "1000", false, 1500),
+                group(POLICY_ALGORITHM, "10", true, 500)), groups(rep));
+    }
+
+    @Test
+    public void testScanSkipsUnreadableCredentials() {
+        credentials.add(password(0, POLICY_ALGORITHM, POLICY_ITERATIONS));
+        CredentialModel unreadable = new CredentialModel();
+        unreadable.setId(id(1));
+        unreadable.setType(PasswordCredentialModel.TYPE);
+        unreadable.setCredentialData("not json");
+        credentials.add(unreadable);
+
+        PasswordHashMigrationRepresentation rep = start().toRepresentation();
+
+        assertEquals(Status.COMPLETED, rep.getStatus());
+        assertEquals(Long.valueOf(1), rep.getScanned());
+        assertEquals(Long.valueOf(0), rep.getUpgradeRequired());
+    }
+
+    private PasswordHashMigrationJob start() {
+        PassportSession session = session();
+        return PasswordHashMigrationJob.start(session, session.realms().getRealm(REALM_ID), new PasswordRehashBudget(-1, false));
+    }
+
+    private static List<String> groups(PasswordHashMigrationRepresentation rep) {
+        return rep.getHashes().stream()
+                .map(group -> group(group.getAlgorithm(), group.getHashingStrength(), group.getUpgradeRequired(), group.getCount()))
+                .toList();
+    }
+
+    private static String group(String algorithm, String hashingStrength, boolean upgradeRequired, long count) {
+        return algorithm + "/" + hashingStrength + (upgradeRequired ? " upgrade: " : ": ") + count;
+    }
+
+    private static String id(int i) {
+        return String.format("credential-%05d", i);
+    }
+
+    private static CredentialModel password(int i, String algorithm, int iterations) {
+        // a hash of 256 bits, the derived key size of the policy provider
+        String value = Base64.getEncoder().encodeToString(new byte[32]);
+        PasswordCredentialModel credential = PasswordCredentialModel.createFromValues(algorithm, new byte[16], iterations, value);
+        credential.setId(id(i));
+        return credential;
+    }
+
+    private PassportSession session() {
+        PassportSession[] session = new PassportSession[1];
+        Map<String, Object> attributes = new HashMap<>();
+        PassportSessionFactory factory = proxy(PassportSessionFactory.class, (method, args) -> {
+            if (method.equals("create")) {
+                return session[0];
+            }
+            throw new UnsupportedOperationException(method);
+        });
+        PassportTransactionManager transactionManager = proxy(PassportTransactionManager.class, (method, args) -> null);
+        PassportContext context = proxy(PassportContext.class, (method, args) -> null);
+        RealmModel realm = proxy(RealmModel.class, (method, args) -> switch (method) {
+            case "getId", "getName" -> REALM_ID;
+            case "getPasswordPolicy" -> PasswordPolicy.empty();
+            default -> throw new UnsupportedOperationException(method);
+        });
+        RealmProvider realms = proxy(RealmProvider.class, (method, args) -> {
+            if (method.equals("getRealm")) {
+                return REALM_ID.equals(args[0]) ? realm : null;
+            }
+            throw new UnsupportedOperationException(method);
+        });
+        // runs the job when it is started
+        ExecutorService executor = proxy(ExecutorService.class, (method, args) -> {
+            if (method.equals("execute")) {
+                ((Runnable) args[0]).run();
+                return null;
+            }
+            throw new UnsupportedOperationException(method);
+        });
+        ExecutorsProvider executors = proxy(ExecutorsProvider.class, (method, args) -> {
+            if (method.equals("getExecutor")) {
+                return executor;
+            }
+            throw new UnsupportedOperationException(method);
+        });
+        UserProvider users = userProvider();
+
+        session[0] = proxy(PassportSession.class, (method, args) -> switch (method) {
+            case "getPassportSessionFactory" -> factory;
+            case "getTransactionManager" -> transactionManager;
+            case "getContext" -> context;
+            case "realms" -> realms;
+            case "getAttribute" -> attributes.get((String) args[0]);
+            case "setAttribute" -> attributes.put((String) args[0], args[1]);
+            case "close" -> null;
+            case "getProvider" -> {
+                Class<?> type = (Class<?>) args[0];
+                if (type == PasswordHashProvider.class) {
+                    // only the hash provider of the policy is deployed
+                    yield args.length == 1 || POLICY_ALGORITHM.equals(args[1]) ? policyProvider : null;
+                } else if (type == ExecutorsProvider.class) {
+                    yield executors;
+                } else if (type == DatastoreProvider.class) {
+                    yield new DefaultDatastoreProvider(null, session[0]);
+                } else if (type == UserProvider.class) {
+                    yield users;
+                }
+                throw new UnsupportedOperationException(method + " " + type);
+            }
+            default -> throw new UnsupportedOperationException(method);
+        });
+        return session[0];
+    }
+
+    private UserProvider userProvider() {
+        return (UserProvider) Proxy.newProxyInstance(PasswordHashMigrationJobTest.class.getClassLoader(),
+                new Class<?>[] { UserProvider.class, UserCredentialStore.class }, (proxy, method, args) -> {
+                    if (method.getName().equals("getRealmCredentialsByTypeStream")) {
+                        String lastCredentialId = (String) args[2];
+                        pages.add(lastCredentialId);
+                        // credentials are ordered by id
+                        return credentials.stream()
+                                .filter(credential -> credential.getType().equals(args[1]))
+                                .filter(credential -> lastCredentialId == null || credential.getId().compareTo(lastCredentialId) > 0)
+                                .limit((Integer) args[3]);
+                    }
+                    throw new UnsupportedOperationException(method.getName());
+                });
+    }
+
+    private interface Handler {
+        Object invoke(String method, Object[] args);
+    }
+
+    private static <T> T proxy(Class<T> type, Handler handler) {
+        return type.cast(Proxy.newProxyInstance(PasswordHashMigrationJobTest.class.getClassLoader(), new Class<?>[] { type },
+                (proxy, method, args) -> handler.invoke(method.getName(), args)));
+    }
+}
@@ -0,0 +1,70 @@
+/*
+ * Copyright 2026 Red Hat, Inc. and/or its affiliates
+ * and other contributors as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.passport.credential;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class PasswordRehashBudgetTest {
+
+    @Test
+    public void testUnlimited() {
+        PasswordRehashBudget budget = new PasswordRehashBudget(-1, false);
+
+        for (int i = 0; i < 10; i++) {
+            assertTrue(budget.tryAcquire("realm"));
+            budget.consume("realm", TimeUnit.SECONDS.toNanos(10));
+        }
+
+        assertNull(budget.getBudgetMillisPerSecond());
+        assertEquals(10, budget.getUpgraded("realm"));
+        assertEquals(0, budget.getDeferred("realm"));
+    }
+
+    @Test
+    public void testDisabled() {
+        PasswordRehashBudget budget = new PasswordRehashBudget(0, false);
+
+        assertFalse(budget.tryAcquire("realm"));
+        assertEquals(Long.valueOf(0), budget.getBudgetMillisPerSecond());
+        assertEquals(1, budget.getDeferred("realm"));
+    }
+
+    @Test
+    public void testDefersWhenUsedUp() {
+        PasswordRehashBudget budget = new PasswordRehashBudget(100, false);
+
+        assertTrue(budget.tryAcquire("realm"));
+        // an upgrade taking a minute uses up the budget, which is only refilled for one second at most
+        budget.consume("realm", TimeUnit.MINUTES.toNanos(1));
+
+        assertFalse(budget.tryAcquire("realm"));
+        assertEquals(1, budget.getUpgraded("realm"));
+        assertEquals(1, budget.getDeferred("realm"));
+        assertEquals(0, budget.getDeferred("other"));
+
+        budget.remove("realm");
+        assertEquals(0, budget.getUpgraded("realm"));
+    }
+}
@@ -0,0 +1,92 @@
+/*
+ * Copyright 2026 Red Hat, Inc. and/or its affiliates
+ * and other contributors as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.passport.keys;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Stream;
+import javax.crypto.SecretKey;
+import javax.crypto.spec.SecretKeySpec;
+
+import org.passport.crypto.Algorithm;
+import org.passport.crypto.KeyStatus;
+import org.passport.crypto.KeyUse;
+import org.passport.crypto.KeyWrapper;
+import org.passport.crypto.SignatureInstancePool;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class KeySnapshotTest {
+
+    @After
+    public void after() {
+        SignatureInstancePool.clear();
+    }
+
+    @Test
+    public void testKeysOfSharedSnapshotPooled() throws Exception {
+        KeyWrapper key = key("kid-1", KeyStatus.ACTIVE);
+        KeySnapshot snapshot = snapshot(key);
+
+        Assert.assertSame(key, snapshot.getActiveKey(KeyUse.SIG, Algorithm.HS256));
+        Assert.assertSame(key, snapshot.getKey("kid-1", KeyUse.SIG, Algorithm.HS256));
+        Assert.assertFalse(isPooled(key.getSecretKey()));
+
+        snapshot.manageSignatureInstances();
+
+        Assert.assertTrue(isPooled(key.getSecretKey()));
+    }
+
+    @Test
+    public void testOnlyRemovedKeysEvicted() throws Exception {
+        KeyWrapper kept = key("kid-1", KeyStatus.PASSIVE);
+        KeyWrapper removed = key("kid-2", KeyStatus.ACTIVE);
+        KeySnapshot previous = snapshot(kept, removed);
+        previous.manageSignatureInstances();
+
+        KeySnapshot current = snapshot(key("kid-3", KeyStatus.ACTIVE), kept);
+        current.manageSignatureInstances();
+        previous.evictSignatureInstances(current);
+
+        Assert.assertTrue(isPooled(kept.getSecretKey()));
+        Assert.assertFalse(isPooled(removed.getSecretKey()));
+    }
+
+    private static KeySnapshot snapshot(KeyWrapper... keys) {
+        KeyProvider provider = () -> Stream.of(keys);
+        return new KeySnapshot(Collections.emptyList(), List.of(provider));
+    }
+
+    private static KeyWrapper key(String kid, KeyStatus status) {
+        KeyWrapper key = new KeyWrapper();
+        key.setKid(kid);
+        key.setUse(KeyUse.SIG);
+        key.setStatus(status);
+        key.setAlgorithm(Algorithm.HS256);
+        key.setSecretKey(new SecretKeySpec(new byte[32], "HmacSHA256"));
+        return key;
+    }
+
+    private static boolean isPooled(SecretKey key) throws Exception {
+        Object instance = new Object();
+        SignatureInstancePool.release(key, "HMACSHA256", instance);
+        return SignatureInstancePool.borrow(key, "HMACSHA256", () -> null) == instance;
+    }
+}
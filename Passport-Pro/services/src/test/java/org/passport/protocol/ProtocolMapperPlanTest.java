@@ -0,0 +1,74 @@
+/*
+ * Copyright 2026 Red Hat, Inc. and/or its affiliates
+ * and other contributors as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.passport.protocol;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.passport.models.ProtocolMapperModel;
+import org.passport.protocol.oidc.mappers.HardcodedClaim;
+import org.passport.protocol.oidc.mappers.OIDCAccessTokenMapper;
+import org.passport.protocol.saml.mappers.HardcodedAttributeMapper;
+import org.passport.protocol.saml.mappers.SAMLAttributeStatementMapper;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class ProtocolMapperPlanTest {
+
+    private final ProtocolMapperModel claim = mapperModel("claim", HardcodedClaim.PROVIDER_ID);
+    private final ProtocolMapperModel attribute = mapperModel("attribute", HardcodedAttributeMapper.PROVIDER_ID);
+
+    private final ProtocolMapperPlan plan = new ProtocolMapperPlan(Set.of(claim, attribute), List.of(
+            Map.entry(claim, new HardcodedClaim()),
+            Map.entry(attribute, new HardcodedAttributeMapper())));
+
+    @Test
+    public void getMappersByType() {
+        Assert.assertEquals(2, plan.getMappers().size());
+        Assert.assertEquals(List.of(claim), plan.getMappers(OIDCAccessTokenMapper.class).stream().map(Map.Entry::getKey).toList());
+        Assert.assertEquals(List.of(attribute), plan.getMappers(SAMLAttributeStatementMapper.class).stream().map(Map.Entry::getKey).toList());
+        Assert.assertSame(plan.getMappers(OIDCAccessTokenMapper.class), plan.getMappers(OIDCAccessTokenMapper.class));
+    }
+
+    @Test
+    public void isBuiltFrom() {
+        Assert.assertTrue(plan.isBuiltFrom(List.of(attribute, claim).iterator()));
+        Assert.assertTrue(plan.isBuiltFrom(List.of(mapperModel("claim", HardcodedClaim.PROVIDER_ID), attribute).iterator()));
+
+        Assert.assertFalse(plan.isBuiltFrom(List.of(claim).iterator()));
+        Assert.assertFalse(plan.isBuiltFrom(List.of(claim, attribute, mapperModel("other", HardcodedClaim.PROVIDER_ID)).iterator()));
+
+        ProtocolMapperModel updated = mapperModel("claim", HardcodedClaim.PROVIDER_ID);
+        updated.getConfig().put("claim.value", "updated");
+        Assert.assertFalse(plan.isBuiltFrom(List.of(updated, attribute).iterator()));
+    }
+
+    private static ProtocolMapperModel mapperModel(String id, String providerId) {
+        ProtocolMapperModel model = new ProtocolMapperModel();
+        model.setId(id);
+        model.setName(id);
+        model.setProtocolMapper(providerId);
+        Map<String, String> config = new HashMap<>();
+        config.put("claim.value", "value");
+        model.setConfig(config);
+        return model;
+    }
+}
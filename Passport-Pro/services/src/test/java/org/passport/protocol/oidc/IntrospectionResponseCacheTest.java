@@ -0,0 +1,123 @@
+/*
+ * Copyright 2026 Red Hat, Inc. and/or its affiliates
+ * and other contributors as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.passport.protocol.oidc;
+
+import org.passport.common.util.Time;
+
+import org.junit.After;
+import org.junit.Test;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.notNullValue;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+public class IntrospectionResponseCacheTest {
+
+    private final IntrospectionResponseCache cache = new IntrospectionResponseCache(2, 60000, false);
+
+    @After
+    public void after() {
+        Time.setOffset(0);
+        cache.close();
+    }
+
+    @Test
+    public void testResponsePerTokenAndClient() {
+        IntrospectionResponseCache.Key key = key("token", "rs1");
+        cache.put(key, entry("session", "user", "token-id", "app", null));
+
+        assertThat(cache.get(key("token", "rs1")), notNullValue());
+        assertThat(cache.get(key("token", "rs2")), nullValue());
+        assertThat(cache.get(key("other", "rs1")), nullValue());
+        assertThat(cache.get(new IntrospectionResponseCache.Key(key.tokenHash(), "rs1", true)), nullValue());
+    }
+
+    @Test
+    public void testExpirationBoundedByToken() {
+        long tokenExpiration = Time.currentTime() + 30L;
+        cache.put(key("token", "rs1"), entry("session", "user", "token-id", "app", tokenExpiration));
+
+        Time.setOffset(31);
+
+        assertThat(cache.get(key("token", "rs1")), nullValue());
+    }
+
+    @Test
+    public void testExpirationBoundedByMaxLifespan() {
+        cache.put(key("token", "rs1"), entry("session", "user", "token-id", "app", Time.currentTime() + 3600L));
+
+        Time.setOffset(61);
+
+        assertThat(cache.get(key("token", "rs1")), nullValue());
+    }
+
+    @Test
+    public void testLeastRecentlyUsedResponseEvicted() {
+        cache.put(key("a", "rs1"), entry("s1", "user", "a", "app", null));
+        cache.put(key("b", "rs1"), entry("s2", "user", "b", "app", null));
+        cache.get(key("a", "rs1"));
+        cache.put(key("c", "rs1"), entry("s3", "user", "c", "app", null));
+
+        assertThat(cache.size(), is(2));
+        assertThat(cache.get(key("a", "rs1")), notNullValue());
+        assertThat(cache.get(key("b", "rs1")), nullValue());
+        assertThat(cache.get(key("c", "rs1")), notNullValue());
+    }
+
+    @Test
+    public void testInvalidation() {
+        cache.put(key("a", "rs1"), entry("s1", "u1", "a", "app1", null));
+        cache.put(key("a", "rs2"), entry("s1", "u1", "a", "app1", null));
+
+        cache.eventReceived(IntrospectionCacheInvalidationEvent.userSessionInvalidated("realm", "s1"));
+        assertThat(cache.size(), is(0));
+
+        cache.put(key("a", "rs1"), entry("s1", "u1", "a", "app1", null));
+        cache.eventReceived(IntrospectionCacheInvalidationEvent.userInvalidated("realm", "u2"));
+        assertThat(cache.size(), is(1));
+        cache.eventReceived(IntrospectionCacheInvalidationEvent.userInvalidated("realm", "u1"));
+        assertThat(cache.size(), is(0));
+
+        cache.put(key("a", "rs1"), entry("s1", "u1", "a", "app1", null));
+        cache.eventReceived(IntrospectionCacheInvalidationEvent.tokenInvalidated("realm", "a"));
+        assertThat(cache.size(), is(0));
+
+        cache.put(key("a", "rs1"), entry("s1", "u1", "a", "app1", null));
+        cache.put(key("b", "rs2"), entry("s2", "u1", "b", "app2", null));
+        cache.eventReceived(IntrospectionCacheInvalidationEvent.clientInvalidated("realm", "app1-id"));
+        assertThat(cache.size(), is(1));
+        cache.eventReceived(IntrospectionCacheInvalidationEvent.clientInvalidated("realm", "rs2"));
+        assertThat(cache.size(), is(0));
+
+        cache.put(key("a", "rs1"), entry("s1", "u1", "a", "app1", null));
+        cache.eventReceived(IntrospectionCacheInvalidationEvent.realmInvalidated("other"));
+        assertThat(cache.size(), is(1));
+        cache.eventReceived(IntrospectionCacheInvalidationEvent.realmInvalidated("realm"));
+        assertThat(cache.size(), is(0));
+    }
+
+    private static IntrospectionResponseCache.Key key(String token, String clientId) {
+        return new IntrospectionResponseCache.Key(IntrospectionResponseCache.hash(token), clientId, false);
+    }
+
+    private IntrospectionResponseCache.Entry entry(String userSessionId, String userId, String tokenId, String issuedFor, Long tokenExpiration) {
+        return new IntrospectionResponseCache.Entry(new byte[0], "realm", userSessionId, userId, tokenId, "Bearer", issuedFor,
+                issuedFor + "-id", cache.expiration(tokenExpiration));
+    }
+}
@@ -0,0 +1,340 @@
+/*
+ * Copyright 2026 Red Hat, Inc. and/or its affiliates
+ * and other contributors as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.passport.protocol.oidc;
+
+import java.lang.reflect.Proxy;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.ServiceLoader;
+import java.util.stream.Stream;
+
+import jakarta.ws.rs.core.HttpHeaders;
+import jakarta.ws.rs.core.Response;
+
+import org.passport.Config;
+import org.passport.cluster.ClusterEvent;
+import org.passport.cluster.ClusterProvider;
+import org.passport.events.Details;
+import org.passport.events.Event;
+import org.passport.events.EventBuilder;
+import org.passport.events.EventListenerProvider;
+import org.passport.events.EventListenerProviderFactory;
+import org.passport.events.EventType;
+import org.passport.events.admin.AdminEvent;
+import org.passport.events.admin.OperationType;
+import org.passport.models.ClientModel;
+import org.passport.models.Constants;
+import org.passport.models.PassportContext;
+import org.passport.models.PassportSession;
+import org.passport.models.PassportSessionFactory;
+import org.passport.models.PassportTransaction;
+import org.passport.models.PassportTransactionManager;
+import org.passport.models.RealmModel;
+import org.passport.tracing.TracingProvider;
+
+import io.opentelemetry.api.trace.Span;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.hamcrest.CoreMatchers.instanceOf;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.notNullValue;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+/**
+ * Tests the introspection response cache together with the introspection provider, the event listener that
+ * invalidates it and the factories that wire them.
+ */
+public class IntrospectionResponseCachingTest {
+
+    private static final String CONFIG_PREFIX = "introspection-caching-test.";
+    private static final String TOKEN = "token";
+
+    private final List<PassportTransaction> afterCompletion = new ArrayList<>();
+    private final List<ClusterEvent> notified = new ArrayList<>();
+    private final AccessTokenIntrospectionProviderFactory introspectionFactory = new AccessTokenIntrospectionProviderFactory();
+    private final IntrospectionCacheEventListenerProviderFactory listenerFactory = new IntrospectionCacheEventListenerProviderFactory();
+    private IntrospectionResponseCache cache;
+    private PassportSession session;
+    private String cachingEnabled = "true";
+
+    @Before
+    public void before() {
+        System.setProperty(CONFIG_PREFIX + "responseCacheMaxSize", "10");
+        introspectionFactory.init(new Config.SystemPropertiesScope(CONFIG_PREFIX));
+        cache = introspectionFactory.getResponseCache();
+
+        RealmModel realm = stub(RealmModel.class, Map.of("getId", "realm", "getName", "realm"));
+        ClientModel resourceServer = (ClientModel) Proxy.newProxyInstance(getClass().getClassLoader(), new Class[]{ClientModel.class}, (proxy, method, args) -> {
+            if (method.getName().equals("getId")) {
+                return "rs-id";
+            }
+            if (method.getName().equals("getAttribute")) {
+                return Constants.INTROSPECTION_RESPONSE_CACHE_ENABLED.equals(args[0]) ? cachingEnabled : null;
+            }
+            return defaultValue(method.getReturnType());
+        });
+        PassportContext context = stub(PassportContext.class, Map.of("getRealm", realm, "getClient", resourceServer,
+                "getRequestHeaders", stub(HttpHeaders.class, Map.of())));
+        PassportTransactionManager transactionManager = (PassportTransactionManager) Proxy.newProxyInstance(getClass().getClassLoader(), new Class[]{PassportTransactionManager.class}, (proxy, method, args) -> {
+            if (method.getName().equals("enlistAfterCompletion")) {
+                afterCompletion.add((PassportTransaction) args[0]);
+            }
+            return defaultValue(method.getReturnType());
+        });
+        ClusterProvider clusterProvider = (ClusterProvider) Proxy.newProxyInstance(getClass().getClassLoader(), new Class[]{ClusterProvider.class}, (proxy, method, args) -> {
+            if (method.getName().equals("notify")) {
+                notified.add((ClusterEvent) args[1]);
+            }
+            return defaultValue(method.getReturnType());
+        });
+        TracingProvider tracing = stub(TracingProvider.class, Map.of("getCurrentSpan", Span.getInvalid()));
+        PassportSessionFactory sessionFactory = (PassportSessionFactory) Proxy.newProxyInstance(getClass().getClassLoader(), new Class[]{PassportSessionFactory.class}, (proxy, method, args) -> {
+            if (method.getName().equals("getProviderFactory") && args.length == 2
+                    && AccessTokenIntrospectionProviderFactory.ACCESS_TOKEN_TYPE.equals(args[1])) {
+                return introspectionFactory;
+            }
+            return defaultValue(method.getReturnType());
+        });
+        session = (PassportSession) Proxy.newProxyInstance(getClass().getClassLoader(), new Class[]{PassportSession.class}, (proxy, method, args) -> {
+            switch (method.getName()) {
+                case "getContext":
+                    return context;
+                case "getTransactionManager":
+                    return transactionManager;
+                case "getPassportSessionFactory":
+                    return sessionFactory;
+                case "getProvider":
+                    if (args[0] == ClusterProvider.class) {
+                        return clusterProvider;
+                    }
+                    if (args[0] == TracingProvider.class) {
+                        return tracing;
+                    }
+                    return null;
+                default:
+                    return defaultValue(method.getReturnType());
+            }
+        });
+
+        listenerFactory.postInit(sessionFactory);
+    }
+
+    @After
+    public void after() {
+        System.clearProperty(CONFIG_PREFIX + "responseCacheMaxSize");
+        introspectionFactory.close();
+    }
+
+    @Test
+    public void testCachedResponseReturnedWithoutVerification() throws Exception {
+        cache.put(key(), entry("session", "user", "token-id"));
+        EventBuilder event = new EventBuilder(session.getContext().getRealm(), session).event(EventType.INTROSPECT_TOKEN);
+
+        Response response = introspectionFactory.create(session).introspect(TOKEN, event);
+
+        assertThat(response.getStatus(), is(200));
+        assertThat(new String((byte[]) response.getEntity(), StandardCharsets.UTF_8), is("{\"active\":true}"));
+        assertThat(event.getEvent().getType(), is(EventType.INTROSPECT_TOKEN));
+        assertThat(event.getEvent().getSessionId(), is("session"));
+        assertThat(event.getEvent().getUserId(), is("user"));
+        assertThat(event.getEvent().getDetails().get(Details.TOKEN_ID), is("token-id"));
+        assertThat(event.getEvent().getDetails().get(Details.TOKEN_ISSUED_FOR), is("app"));
+    }
+
+    @Test
+    public void testCacheNotUsedForClientWithoutOptIn() {
+        cachingEnabled = "false";
+        cache.put(key(), entry("session", "user", "token-id"));
+        EventBuilder event = new EventBuilder(session.getContext().getRealm(), session).event(EventType.INTROSPECT_TOKEN);
+
+        try {
+            // without the cache, the token is verified, which needs more of the session than is stubbed here
+            introspectionFactory.create(session).introspect(TOKEN, event);
+        } catch (RuntimeException expected) {
+        }
+
+        assertThat(event.getEvent().getSessionId(), nullValue());
+    }
+
+    @Test
+    public void testRefreshTokenIntrospectionHasNoCache() {
+        RefreshTokenIntrospectionProviderFactory refreshFactory = new RefreshTokenIntrospectionProviderFactory();
+        refreshFactory.init(new Config.SystemPropertiesScope(CONFIG_PREFIX));
+
+        assertThat(refreshFactory.getResponseCache(), nullValue());
+    }
+
+    @Test
+    public void testLogoutInvalidatesAfterCommit() {
+        EventListenerProvider listener = listenerFactory.create(session);
+        assertThat(listener, instanceOf(IntrospectionCacheEventListenerProvider.class));
+        cache.put(key(), entry("session", "user", "token-id"));
+
+        Event logout = new Event();
+        logout.setType(EventType.LOGOUT);
+        logout.setRealmId("realm");
+        logout.setSessionId("session");
+        listener.onEvent(logout);
+
+        assertThat(cache.get(key()), notNullValue());
+
+        commit();
+
+        assertThat(cache.get(key()), nullValue());
+        assertThat(notified, is(List.of(IntrospectionCacheInvalidationEvent.userSessionInvalidated("realm", "session"))));
+    }
+
+    @Test
+    public void testRollbackDoesNotInvalidate() {
+        EventListenerProvider listener = listenerFactory.create(session);
+        cache.put(key(), entry("session", "user", "token-id"));
+
+        Event logout = new Event();
+        logout.setType(EventType.USER_SESSION_DELETED);
+        logout.setRealmId("realm");
+        logout.setSessionId("session");
+        listener.onEvent(logout);
+
+        for (PassportTransaction tx : afterCompletion) {
+            tx.begin();
+            tx.rollback();
+        }
+
+        assertThat(cache.get(key()), notNullValue());
+        assertThat(notified.isEmpty(), is(true));
+    }
+
+    @Test
+    public void testAccessTokenRevocationInvalidatesToken() {
+        EventListenerProvider listener = listenerFactory.create(session);
+        cache.put(key(), entry("session", "user", "token-id"));
+
+        Event revoke = new Event();
+        revoke.setType(EventType.REVOKE_GRANT);
+        revoke.setRealmId("realm");
+        revoke.setDetails(Map.of(Details.TOKEN_ID, "token-id"));
+        listener.onEvent(revoke);
+        commit();
+
+        assertThat(cache.get(key()), nullValue());
+        assertThat(notified, is(List.of(IntrospectionCacheInvalidationEvent.tokenInvalidated("realm", "token-id"))));
+    }
+
+    @Test
+    public void testAdminEvents() {
+        EventListenerProvider listener = listenerFactory.create(session);
+        cache.put(key(), entry("session", "user", "token-id"));
+
+        listener.onEvent(adminEvent(OperationType.CREATE, "users/user"), false);
+        listener.onEvent(adminEvent(OperationType.UPDATE, "users/other"), false);
+        commit();
+
+        assertThat(cache.get(key()), notNullValue());
+
+        listener = listenerFactory.create(session);
+        listener.onEvent(adminEvent(OperationType.ACTION, "users/user/logout"), false);
+        commit();
+
+        assertThat(cache.get(key()), nullValue());
+
+        cache.put(key(), entry("session", "user", "token-id"));
+        listener = listenerFactory.create(session);
+        listener.onEvent(adminEvent(OperationType.ACTION, "logout-all"), false);
+        commit();
+
+        assertThat(cache.get(key()), nullValue());
+        assertThat(notified.get(notified.size() - 1), is(IntrospectionCacheInvalidationEvent.realmInvalidated("realm")));
+    }
+
+    @Test
+    public void testListenerFactoryRegistered() {
+        List<String> factories = ServiceLoader.load(EventListenerProviderFactory.class).stream()
+                .map(provider -> provider.type().getName())
+                .toList();
+
+        assertThat(factories.contains(IntrospectionCacheEventListenerProviderFactory.class.getName()), is(true));
+        assertThat(factories.contains("org.passport.models.workflow.WorkflowsEventListenerFactory"), is(true));
+    }
+
+    @Test
+    public void testListenerWithoutCache() {
+        IntrospectionCacheEventListenerProviderFactory factory = new IntrospectionCacheEventListenerProviderFactory();
+        factory.postInit(stub(PassportSessionFactory.class, Map.of()));
+
+        Event logout = new Event();
+        logout.setType(EventType.LOGOUT);
+        logout.setRealmId("realm");
+        logout.setSessionId("session");
+        factory.create(session).onEvent(logout);
+
+        assertThat(afterCompletion.isEmpty(), is(true));
+    }
+
+    private void commit() {
+        for (PassportTransaction tx : afterCompletion) {
+            tx.begin();
+            tx.commit();
+        }
+        afterCompletion.clear();
+    }
+
+    private static AdminEvent adminEvent(OperationType operation, String path) {
+        AdminEvent event = new AdminEvent();
+        event.setRealmId("realm");
+        event.setOperationType(operation);
+        event.setResourcePath(path);
+        return event;
+    }
+
+    private static IntrospectionResponseCache.Key key() {
+        return new IntrospectionResponseCache.Key(IntrospectionResponseCache.hash(TOKEN), "rs-id", false);
+    }
+
+    private IntrospectionResponseCache.Entry entry(String userSessionId, String userId, String tokenId) {
+        return new IntrospectionResponseCache.Entry("{\"active\":true}".getBytes(StandardCharsets.UTF_8), "realm", userSessionId,
+                userId, tokenId, "Bearer", "app", "app-id", cache.expiration(null));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T stub(Class<T> type, Map<String, Object> answers) {
+        return (T) Proxy.newProxyInstance(IntrospectionResponseCachingTest.class.getClassLoader(), new Class[]{type}, (proxy, method, args) -> {
+            if (answers.containsKey(method.getName())) {
+                return answers.get(method.getName());
+            }
+            return defaultValue(method.getReturnType());
+        });
+    }
+
+    private static Object defaultValue(Class<?> type) {
+        if (type == boolean.class) {
+            return false;
+        }
+        if (type == int.class || type == long.class) {
+            return type == int.class ? (Object) 0 : (Object) 0L;
+        }
+        if (type == Stream.class) {
+            return Stream.empty();
+        }
+        return null;
+    }
+}
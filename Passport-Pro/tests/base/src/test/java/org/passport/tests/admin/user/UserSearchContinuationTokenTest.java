@@ -0,0 +1,180 @@
+/*
+ * Copyright 2026 Red Hat, Inc. and/or its affiliates
+ * and other contributors as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.passport.tests.admin.user;
+
+import java.io.IOException;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.passport.representations.idm.ErrorRepresentation;
+import org.passport.representations.idm.UserRepresentation;
+import org.passport.testframework.annotations.InjectHttpClient;
+import org.passport.testframework.annotations.InjectPassportUrls;
+import org.passport.testframework.annotations.PassportIntegrationTest;
+import org.passport.testframework.server.PassportUrls;
+import org.passport.util.JsonSerialization;
+
+import org.apache.http.Header;
+import org.apache.http.HttpHeaders;
+import org.apache.http.client.methods.CloseableHttpResponse;
+import org.apache.http.client.methods.HttpGet;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.util.EntityUtils;
+import org.junit.jupiter.api.Test;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.containsString;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+@PassportIntegrationTest
+public class UserSearchContinuationTokenTest extends AbstractUserTest {
+
+    private static final String CONTINUATION_TOKEN_HEADER = "X-Continuation-Token";
+
+    @InjectHttpClient
+    CloseableHttpClient httpClient;
+
+    @InjectPassportUrls
+    PassportUrls passportUrls;
+
+    @Test
+    public void firstPageReturnsContinuationToken() throws IOException {
+        createUsers();
+
+        Page page = search("search=username&max=4");
+
+        assertEquals(200, page.status);
+        assertThat(page.usernames(), contains("username1", "username2", "username3", "username4"));
+        assertNotNull(page.continuationToken);
+    }
+
+    @Test
+    public void continuationReturnsNextPages() throws IOException {
+        createUsers();
+
+        List<String> usernames = new ArrayList<>();
+        Page page = search("search=username&max=4");
+        usernames.addAll(page.usernames());
+        while (page.continuationToken != null) {
+            page = search("search=username&max=4&after=" + encode(page.continuationToken));
+            assertEquals(200, page.status);
+            usernames.addAll(page.usernames());
+        }
+
+        assertThat(usernames, contains("username1", "username2", "username3", "username4", "username5",
+                "username6", "username7", "username8", "username9"));
+    }
+
+    @Test
+    public void continuationMatchesOffsetPaging() throws IOException {
+        createUsers();
+
+        Page first = search("search=username&max=4");
+        Page continued = search("search=username&max=4&after=" + encode(first.continuationToken));
+        Page offset = search("search=username&max=4&first=4");
+
+        assertEquals(offset.usernames(), continued.usernames());
+    }
+
+    @Test
+    public void invalidContinuationToken() throws IOException {
+        createUsers();
+
+        Page page = search("search=username&max=4&after=invalid");
+
+        assertEquals(400, page.status);
+        assertThat(page.error, containsString("Invalid continuation token"));
+    }
+
+    @Test
+    public void continuationTokenWithOffset() throws IOException {
+        createUsers();
+        Page first = search("search=username&max=4");
+
+        Page page = search("search=username&max=4&first=4&after=" + encode(first.continuationToken));
+
+        assertEquals(400, page.status);
+        assertThat(page.error, containsString("pagination offset"));
+    }
+
+    @Test
+    public void continuationTokenWithSearchById() throws IOException {
+        List<String> ids = createUsers();
+        Page first = search("search=username&max=4");
+
+        Page page = search("search=" + encode("id:" + ids.get(0) + " " + ids.get(1)) + "&max=1&after=" + encode(first.continuationToken));
+
+        assertEquals(400, page.status);
+        assertThat(page.error, containsString("searches by id"));
+    }
+
+    @Test
+    public void fullLastPageFollowedByEmptyPage() throws IOException {
+        createUsers();
+
+        Page page = search("search=username&max=9");
+
+        assertEquals(9, page.users.size());
+        assertNotNull(page.continuationToken);
+
+        page = search("search=username&max=4&after=" + encode(page.continuationToken));
+
+        assertEquals(0, page.users.size());
+        assertNull(page.continuationToken);
+    }
+
+    private Page search(String query) throws IOException {
+        HttpGet request = new HttpGet(passportUrls.getBase() + "/admin/realms/" + managedRealm.getName() + "/users?" + query);
+        request.addHeader(HttpHeaders.AUTHORIZATION, "Bearer " + adminClient.tokenManager().getAccessTokenString());
+        try (CloseableHttpResponse response = httpClient.execute(request)) {
+            Page page = new Page();
+            page.status = response.getStatusLine().getStatusCode();
+            String body = EntityUtils.toString(response.getEntity());
+            if (page.status == 200) {
+                page.users = Arrays.asList(JsonSerialization.readValue(body, UserRepresentation[].class));
+                Header header = response.getFirstHeader(CONTINUATION_TOKEN_HEADER);
+                page.continuationToken = header == null ? null : header.getValue();
+            } else {
+                page.error = JsonSerialization.readValue(body, ErrorRepresentation.class).getErrorMessage();
+            }
+            return page;
+        }
+    }
+
+    private static String encode(String value) {
+        return URLEncoder.encode(value, StandardCharsets.UTF_8);
+    }
+
+    private static class Page {
+
+        private int status;
+        private List<UserRepresentation> users = List.of();
+        private String continuationToken;
+        private String error;
+
+        List<String> usernames() {
+            return users.stream().map(UserRepresentation::getUsername).toList();
+        }
+    }
+}
@@ -0,0 +1,218 @@
+/*
+ * Copyright 2026 Red Hat, Inc. and/or its affiliates
+ * and other contributors as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.passport.tests.authz;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+
+import jakarta.ws.rs.core.Response;
+
+import org.passport.OAuth2Constants;
+import org.passport.admin.client.resource.AuthorizationResource;
+import org.passport.http.simple.SimpleHttp;
+import org.passport.http.simple.SimpleHttpRequest;
+import org.passport.http.simple.SimpleHttpResponse;
+import org.passport.representations.idm.authorization.ClientPolicyRepresentation;
+import org.passport.representations.idm.authorization.Permission;
+import org.passport.representations.idm.authorization.ResourcePermissionRepresentation;
+import org.passport.representations.idm.authorization.ResourceRepresentation;
+import org.passport.representations.idm.authorization.RolePolicyRepresentation;
+import org.passport.representations.idm.authorization.UserPolicyRepresentation;
+import org.passport.testframework.annotations.InjectRealm;
+import org.passport.testframework.annotations.InjectSimpleHttp;
+import org.passport.testframework.annotations.PassportIntegrationTest;
+import org.passport.testframework.oauth.OAuthClient;
+import org.passport.testframework.oauth.annotations.InjectOAuthClient;
+import org.passport.testframework.realm.ClientConfig;
+import org.passport.testframework.realm.ClientConfigBuilder;
+import org.passport.testframework.realm.ManagedRealm;
+import org.passport.testframework.realm.RealmConfig;
+import org.passport.testframework.realm.RealmConfigBuilder;
+import org.passport.testframework.server.PassportServerConfig;
+import org.passport.testframework.server.PassportServerConfigBuilder;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.hasSize;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Compares the permissions granted by a request for all permissions of a resource server, which are evaluated in
+ * parallel, with the permissions granted by requests for a single resource, which are evaluated sequentially.
+ */
+@PassportIntegrationTest(config = ParallelPermissionEvaluationTest.ParallelEvaluationServerConfig.class)
+public class ParallelPermissionEvaluationTest {
+
+    private static final String RESOURCE_SERVER = "resource-server";
+    private static final int RESOURCES = 24;
+
+    @InjectRealm(config = ParallelEvaluationRealmConfig.class)
+    ManagedRealm realm;
+
+    @InjectOAuthClient(config = ResourceServerConfig.class)
+    OAuthClient oauth;
+
+    @InjectSimpleHttp
+    SimpleHttp simpleHttp;
+
+    @BeforeEach
+    public void configureAuthorization() {
+        AuthorizationResource authorization = realm.admin().clients()
+                .get(realm.admin().clients().findByClientId(RESOURCE_SERVER).get(0).getId()).authorization();
+        if (authorization.resources().findByName("resource-0").size() > 0) {
+            return;
+        }
+
+        UserPolicyRepresentation alice = new UserPolicyRepresentation();
+        alice.setName("alice-policy");
+        alice.addUser("alice");
+        createPolicy(authorization.policies().user().create(alice));
+
+        UserPolicyRepresentation bob = new UserPolicyRepresentation();
+        bob.setName("bob-policy");
+        bob.addUser("bob");
+        createPolicy(authorization.policies().user().create(bob));
+
+        RolePolicyRepresentation reader = new RolePolicyRepresentation();
+        reader.setName("reader-policy");
+        reader.addRole("reader");
+        createPolicy(authorization.policies().role().create(reader));
+
+        ClientPolicyRepresentation client = new ClientPolicyRepresentation();
+        client.setName("client-policy");
+        client.addClient(RESOURCE_SERVER);
+        createPolicy(authorization.policies().client().create(client));
+
+        List<String> policies = List.of("alice-policy", "bob-policy", "reader-policy", "client-policy");
+        for (int i = 0; i < RESOURCES; i++) {
+            ResourceRepresentation resource = new ResourceRepresentation("resource-" + i);
+            try (Response response = authorization.resources().create(resource)) {
+                assertEquals(201, response.getStatus());
+            }
+
+            ResourcePermissionRepresentation permission = new ResourcePermissionRepresentation();
+            permission.setName("permission-" + i);
+            permission.addResource(resource.getName());
+            permission.addPolicy(policies.get(i % policies.size()));
+            try (Response response = authorization.permissions().resource().create(permission)) {
+                assertEquals(201, response.getStatus());
+            }
+        }
+    }
+
+    @Test
+    public void testUserPermissions() throws IOException {
+        String accessToken = oauth.doPasswordGrantRequest("alice", "password").getAccessToken();
+
+        Set<String> parallel = getAllPermissions(accessToken);
+
+        // granted by the user, role and client policies, as the token was issued to the resource server
+        assertThat(parallel, hasSize(RESOURCES * 3 / 4));
+        assertThat(parallel, equalTo(getPermissionsOneByOne(accessToken)));
+    }
+
+    @Test
+    public void testResourceServerPermissions() throws IOException {
+        String accessToken = oauth.doClientCredentialsGrantAccessTokenRequest().getAccessToken();
+
+        Set<String> parallel = getAllPermissions(accessToken);
+
+        // granted by the client policy only
+        assertThat(parallel, hasSize(RESOURCES / 4));
+        assertThat(parallel, equalTo(getPermissionsOneByOne(accessToken)));
+    }
+
+    private Set<String> getAllPermissions(String accessToken) throws IOException {
+        try (SimpleHttpResponse response = permissionsRequest(accessToken).asResponse()) {
+            assertEquals(200, response.getStatus());
+            return toResourceNames(response.asJson(new TypeReference<List<Permission>>() {}));
+        }
+    }
+
+    private Set<String> getPermissionsOneByOne(String accessToken) throws IOException {
+        Set<String> granted = new TreeSet<>();
+        for (int i = 0; i < RESOURCES; i++) {
+            try (SimpleHttpResponse response = permissionsRequest(accessToken).param("permission", "resource-" + i).asResponse()) {
+                if (response.getStatus() == 200) {
+                    granted.addAll(toResourceNames(response.asJson(new TypeReference<List<Permission>>() {})));
+                } else {
+                    assertEquals(403, response.getStatus());
+                }
+            }
+        }
+        return granted;
+    }
+
+    private SimpleHttpRequest permissionsRequest(String accessToken) {
+        return simpleHttp.doPost(oauth.getEndpoints().getToken())
+                .auth(accessToken)
+                .param(OAuth2Constants.GRANT_TYPE, OAuth2Constants.UMA_GRANT_TYPE)
+                .param("audience", RESOURCE_SERVER)
+                .param("response_mode", "permissions");
+    }
+
+    private static Set<String> toResourceNames(List<Permission> permissions) {
+        Set<String> names = new TreeSet<>();
+        permissions.stream().map(Permission::getResourceName).filter(name -> name.startsWith("resource-")).forEach(names::add);
+        return names;
+    }
+
+    private static void createPolicy(Response response) {
+        try (response) {
+            assertEquals(201, response.getStatus());
+        }
+    }
+
+    public static class ParallelEvaluationServerConfig implements PassportServerConfig {
+
+        @Override
+        public PassportServerConfigBuilder configure(PassportServerConfigBuilder config) {
+            return config.spiOption("authorization", "default", "evaluation-threads", "4")
+                    .spiOption("authorization", "default", "evaluation-permissions-per-thread", "2");
+        }
+    }
+
+    public static class ParallelEvaluationRealmConfig implements RealmConfig {
+
+        @Override
+        public RealmConfigBuilder configure(RealmConfigBuilder realm) {
+            realm.roles("reader");
+            realm.addUser("alice").password("password").name("Alice", "Doe").email("alice@localhost").emailVerified(true).roles("reader");
+            realm.addUser("bob").password("password").name("Bob", "Doe").email("bob@localhost").emailVerified(true);
+            return realm;
+        }
+    }
+
+    public static class ResourceServerConfig implements ClientConfig {
+
+        @Override
+        public ClientConfigBuilder configure(ClientConfigBuilder client) {
+            return client.clientId(RESOURCE_SERVER)
+                    .secret("secret")
+                    .directAccessGrantsEnabled(true)
+                    .serviceAccountsEnabled(true)
+                    .authorizationServicesEnabled(true);
+        }
+    }
+}
@@ -0,0 +1,252 @@
+package org.passport.tests.workflow.activation;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import jakarta.ws.rs.core.Response;
+
+import org.passport.admin.client.resource.WorkflowResource;
+import org.passport.models.RealmModel;
+import org.passport.models.UserModel;
+import org.passport.models.workflow.ResourceType;
+import org.passport.models.workflow.ResourceTypeSelector;
+import org.passport.models.workflow.SetUserAttributeStepProviderFactory;
+import org.passport.models.workflow.Workflow;
+import org.passport.models.workflow.WorkflowProvider;
+import org.passport.models.workflow.WorkflowStateProvider;
+import org.passport.models.workflow.WorkflowStep;
+import org.passport.models.workflow.conditions.UserAttributeWorkflowConditionFactory;
+import org.passport.representations.workflows.WorkflowActivationRepresentation;
+import org.passport.representations.workflows.WorkflowActivationRepresentation.Status;
+import org.passport.representations.workflows.WorkflowRepresentation;
+import org.passport.representations.workflows.WorkflowStepRepresentation;
+import org.passport.testframework.annotations.PassportIntegrationTest;
+import org.passport.testframework.remote.providers.runonserver.RunOnServer;
+import org.passport.testframework.util.ApiUtil;
+import org.passport.tests.workflow.AbstractWorkflowTest;
+import org.passport.tests.workflow.config.WorkflowsBlockingServerConfig;
+
+import org.awaitility.Awaitility;
+import org.junit.jupiter.api.Test;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.everyItem;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.notNullValue;
+import static org.hamcrest.Matchers.nullValue;
+
+/**
+ * Tests the activation of a workflow for all eligible resources at once, and the keyset paging of the eligible
+ * resources it is based on.
+ */
+@PassportIntegrationTest(config = WorkflowsBlockingServerConfig.class)
+public class BulkActivationWorkflowTest extends AbstractWorkflowTest {
+
+    // the number of resources activated per transaction by the activation job
+    private static final int CHUNK_SIZE = 1000;
+
+    @Test
+    public void testActivatesScheduledFirstStepForEligibleUsers() {
+        createUsers("eligible", 5, true);
+        createUsers("other", 3, false);
+        String workflowId = createWorkflow(Duration.ofDays(5));
+
+        WorkflowActivationRepresentation activation = activateAll(workflowId);
+
+        assertThat(activation.getStatus(), is(Status.COMPLETED));
+        assertThat(activation.getActivated(), is(5L));
+        assertThat(activation.getRemaining(), is(0L));
+        assertThat(activation.getError(), nullValue());
+
+        runOnServer.run((RunOnServer) session -> {
+            RealmModel realm = session.getContext().getRealm();
+            Workflow workflow = session.getProvider(WorkflowProvider.class).getWorkflow(workflowId);
+            WorkflowStep firstStep = workflow.getSteps().findFirst().orElseThrow();
+            WorkflowStateProvider stateProvider = session.getProvider(WorkflowStateProvider.class);
+
+            for (int i = 0; i < 5; i++) {
+                UserModel user = session.users().getUserByUsername(realm, "eligible-" + i);
+                WorkflowStateProvider.ScheduledStep scheduledStep = stateProvider.getScheduledStep(workflowId, user.getId());
+                assertThat(scheduledStep, notNullValue());
+                assertThat(scheduledStep.stepId(), is(firstStep.getId()));
+                // the step was scheduled, not run
+                assertThat(user.getFirstAttribute("notified"), nullValue());
+            }
+            for (int i = 0; i < 3; i++) {
+                UserModel user = session.users().getUserByUsername(realm, "other-" + i);
+                assertThat(stateProvider.getScheduledStep(workflowId, user.getId()), nullValue());
+            }
+        });
+    }
+
+    @Test
+    public void testActivatesImmediateFirstStepForEligibleUsers() {
+        createUsers("eligible", 5, true);
+        createUsers("other", 3, false);
+        String workflowId = createWorkflow(null);
+
+        WorkflowActivationRepresentation activation = activateAll(workflowId);
+
+        assertThat(activation.getStatus(), is(Status.COMPLETED));
+        assertThat(activation.getActivated(), is(5L));
+        assertThat(activation.getRemaining(), is(0L));
+
+        runOnServer.run((RunOnServer) session -> {
+            RealmModel realm = session.getContext().getRealm();
+
+            for (int i = 0; i < 5; i++) {
+                assertThat(session.users().getUserByUsername(realm, "eligible-" + i).getFirstAttribute("notified"), is("true"));
+            }
+            for (int i = 0; i < 3; i++) {
+                assertThat(session.users().getUserByUsername(realm, "other-" + i).getFirstAttribute("notified"), nullValue());
+            }
+        });
+    }
+
+    @Test
+    public void testActivationSpansSeveralChunks() {
+        createUsers("eligible", CHUNK_SIZE + 1, true);
+        String workflowId = createWorkflow(Duration.ofDays(5));
+
+        WorkflowActivationRepresentation activation = activateAll(workflowId);
+
+        assertThat(activation.getStatus(), is(Status.COMPLETED));
+        assertThat(activation.getActivated(), is(CHUNK_SIZE + 1L));
+        assertThat(activation.getRemaining(), is(0L));
+
+        runOnServer.run((RunOnServer) session -> {
+            long scheduled = session.getProvider(WorkflowStateProvider.class).getScheduledStepsByWorkflow(workflowId).count();
+            assertThat(scheduled, is(CHUNK_SIZE + 1L));
+        });
+    }
+
+    @Test
+    public void testActivationSkipsUsersAlreadyActivated() {
+        createUsers("eligible", 3, true);
+        String workflowId = createWorkflow(Duration.ofDays(5));
+        assertThat(activateAll(workflowId).getActivated(), is(3L));
+
+        createUsers("later", 2, true);
+        assertThat(managedRealm.admin().workflows().workflow(workflowId).getActivation().getRemaining(), is(2L));
+
+        WorkflowActivationRepresentation activation = activateAll(workflowId);
+
+        assertThat(activation.getStatus(), is(Status.COMPLETED));
+        assertThat(activation.getActivated(), is(2L));
+        assertThat(activation.getRemaining(), is(0L));
+    }
+
+    @Test
+    public void testKeysetPagingOfEligibleUsers() {
+        createUsers("eligible", 5, true);
+        createUsers("other", 2, false);
+        String workflowId = createWorkflow(Duration.ofDays(5));
+
+        runOnServer.run((RunOnServer) session -> {
+            WorkflowProvider provider = session.getProvider(WorkflowProvider.class);
+            Workflow workflow = provider.getWorkflow(workflowId);
+            ResourceTypeSelector selector = provider.getResourceTypeSelector(ResourceType.USERS);
+
+            assertThat(selector.getResourceIdsCount(workflow), is(5L));
+
+            // the last page is partially filled
+            List<String> pages = new ArrayList<>();
+            List<Integer> pageSizes = new ArrayList<>();
+            String last = null;
+            List<String> page;
+            while (!(page = selector.getResourceIds(workflow, last, 2)).isEmpty()) {
+                pageSizes.add(page.size());
+                if (last != null) {
+                    // pages start after the last id of the previous page
+                    assertThat(page, everyItem(greaterThan(last)));
+                }
+                pages.addAll(page);
+                last = page.get(page.size() - 1);
+            }
+            assertThat(pageSizes, contains(2, 2, 1));
+            assertThat(pages, is(pages.stream().sorted().distinct().toList()));
+
+            // the last page is completely filled
+            List<Integer> exactPageSizes = new ArrayList<>();
+            last = null;
+            while (!(page = selector.getResourceIds(workflow, last, 5)).isEmpty()) {
+                exactPageSizes.add(page.size());
+                last = page.get(page.size() - 1);
+            }
+            assertThat(exactPageSizes, contains(5));
+            assertThat(selector.getResourceIds(workflow, pages.get(pages.size() - 1), 2), empty());
+            assertThat(selector.getResourceIds(workflow, pages.get(2), 10), is(pages.subList(3, 5)));
+        });
+    }
+
+    @Test
+    public void testScheduleResourcesInChunks() {
+        createUsers("eligible", 5, true);
+        String workflowId = createWorkflow(Duration.ofDays(5));
+
+        runOnServer.run((RunOnServer) session -> {
+            WorkflowProvider provider = session.getProvider(WorkflowProvider.class);
+            Workflow workflow = provider.getWorkflow(workflowId);
+            WorkflowStep firstStep = workflow.getSteps().findFirst().orElseThrow();
+            ResourceTypeSelector selector = provider.getResourceTypeSelector(ResourceType.USERS);
+            long scheduledAt = System.currentTimeMillis() + Duration.ofDays(5).toMillis();
+
+            assertThat(selector.scheduleResources(workflow, firstStep, scheduledAt, 2), is(2));
+            // resources with a scheduled step are no longer eligible
+            assertThat(selector.getResourceIdsCount(workflow), is(3L));
+            assertThat(selector.getResourceIds(workflow, null, 10), hasSize(3));
+
+            assertThat(selector.scheduleResources(workflow, firstStep, scheduledAt, 2), is(2));
+            assertThat(selector.scheduleResources(workflow, firstStep, scheduledAt, 2), is(1));
+            assertThat(selector.scheduleResources(workflow, firstStep, scheduledAt, 2), is(0));
+            assertThat(selector.getResourceIdsCount(workflow), is(0L));
+        });
+    }
+
+    private void createUsers(String prefix, int count, boolean eligible) {
+        runOnServer.run((RunOnServer) session -> {
+            RealmModel realm = session.getContext().getRealm();
+            for (int i = 0; i < count; i++) {
+                UserModel user = session.users().addUser(realm, prefix + "-" + i);
+                user.setEnabled(true);
+                if (eligible) {
+                    user.setSingleAttribute("eligible", "true");
+                }
+            }
+        });
+    }
+
+    private String createWorkflow(Duration after) {
+        WorkflowStepRepresentation.Builder step = WorkflowStepRepresentation.create()
+                .of(SetUserAttributeStepProviderFactory.ID)
+                .withConfig("notified", "true");
+        if (after != null) {
+            step.after(after);
+        }
+        try (Response response = managedRealm.admin().workflows().create(WorkflowRepresentation.withName("myworkflow")
+                .onCondition(UserAttributeWorkflowConditionFactory.ID + "(eligible:true)")
+                .withSteps(step.build(),
+                        WorkflowStepRepresentation.create()
+                                .of(SetUserAttributeStepProviderFactory.ID)
+                                .withConfig("finished", "true")
+                                .after(Duration.ofDays(10))
+                                .build())
+                .build())) {
+            return ApiUtil.getCreatedId(response);
+        }
+    }
+
+    private WorkflowActivationRepresentation activateAll(String workflowId) {
+        WorkflowResource workflow = managedRealm.admin().workflows().workflow(workflowId);
+        workflow.activateAll();
+        return Awaitility.await()
+                .timeout(Duration.ofSeconds(60))
+                .pollInterval(Duration.ofMillis(200))
+                .until(workflow::getActivation, activation -> activation.getStatus() != Status.RUNNING);
+    }
+}
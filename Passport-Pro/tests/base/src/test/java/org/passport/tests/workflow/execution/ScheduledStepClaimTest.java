@@ -0,0 +1,201 @@
+package org.passport.tests.workflow.execution;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.passport.common.util.Time;
+import org.passport.models.PassportSessionFactory;
+import org.passport.models.RealmModel;
+import org.passport.models.UserModel;
+import org.passport.models.utils.PassportModelUtils;
+import org.passport.models.workflow.SetUserAttributeStepProviderFactory;
+import org.passport.models.workflow.Workflow;
+import org.passport.models.workflow.WorkflowProvider;
+import org.passport.models.workflow.WorkflowStateProvider;
+import org.passport.models.workflow.WorkflowStateProvider.ScheduledStep;
+import org.passport.models.workflow.events.UserCreatedWorkflowEventFactory;
+import org.passport.representations.workflows.WorkflowRepresentation;
+import org.passport.representations.workflows.WorkflowStepRepresentation;
+import org.passport.testframework.annotations.PassportIntegrationTest;
+import org.passport.testframework.realm.UserConfigBuilder;
+import org.passport.testframework.remote.providers.runonserver.RunOnServer;
+import org.passport.testframework.server.PassportServerConfigBuilder;
+import org.passport.tests.workflow.AbstractWorkflowTest;
+import org.passport.tests.workflow.config.WorkflowsBlockingServerConfig;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+
+/**
+ * Tests that due scheduled steps are claimed with a lease, so concurrent runs on several cluster nodes share the due
+ * steps instead of running them twice.
+ */
+@PassportIntegrationTest(config = ScheduledStepClaimTest.ScheduledStepsBatchServerConfig.class)
+public class ScheduledStepClaimTest extends AbstractWorkflowTest {
+
+    private static final int USERS = 5;
+    private static final int BATCH_SIZE = 2;
+
+    @BeforeEach
+    public void onBefore() {
+        create(WorkflowRepresentation.withName("myworkflow")
+                .onEvent(UserCreatedWorkflowEventFactory.ID)
+                .withSteps(
+                        WorkflowStepRepresentation.create()
+                                .of(SetUserAttributeStepProviderFactory.ID)
+                                .withConfig("attribute", "attr1")
+                                .after(Duration.ofDays(1))
+                                .build()
+                ).build());
+
+        for (int i = 0; i < USERS; i++) {
+            managedRealm.admin().users().create(UserConfigBuilder.create().username("user-" + i).build()).close();
+        }
+    }
+
+    @Test
+    public void testClaimedStepsAreNotClaimedAgain() {
+        runOnServer.run((RunOnServer) session -> {
+            Workflow workflow = session.getProvider(WorkflowProvider.class).getWorkflows().findFirst().orElseThrow();
+            PassportSessionFactory sessionFactory = session.getPassportSessionFactory();
+
+            try {
+                assertThat(claim(sessionFactory, workflow, USERS, Duration.ofMinutes(10)), empty());
+
+                Time.setOffset(Math.toIntExact(Duration.ofDays(2).toSeconds()));
+                assertThat(session.getProvider(WorkflowStateProvider.class).getDueScheduledStepsCount(workflow), is((long) USERS));
+
+                List<ScheduledStep> first = claim(sessionFactory, workflow, 3, Duration.ofMinutes(10));
+                List<ScheduledStep> second = claim(sessionFactory, workflow, USERS, Duration.ofMinutes(10));
+                assertThat(first, hasSize(3));
+                assertThat(second, hasSize(USERS - 3));
+                assertThat(resourceIds(first, second), hasSize(USERS));
+
+                assertThat(claim(sessionFactory, workflow, USERS, Duration.ofMinutes(10)), empty());
+            } finally {
+                Time.setOffset(0);
+            }
+        });
+    }
+
+    @Test
+    public void testStepsClaimedAgainAfterLeaseExpired() {
+        runOnServer.run((RunOnServer) session -> {
+            Workflow workflow = session.getProvider(WorkflowProvider.class).getWorkflows().findFirst().orElseThrow();
+            PassportSessionFactory sessionFactory = session.getPassportSessionFactory();
+
+            try {
+                Time.setOffset(Math.toIntExact(Duration.ofDays(2).toSeconds()));
+                assertThat(claim(sessionFactory, workflow, USERS, Duration.ofHours(1)), hasSize(USERS));
+
+                // the lease has not expired yet
+                Time.setOffset(Math.toIntExact(Duration.ofDays(2).plusMinutes(30).toSeconds()));
+                assertThat(claim(sessionFactory, workflow, USERS, Duration.ofHours(1)), empty());
+
+                // the node which claimed the steps did not run them before its lease expired
+                Time.setOffset(Math.toIntExact(Duration.ofDays(2).plusHours(2).toSeconds()));
+                List<ScheduledStep> reclaimed = claim(sessionFactory, workflow, USERS, Duration.ofHours(1));
+                assertThat(reclaimed, hasSize(USERS));
+                assertThat(resourceIds(reclaimed), hasSize(USERS));
+            } finally {
+                Time.setOffset(0);
+            }
+        });
+    }
+
+    @Test
+    public void testConcurrentClaimsAreDisjoint() {
+        runOnServer.run((RunOnServer) session -> {
+            Workflow workflow = session.getProvider(WorkflowProvider.class).getWorkflows().findFirst().orElseThrow();
+            PassportSessionFactory sessionFactory = session.getPassportSessionFactory();
+            // both nodes hold their claimed steps until the other one claimed too
+            CyclicBarrier claimed = new CyclicBarrier(2);
+            ExecutorService nodes = Executors.newFixedThreadPool(2);
+
+            try {
+                Time.setOffset(Math.toIntExact(Duration.ofDays(2).toSeconds()));
+                List<Future<List<ScheduledStep>>> claims = new ArrayList<>();
+                for (int i = 0; i < 2; i++) {
+                    claims.add(nodes.submit(() -> PassportModelUtils.runJobInTransactionWithResult(sessionFactory, s -> {
+                        List<ScheduledStep> steps = s.getProvider(WorkflowStateProvider.class)
+                                .claimDueScheduledSteps(workflow, 3, Duration.ofMinutes(10).toMillis());
+                        try {
+                            claimed.await(30, TimeUnit.SECONDS);
+                        } catch (Exception e) {
+                            throw new RuntimeException(e);
+                        }
+                        return steps;
+                    })));
+                }
+                List<ScheduledStep> first = claims.get(0).get(60, TimeUnit.SECONDS);
+                List<ScheduledStep> second = claims.get(1).get(60, TimeUnit.SECONDS);
+
+                // no step was claimed by both nodes
+                assertThat(resourceIds(first, second), hasSize(first.size() + second.size()));
+
+                // the steps left over by both nodes are still claimable
+                List<ScheduledStep> rest = claim(sessionFactory, workflow, USERS, Duration.ofMinutes(10));
+                assertThat(resourceIds(first, second, rest), hasSize(USERS));
+            } catch (Exception e) {
+                throw new RuntimeException(e);
+            } finally {
+                nodes.shutdownNow();
+                Time.setOffset(0);
+            }
+        });
+    }
+
+    @Test
+    public void testDueStepsRunInBatches() {
+        runScheduledSteps(Duration.ofDays(2));
+
+        runOnServer.run((RunOnServer) session -> {
+            RealmModel realm = session.getContext().getRealm();
+            Workflow workflow = session.getProvider(WorkflowProvider.class).getWorkflows().findFirst().orElseThrow();
+            WorkflowStateProvider stateProvider = session.getProvider(WorkflowStateProvider.class);
+
+            for (int i = 0; i < USERS; i++) {
+                UserModel user = session.users().getUserByUsername(realm, "user-" + i);
+                assertThat(user.getFirstAttribute("attribute"), is("attr1"));
+                assertThat(stateProvider.getScheduledStep(workflow.getId(), user.getId()), nullValue());
+            }
+        });
+    }
+
+    private static List<ScheduledStep> claim(PassportSessionFactory sessionFactory, Workflow workflow, int maxResults, Duration leaseTime) {
+        return PassportModelUtils.runJobInTransactionWithResult(sessionFactory, s -> s.getProvider(WorkflowStateProvider.class)
+                .claimDueScheduledSteps(workflow, maxResults, leaseTime.toMillis()));
+    }
+
+    @SafeVarargs
+    private static Set<String> resourceIds(List<ScheduledStep>... claims) {
+        Set<String> resourceIds = new HashSet<>();
+        for (List<ScheduledStep> claim : claims) {
+            claim.forEach(step -> resourceIds.add(step.resourceId()));
+        }
+        return resourceIds;
+    }
+
+    public static class ScheduledStepsBatchServerConfig extends WorkflowsBlockingServerConfig {
+
+        @Override
+        public PassportServerConfigBuilder configure(PassportServerConfigBuilder config) {
+            return super.configure(config)
+                    .option("spi-workflow--default--scheduled-steps-batch-size", Integer.toString(BATCH_SIZE));
+        }
+    }
+}
@@ -0,0 +1,274 @@
+/*
+ * Copyright 2026 Red Hat, Inc. and/or its affiliates
+ * and other contributors as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.passport.testsuite.model.authz;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
+
+import org.passport.authorization.model.Policy;
+import org.passport.authorization.model.Resource;
+import org.passport.authorization.model.ResourceServer;
+import org.passport.authorization.model.Scope;
+import org.passport.authorization.store.PolicyStore;
+import org.passport.connections.infinispan.InfinispanConnectionProvider;
+import org.passport.connections.jpa.JpaConnectionProvider;
+import org.passport.models.ClientModel;
+import org.passport.models.ClientProvider;
+import org.passport.models.Constants;
+import org.passport.models.PassportSession;
+import org.passport.models.RealmModel;
+import org.passport.models.RealmProvider;
+import org.passport.models.cache.authorization.CachedStoreFactoryProvider;
+import org.passport.models.cache.infinispan.authorization.StoreFactoryCacheSession;
+import org.passport.models.cache.infinispan.authorization.entities.PolicyIndex;
+import org.passport.representations.idm.authorization.ResourcePermissionRepresentation;
+import org.passport.representations.idm.authorization.ScopePermissionRepresentation;
+import org.passport.representations.idm.authorization.UserPolicyRepresentation;
+import org.passport.testsuite.model.PassportModelTest;
+import org.passport.testsuite.model.RequireProvider;
+
+import org.infinispan.Cache;
+import org.junit.Test;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.hasItem;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.notNullValue;
+import static org.hamcrest.Matchers.nullValue;
+
+/**
+ * Tests that the policy lookups of the authorization cache served from the {@link PolicyIndex} of a resource server
+ * return the same policies as the policy store, and that the index is invalidated when its policies or the resources
+ * of the resource server change.
+ */
+@RequireProvider(CachedStoreFactoryProvider.class)
+@RequireProvider(InfinispanConnectionProvider.class)
+@RequireProvider(RealmProvider.class)
+@RequireProvider(ClientProvider.class)
+public class PolicyIndexTest extends PassportModelTest {
+
+    private String realmId;
+    private String resourceServerId;
+    private String serverResourceId;
+    private String otherServerResourceId;
+    private String userResourceId;
+    private String typeBResourceId;
+    private String resourcePermissionId;
+    private String resourcesPermissionId;
+    private String userResourcePermissionId;
+    private String typeBPermissionId;
+    private String typedPermissionId;
+    private String scopePermissionId;
+    private String resourceScopePermissionId;
+
+    @Override
+    protected void createEnvironment(PassportSession s) {
+        RealmModel realm = createRealm(s, "test");
+        s.getContext().setRealm(realm);
+        realm.setDefaultRole(s.roles().addRealmRole(realm, Constants.DEFAULT_ROLES_ROLE_PREFIX + "-" + realm.getName()));
+        realmId = realm.getId();
+
+        ClientModel client = s.clients().addClient(realm, "my-server");
+        String userId = s.users().addUser(realm, "admin").getId();
+
+        CachedStoreFactoryProvider aStore = s.getProvider(CachedStoreFactoryProvider.class);
+        ResourceServer rs = aStore.getResourceServerStore().create(client);
+        resourceServerId = rs.getId();
+
+        Scope read = aStore.getScopeStore().create(rs, "read");
+        Resource serverResource = createResource(aStore, rs, "server-resource", "typeA", rs.getId());
+        Resource otherServerResource = createResource(aStore, rs, "other-server-resource", "typeA", rs.getId());
+        Resource userResource = createResource(aStore, rs, "user-resource", "typeA", userId);
+        Resource typeBResource = createResource(aStore, rs, "typeB-resource", "typeB", rs.getId());
+        serverResourceId = serverResource.getId();
+        otherServerResourceId = otherServerResource.getId();
+        userResourceId = userResource.getId();
+        typeBResourceId = typeBResource.getId();
+
+        UserPolicyRepresentation userRep = new UserPolicyRepresentation();
+        userRep.setName("is-admin");
+        userRep.addUser("admin");
+        Policy userPolicy = aStore.getPolicyStore().create(rs, userRep);
+
+        resourcePermissionId = createResourcePermission(aStore, rs, "resource", userPolicy, serverResource).getId();
+        resourcesPermissionId = createResourcePermission(aStore, rs, "resources", userPolicy, serverResource, otherServerResource).getId();
+        userResourcePermissionId = createResourcePermission(aStore, rs, "user-resource", userPolicy, userResource).getId();
+        typeBPermissionId = createResourcePermission(aStore, rs, "typeB-resource", userPolicy, typeBResource).getId();
+
+        Policy typedPermission = createResourcePermission(aStore, rs, "typed", userPolicy);
+        typedPermission.setResourceType("typeA");
+        typedPermissionId = typedPermission.getId();
+
+        scopePermissionId = createScopePermission(aStore, rs, "scope", userPolicy, read).getId();
+        Policy resourceScopePermission = createScopePermission(aStore, rs, "resource-scope", userPolicy, read);
+        resourceScopePermission.addResource(serverResource);
+        resourceScopePermissionId = resourceScopePermission.getId();
+    }
+
+    @Override
+    protected void cleanEnvironment(PassportSession s) {
+        RealmModel realm = s.realms().getRealm(realmId);
+        s.getContext().setRealm(realm);
+        s.realms().removeRealm(realmId);
+    }
+
+    @Test
+    public void testLookupsMatchPolicyStore() {
+        withRealmConsumer(realmId, (session, realm) -> {
+            StoreFactoryCacheSession aStore = (StoreFactoryCacheSession) session.getProvider(CachedStoreFactoryProvider.class);
+            PolicyStore cached = aStore.getPolicyStore();
+            PolicyStore store = aStore.getPolicyStoreDelegate();
+            ResourceServer rs = aStore.getResourceServerStore().findById(resourceServerId);
+
+            for (String resourceId : List.of(serverResourceId, otherServerResourceId, userResourceId, typeBResourceId)) {
+                Resource resource = aStore.getResourceStore().findById(rs, resourceId);
+                assertThat(ids(c -> cached.findByResource(rs, resource, c)), is(ids(c -> store.findByResource(rs, resource, c))));
+            }
+            assertThat(ids(c -> cached.findByResource(rs, aStore.getResourceStore().findById(rs, serverResourceId), c)),
+                    is(Set.of(resourcePermissionId, resourcesPermissionId, resourceScopePermissionId)));
+
+            for (String type : List.of("typeA", "typeB", "typeC")) {
+                assertThat(ids(c -> cached.findByResourceType(rs, type, c)), is(ids(c -> store.findByResourceType(rs, type, c))));
+                // the policies of each resource of the type owned by the resource server, as evaluated before
+                Set<String> expected = new HashSet<>();
+                for (Resource resource : aStore.getResourceStoreDelegate().findByType(rs, type)) {
+                    expected.addAll(ids(c -> store.findByResource(rs, resource, c)));
+                }
+                assertThat(ids(c -> cached.findByResourcesOfType(rs, type, c)), is(expected));
+                assertThat(ids(c -> store.findByResourcesOfType(rs, type, c)), is(expected));
+            }
+            assertThat(ids(c -> cached.findByResourceType(rs, "typeA", c)), is(Set.of(typedPermissionId)));
+            assertThat(ids(c -> cached.findByResourcesOfType(rs, "typeA", c)),
+                    is(Set.of(resourcePermissionId, resourcesPermissionId, resourceScopePermissionId)));
+
+            List<Scope> read = List.of(aStore.getScopeStore().findByName(rs, "read"));
+            assertThat(ids(c -> cached.findByScopes(rs, null, read, c)), is(ids(c -> store.findByScopes(rs, null, read, c))));
+            assertThat(ids(c -> cached.findByScopes(rs, null, read, c)), is(Set.of(scopePermissionId)));
+
+            assertThat(getPolicyIndex(session), notNullValue());
+        });
+    }
+
+    @Test
+    public void testIndexInvalidatedWhenPolicyUpdated() {
+        assertThat(findByResource(otherServerResourceId), is(Set.of(resourcesPermissionId)));
+
+        withRealmConsumer(realmId, (session, realm) -> {
+            CachedStoreFactoryProvider aStore = session.getProvider(CachedStoreFactoryProvider.class);
+            ResourceServer rs = aStore.getResourceServerStore().findById(resourceServerId);
+            aStore.getPolicyStore().findById(rs, userResourcePermissionId)
+                    .addResource(aStore.getResourceStore().findById(rs, otherServerResourceId));
+        });
+
+        withRealmConsumer(realmId, (session, realm) -> assertThat(getPolicyIndex(session), nullValue()));
+        assertThat(findByResource(otherServerResourceId), is(Set.of(resourcesPermissionId, userResourcePermissionId)));
+    }
+
+    @Test
+    public void testIndexInvalidatedWhenResourceOfResourceServerUpdated() {
+        assertThat(findByResourcesOfType("typeA"), not(hasItem(typeBPermissionId)));
+
+        withRealmConsumer(realmId, (session, realm) -> {
+            CachedStoreFactoryProvider aStore = session.getProvider(CachedStoreFactoryProvider.class);
+            ResourceServer rs = aStore.getResourceServerStore().findById(resourceServerId);
+            aStore.getResourceStore().findById(rs, typeBResourceId).setType("typeA");
+        });
+
+        withRealmConsumer(realmId, (session, realm) -> assertThat(getPolicyIndex(session), nullValue()));
+        assertThat(findByResourcesOfType("typeA"), hasItem(typeBPermissionId));
+    }
+
+    @Test
+    public void testPolicyStoreUsedInTransactionThatChangedPolicies() {
+        assertThat(findByResource(otherServerResourceId), is(Set.of(resourcesPermissionId)));
+
+        withRealmConsumer(realmId, (session, realm) -> {
+            CachedStoreFactoryProvider aStore = session.getProvider(CachedStoreFactoryProvider.class);
+            ResourceServer rs = aStore.getResourceServerStore().findById(resourceServerId);
+            Resource resource = aStore.getResourceStore().findById(rs, otherServerResourceId);
+
+            aStore.getPolicyStore().findById(rs, userResourcePermissionId).addResource(resource);
+            session.getProvider(JpaConnectionProvider.class).getEntityManager().flush();
+
+            // the index of the previous transaction is still cached, but does not know the change yet
+            PolicyIndex index = getPolicyIndex(session);
+            assertThat(index, notNullValue());
+            assertThat(index.getByResource(otherServerResourceId), is(Set.of(resourcesPermissionId)));
+            assertThat(ids(c -> aStore.getPolicyStore().findByResource(rs, resource, c)),
+                    is(Set.of(resourcesPermissionId, userResourcePermissionId)));
+        });
+    }
+
+    private Set<String> findByResource(String resourceId) {
+        return withRealm(realmId, (session, realm) -> {
+            CachedStoreFactoryProvider aStore = session.getProvider(CachedStoreFactoryProvider.class);
+            ResourceServer rs = aStore.getResourceServerStore().findById(resourceServerId);
+            Resource resource = aStore.getResourceStore().findById(rs, resourceId);
+            return ids(c -> aStore.getPolicyStore().findByResource(rs, resource, c));
+        });
+    }
+
+    private Set<String> findByResourcesOfType(String type) {
+        return withRealm(realmId, (session, realm) -> {
+            CachedStoreFactoryProvider aStore = session.getProvider(CachedStoreFactoryProvider.class);
+            ResourceServer rs = aStore.getResourceServerStore().findById(resourceServerId);
+            return ids(c -> aStore.getPolicyStore().findByResourcesOfType(rs, type, c));
+        });
+    }
+
+    private PolicyIndex getPolicyIndex(PassportSession session) {
+        Cache<String, Object> cache = session.getProvider(InfinispanConnectionProvider.class)
+                .getCache(InfinispanConnectionProvider.AUTHORIZATION_CACHE_NAME);
+        return (PolicyIndex) cache.get(StoreFactoryCacheSession.getPolicyIndexCacheKey(resourceServerId));
+    }
+
+    private static Set<String> ids(Consumer<Consumer<Policy>> lookup) {
+        Set<String> ids = new HashSet<>();
+        lookup.accept(policy -> ids.add(policy.getId()));
+        return ids;
+    }
+
+    private static Resource createResource(CachedStoreFactoryProvider aStore, ResourceServer rs, String name, String type, String owner) {
+        Resource resource = aStore.getResourceStore().create(rs, name, owner);
+        resource.setType(type);
+        return resource;
+    }
+
+    private static Policy createResourcePermission(CachedStoreFactoryProvider aStore, ResourceServer rs, String name, Policy policy, Resource... resources) {
+        ResourcePermissionRepresentation rep = new ResourcePermissionRepresentation();
+        rep.setName(name);
+        Policy permission = aStore.getPolicyStore().create(rs, rep);
+        permission.addAssociatedPolicy(policy);
+        for (Resource resource : resources) {
+            permission.addResource(resource);
+        }
+        return permission;
+    }
+
+    private static Policy createScopePermission(CachedStoreFactoryProvider aStore, ResourceServer rs, String name, Policy policy, Scope scope) {
+        ScopePermissionRepresentation rep = new ScopePermissionRepresentation();
+        rep.setName(name);
+        Policy permission = aStore.getPolicyStore().create(rs, rep);
+        permission.addAssociatedPolicy(policy);
+        permission.addScope(scope);
+        return permission;
+    }
+}
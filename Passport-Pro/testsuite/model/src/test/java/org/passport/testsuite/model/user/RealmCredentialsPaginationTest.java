@@ -0,0 +1,124 @@
+/*
+ * Copyright 2026 Red Hat, Inc. and/or its affiliates
+ * and other contributors as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.passport.testsuite.model.user;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.passport.credential.CredentialModel;
+import org.passport.credential.UserCredentialStore;
+import org.passport.models.Constants;
+import org.passport.models.PassportSession;
+import org.passport.models.RealmModel;
+import org.passport.models.RealmProvider;
+import org.passport.models.UserModel;
+import org.passport.models.UserProvider;
+import org.passport.models.credential.OTPCredentialModel;
+import org.passport.models.credential.PasswordCredentialModel;
+import org.passport.storage.UserStoragePrivateUtil;
+import org.passport.testsuite.model.PassportModelTest;
+import org.passport.testsuite.model.RequireProvider;
+
+import org.junit.Test;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.everyItem;
+import static org.hamcrest.Matchers.is;
+
+/**
+ * Tests reading the credentials of a type of all users of a realm page by page, as done by the scan of the password
+ * hashes of a realm.
+ */
+@RequireProvider(UserProvider.class)
+@RequireProvider(RealmProvider.class)
+public class RealmCredentialsPaginationTest extends PassportModelTest {
+
+    private static final int USERS = 5;
+
+    private String realmId;
+    private String otherRealmId;
+    private final Set<String> passwordIds = new HashSet<>();
+
+    @Override
+    public void createEnvironment(PassportSession s) {
+        realmId = createRealmWithCredentials(s, "realm", USERS, passwordIds);
+        otherRealmId = createRealmWithCredentials(s, "other", 2, new HashSet<>());
+    }
+
+    @Override
+    public void cleanEnvironment(PassportSession s) {
+        for (String id : List.of(realmId, otherRealmId)) {
+            RealmModel realm = s.realms().getRealm(id);
+            s.getContext().setRealm(realm);
+            s.realms().removeRealm(id);
+        }
+    }
+
+    @Test
+    public void testPagesOrderedById() {
+        List<List<String>> pages = withRealm(realmId, (session, realm) -> {
+            UserCredentialStore store = (UserCredentialStore) UserStoragePrivateUtil.userLocalStorage(session);
+            List<List<String>> result = new ArrayList<>();
+            String lastCredentialId = null;
+            List<CredentialModel> page;
+            while (!(page = store.getRealmCredentialsByTypeStream(realm, PasswordCredentialModel.TYPE, lastCredentialId, 2).toList()).isEmpty()) {
+                assertThat(page.stream().map(CredentialModel::getType).toList(), everyItem(is(PasswordCredentialModel.TYPE)));
+                result.add(page.stream().map(CredentialModel::getId).toList());
+                lastCredentialId = page.get(page.size() - 1).getId();
+            }
+            return result;
+        });
+
+        assertThat(pages.stream().map(List::size).toList(), contains(2, 2, 1));
+        List<String> ids = pages.stream().flatMap(List::stream).toList();
+        // only the passwords of the realm, each once and ordered by id
+        assertThat(Set.copyOf(ids), is(passwordIds));
+        assertThat(ids, is(ids.stream().sorted().distinct().toList()));
+    }
+
+    @Test
+    public void testPageAfterLastCredentialIsEmpty() {
+        withRealmConsumer(realmId, (session, realm) -> {
+            UserCredentialStore store = (UserCredentialStore) UserStoragePrivateUtil.userLocalStorage(session);
+            List<String> ids = passwordIds.stream().sorted().toList();
+
+            assertThat(store.getRealmCredentialsByTypeStream(realm, PasswordCredentialModel.TYPE, ids.get(USERS - 1), 10).toList(), empty());
+            assertThat(store.getRealmCredentialsByTypeStream(realm, PasswordCredentialModel.TYPE, ids.get(1), 10)
+                    .map(CredentialModel::getId).toList(), is(ids.subList(2, USERS)));
+            assertThat(store.getRealmCredentialsByTypeStream(realm, "unknown", null, 10).toList(), empty());
+        });
+    }
+
+    private String createRealmWithCredentials(PassportSession s, String name, int users, Set<String> passwordIds) {
+        RealmModel realm = createRealm(s, name);
+        s.getContext().setRealm(realm);
+        realm.setDefaultRole(s.roles().addRealmRole(realm, Constants.DEFAULT_ROLES_ROLE_PREFIX + "-" + realm.getName()));
+
+        UserCredentialStore store = (UserCredentialStore) UserStoragePrivateUtil.userLocalStorage(s);
+        for (int i = 0; i < users; i++) {
+            UserModel user = s.users().addUser(realm, "user-" + i);
+            passwordIds.add(store.createCredential(realm, user, PasswordCredentialModel.createFromValues("pbkdf2-sha256", new byte[16], 27500, "dummy")).getId());
+            store.createCredential(realm, user, OTPCredentialModel.createTOTP("secret", 6, 30, "HmacSHA1"));
+        }
+        return realm.getId();
+    }
+}